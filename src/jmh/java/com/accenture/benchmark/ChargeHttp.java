@@ -0,0 +1,171 @@
+package com.accenture.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test de charge HTTP en boucle fermée sur une instance démarrée (PostgreSQL local, voir application.properties) :
+ * chaque client est un thread virtuel qui envoie une requête, attend la réponse, puis recommence.
+ * Le rapport donne le débit, le nombre maximum de requêtes en vol et les percentiles de latence,
+ * mesurés après une période de chauffe.
+ * <p>
+ * Pour comparer les deux modes d'exécution, lancer l'application avec {@code --spring.threads.virtual.enabled=true}
+ * puis {@code false}, et la même commande :
+ * {@code mvn -P benchmarks test-compile exec:exec@charge -Dcharge.args="http://localhost:8080/voitures 2000 PT60S"}.
+ * Arguments : url, nombre de clients, durée (ISO-8601), et en option {@code utilisateur:motdepasse} (HTTP Basic).
+ * Au-delà de 1000 clients, relever la limite de descripteurs de fichiers ({@code ulimit -n}) des deux côtés.
+ * <p>
+ * En boucle fermée, un serveur lent ralentit aussi les clients : les percentiles sous-estiment la latence
+ * qu'aurait un débit d'arrivée constant. Ils suffisent pour comparer deux configurations à nombre de clients égal.
+ */
+public final class ChargeHttp {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] LIBELLES = {"p50", "p90", "p99", "p99.9"};
+
+    private ChargeHttp() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage : ChargeHttp <url> <clients> <durée ISO-8601> [utilisateur:motdepasse]");
+            System.exit(1);
+        }
+        URI url = URI.create(args[0]);
+        int clients = Integer.parseInt(args[1]);
+        Duration duree = Duration.parse(args[2]);
+        Duration chauffe = duree.dividedBy(6).compareTo(Duration.ofSeconds(10)) < 0 ? duree.dividedBy(6) : Duration.ofSeconds(10);
+
+        HttpRequest.Builder modele = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(30)).GET();
+        if (args.length > 3)
+            modele.header("Authorization", "Basic " + Base64.getEncoder().encodeToString(args[3].getBytes(StandardCharsets.UTF_8)));
+        HttpRequest requete = modele.build();
+
+        Mesures mesures = new Mesures();
+        List<long[]> latences;
+        long debutMesure = System.nanoTime() + chauffe.toNanos();
+        long fin = debutMesure + duree.minus(chauffe).toNanos();
+        try (HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+             ExecutorService executeur = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Client> lances = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                Client client = new Client(http, requete, mesures, debutMesure, fin);
+                lances.add(client);
+                executeur.submit(client);
+            }
+            System.out.printf("%d clients sur %s pendant %s (chauffe %s)%n", clients, url, duree, chauffe);
+            executeur.shutdown();
+            executeur.awaitTermination(duree.toSeconds() + 60, TimeUnit.SECONDS);
+            latences = lances.stream().map(Client::latences).toList();
+        }
+        rapport(latences, mesures, duree.minus(chauffe));
+    }
+
+    private static void rapport(List<long[]> parClient, Mesures mesures, Duration fenetre) {
+        long[] toutes = parClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("requêtes : %d, erreurs : %d, débit : %.0f req/s, en vol max : %d%n",
+                toutes.length, mesures.erreurs.get(), toutes.length / (fenetre.toMillis() / 1000.0), mesures.enVolMax.get());
+        if (mesures.premiereErreur.get() != null)
+            System.out.println("première erreur : " + mesures.premiereErreur.get());
+        if (toutes.length == 0)
+            return;
+        StringBuilder ligne = new StringBuilder("latence (ms) :");
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            int rang = (int) Math.ceil(PERCENTILES[i] / 100 * toutes.length) - 1;
+            ligne.append(String.format(" %s=%.1f", LIBELLES[i], toutes[Math.max(rang, 0)] / 1e6));
+        }
+        ligne.append(String.format(" max=%.1f", toutes[toutes.length - 1] / 1e6));
+        System.out.println(ligne);
+    }
+
+    private static final class Mesures {
+        final AtomicLong erreurs = new AtomicLong();
+        final AtomicInteger enVol = new AtomicInteger();
+        final AtomicInteger enVolMax = new AtomicInteger();
+        final AtomicReference<String> premiereErreur = new AtomicReference<>();
+
+        void entree() {
+            enVolMax.accumulateAndGet(enVol.incrementAndGet(), Math::max);
+        }
+
+        void sortie() {
+            enVol.decrementAndGet();
+        }
+    }
+
+    /**
+     * Un client : ses latences sont gardées dans son propre tableau, sans synchronisation pendant la mesure.
+     */
+    private static final class Client implements Runnable {
+        private final HttpClient http;
+        private final HttpRequest requete;
+        private final Mesures mesures;
+        private final long debutMesure;
+        private final long fin;
+        private long[] latences = new long[1024];
+        private int nombre;
+
+        Client(HttpClient http, HttpRequest requete, Mesures mesures, long debutMesure, long fin) {
+            this.http = http;
+            this.requete = requete;
+            this.mesures = mesures;
+            this.debutMesure = debutMesure;
+            this.fin = fin;
+        }
+
+        @Override
+        public void run() {
+            long debut;
+            while ((debut = System.nanoTime()) < fin) {
+                String erreur = null;
+                mesures.entree();
+                try {
+                    int statut = http.send(requete, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (statut >= 400)
+                        erreur = "statut HTTP " + statut;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    erreur = e.toString();
+                } finally {
+                    mesures.sortie();
+                }
+                if (debut < debutMesure)
+                    continue;
+                if (erreur != null) {
+                    mesures.erreurs.incrementAndGet();
+                    mesures.premiereErreur.compareAndSet(null, erreur);
+                } else
+                    enregistrer(System.nanoTime() - debut);
+            }
+        }
+
+        private void enregistrer(long latence) {
+            if (nombre == latences.length)
+                latences = Arrays.copyOf(latences, nombre * 2);
+            latences[nombre++] = latence;
+        }
+
+        long[] latences() {
+            return Arrays.copyOf(latences, nombre);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.accenture.benchmark;
+
+import com.accenture.model.param.Accessoires;
+import com.accenture.model.param.TypeVehiculeEnum;
+import com.accenture.repository.VehiculeCatalogueDao;
+import com.accenture.service.TarificationService;
+import com.accenture.service.TarificationServiceImpl;
+import com.accenture.service.dto.DemandeDevisDto;
+import com.accenture.service.dto.DevisDto;
+import com.accenture.service.dto.TarifVehiculeDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * TarificationServiceImpl.deviser : un lot de {@code demandes} combinaisons (voiture, période, accessoires)
+ * sur une flotte de 10 000 voitures, comme la page de comparaison. La lecture des tarifs dans le catalogue
+ * est simulée en mémoire : seul le calcul est mesuré.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DevisBenchmark {
+
+    private static final int FLOTTE = 10_000;
+
+    @Param({"100", "5000"})
+    int demandes;
+
+    TarificationService tarificationService;
+    List<DemandeDevisDto> lot;
+
+    @Setup
+    public void preparer() {
+        Map<Long, TarifVehiculeDto> tarifs = Flottes.voitures(FLOTTE).stream()
+                .map(voiture -> new TarifVehiculeDto(voiture.getId(), TypeVehiculeEnum.VOITURE, voiture.getTarifJournalier()))
+                .collect(Collectors.toMap(TarifVehiculeDto::id, Function.identity()));
+        VehiculeCatalogueDao catalogueDao = FauxDao.de(VehiculeCatalogueDao.class, List.of(), t -> t)
+                .avec("trouverTarifsLouables", args -> ((Collection<?>) args[0]).stream().map(tarifs::get).toList())
+                .creer();
+        tarificationService = new TarificationServiceImpl(catalogueDao, 25, 10_000);
+
+        Random r = new Random(42);
+        List<Accessoires> accessoires = List.of(Accessoires.GPS_VOITURE, Accessoires.SIEGE_BEBE_VOITURE);
+        lot = new ArrayList<>(demandes);
+        for (int i = 0; i < demandes; i++) {
+            LocalDate debut = LocalDate.of(2025, 1, 1).plusDays(r.nextInt(365));
+            lot.add(new DemandeDevisDto(1L + r.nextInt(FLOTTE), debut, debut.plusDays(r.nextInt(14)),
+                    accessoires.subList(0, r.nextInt(3)), r.nextInt(1000)));
+        }
+    }
+
+    @Benchmark
+    public List<DevisDto> deviser() {
+        return tarificationService.deviser(lot);
+    }
+}
@@ -0,0 +1,57 @@
+package com.accenture.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * DAO en mémoire pour les bancs d'essai : un proxy dynamique sur l'interface du DAO, adossé à une liste.
+ * findAll renvoie la liste entière, findById cherche par identifiant, save renvoie l'entité.
+ * Les autres méthodes doivent être fournies par {@link #avec} ; sinon elles lèvent UnsupportedOperationException.
+ */
+public final class FauxDao<D> {
+
+    private final Class<D> type;
+    private final List<?> donnees;
+    private final Map<Object, Object> parId = new HashMap<>();
+    private final Map<String, Function<Object[], Object>> methodes = new HashMap<>();
+
+    private <T> FauxDao(Class<D> type, List<T> donnees, Function<T, ?> identifiant) {
+        this.type = type;
+        this.donnees = donnees;
+        for (T entite : donnees)
+            parId.put(identifiant.apply(entite), entite);
+    }
+
+    public static <D, T> FauxDao<D> de(Class<D> type, List<T> donnees, Function<T, ?> identifiant) {
+        return new FauxDao<>(type, donnees, identifiant);
+    }
+
+    public FauxDao<D> avec(String methode, Function<Object[], Object> reponse) {
+        methodes.put(methode, reponse);
+        return this;
+    }
+
+    public D creer() {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (moi, methode, args) -> {
+            Function<Object[], Object> specifique = methodes.get(methode.getName());
+            if (specifique != null)
+                return specifique.apply(args);
+            return switch (methode.getName()) {
+                case "findAll" -> donnees;
+                case "findById" -> Optional.ofNullable(parId.get(args[0]));
+                case "existsById" -> parId.containsKey(args[0]);
+                case "count" -> (long) donnees.size();
+                case "save" -> args[0];
+                case "hashCode" -> System.identityHashCode(moi);
+                case "equals" -> moi == args[0];
+                case "toString" -> "FauxDao<" + type.getSimpleName() + ">";
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + methode.getName());
+            };
+        });
+        return type.cast(proxy);
+    }
+}
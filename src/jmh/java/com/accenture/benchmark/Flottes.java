@@ -0,0 +1,142 @@
+package com.accenture.benchmark;
+
+import com.accenture.model.param.Carburant;
+import com.accenture.model.param.Permis;
+import com.accenture.repository.entity.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Jeux de données synthétiques pour les bancs d'essai, reproductibles (graine fixe).
+ * Les valeurs sont tirées dans de petits domaines pour que les critères de recherche des bancs
+ * retiennent une fraction réaliste de la flotte.
+ * Chaque type de véhicule a sa plage d'identifiants, comme avec le compteur commun en base :
+ * les quatre flottes peuvent être rangées ensemble dans un même index.
+ */
+public final class Flottes {
+
+    static final String[] MARQUES = {"Renault", "Peugeot", "Citroen", "Toyota", "Yamaha", "Honda", "BMW", "Ford", "Decathlon", "Iveco"};
+    static final String[] COULEURS = {"Rouge", "Noir", "Blanc", "Gris", "Bleu"};
+    static final String[] TYPES_VOITURE = {"Citadine", "Berline", "SUV", "Familiales", "Voiture électrique", "Voiture de luxe"};
+    static final String[] TRANSMISSIONS = {"automatique", "manuelle"};
+    static final String[] NOMS = {"Martin", "Bernard", "Dubois", "Durand", "Moreau", "Laurent", "Simon", "Michel"};
+    static final String[] VILLES = {"Nantes", "Rennes", "Paris", "Lyon", "Lille"};
+
+    private Flottes() {
+    }
+
+    public static List<Voiture> voitures(int taille) {
+        return generer(taille, (i, r) -> {
+            Voiture voiture = new Voiture();
+            remplir(voiture, i, r);
+            voiture.setType(TYPES_VOITURE[r.nextInt(TYPES_VOITURE.length)]);
+            voiture.setNombreDePlaces(2 + r.nextInt(6));
+            voiture.setNombreDePortes(r.nextBoolean() ? 3 : 5);
+            voiture.setTransmission(TRANSMISSIONS[r.nextInt(2)]);
+            voiture.setClim(r.nextBoolean());
+            voiture.setNombreDeBagages(r.nextInt(6));
+            voiture.setPermis(Permis.B);
+            voiture.setCarburant(Carburant.values()[r.nextInt(Carburant.values().length)]);
+            return voiture;
+        });
+    }
+
+    public static List<Moto> motos(int taille) {
+        return generer(taille, (i, r) -> {
+            Moto moto = new Moto();
+            remplir(moto, 1_000_000 + i, r);
+            moto.setNombreCylindres(1 + r.nextInt(4));
+            moto.setPoids(120 + r.nextInt(150));
+            moto.setPuissanceEnkW(10 + r.nextInt(100));
+            moto.setHauteurSelle(700 + r.nextInt(200));
+            moto.setTransmission(TRANSMISSIONS[r.nextInt(2)]);
+            moto.setPermis(r.nextBoolean() ? Permis.A : Permis.A2);
+            return moto;
+        });
+    }
+
+    public static List<Velo> velos(int taille) {
+        return generer(taille, (i, r) -> {
+            Velo velo = new Velo();
+            remplir(velo, 2_000_000 + i, r);
+            velo.setTailleCadre(45 + r.nextInt(20));
+            velo.setPoids(8 + r.nextInt(20));
+            velo.setElectrique(r.nextBoolean());
+            velo.setCapaciteBatterie(r.nextInt(700));
+            velo.setAutonomie(r.nextInt(120));
+            velo.setFreinsADisque(r.nextBoolean());
+            return velo;
+        });
+    }
+
+    public static List<Utilitaire> utilitaires(int taille) {
+        return generer(taille, (i, r) -> {
+            Utilitaire utilitaire = new Utilitaire();
+            remplir(utilitaire, 3_000_000 + i, r);
+            utilitaire.setNombreDePlace(2 + r.nextInt(7));
+            utilitaire.setCarburant(Carburant.values()[r.nextInt(Carburant.values().length)]);
+            utilitaire.setTransmission(TRANSMISSIONS[r.nextInt(2)]);
+            utilitaire.setClim(r.nextBoolean());
+            utilitaire.setChargeMax(500 + r.nextInt(3000));
+            utilitaire.setPoidsPATC(2000.0 + r.nextInt(1500));
+            utilitaire.setCapaciteM3(5 + r.nextInt(20));
+            utilitaire.setPermis(Permis.B);
+            return utilitaire;
+        });
+    }
+
+    public static List<Client> clients(int taille) {
+        return generer(taille, (i, r) -> {
+            Client client = new Client();
+            client.setMail("client" + i + "@mail.com");
+            client.setPassword("{noop}Password123&");
+            client.setNom(NOMS[r.nextInt(NOMS.length)]);
+            client.setPrenom("Prenom" + r.nextInt(100));
+            client.setAdresse(new Adresse(i, i + " rue de la Paix", String.valueOf(44000 + r.nextInt(100)), VILLES[r.nextInt(VILLES.length)]));
+            client.setDateNaissance(LocalDate.of(1950 + r.nextInt(50), 1 + r.nextInt(12), 1 + r.nextInt(28)));
+            client.setDateInscription(LocalDate.of(2020 + r.nextInt(5), 1 + r.nextInt(12), 1 + r.nextInt(28)));
+            client.setListePermis(new ArrayList<>(List.of(Permis.B)));
+            client.setDesactive(r.nextInt(10) == 0);
+            return client;
+        });
+    }
+
+    public static List<Administrateur> administrateurs(int taille) {
+        return generer(taille, (i, r) -> {
+            Administrateur administrateur = new Administrateur();
+            administrateur.setMail("admin" + i + "@mail.com");
+            administrateur.setPassword("{noop}Password123&");
+            administrateur.setNom(NOMS[r.nextInt(NOMS.length)]);
+            administrateur.setPrenom("Prenom" + r.nextInt(100));
+            administrateur.setFonction(r.nextBoolean() ? "Gestionnaire de parc" : "Responsable agence");
+            return administrateur;
+        });
+    }
+
+    private static void remplir(Vehicule vehicule, long rang, Random r) {
+        vehicule.setId(rang + 1L);
+        vehicule.setMarque(MARQUES[r.nextInt(MARQUES.length)]);
+        vehicule.setModele("Modele " + r.nextInt(50));
+        vehicule.setCouleur(COULEURS[r.nextInt(COULEURS.length)]);
+        vehicule.setTarifJournalier(20 + r.nextInt(200));
+        vehicule.setKilometrage(r.nextInt(200_000));
+        vehicule.setActif(r.nextInt(10) != 0);
+        vehicule.setRetireDuParc(r.nextInt(20) == 0);
+        vehicule.setListeAccessoires(new ArrayList<>());
+    }
+
+    private interface Fabrique<T> {
+        T creer(int i, Random r);
+    }
+
+    private static <T> List<T> generer(int taille, Fabrique<T> fabrique) {
+        Random r = new Random(42);
+        List<T> liste = new ArrayList<>(taille);
+        for (int i = 0; i < taille; i++)
+            liste.add(fabrique.creer(i, r));
+        return liste;
+    }
+}
@@ -0,0 +1,49 @@
+package com.accenture.benchmark;
+
+import com.accenture.configuration.journal.JournalAccesFilter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût du journal d'accès par requête, avec et sans JournalAccesFilter, en échantillonnant chaque appel
+ * (Mode.SampleTime) : le rapport JMH donne p50, p99 et p99.9. La ligne part dans l'appender asynchrone
+ * configuré par logback.xml, comme en production. Plusieurs threads pour mettre la file sous pression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class JournalAccesBenchmark {
+
+    private static final byte[] CORPS = new byte[512];
+
+    JournalAccesFilter filtre = new JournalAccesFilter();
+    FilterChain controleur = (request, response) -> {
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/voitures/{id}");
+        response.getOutputStream().write(CORPS);
+    };
+
+    @Benchmark
+    public MockHttpServletResponse sansJournal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/voitures/12");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controleur.doFilter(request, response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse avecJournal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/voitures/12");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtre.doFilter(request, response, controleur);
+        return response;
+    }
+}
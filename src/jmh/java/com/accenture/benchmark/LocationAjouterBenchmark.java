@@ -0,0 +1,83 @@
+package com.accenture.benchmark;
+
+import com.accenture.exception.LocationException;
+import com.accenture.model.param.Etat;
+import com.accenture.repository.ClientDao;
+import com.accenture.repository.LocationDao;
+import com.accenture.repository.VehiculeCatalogueDao;
+import com.accenture.repository.VehiculeDao;
+import com.accenture.repository.entity.Client;
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.repository.entity.Voiture;
+import com.accenture.service.DisponibiliteVehicules;
+import com.accenture.service.LocationService;
+import com.accenture.service.LocationServiceImpl;
+import com.accenture.service.TarificationServiceImpl;
+import com.accenture.service.dto.LocationRequestDto;
+import com.accenture.service.dto.LocationResponseDto;
+import com.accenture.service.mapper.LocationMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LocationServiceImpl.ajouter : rejet d'une demande invalide (validation seule)
+ * et ajout complet d'une location, contrôle de disponibilité compris, sur {@code taille} véhicules.
+ * Chaque ajout réserve la semaine suivante d'un véhicule pris à tour de rôle : les plannings grossissent
+ * au fil de la mesure, comme en production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationAjouterBenchmark {
+
+    @Param({"100", "10000"})
+    int taille;
+
+    LocationService locationService;
+    LocationRequestDto demandeInvalide;
+    long compteur;
+
+    @Setup
+    public void preparer() {
+        List<Voiture> voitures = Flottes.voitures(taille);
+        voitures.forEach(voiture -> {
+            voiture.setActif(true);
+            voiture.setRetireDuParc(false);
+        });
+        List<Client> clients = Flottes.clients(1);
+        LocationDao locationDao = FauxDao.de(LocationDao.class, List.of(), l -> l)
+                .avec("trouverPeriodesOccupees", args -> List.of())
+                .creer();
+        VehiculeDao vehiculeDao = FauxDao.de(VehiculeDao.class, List.<Vehicule>copyOf(voitures), Vehicule::getId).creer();
+        locationService = new LocationServiceImpl(locationDao, new LocationMapperImpl(), vehiculeDao,
+                FauxDao.de(ClientDao.class, clients, Client::getMail).creer(),
+                new DisponibiliteVehicules(locationDao, 10_000),
+                new TarificationServiceImpl(FauxDao.de(VehiculeCatalogueDao.class, List.of(), t -> t).creer(), 25, 10_000));
+        demandeInvalide = new LocationRequestDto("client0@mail.com", 1L, List.of(),
+                LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 1), 0, Etat.RESERVE);
+    }
+
+    @Benchmark
+    public Object validationRejet() {
+        try {
+            return locationService.ajouter(demandeInvalide);
+        } catch (LocationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public LocationResponseDto ajouter() {
+        long n = compteur++;
+        long vehiculeId = n % taille + 1;
+        LocalDate debut = LocalDate.of(2025, 1, 1).plusWeeks(n / taille);
+        return locationService.ajouter(new LocationRequestDto("client0@mail.com", vehiculeId, List.of(),
+                debut, debut.plusDays(6), 0, Etat.RESERVE));
+    }
+}
@@ -0,0 +1,100 @@
+package com.accenture.benchmark;
+
+import com.accenture.model.param.Carburant;
+import com.accenture.model.param.Etat;
+import com.accenture.model.param.Permis;
+import com.accenture.repository.entity.*;
+import com.accenture.service.dto.*;
+import com.accenture.service.mapper.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion d'une entité en DTO de réponse, et d'un DTO de requête en entité, par les mappeurs MapStruct.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappeurBenchmark {
+
+    VoitureMapper voitureMapper = new VoitureMapperImpl();
+    MotoMapper motoMapper = new MotoMapperImpl();
+    VeloMapper veloMapper = new VeloMapperImpl();
+    UtilitaireMapper utilitaireMapper = new UtilitaireMapperImpl();
+    ClientMapper clientMapper = Mappeurs.client();
+    AdministrateurMapper administrateurMapper = new AdministrateurMapperImpl();
+    LocationMapper locationMapper = new LocationMapperImpl();
+
+    Voiture voiture = Flottes.voitures(1).getFirst();
+    Moto moto = Flottes.motos(1).getFirst();
+    Velo velo = Flottes.velos(1).getFirst();
+    Utilitaire utilitaire = Flottes.utilitaires(1).getFirst();
+    Client client = Flottes.clients(1).getFirst();
+    Administrateur administrateur = Flottes.administrateurs(1).getFirst();
+    Location location;
+
+    VoitureRequestDto voitureRequestDto = new VoitureRequestDto("Renault", "Clio", "Rouge", "Citadine", 5, 5,
+            "manuelle", true, 3, Carburant.values()[0], 45, 12000, true, false);
+    ClientRequestDto clientRequestDto = new ClientRequestDto("client@mail.com", "Password123&", "Martin", "Jean",
+            new AdresseDto("1 rue de la Paix", "44000", "Nantes"), LocalDate.of(1990, 1, 1), List.of(Permis.B));
+    LocationRequestDto locationRequestDto = new LocationRequestDto("client@mail.com", 1L, List.of(),
+            LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 10), 0, Etat.RESERVE);
+
+    @Setup
+    public void preparer() {
+        location = locationMapper.toLocation(locationRequestDto);
+        location.setClient(client);
+        location.setVehicule(voiture);
+    }
+
+    @Benchmark
+    public VoitureResponseDto voitureVersDto() {
+        return voitureMapper.toVoitureResponseDto(voiture);
+    }
+
+    @Benchmark
+    public Voiture dtoVersVoiture() {
+        return voitureMapper.toVoiture(voitureRequestDto);
+    }
+
+    @Benchmark
+    public MotoResponseDto motoVersDto() {
+        return motoMapper.toMotoResponseDto(moto);
+    }
+
+    @Benchmark
+    public VeloResponseDto veloVersDto() {
+        return veloMapper.toVeloResponseDto(velo);
+    }
+
+    @Benchmark
+    public UtilitaireResponseDto utilitaireVersDto() {
+        return utilitaireMapper.toUtilitaireResponseDto(utilitaire);
+    }
+
+    @Benchmark
+    public ClientResponseDto clientVersDto() {
+        return clientMapper.toClientResponseDto(client);
+    }
+
+    @Benchmark
+    public Client dtoVersClient() {
+        return clientMapper.toClient(clientRequestDto);
+    }
+
+    @Benchmark
+    public AdministrateurResponseDto administrateurVersDto() {
+        return administrateurMapper.toAdministrateurResponseDto(administrateur);
+    }
+
+    @Benchmark
+    public LocationResponseDto locationVersDto() {
+        return locationMapper.toLocationResponseDto(location);
+    }
+}
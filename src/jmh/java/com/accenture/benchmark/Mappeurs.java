@@ -0,0 +1,31 @@
+package com.accenture.benchmark;
+
+import com.accenture.service.mapper.*;
+
+import java.lang.reflect.Field;
+
+/**
+ * Instancie les mappeurs MapStruct hors de Spring : les mappeurs qui en utilisent d'autres
+ * (uses = ...) les reçoivent par injection de champ, faite ici par réflexion.
+ */
+final class Mappeurs {
+
+    private Mappeurs() {
+    }
+
+    static ClientMapper client() {
+        ClientMapperImpl mapper = new ClientMapperImpl();
+        injecter(mapper, "adresseMapper", new AdresseMapperImpl());
+        return mapper;
+    }
+
+    private static void injecter(Object cible, String champ, Object valeur) {
+        try {
+            Field field = cible.getClass().getDeclaredField(champ);
+            field.setAccessible(true);
+            field.set(cible, valeur);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Impossible d'injecter " + champ + " dans " + cible.getClass().getSimpleName(), e);
+        }
+    }
+}
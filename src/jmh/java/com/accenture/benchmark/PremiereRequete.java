@@ -0,0 +1,132 @@
+package com.accenture.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Temps de démarrage à froid : lance l'application, mesure le délai jusqu'à la première réponse à une requête HTTP,
+ * puis l'arrête, autant de fois que demandé. Chaque lancement est un nouveau processus, donc une JVM froide.
+ * <p>
+ * Le rapport donne, pour chaque lancement puis en min / médiane / max, le temps jusqu'à la première requête servie
+ * (mesuré de l'extérieur, JVM comprise) et le temps annoncé par Spring ({@code Started ... in X seconds}).
+ * Une réponse d'erreur du client (401, 404...) compte comme servie ; une erreur 5xx ne compte pas.
+ * <p>
+ * Pour comparer les constructions, avec une base PostgreSQL démarrée :
+ * {@code mvn -P benchmarks test-compile exec:exec@demarrage -Ddemarrage.args="http://localhost:8080/voitures 5 java -jar target/locationDeVehicule-0.0.1-SNAPSHOT.jar"},
+ * puis après {@code mvn -P production package} la même mesure avec la commande
+ * {@code java -XX:SharedArchiveFile=target/application/application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=production -jar target/application/locationDeVehicule-0.0.1-SNAPSHOT.jar}.
+ * Arguments : url, nombre de lancements, puis la commande de lancement.
+ */
+public final class PremiereRequete {
+
+    private static final Pattern DEMARRE = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+    private static final Duration DELAI_MAX = Duration.ofMinutes(2);
+    private static final Duration ATTENTE = Duration.ofMillis(10);
+
+    private PremiereRequete() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage : PremiereRequete <url> <lancements> <commande...>");
+            System.exit(1);
+        }
+        URI url = URI.create(args[0]);
+        int lancements = Integer.parseInt(args[1]);
+        List<String> commande = List.of(Arrays.copyOfRange(args, 2, args.length));
+
+        double[] premieresRequetes = new double[lancements];
+        double[] annonces = new double[lancements];
+        try (HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build()) {
+            HttpRequest requete = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(30)).GET().build();
+            for (int i = 0; i < lancements; i++) {
+                double[] mesure = lancer(commande, http, requete);
+                premieresRequetes[i] = mesure[0];
+                annonces[i] = mesure[1];
+                System.out.printf("lancement %d : première requête servie après %.0f ms (démarrage annoncé : %.0f ms)%n",
+                        i + 1, mesure[0], mesure[1]);
+            }
+        }
+        rapport("première requête servie", premieresRequetes);
+        rapport("démarrage annoncé par Spring", annonces);
+    }
+
+    /**
+     * @return le temps jusqu'à la première réponse et le temps annoncé dans le journal, en millisecondes
+     * (NaN si le journal ne l'annonce pas)
+     */
+    private static double[] lancer(List<String> commande, HttpClient http, HttpRequest requete) throws Exception {
+        long debut = System.nanoTime();
+        Process processus = new ProcessBuilder(commande).redirectErrorStream(true).start();
+        AtomicReference<Double> annonce = new AtomicReference<>(Double.NaN);
+        Thread lecteur = Thread.ofVirtual().start(() -> lire(processus, annonce));
+        try {
+            long limite = debut + DELAI_MAX.toNanos();
+            while (true) {
+                if (!processus.isAlive())
+                    throw new IllegalStateException("L'application s'est arrêtée avant de répondre, code " + processus.exitValue());
+                if (System.nanoTime() > limite)
+                    throw new IllegalStateException("Pas de réponse de " + requete.uri() + " après " + DELAI_MAX);
+                try {
+                    int statut = http.send(requete, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (statut < 500)
+                        break;
+                } catch (IOException e) {
+                    // pas encore à l'écoute
+                }
+                Thread.sleep(ATTENTE);
+            }
+            double premiereRequete = (System.nanoTime() - debut) / 1e6;
+            return new double[]{premiereRequete, annonce.get()};
+        } finally {
+            arreter(processus);
+            lecteur.join(Duration.ofSeconds(5));
+        }
+    }
+
+    /**
+     * Vide la sortie du processus (sans quoi il se bloquerait une fois le tampon plein) et relève le temps annoncé.
+     */
+    private static void lire(Process processus, AtomicReference<Double> annonce) {
+        try (BufferedReader sortie = new BufferedReader(new InputStreamReader(processus.getInputStream(), StandardCharsets.UTF_8))) {
+            String ligne;
+            while ((ligne = sortie.readLine()) != null) {
+                Matcher demarre = DEMARRE.matcher(ligne);
+                if (demarre.find())
+                    annonce.set(Double.parseDouble(demarre.group(1)) * 1000);
+            }
+        } catch (IOException e) {
+            // processus arrêté
+        }
+    }
+
+    private static void arreter(Process processus) throws InterruptedException {
+        processus.descendants().forEach(ProcessHandle::destroy);
+        processus.destroy();
+        if (!processus.waitFor(30, TimeUnit.SECONDS))
+            processus.destroyForcibly().waitFor();
+    }
+
+    private static void rapport(String libelle, double[] mesures) {
+        double[] triees = mesures.clone();
+        Arrays.sort(triees);
+        System.out.printf("%s (ms) : min=%.0f médiane=%.0f max=%.0f%n",
+                libelle, triees[0], triees[triees.length / 2], triees[triees.length - 1]);
+    }
+}
@@ -0,0 +1,108 @@
+package com.accenture.benchmark;
+
+import com.accenture.model.param.TriVehicule;
+import com.accenture.repository.*;
+import com.accenture.repository.entity.*;
+import com.accenture.service.*;
+import com.accenture.service.dto.*;
+import com.accenture.service.mapper.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Méthodes rechercher des services sur une flotte synthétique de {@code taille} éléments par type.
+ * Chaque banc utilise des critères usuels (une marque et un statut) ; le résultat est renvoyé
+ * pour que JMH ne puisse pas éliminer le calcul.
+ * <p>
+ * Les recherches de clients et d'administrateurs se font en base, par des requêtes indexées :
+ * voir {@link RechercheClientsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RechercheBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int taille;
+
+    VoitureService voitureService;
+    MotoService motoService;
+    VeloService veloService;
+    UtilitaireService utilitaireService;
+
+    @Setup
+    public void preparer() {
+        List<Voiture> voitures = Flottes.voitures(taille);
+        List<Moto> motos = Flottes.motos(taille);
+        List<Velo> velos = Flottes.velos(taille);
+        List<Utilitaire> utilitaires = Flottes.utilitaires(taille);
+        List<Vehicule> flotte = new ArrayList<>();
+        Stream.of(voitures, motos, velos, utilitaires).forEach(flotte::addAll);
+        IndexVehicules index = new IndexVehicules(
+                FauxDao.de(VehiculeDao.class, flotte, Vehicule::getId).creer(), Duration.ofDays(1));
+        // index activé (index-vehicules.actif=true) : les recherches ne vont pas en base
+        RechercheVehicules recherche = new RechercheVehicules(
+                new StaticListableBeanFactory(Map.of("indexVehicules", index)).getBeanProvider(IndexVehicules.class));
+
+        // l'import par lots et le rejeu des modifications ne sont pas mesurés ici
+        voitureService = new VoitureServiceImpl(
+                FauxDao.de(VoitureDao.class, voitures, Voiture::getId).creer(), new VoitureMapperImpl(), null, recherche, null);
+        motoService = new MotoServiceImpl(
+                FauxDao.de(MotoDao.class, motos, Moto::getId).creer(), new MotoMapperImpl(), null, recherche, null);
+        veloService = new VeloServiceImpl(
+                FauxDao.de(VeloDao.class, velos, Velo::getId).creer(), new VeloMapperImpl(), null, recherche, null);
+        utilitaireService = new UtilitaireServiceImpl(
+                FauxDao.de(UtilitaireDao.class, utilitaires, Utilitaire::getId).creer(), new UtilitaireMapperImpl(), null, recherche, null);
+        // l'index est chargé ici, pas pendant la première itération mesurée
+        index.rechercher(Vehicule.class, new RequeteVehicules());
+    }
+
+    /**
+     * Les quatre recherches de véhicules passent par l'{@link IndexVehicules} activé : ces bancs mesurent l'intersection
+     * des BitSets, la vérification des candidats et la conversion en DTO des résultats.
+     */
+    @Benchmark
+    public List<VoitureResponseDto> rechercherVoitures() {
+        return voitureService.rechercher(null, "Renault", null, null, null, null, null, null, null,
+                null, null, null, null, null, true, false, OptionsRechercheDto.AUCUNE);
+    }
+
+    /**
+     * Les 20 voitures actives les moins chères sous 50 000 km : seules 20 lignes sont gardées pendant le parcours.
+     */
+    @Benchmark
+    public List<VoitureResponseDto> rechercherVoituresMoinsCheres() {
+        return voitureService.rechercher(null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null, true, false,
+                new OptionsRechercheDto(null, null, null, 50_000L, TriVehicule.TARIF_JOURNALIER, Sort.Direction.ASC, 0, 20));
+    }
+
+    @Benchmark
+    public List<MotoResponseDto> rechercherMotos() {
+        return motoService.rechercher(null, "Yamaha", null, null, null, null, null, null, null,
+                null, null, null, true, false, OptionsRechercheDto.AUCUNE);
+    }
+
+    @Benchmark
+    public List<VeloResponseDto> rechercherVelos() {
+        return veloService.rechercher(null, "Decathlon", null, null, null, null, true, null, null,
+                null, null, null, true, false, OptionsRechercheDto.AUCUNE);
+    }
+
+    @Benchmark
+    public List<UtilitaireResponseDto> rechercherUtilitaires() {
+        return utilitaireService.rechercher(null, "Iveco", null, null, null, null, null, null, null,
+                null, null, null, null, null, true, false, OptionsRechercheDto.AUCUNE);
+    }
+}
@@ -0,0 +1,117 @@
+package com.accenture.benchmark;
+
+import com.accenture.LocationDeVehiculeApplication;
+import com.accenture.model.param.Permis;
+import com.accenture.service.ClientService;
+import com.accenture.service.dto.CriteresClientDto;
+import com.accenture.service.dto.PageClientsDto;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche de clients en base ({@link ClientService#rechercher}) sur {@code taille} clients, dans un PostgreSQL
+ * embarqué au schéma des migrations Flyway : mesure la requête indexée des mails d'une page de 50 clients,
+ * puis la lecture de leurs fiches. L'application est démarrée sans serveur web, une fois par essai.
+ * <p>
+ * Les clients sont générés en SQL : un nom parmi 20, un code postal parmi 95 départements, un client sur 50
+ * désactivé, le permis B pour deux clients sur trois et le permis A pour un sur cinq.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RechercheClientsBenchmark {
+
+    private static final String[] NOMS = {"Martin", "Bernard", "Thomas", "Petit", "Robert", "Richard", "Durand",
+            "Dubois", "Moreau", "Laurent", "Simon", "Michel", "Lefebvre", "Leroy", "Roux", "David", "Bertrand",
+            "Morel", "Fournier", "Girard"};
+    private static final String[] VILLES = {"Paris", "Lyon", "Marseille", "Toulouse", "Nice", "Nantes", "Strasbourg",
+            "Montpellier", "Bordeaux", "Lille"};
+
+    @Param({"1000000"})
+    int taille;
+
+    EmbeddedPostgres postgres;
+    ConfigurableApplicationContext application;
+    ClientService clientService;
+    String curseur;
+
+    @Setup
+    public void preparer() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        application = new SpringApplicationBuilder(LocationDeVehiculeApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--logging.level.root=WARN");
+        generer(application.getBean(JdbcTemplate.class));
+        clientService = application.getBean(ClientService.class);
+        curseur = clientService.rechercher(CriteresClientDto.AUCUN, null, 50).curseurSuivant();
+    }
+
+    @TearDown
+    public void arreter() throws IOException {
+        application.close();
+        postgres.close();
+    }
+
+    /**
+     * Partie du nom, clients actifs détenant le permis B : la requête part de l'index trigramme du nom.
+     */
+    @Benchmark
+    public PageClientsDto rechercherParNom() {
+        return clientService.rechercher(
+                new CriteresClientDto(null, null, "Dur", null, null, null, null, false, List.of(Permis.B), null), null, 50);
+    }
+
+    /**
+     * Début du code postal et partie de la ville : index de préfixe du code postal.
+     */
+    @Benchmark
+    public PageClientsDto rechercherParCodePostal() {
+        return clientService.rechercher(
+                new CriteresClientDto(null, null, null, null, null, "690", "Lyon", null, null, null), null, 50);
+    }
+
+    /**
+     * Deuxième page sans critère : parcours de la clé primaire à partir du curseur.
+     */
+    @Benchmark
+    public PageClientsDto pageSuivante() {
+        return clientService.rechercher(CriteresClientDto.AUCUN, curseur, 50);
+    }
+
+    private void generer(JdbcTemplate jdbc) {
+        String noms = tableau(NOMS);
+        String villes = tableau(VILLES);
+        jdbc.update("insert into adresse (rue, code_postal, ville) "
+                + "select i || ' rue de la Gare', lpad((i % 95 + 1)::text, 2, '0') || lpad((i % 1000)::text, 3, '0'), "
+                + villes + "[i % " + VILLES.length + " + 1] from generate_series(1, ?) i", taille);
+        jdbc.update("insert into utilisateurs (mail, role, password, nom, prenom) "
+                + "select 'client' || i || '@mail.fr', 'ROLE_CLIENT', 'x', " + noms + "[i % " + NOMS.length + " + 1], 'Jean' "
+                + "from generate_series(1, ?) i", taille);
+        jdbc.update("insert into client (mail, adresse_id, date_naissance, date_inscription, desactive) "
+                + "select 'client' || i || '@mail.fr', i, date '1950-01-01' + i % 20000, date '2020-01-01' + i % 2000, i % 50 = 0 "
+                + "from generate_series(1, ?) i", taille);
+        jdbc.update("insert into client_liste_permis (client_mail, liste_permis) "
+                + "select 'client' || i || '@mail.fr', " + Permis.B.ordinal() + " from generate_series(1, ?) i where i % 3 <> 0", taille);
+        jdbc.update("insert into client_liste_permis (client_mail, liste_permis) "
+                + "select 'client' || i || '@mail.fr', " + Permis.A.ordinal() + " from generate_series(1, ?) i where i % 5 = 0", taille);
+        jdbc.execute("vacuum analyze");
+    }
+
+    private static String tableau(String[] valeurs) {
+        return "(array['" + String.join("', '", valeurs) + "'])";
+    }
+}
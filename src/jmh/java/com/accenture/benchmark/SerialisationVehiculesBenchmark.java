@@ -0,0 +1,91 @@
+package com.accenture.benchmark;
+
+import com.accenture.repository.entity.*;
+import com.accenture.service.dto.VehiculeResponseDto;
+import com.accenture.service.mapper.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Sérialisation JSON de la réponse de {@code /vehicules/tous} pour une flotte de {@value #TAILLE} véhicules
+ * des quatre types, ramenée à un véhicule : le score est en µs par véhicule, et la taille du JSON par véhicule
+ * est affichée au démarrage de chaque essai.
+ * <p>
+ * {@code representation} : {@code ENTITES} sérialise les entités, comme la réponse avant les DTO (avec la version
+ * et les accessoires) ; {@code DTO} les DTO de réponse par type ; {@code DTO_BLACKBIRD} les mêmes DTO avec le
+ * module Blackbird de l'application (voir JsonConfiguration). L'ObjectMapper est construit comme celui de Spring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerialisationVehiculesBenchmark {
+
+    static final int TAILLE = 1000;
+
+    private static final VoitureMapper VOITURES = new VoitureMapperImpl();
+    private static final MotoMapper MOTOS = new MotoMapperImpl();
+    private static final VeloMapper VELOS = new VeloMapperImpl();
+    private static final UtilitaireMapper UTILITAIRES = new UtilitaireMapperImpl();
+
+    public enum Representation { ENTITES, DTO, DTO_BLACKBIRD }
+
+    @Param
+    Representation representation;
+
+    ObjectWriter ecrivain;
+    List<?> reponse;
+
+    @Setup
+    public void preparer() throws JsonProcessingException {
+        Jackson2ObjectMapperBuilder constructeur = Jackson2ObjectMapperBuilder.json();
+        if (representation == Representation.DTO_BLACKBIRD)
+            constructeur.modulesToInstall(new BlackbirdModule());
+        ObjectMapper objectMapper = constructeur.build();
+
+        List<Vehicule> flotte = new ArrayList<>();
+        Stream.of(Flottes.voitures(TAILLE / 4), Flottes.motos(TAILLE / 4), Flottes.velos(TAILLE / 4),
+                Flottes.utilitaires(TAILLE / 4)).forEach(flotte::addAll);
+        flotte.sort(Comparator.comparingLong(Vehicule::getId));
+        reponse = representation == Representation.ENTITES
+                ? flotte
+                : flotte.stream().map(SerialisationVehiculesBenchmark::enDto).toList();
+
+        // les entités par leur type réel, comme dans l'ancienne réponse ; les DTO par le type déclaré du contrôleur,
+        // qui leur fait porter leur type
+        JavaType type = objectMapper.getTypeFactory().constructCollectionType(List.class, VehiculeResponseDto.class);
+        ecrivain = representation == Representation.ENTITES ? objectMapper.writer() : objectMapper.writerFor(type);
+
+        System.out.printf("%n%s : %.1f octets par véhicule%n", representation,
+                (double) ecrivain.writeValueAsBytes(reponse).length / TAILLE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAILLE)
+    public byte[] serialiser() throws JsonProcessingException {
+        return ecrivain.writeValueAsBytes(reponse);
+    }
+
+    private static VehiculeResponseDto enDto(Vehicule vehicule) {
+        return switch (vehicule) {
+            case Voiture voiture -> VOITURES.toVoitureResponseDto(voiture);
+            case Moto moto -> MOTOS.toMotoResponseDto(moto);
+            case Velo velo -> VELOS.toVeloResponseDto(velo);
+            case Utilitaire utilitaire -> UTILITAIRES.toUtilitaireResponseDto(utilitaire);
+            default -> throw new IllegalArgumentException("Type de véhicule inconnu : " + vehicule.getClass());
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.accenture.configuration.cache;
+
+import com.accenture.repository.entity.Vehicule;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Cache de second niveau Hibernate pour le catalogue des véhicules (Ehcache via JCache).
+ * <p>
+ * Deux régions : les véhicules, tous types confondus ({@link Vehicule#REGION_CACHE}), et leurs listes d'accessoires
+ * ({@link Vehicule#REGION_CACHE_ACCESSOIRES}). Chacune est bornée en nombre d'entrées et ses entrées expirent après {@code duree}.
+ * Les régions sont en lecture-écriture : un ajout, une modification ou une suppression faits par JPA
+ * mettent à jour ou retirent l'entrée à la validation de la transaction, les lectures suivantes ne sont jamais périmées.
+ * Les compteurs hits / misses / puts / évictions de chaque région sont publiés sous {@code cache.*} (actuator).
+ */
+@Configuration
+public class CacheVehiculesConfiguration {
+
+    @Bean(destroyMethod = "close")
+    CacheManager cacheManagerHibernate(@Value("${cache-vehicules.duree:PT10M}") Duration duree,
+                                       @Value("${cache-vehicules.taille-max:10000}") long tailleMax) {
+        // URI propre à chaque contexte : deux contextes Spring du même classloader ne partagent pas leurs régions
+        URI uri = URI.create("urn:locationDeVehicule:" + UUID.randomUUID());
+        EhcacheCachingProvider fournisseur = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = fournisseur.getCacheManager(uri, new DefaultConfiguration(getClass().getClassLoader()));
+        var configuration = Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(tailleMax))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(duree)));
+        for (String region : new String[]{Vehicule.REGION_CACHE, Vehicule.REGION_CACHE_ACCESSOIRES}) {
+            cacheManager.createCache(region, configuration);
+            cacheManager.enableStatistics(region, true);
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Branche Hibernate sur le CacheManager ci-dessus ; une région non déclarée fait échouer le démarrage
+     * plutôt que d'être créée sans borne.
+     */
+    @Bean
+    HibernatePropertiesCustomizer cacheSecondNiveau(CacheManager cacheManagerHibernate) {
+        return proprietes -> {
+            proprietes.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            proprietes.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            proprietes.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+            proprietes.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    MeterBinder metriquesCacheVehicules(CacheManager cacheManagerHibernate) {
+        return registre -> cacheManagerHibernate.getCacheNames()
+                .forEach(region -> JCacheMetrics.monitor(registre, cacheManagerHibernate.getCache(region)));
+    }
+}
@@ -0,0 +1,70 @@
+package com.accenture.configuration.demarrage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Initialisation différée des beans non essentiels au service des requêtes (springdoc, par exemple) :
+ * ils sont créés à leur premier usage au lieu de l'être au démarrage.
+ * <p>
+ * Les beans concernés sont ceux dont la classe, ou la classe de configuration qui les déclare, appartient à l'un
+ * des paquets de {@code demarrage.initialisation-differee} ; sans cette propriété rien n'est différé.
+ * Avec le traitement AOT, la liste est lue à la construction et les définitions générées sont déjà différées.
+ */
+@Slf4j
+@Component
+public class InitialisationDifferee implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    static final String PROPRIETE = "demarrage.initialisation-differee";
+
+    private List<String> paquets = List.of();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        paquets = Binder.get(environment).bind(PROPRIETE, Bindable.listOf(String.class)).orElse(List.of());
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (paquets.isEmpty())
+            return;
+        int differes = 0;
+        for (String nom : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(nom);
+            if (definition.isSingleton() && !definition.isLazyInit() && differe(classeDeclarante(definition))) {
+                definition.setLazyInit(true);
+                differes++;
+            }
+        }
+        log.debug("{} beans à initialisation différée ({})", differes, paquets);
+    }
+
+    private boolean differe(String classe) {
+        return classe != null && paquets.stream().anyMatch(paquet -> classe.startsWith(paquet + "."));
+    }
+
+    /**
+     * La classe du bean, ou pour un bean déclaré par une méthode {@code @Bean} la classe de configuration qui la porte.
+     */
+    private static String classeDeclarante(BeanDefinition definition) {
+        if (definition.getBeanClassName() != null)
+            return definition.getBeanClassName();
+        if (definition instanceof AnnotatedBeanDefinition annotee) {
+            MethodMetadata methode = annotee.getFactoryMethodMetadata();
+            if (methode != null)
+                return methode.getDeclaringClassName();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.accenture.configuration.demarrage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Migrations Flyway (db/migration) jouées au démarrage, sauf si {@code demarrage.migrations=false}.
+ * <p>
+ * Avec le traitement AOT, {@code spring.flyway.enabled} est figé à la construction : cette propriété, lue à
+ * l'exécution, permet au démarrage d'entraînement de l'archive CDS (voir pom.xml) de se passer de la base.
+ */
+@Slf4j
+@Configuration
+public class MigrationsConfiguration {
+
+    @Bean
+    FlywayMigrationStrategy strategieMigrations(@Value("${demarrage.migrations:true}") boolean migrations) {
+        return flyway -> {
+            if (migrations)
+                flyway.migrate();
+            else
+                log.info("Migrations du schéma désactivées (demarrage.migrations=false)");
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package com.accenture.configuration.journal;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * Journal d'accès : une seule ligne par requête, écrite à la fin de la réponse dans le logger {@value #LOGGER}.
+ * La ligne contient la méthode, le modèle d'URI du contrôleur (/voitures/{id} plutôt que /voitures/12),
+ * le statut, la durée et les tailles de la requête et de la réponse, au format clé=valeur.
+ * <p>
+ * Placé avant la sécurité pour que les refus (401, 403) soient aussi journalisés.
+ * Pour une réponse asynchrone (flux NDJSON), la ligne est écrite quand la réponse est terminée.
+ * L'écriture sur disque est faite par un appender asynchrone (voir logback.xml).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class JournalAccesFilter extends OncePerRequestFilter {
+
+    static final String LOGGER = "ACCES";
+    private static final Logger journal = LoggerFactory.getLogger(LOGGER);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!journal.isInfoEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long debut = System.nanoTime();
+        ReponseComptee reponse = new ReponseComptee(response);
+        try {
+            filterChain.doFilter(request, reponse);
+        } finally {
+            if (request.isAsyncStarted())
+                request.getAsyncContext().addListener(new FinAsynchrone(request, reponse, debut));
+            else
+                journaliser(request, reponse, debut);
+        }
+    }
+
+    private static void journaliser(HttpServletRequest request, ReponseComptee reponse, long debut) {
+        long dureeMicros = (System.nanoTime() - debut) / 1_000;
+        Object modele = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        journal.info("methode={} uri={} statut={} duree_us={} taille_requete={} taille_reponse={}",
+                request.getMethod(), modele != null ? modele : request.getRequestURI(), reponse.getStatus(),
+                dureeMicros, request.getContentLengthLong(), reponse.taille());
+    }
+
+    private record FinAsynchrone(HttpServletRequest request, ReponseComptee reponse, long debut) implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            journaliser(request, reponse, debut);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete suit toujours
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // onComplete suit toujours
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * Compte ce qui est écrit dans la réponse : des octets par getOutputStream (cas des contrôleurs REST),
+     * des caractères par getWriter (pages d'erreur).
+     */
+    static final class ReponseComptee extends HttpServletResponseWrapper {
+        private long taille;
+        private ServletOutputStream flux;
+        private PrintWriter ecrivain;
+
+        ReponseComptee(HttpServletResponse response) {
+            super(response);
+        }
+
+        long taille() {
+            return taille;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (flux == null) {
+                ServletOutputStream origine = super.getOutputStream();
+                flux = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        origine.write(b);
+                        taille++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        origine.write(b, off, len);
+                        taille += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        origine.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        origine.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return origine.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        origine.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return flux;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (ecrivain == null) {
+                PrintWriter origine = super.getWriter();
+                ecrivain = new PrintWriter(new Writer() {
+                    @Override
+                    public void write(char[] cbuf, int off, int len) {
+                        origine.write(cbuf, off, len);
+                        taille += len;
+                    }
+
+                    @Override
+                    public void flush() {
+                        origine.flush();
+                    }
+
+                    @Override
+                    public void close() {
+                        origine.close();
+                    }
+                });
+            }
+            return ecrivain;
+        }
+    }
+}
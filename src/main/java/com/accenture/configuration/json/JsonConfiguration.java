@@ -0,0 +1,21 @@
+package com.accenture.configuration.json;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Module Jackson enregistré dans l'ObjectMapper de Spring (qui ajoute tous les beans Module).
+ * <p>
+ * Blackbird remplace les accès par réflexion des sérialiseurs et désérialiseurs par des lambdas générées
+ * (LambdaMetafactory) : les accesseurs des DTO sont appelés directement, ce qui allège les grandes listes
+ * comme celles de {@code /vehicules/tous}.
+ */
+@Configuration
+public class JsonConfiguration {
+
+    @Bean
+    BlackbirdModule blackbird() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,104 @@
+package com.accenture.configuration.metriques;
+
+import com.accenture.model.param.TypeVehiculeEnum;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chronométrage des appels aux points d'entrée de l'application, sous le timer {@value #TIMER} (actuator) :
+ * méthodes publiques des {@code *Controller} et des {@code *ServiceImpl}, et authentifications
+ * ({@code CacheAuthentification.authenticate}).
+ * <p>
+ * Chaque appel est compté et chronométré avec les tags {@code couche} (controller, service, securite),
+ * {@code classe}, {@code methode}, {@code typeVehicule} (déduit du nom de la classe : {@code MotoController}
+ * donne MOTO, {@code aucun} sinon), {@code resultat} (SUCCES ou ECHEC) et {@code exception}.
+ * Tous les timers publient un histogramme aux seuils {@link #SEUILS} ; celui des méthodes nommées dans
+ * {@code metriques.percentiles.methodes} est détaillé, d'où Prometheus calcule des percentiles précis
+ * (un même nom ne peut pas être exporté à la fois en histogramme et sans). Les appels aux DAO sont déjà
+ * chronométrés par Spring Boot sous {@code spring.data.repository.invocations}.
+ */
+@Aspect
+@Component
+public class MetriquesAppels {
+
+    static final String TIMER = "application.appels";
+    static final String AUCUN = "aucun";
+    static final Duration[] SEUILS = {Duration.ofMillis(50), Duration.ofMillis(200), Duration.ofSeconds(1)};
+
+    private final MeterRegistry registre;
+    private final Set<String> methodesPercentiles;
+    private final Map<Class<?>, String> typesParClasse = new ConcurrentHashMap<>();
+
+    /**
+     * @param registre            le registre des métriques
+     * @param methodesPercentiles noms des méthodes dont la distribution des durées est publiée
+     */
+    public MetriquesAppels(MeterRegistry registre,
+                           @Value("${metriques.percentiles.methodes:rechercher,ajouter,authenticate}") Set<String> methodesPercentiles) {
+        this.registre = registre;
+        this.methodesPercentiles = methodesPercentiles;
+    }
+
+    @Around("execution(public * com.accenture.controller.*Controller.*(..))")
+    public Object chronometrerController(ProceedingJoinPoint appel) throws Throwable {
+        return chronometrer(appel, "controller");
+    }
+
+    @Around("execution(public * com.accenture.service.*ServiceImpl.*(..))")
+    public Object chronometrerService(ProceedingJoinPoint appel) throws Throwable {
+        return chronometrer(appel, "service");
+    }
+
+    @Around("execution(public * com.accenture.configuration.security.CacheAuthentification.authenticate(..))")
+    public Object chronometrerAuthentification(ProceedingJoinPoint appel) throws Throwable {
+        return chronometrer(appel, "securite");
+    }
+
+    private Object chronometrer(ProceedingJoinPoint appel, String couche) throws Throwable {
+        long debut = System.nanoTime();
+        Throwable echec = null;
+        try {
+            return appel.proceed();
+        } catch (Throwable e) {
+            echec = e;
+            throw e;
+        } finally {
+            Class<?> classe = ClassUtils.getUserClass(appel.getTarget());
+            String methode = appel.getSignature().getName();
+            Timer.Builder timer = Timer.builder(TIMER)
+                    .description("Appels aux contrôleurs, services et à l'authentification")
+                    .tag("couche", couche)
+                    .tag("classe", classe.getSimpleName())
+                    .tag("methode", methode)
+                    .tag("typeVehicule", typesParClasse.computeIfAbsent(classe, MetriquesAppels::typeVehicule))
+                    .tag("resultat", echec == null ? "SUCCES" : "ECHEC")
+                    .tag("exception", echec == null ? AUCUN : echec.getClass().getSimpleName())
+                    .serviceLevelObjectives(SEUILS);
+            if (methodesPercentiles.contains(methode))
+                timer.publishPercentileHistogram().minimumExpectedValue(Duration.ofMillis(1)).maximumExpectedValue(Duration.ofSeconds(10));
+            timer.register(registre).record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String typeVehicule(Class<?> classe) {
+        String nom = classe.getSimpleName().toUpperCase();
+        return Arrays.stream(TypeVehiculeEnum.values())
+                .map(Enum::name)
+                .filter(nom::startsWith)
+                .findFirst()
+                .orElse(AUCUN);
+    }
+}
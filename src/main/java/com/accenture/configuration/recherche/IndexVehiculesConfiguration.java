@@ -0,0 +1,44 @@
+package com.accenture.configuration.recherche;
+
+import com.accenture.repository.VehiculeDao;
+import com.accenture.service.IndexVehicules;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Index en mémoire des recherches de véhicules ({@link IndexVehicules}), activé par {@code index-vehicules.actif=true}.
+ * Sans lui, les recherches sont faites en base.
+ * <p>
+ * L'index est tenu à jour par {@link SuiviIndexVehicules}, branché sur les événements de Hibernate qui suivent
+ * la validation d'une écriture : tout chemin d'écriture JPA de cette instance est reporté, une transaction annulée
+ * ne l'est jamais. Les écritures faites hors de cette instance ne sont vues qu'à la relecture de l'index,
+ * au plus tard après {@code index-vehicules.duree-max}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "index-vehicules.actif", havingValue = "true")
+public class IndexVehiculesConfiguration {
+
+    @Bean
+    IndexVehicules indexVehicules(VehiculeDao vehiculeDao, @Value("${index-vehicules.duree-max:PT15M}") Duration dureeMax) {
+        return new IndexVehicules(vehiculeDao, dureeMax);
+    }
+
+    @Bean
+    SuiviIndexVehicules suiviIndexVehicules(IndexVehicules indexVehicules, EntityManagerFactory entityManagerFactory) {
+        SuiviIndexVehicules suivi = new SuiviIndexVehicules(indexVehicules);
+        EventListenerRegistry registre = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().requireService(EventListenerRegistry.class);
+        registre.appendListeners(EventType.POST_COMMIT_INSERT, suivi);
+        registre.appendListeners(EventType.POST_COMMIT_UPDATE, suivi);
+        registre.appendListeners(EventType.POST_COMMIT_DELETE, suivi);
+        return suivi;
+    }
+}
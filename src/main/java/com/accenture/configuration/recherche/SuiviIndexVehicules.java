@@ -0,0 +1,56 @@
+package com.accenture.configuration.recherche;
+
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.service.IndexVehicules;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Reporte dans l'{@link IndexVehicules} chaque insertion, modification ou suppression d'un véhicule,
+ * une fois sa transaction validée.
+ */
+class SuiviIndexVehicules implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final IndexVehicules indexVehicules;
+
+    SuiviIndexVehicules(IndexVehicules indexVehicules) {
+        this.indexVehicules = indexVehicules;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Vehicule vehicule)
+            indexVehicules.indexer(vehicule);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Vehicule vehicule)
+            indexVehicules.indexer(vehicule);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Vehicule vehicule)
+            indexVehicules.retirer(vehicule.getId());
+    }
+
+    // transaction annulée : rien n'a été reporté dans l'index, rien à défaire
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return Vehicule.class.isAssignableFrom(persister.getMappedClass());
+    }
+}
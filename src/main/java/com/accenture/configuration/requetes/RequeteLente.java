@@ -0,0 +1,22 @@
+package com.accenture.configuration.requetes;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Requête SQL lente, telle que rendue par {@code /actuator/requeteslentes} : ses appels au-delà du seuil,
+ * la forme de ses paramètres (types, jamais les valeurs), les points d'entrée HTTP et les DAO qui l'ont émise,
+ * et le dernier plan d'exécution capturé ({@code null} tant qu'aucun EXPLAIN n'a été rejoué), dont les conditions
+ * sont masquées : les valeurs rejouées n'y apparaissent pas.
+ */
+public record RequeteLente(
+        String sql,
+        long appels,
+        long dureeMaxMs,
+        long dureeTotaleMs,
+        String parametres,
+        Set<String> endpoints,
+        Set<String> daos,
+        String plan,
+        Instant dernierAppel) {
+}
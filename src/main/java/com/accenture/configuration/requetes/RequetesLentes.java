@@ -0,0 +1,300 @@
+package com.accenture.configuration.requetes;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Journal des requêtes SQL lentes, branché au niveau JDBC sur la source de données ({@link #surveiller}) :
+ * toutes les requêtes des DAO de {@code com.accenture.repository} (requêtes dérivées, {@code findAll()},
+ * spécifications, requêtes natives) comme celles d'Hibernate hors DAO (chargements différés, écritures) y passent.
+ * <p>
+ * Une requête plus longue que {@code seuil} est journalisée avec la forme de ses paramètres (leurs types, jamais
+ * leurs valeurs), le point d'entrée HTTP et le DAO qui l'ont émise, puis cumulée par texte SQL ; seules les
+ * {@code tailleMax} requêtes les plus lentes sont gardées. Une part {@code tauxExplain} des SELECT lents est rejouée
+ * sous {@code EXPLAIN (ANALYZE, BUFFERS)} sur PostgreSQL, une à la fois, sur un thread à part et dans une transaction
+ * en lecture seule, bornée par {@code delaiExplain} et annulée : au plus {@value #EXPLICATIONS_EN_ATTENTE} en attente,
+ * les suivantes sont abandonnées. Les SELECT qui verrouillent ({@code FOR UPDATE}, {@code FOR SHARE}, verrous
+ * consultatifs {@code pg_advisory_*}) ne sont jamais rejoués : le générateur d'identifiants de hibernate_sequences
+ * ou le verrou des suppressions d'administrateurs seraient sinon repris hors de leur transaction.
+ * <p>
+ * PostgreSQL écrit les valeurs liées dans les conditions du plan ({@code Filter}, {@code Index Cond}...) : les chaînes
+ * et les nombres de ces conditions sont masqués ({@link #masquer}) avant que le plan soit gardé.
+ */
+@Slf4j
+public class RequetesLentes implements QueryExecutionListener, AutoCloseable {
+
+    static final String AUCUN = "aucun";
+    static final String HORS_REQUETE = "hors requête HTTP";
+    private static final int ORIGINES_MAX = 10;
+    private static final int EXPLICATIONS_EN_ATTENTE = 10;
+    /** ligne de plan portant une condition : {@code Filter: (...)}, {@code Index Cond: (...)}, {@code Hash Cond: (...)}... */
+    private static final Pattern CONDITION = Pattern.compile("(Cond|Filter): \\(");
+    private static final Pattern CHAINE = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NOMBRE = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern VERROUILLAGE = Pattern.compile(
+            "\\bfor\\s+(no\\s+key\\s+|key\\s+)?(update|share)\\b|pg_advisory", Pattern.CASE_INSENSITIVE);
+
+    private final long seuil;
+    private final double tauxExplain;
+    private final int tailleMax;
+    private final long delaiExplain;
+    private final Map<String, Statistiques> requetes = new ConcurrentHashMap<>();
+    /** DAO dont une méthode est en cours sur le thread : celui qui émet les requêtes du moment */
+    private final ThreadLocal<String> daoCourant = new ThreadLocal<>();
+    private final ThreadPoolExecutor explications = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(EXPLICATIONS_EN_ATTENTE), Thread.ofPlatform().name("explain-requetes-lentes").daemon().factory(),
+            new ThreadPoolExecutor.DiscardPolicy());
+    private volatile DataSource source;
+    private volatile Boolean postgres;
+
+    /**
+     * @param seuil        durée à partir de laquelle une requête est lente
+     * @param tauxExplain  part des SELECT lents rejoués sous EXPLAIN, entre 0 et 1
+     * @param tailleMax    nombre de requêtes distinctes gardées
+     * @param delaiExplain durée maximale d'un EXPLAIN, attente des verrous comprise
+     */
+    public RequetesLentes(Duration seuil, double tauxExplain, int tailleMax, Duration delaiExplain) {
+        this.seuil = seuil.toMillis();
+        this.tauxExplain = tauxExplain;
+        this.tailleMax = tailleMax;
+        this.delaiExplain = delaiExplain.toMillis();
+    }
+
+    /**
+     * Enveloppe la source de données : ses requêtes sont chronométrées, les EXPLAIN passent par la source d'origine.
+     */
+    public DataSource surveiller(String nom, DataSource source) {
+        this.source = source;
+        return ProxyDataSourceBuilder.create(nom, source).listener(this).build();
+    }
+
+    /**
+     * Exécute une méthode de DAO en retenant son nom comme origine des requêtes émises pendant l'appel.
+     */
+    public Object appelerDepuis(String dao, MethodInvocation appel) throws Throwable {
+        String precedent = daoCourant.get();
+        daoCourant.set(dao);
+        try {
+            return appel.proceed();
+        } finally {
+            if (precedent == null)
+                daoCourant.remove();
+            else
+                daoCourant.set(precedent);
+        }
+    }
+
+    /**
+     * @return les requêtes lentes gardées, de la plus longue à la plus courte
+     */
+    public List<RequeteLente> pires() {
+        return requetes.values().stream()
+                .map(Statistiques::instantane)
+                .sorted(Comparator.comparingLong(RequeteLente::dureeMaxMs).thenComparingLong(RequeteLente::dureeTotaleMs).reversed())
+                .toList();
+    }
+
+    public void vider() {
+        requetes.clear();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execution, List<QueryInfo> requetesExecutees) {
+    }
+
+    /**
+     * Appelé par datasource-proxy dans le {@code finally} de chaque exécution : une erreur du journal remonterait
+     * à l'appelant de la requête, elle est donc journalisée puis ignorée.
+     */
+    @Override
+    public void afterQuery(ExecutionInfo execution, List<QueryInfo> requetesExecutees) {
+        try {
+            noter(execution, requetesExecutees);
+        } catch (RuntimeException e) {
+            log.warn("Requête non journalisée dans les requêtes lentes", e);
+        }
+    }
+
+    private void noter(ExecutionInfo execution, List<QueryInfo> requetesExecutees) {
+        long duree = execution.getElapsedTime();
+        if (duree < seuil)
+            return;
+        String endpoint = endpointCourant();
+        String dao = Objects.requireNonNullElse(daoCourant.get(), AUCUN);
+        for (QueryInfo requete : requetesExecutees) {
+            String parametres = forme(requete.getParametersList());
+            log.warn("Requête lente ({} ms, {}, {}) : {} [{}]", duree, endpoint, dao, requete.getQuery(), parametres);
+            Statistiques statistiques = enregistrer(requete.getQuery(), duree, parametres, endpoint, dao);
+            if (aExpliquer(execution, requete)) {
+                // un Statement simple n'a aucun jeu de paramètres : seuls les PreparedStatement en ont un
+                List<ParameterSetOperation> jeu = requete.getParametersList().isEmpty()
+                        ? List.of() : List.copyOf(requete.getParametersList().getFirst());
+                explications.execute(() -> expliquer(statistiques, requete.getQuery(), jeu));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        explications.shutdownNow();
+    }
+
+    private Statistiques enregistrer(String sql, long duree, String parametres, String endpoint, String dao) {
+        Statistiques statistiques = requetes.computeIfAbsent(sql, Statistiques::new);
+        statistiques.ajouter(duree, parametres, endpoint, dao);
+        if (requetes.size() > tailleMax)
+            requetes.values().stream()
+                    .min(Comparator.comparingLong(Statistiques::dureeMax))
+                    .ifPresent(plusRapide -> requetes.remove(plusRapide.sql, plusRapide));
+        return statistiques;
+    }
+
+    /**
+     * Seul un SELECT sans verrou exécuté avec un seul jeu de paramètres est rejoué : EXPLAIN ANALYZE exécute la requête.
+     */
+    private boolean aExpliquer(ExecutionInfo execution, QueryInfo requete) {
+        return !execution.isBatch()
+                && requete.getParametersList().size() <= 1
+                && requete.getQuery().stripLeading().regionMatches(true, 0, "select", 0, 6)
+                && !VERROUILLAGE.matcher(requete.getQuery()).find()
+                && !Boolean.FALSE.equals(postgres)
+                && ThreadLocalRandom.current().nextDouble() < tauxExplain;
+    }
+
+    private void expliquer(Statistiques statistiques, String sql, List<ParameterSetOperation> parametres) {
+        try (Connection connexion = source.getConnection()) {
+            if (postgres == null)
+                postgres = "PostgreSQL".equals(connexion.getMetaData().getDatabaseProductName());
+            if (!postgres)
+                return;
+            connexion.setReadOnly(true);
+            connexion.setAutoCommit(false);
+            try (Statement delais = connexion.createStatement();
+                 PreparedStatement explain = connexion.prepareStatement("explain (analyze, buffers) " + sql)) {
+                delais.execute("set local statement_timeout = " + delaiExplain);
+                delais.execute("set local lock_timeout = " + delaiExplain);
+                for (ParameterSetOperation parametre : parametres)
+                    parametre.getMethod().invoke(explain, parametre.getArgs());
+                StringJoiner plan = new StringJoiner("\n");
+                try (ResultSet lignes = explain.executeQuery()) {
+                    while (lignes.next())
+                        plan.add(masquer(lignes.getString(1)));
+                }
+                statistiques.plan(plan.toString());
+            } finally {
+                connexion.rollback();
+            }
+        } catch (SQLException | ReflectiveOperationException e) {
+            log.warn("EXPLAIN impossible pour la requête lente {} : {}", sql, e.getMessage());
+        }
+    }
+
+    private static String endpointCourant() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributs))
+            return HORS_REQUETE;
+        HttpServletRequest requete = attributs.getRequest();
+        Object motif = requete.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return requete.getMethod() + " " + (motif != null ? motif : requete.getRequestURI());
+    }
+
+    /**
+     * Remplace par {@code ?} les chaînes et les nombres d'une condition du plan, où PostgreSQL écrit les valeurs
+     * liées ({@code Filter: ((nom)::text = 'Dupont'::text)} devient {@code Filter: ((nom)::text = '?'::text)}) ;
+     * les autres lignes (coûts, durées, lignes lues) sont gardées telles quelles.
+     */
+    static String masquer(String ligne) {
+        if (!CONDITION.matcher(ligne).find())
+            return ligne;
+        return NOMBRE.matcher(CHAINE.matcher(ligne).replaceAll("'?'")).replaceAll("?");
+    }
+
+    /**
+     * Types des paramètres liés, dans l'ordre des positions ({@code String, Long, null}), précédés du nombre
+     * de jeux de paramètres pour un lot.
+     */
+    static String forme(List<List<ParameterSetOperation>> jeux) {
+        if (jeux.isEmpty())
+            return "";
+        String forme = jeux.getFirst().stream()
+                .sorted(Comparator.comparingInt(parametre -> parametre.getArgs()[0] instanceof Integer position ? position : 0))
+                .map(RequetesLentes::type)
+                .collect(Collectors.joining(", "));
+        return jeux.size() == 1 ? forme : "lot de " + jeux.size() + " : " + forme;
+    }
+
+    private static String type(ParameterSetOperation parametre) {
+        if (ParameterSetOperation.isSetNullParameterOperation(parametre))
+            return "null";
+        Object[] arguments = parametre.getArgs();
+        if (parametre.getMethod().getName().equals("setObject") && arguments.length > 1 && arguments[1] != null)
+            return arguments[1].getClass().getSimpleName();
+        return parametre.getMethod().getName().substring("set".length());
+    }
+
+    private static final class Statistiques {
+
+        private final String sql;
+        private long appels;
+        private long dureeMax;
+        private long dureeTotale;
+        private String parametres;
+        private final Set<String> endpoints = new LinkedHashSet<>();
+        private final Set<String> daos = new LinkedHashSet<>();
+        private String plan;
+        private Instant dernierAppel;
+
+        Statistiques(String sql) {
+            this.sql = sql;
+        }
+
+        synchronized void ajouter(long duree, String parametres, String endpoint, String dao) {
+            appels++;
+            dureeMax = Math.max(dureeMax, duree);
+            dureeTotale += duree;
+            this.parametres = parametres;
+            if (endpoints.size() < ORIGINES_MAX)
+                endpoints.add(endpoint);
+            if (daos.size() < ORIGINES_MAX)
+                daos.add(dao);
+            dernierAppel = Instant.now();
+        }
+
+        synchronized void plan(String plan) {
+            this.plan = plan;
+        }
+
+        synchronized long dureeMax() {
+            return dureeMax;
+        }
+
+        synchronized RequeteLente instantane() {
+            return new RequeteLente(sql, appels, dureeMax, dureeTotale, parametres, Set.copyOf(endpoints), Set.copyOf(daos), plan, dernierAppel);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.accenture.configuration.requetes;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Journal des requêtes lentes ({@link RequetesLentes}) : la source de données est enveloppée pour chronométrer
+ * chaque requête, et chaque DAO Spring Data reçoit un intercepteur qui le désigne comme origine de ses requêtes.
+ */
+@Configuration(proxyBeanMethods = false)
+public class RequetesLentesConfiguration {
+
+    @Bean
+    RequetesLentes requetesLentes(@Value("${requetes-lentes.seuil:PT0.2S}") Duration seuil,
+                                  @Value("${requetes-lentes.taux-explain:0.1}") double tauxExplain,
+                                  @Value("${requetes-lentes.taille-max:100}") int tailleMax,
+                                  @Value("${requetes-lentes.delai-explain:PT5S}") Duration delaiExplain) {
+        return new RequetesLentes(seuil, tauxExplain, tailleMax, delaiExplain);
+    }
+
+    @Bean
+    RequetesLentesEndpoint requetesLentesEndpoint(RequetesLentes requetesLentes) {
+        return new RequetesLentesEndpoint(requetesLentes);
+    }
+
+    @Bean
+    static BeanPostProcessor surveillanceRequetes(ObjectProvider<RequetesLentes> requetesLentes) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String nom) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> depot)
+                    depot.addRepositoryFactoryCustomizer(fabrique -> fabrique.addRepositoryProxyPostProcessor((proxy, informations) -> {
+                        String dao = informations.getRepositoryInterface().getSimpleName();
+                        proxy.addAdvice((MethodInterceptor) appel ->
+                                requetesLentes.getObject().appelerDepuis(dao + "." + appel.getMethod().getName(), appel));
+                    }));
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nom) {
+                if (bean instanceof DataSource source && !(bean instanceof ProxyDataSource))
+                    return requetesLentes.getObject().surveiller(nom, source);
+                return bean;
+            }
+        };
+    }
+}
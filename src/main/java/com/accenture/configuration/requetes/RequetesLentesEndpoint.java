@@ -0,0 +1,31 @@
+package com.accenture.configuration.requetes;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/requeteslentes} (administrateurs) : les requêtes SQL les plus lentes, avec leur dernier plan capturé ;
+ * {@code DELETE} remet le journal à zéro.
+ */
+@Endpoint(id = "requeteslentes")
+public class RequetesLentesEndpoint {
+
+    private final RequetesLentes requetesLentes;
+
+    public RequetesLentesEndpoint(RequetesLentes requetesLentes) {
+        this.requetesLentes = requetesLentes;
+    }
+
+    @ReadOperation
+    public List<RequeteLente> pires() {
+        return requetesLentes.pires();
+    }
+
+    @DeleteOperation
+    public void vider() {
+        requetesLentes.vider();
+    }
+}
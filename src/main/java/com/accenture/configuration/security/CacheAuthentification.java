@@ -0,0 +1,146 @@
+package com.accenture.configuration.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fournisseur d'authentification qui mémorise, pour une durée courte, les identifiants déjà vérifiés.
+ * La première authentification d'un utilisateur passe par le fournisseur délégué (requêtes sur utilisateurs
+ * puis vérification BCrypt) ; les suivantes, avec le même mot de passe, sont validées en comparant une empreinte HMAC.
+ * <p>
+ * Le mot de passe n'est jamais conservé : seule son empreinte HMAC-SHA256, calculée avec une clé aléatoire
+ * tirée au démarrage, est gardée en mémoire avec les rôles de l'utilisateur. Les échecs ne sont pas mémorisés.
+ * Une entrée expire après {@code duree} ; elle est retirée dès que le compte est modifié ou supprimé ({@link #invalider}),
+ * et de nouveau à la validation de la transaction qui le modifie.
+ */
+@Slf4j
+public class CacheAuthentification implements AuthenticationProvider {
+
+    private static final String ALGORITHME = "HmacSHA256";
+
+    private final AuthenticationProvider delegue;
+    private final Duration duree;
+    private final int tailleMax;
+    private final Clock horloge;
+    private final SecretKeySpec cle;
+    private final Map<String, Entree> entrees = new ConcurrentHashMap<>();
+    /**
+     * Incrémenté à chaque invalidation : une authentification commencée avant une modification du compte
+     * ne doit pas remettre en cache l'ancien mot de passe.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CacheAuthentification(AuthenticationProvider delegue, Duration duree, int tailleMax) {
+        this(delegue, duree, tailleMax, Clock.systemUTC());
+    }
+
+    CacheAuthentification(AuthenticationProvider delegue, Duration duree, int tailleMax, Clock horloge) {
+        this.delegue = delegue;
+        this.duree = duree;
+        this.tailleMax = tailleMax;
+        this.horloge = horloge;
+        byte[] octets = new byte[32];
+        new SecureRandom().nextBytes(octets);
+        this.cle = new SecretKeySpec(octets, ALGORITHME);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String mail = authentication.getName();
+        Object motDePasse = authentication.getCredentials();
+        if (mail == null || motDePasse == null)
+            return delegue.authenticate(authentication);
+
+        byte[] empreinte = empreinte(mail, motDePasse.toString());
+        long maintenant = horloge.millis();
+        Entree entree = entrees.get(mail);
+        if (entree != null && entree.expireA() > maintenant && MessageDigest.isEqual(entree.empreinte(), empreinte)) {
+            log.debug("Authentification de {} servie par le cache", mail);
+            return UsernamePasswordAuthenticationToken.authenticated(entree.principal(), null, entree.autorites());
+        }
+
+        long avant = invalidations.get();
+        Authentication resultat = delegue.authenticate(authentication);
+        if (resultat != null && resultat.isAuthenticated() && invalidations.get() == avant)
+            memoriser(mail, new Entree(empreinte, resultat.getPrincipal(), List.copyOf(resultat.getAuthorities()), maintenant + duree.toMillis()));
+        return resultat;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegue.supports(authentication);
+    }
+
+    /**
+     * Retire l'utilisateur du cache : sa prochaine authentification repassera par la base et BCrypt.
+     * Appelé dans une transaction, le retrait est refait après sa validation : une authentification faite entre-temps
+     * a lu l'ancienne ligne (ancien mot de passe, compte pas encore supprimé) et ne doit pas rester en cache.
+     *
+     * @param mail l'adresse email de l'utilisateur modifié ou supprimé
+     */
+    public void invalider(String mail) {
+        retirer(mail);
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    retirer(mail);
+                }
+            });
+    }
+
+    private void retirer(String mail) {
+        invalidations.incrementAndGet();
+        if (mail != null && entrees.remove(mail) != null)
+            log.debug("Authentification de {} retirée du cache", mail);
+    }
+
+    int taille() {
+        return entrees.size();
+    }
+
+    private void memoriser(String mail, Entree entree) {
+        if (entrees.size() >= tailleMax && !entrees.containsKey(mail)) {
+            long maintenant = horloge.millis();
+            entrees.values().removeIf(e -> e.expireA() <= maintenant);
+            if (entrees.size() >= tailleMax)
+                return;
+        }
+        entrees.put(mail, entree);
+    }
+
+    private byte[] empreinte(String mail, String motDePasse) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHME);
+            mac.init(cle);
+            mac.update(mail.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(motDePasse.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC indisponible", e);
+        }
+    }
+
+    private record Entree(byte[] empreinte, Object principal, Collection<? extends GrantedAuthority> autorites, long expireA) {
+    }
+}
@@ -1,23 +0,0 @@
-package com.accenture.configuration.security;
-
-import jakarta.servlet.FilterChain;
-import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.web.filter.OncePerRequestFilter;
-
-import java.io.IOException;
-
-@Slf4j
-public class CustomLoggingFilter extends OncePerRequestFilter {
-
-    @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
-            throws ServletException, IOException {
-        log.info("URL de la requête : {}", request.getRequestURL());
-        log.info("Méthode de la requête : {}", request.getMethod());
-        filterChain.doFilter(request, response);
-        log.info("Statut de la réponse : {}", response.getStatus());
-    }
-}
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.accenture.configuration.security;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -13,10 +15,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.JdbcUserDetailsManager;
 import org.springframework.security.provisioning.UserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import javax.servlet.http.HttpServletResponse;
 import javax.sql.DataSource;
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
@@ -30,6 +32,8 @@ public class SecurityConfiguration {
                 .httpBasic(Customizer.withDefaults())
                 .authorizeHttpRequests(authorizeRequests -> authorizeRequests
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs*/**","/swagger-ui.html").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/utilisateurs/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/clients/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/clients/**").permitAll()
@@ -75,8 +79,7 @@ public class SecurityConfiguration {
                             log.error("Accès refusé - {}", accessDeniedException.getMessage());
                             response.sendError(HttpServletResponse.SC_FORBIDDEN, "Interdit");
                         })
-                )
-                .addFilterBefore(new CustomLoggingFilter(), UsernamePasswordAuthenticationFilter.class);
+                );
         return http.build();
     }
 
@@ -92,4 +95,17 @@ public class SecurityConfiguration {
         jdbcUserDetailsManager.setAuthoritiesByUsernameQuery("select mail, role from utilisateurs where mail = ?");
         return jdbcUserDetailsManager;
     }
+
+    /**
+     * Seul fournisseur d'authentification de l'application : la vérification en base et BCrypt
+     * n'est faite qu'à la première requête d'un utilisateur, puis à l'expiration de son entrée en cache.
+     */
+    @Bean
+    CacheAuthentification cacheAuthentification(UserDetailsManager userDetailsManager, PasswordEncoder passwordEncoder,
+                                                @Value("${securite.cache-authentification.duree:PT5M}") Duration duree,
+                                                @Value("${securite.cache-authentification.taille-max:10000}") int tailleMax) {
+        DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider(passwordEncoder);
+        daoAuthenticationProvider.setUserDetailsService(userDetailsManager);
+        return new CacheAuthentification(daoAuthenticationProvider, duree, tailleMax);
+    }
 }
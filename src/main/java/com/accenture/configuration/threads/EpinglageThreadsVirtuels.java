@@ -0,0 +1,92 @@
+package com.accenture.configuration.threads;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnostic d'épinglage des threads virtuels, actif seulement si {@code spring.threads.virtual.enabled=true}.
+ * <p>
+ * Un thread virtuel qui se bloque dans un bloc {@code synchronized} (ou dans du code natif) reste épinglé
+ * à son thread porteur : les autres threads virtuels ne peuvent plus s'exécuter sur ce porteur.
+ * Les événements JFR {@value #EVENEMENT} plus longs que le seuil sont lus en continu :
+ * chacun est compté sous {@value #COMPTEUR} (actuator) et journalisé avec le haut de sa pile d'appels.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class EpinglageThreadsVirtuels implements SmartLifecycle {
+
+    static final String EVENEMENT = "jdk.VirtualThreadPinned";
+    static final String COMPTEUR = "threads.virtuels.epinglages";
+    private static final String CLASSE_THREAD_VIRTUEL = "java.lang.VirtualThread";
+    private static final int PROFONDEUR_PILE = 8;
+
+    private final Duration seuil;
+    private final Counter epinglages;
+    private RecordingStream flux;
+
+    /**
+     * @param registre le registre des métriques
+     * @param seuil    durée d'épinglage à partir de laquelle un événement est signalé
+     */
+    public EpinglageThreadsVirtuels(MeterRegistry registre,
+                                    @Value("${threads-virtuels.epinglage.seuil:PT0.02S}") Duration seuil) {
+        this.seuil = seuil;
+        this.epinglages = Counter.builder(COMPTEUR)
+                .description("Threads virtuels restés épinglés à leur porteur au-delà du seuil")
+                .register(registre);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (flux != null)
+            return;
+        flux = new RecordingStream();
+        flux.enable(EVENEMENT).withThreshold(seuil).withStackTrace();
+        flux.onEvent(EVENEMENT, this::signaler);
+        flux.startAsync();
+        log.info("Diagnostic d'épinglage des threads virtuels démarré, seuil {} ms", seuil.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (flux == null)
+            return;
+        flux.close();
+        flux = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return flux != null;
+    }
+
+    private void signaler(RecordedEvent evenement) {
+        epinglages.increment();
+        log.warn("Thread virtuel épinglé pendant {} ms : {}", evenement.getDuration().toMillis(), pile(evenement));
+    }
+
+    private static String pile(RecordedEvent evenement) {
+        if (evenement.getStackTrace() == null)
+            return "pile indisponible";
+        return evenement.getStackTrace().getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                // les premières méthodes sont celles de VirtualThread qui gare le thread, sans intérêt ici
+                .dropWhile(frame -> frame.getMethod().getType().getName().equals(CLASSE_THREAD_VIRTUEL))
+                .limit(PROFONDEUR_PILE)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+    }
+}
@@ -4,6 +4,8 @@ import com.accenture.model.param.Permis;
 import com.accenture.service.ClientService;
 import com.accenture.service.dto.ClientRequestDto;
 import com.accenture.service.dto.ClientResponseDto;
+import com.accenture.service.dto.CriteresClientDto;
+import com.accenture.service.dto.PageClientsDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,6 +13,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,7 +21,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.time.LocalDate;
 import java.util.List;
 @Slf4j
 @RestController
@@ -127,26 +129,19 @@ public class ClientController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Rechercher des clients", description = "Recherche des clients en fonction de différents critères")
+    @Operation(summary = "Rechercher des clients", description = "Recherche des clients en fonction de différents critères, page par page (pagination par curseur)")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Recherche effectuée avec succès")
+            @ApiResponse(responseCode = "200", description = "Recherche effectuée avec succès"),
+            @ApiResponse(responseCode = "400", description = "Taille de page invalide")
     })
-    List<ClientResponseDto> recherche(
-            @Parameter(description = "Email du client") @RequestParam(required = false) String mail,
-            @Parameter(description = "Prénom du client") @RequestParam(required = false) String prenom,
-            @Parameter(description = "Nom du client") @RequestParam(required = false) String nom,
-            @Parameter(description = "Date de naissance du client") @RequestParam(required = false) LocalDate dateNaissance,
-            @Parameter(description = "Rue du client") @RequestParam(required = false) String rue,
-            @Parameter(description = "Code postal du client") @RequestParam(required = false) String codePostal,
-            @Parameter(description = "Ville du client") @RequestParam(required = false) String ville,
-            @Parameter(description = "Statut désactivé du client") @RequestParam(required = false) Boolean desactive,
-            @Parameter(description = "Liste des permis du client") @RequestParam(required = false) List<Permis> listePermis,
-            @Parameter(description = "Date d'inscription du client") @RequestParam(required = false) LocalDate dateInscription
+    PageClientsDto recherche(
+            @ParameterObject CriteresClientDto criteres,
+            @Parameter(description = "Curseur renvoyé par la page précédente (absent pour la première page)") @RequestParam(required = false) String apres,
+            @Parameter(description = "Nombre de clients par page, entre 1 et 500") @RequestParam(defaultValue = "50") int taille
     ) {
-        log.info("Recherche de clients avec les critères : mail={}, prenom={}, nom={}, dateNaissance={}, rue={}, codePostal={}, ville={}, desactive={}, listePermis={}, dateInscription={}",
-                mail, prenom, nom, dateNaissance, rue, codePostal, ville, desactive, listePermis, dateInscription);
-        List<ClientResponseDto> clients = clientService.rechercher(mail, prenom, nom, dateNaissance, rue, codePostal, ville, desactive, listePermis, dateInscription);
-        log.info("Nombre de clients trouvés : {}", clients.size());
-        return clients;
+        log.info("Recherche de clients avec les critères : {}, apres={}, taille={}", criteres, apres, taille);
+        PageClientsDto page = clientService.rechercher(criteres, apres, taille);
+        log.info("Nombre de clients trouvés : {}", page.clients().size());
+        return page;
     }
 }
\ No newline at end of file
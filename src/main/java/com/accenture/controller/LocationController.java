@@ -8,8 +8,11 @@ import com.accenture.repository.entity.Location;
 import com.accenture.repository.entity.Vehicule;
 import com.accenture.service.ClientService;
 import com.accenture.service.LocationService;
+import com.accenture.service.TarificationService;
 import com.accenture.service.VehiculeService;
 import com.accenture.service.dto.ClientResponseDto;
+import com.accenture.service.dto.DemandeDevisDto;
+import com.accenture.service.dto.DevisDto;
 import com.accenture.service.dto.LocationRequestDto;
 import com.accenture.service.dto.LocationResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
@@ -35,9 +38,12 @@ public class LocationController {
 
 
     private LocationService locationService;
+    private TarificationService tarificationService;
 
-    public LocationController(LocationService locationService, ClientService clientService, ClientController clientController, VehiculeService vehiculeService) {
+    public LocationController(LocationService locationService, ClientService clientService, ClientController clientController, VehiculeService vehiculeService,
+                              TarificationService tarificationService) {
         this.locationService = locationService;
+        this.tarificationService = tarificationService;
 
     }
 
@@ -56,7 +62,6 @@ public class LocationController {
             @Parameter(description = "Date de début de la location (YYYY/MM/dd) ") @RequestParam(required = true) LocalDate dateDebut,
             @Parameter(description = "Date de fin de la location (YYYY/MM/dd) ") @RequestParam(required = true) LocalDate dateFin,
             @Parameter(description = "Kilomètres parcourus") @RequestParam(required = true) Integer kilometresParcourus,
-            @Parameter(description = "Montant total de la location") @RequestParam(required = true) Double montantTotal,
             @Parameter(description = "État de la location") @RequestParam(required = true) Etat etat) {
         log.info("Ajout d'une nouvelle location : {}", locationRequestDto);
 
@@ -89,4 +94,24 @@ public class LocationController {
         return ResponseEntity.ok(locations);
     }
 
+    /**
+     * Chiffrer un lot de locations (véhicule, période, accessoires, kilomètres), par exemple pour une page de comparaison.
+     * Rien n'est réservé ; une demande invalide reçoit la raison du rejet à la place du montant.
+     *
+     * @param demandes les demandes à chiffrer
+     * @return un devis par demande, dans le même ordre
+     */
+    @PostMapping("/devis")
+    @Operation(summary = "Chiffrer des locations", description = "Calcule le prix d'un lot de locations sans les réserver")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Devis calculés"),
+            @ApiResponse(responseCode = "400", description = "Lot vide ou trop grand")
+    })
+    public ResponseEntity<List<DevisDto>> deviser(@RequestBody List<DemandeDevisDto> demandes) {
+        log.info("Demande de {} devis", demandes.size());
+        List<DevisDto> devis = tarificationService.deviser(demandes);
+        log.info("Devis calculés : {}", devis.size());
+        return ResponseEntity.ok(devis);
+    }
+
 }
@@ -4,6 +4,8 @@ import com.accenture.model.param.Permis;
 import com.accenture.service.MotoService;
 import com.accenture.service.dto.MotoRequestDto;
 import com.accenture.service.dto.MotoResponseDto;
+import com.accenture.service.dto.OptionsRechercheDto;
+import com.accenture.service.dto.RapportImportDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,6 +13,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -66,6 +69,20 @@ public class MotoController {
         return ResponseEntity.ok(motoResponseDto);
     }
 
+    @PostMapping("/import")
+    @Operation(summary = "Importer des motos par lots", description = "Vérifie toutes les lignes, enregistre les motos valides par lots et renvoie les lignes rejetées avec leur raison")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import terminé, les lignes rejetées sont listées dans le rapport"),
+            @ApiResponse(responseCode = "400", description = "Liste vide")
+    })
+    RapportImportDto importer(
+            @Parameter(description = "Motos à importer", required = true) @RequestBody List<MotoRequestDto> motoRequestDtos) {
+        log.info("Import de {} motos", motoRequestDtos.size());
+        RapportImportDto rapport = motoService.importer(motoRequestDtos);
+        log.info("Import terminé : {} motos enregistrées, {} lignes rejetées", rapport.lignesImportees(), rapport.erreurs().size());
+        return rapport;
+    }
+
     /**
      * Trouver une moto par son identifiant.
      *
@@ -185,10 +202,11 @@ public class MotoController {
             @Parameter(description = "Tarif journalier de la moto") @RequestParam(required = false) Long tarifJournalier,
             @Parameter(description = "Kilométrage de la moto") @RequestParam(required = false) Long kilometrage,
             @Parameter(description = "La moto est-elle active") @RequestParam(required = false) Boolean actif,
-            @Parameter(description = "La moto est-elle retirée du parc") @RequestParam(required = false) Boolean retireDuParc) {
-        log.info("Recherche de motos avec les critères : id={}, marque={}, modele={}, couleur={}, nombreCylindres={}, poids={}, puissanceEnkW={}, hauteurSelle={}, transmission={}, permis={}, tarifJournalier={}, kilometrage={}, actif={}, retireDuParc={}",
-                id, marque, modele, couleur, nombreCylindres, poids, puissanceEnkW, hauteurSelle, transmission, permis, tarifJournalier, kilometrage, actif, retireDuParc);
-        List<MotoResponseDto> motos = motoService.rechercher(id, marque, modele, couleur, nombreCylindres, poids, puissanceEnkW, hauteurSelle, transmission, permis, tarifJournalier, kilometrage, actif, retireDuParc);
+            @Parameter(description = "La moto est-elle retirée du parc") @RequestParam(required = false) Boolean retireDuParc,
+            @ParameterObject OptionsRechercheDto options) {
+        log.info("Recherche de motos avec les critères : id={}, marque={}, modele={}, couleur={}, nombreCylindres={}, poids={}, puissanceEnkW={}, hauteurSelle={}, transmission={}, permis={}, tarifJournalier={}, kilometrage={}, actif={}, retireDuParc={}, options={}",
+                id, marque, modele, couleur, nombreCylindres, poids, puissanceEnkW, hauteurSelle, transmission, permis, tarifJournalier, kilometrage, actif, retireDuParc, options);
+        List<MotoResponseDto> motos = motoService.rechercher(id, marque, modele, couleur, nombreCylindres, poids, puissanceEnkW, hauteurSelle, transmission, permis, tarifJournalier, kilometrage, actif, retireDuParc, options);
         log.info("Nombre de motos trouvées : {}", motos.size());
         return ResponseEntity.ok(motos);
     }
@@ -3,6 +3,8 @@ package com.accenture.controller;
 import com.accenture.model.param.Carburant;
 import com.accenture.model.param.Permis;
 import com.accenture.service.UtilitaireService;
+import com.accenture.service.dto.OptionsRechercheDto;
+import com.accenture.service.dto.RapportImportDto;
 import com.accenture.service.dto.UtilitaireRequestDto;
 import com.accenture.service.dto.UtilitaireResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -68,6 +71,20 @@ public class UtilitaireController {
         return ResponseEntity.ok(utilitaireResponseDto);
     }
 
+    @PostMapping("/import")
+    @Operation(summary = "Importer des utilitaires par lots", description = "Vérifie toutes les lignes, enregistre les utilitaires valides par lots et renvoie les lignes rejetées avec leur raison")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import terminé, les lignes rejetées sont listées dans le rapport"),
+            @ApiResponse(responseCode = "400", description = "Liste vide")
+    })
+    RapportImportDto importer(
+            @Parameter(description = "Utilitaires à importer", required = true) @RequestBody List<UtilitaireRequestDto> utilitaireRequestDtos) {
+        log.info("Import de {} utilitaires", utilitaireRequestDtos.size());
+        RapportImportDto rapport = utilitaireService.importer(utilitaireRequestDtos);
+        log.info("Import terminé : {} utilitaires enregistrés, {} lignes rejetées", rapport.lignesImportees(), rapport.erreurs().size());
+        return rapport;
+    }
+
     /**
      * Trouver un utilitaire par son identifiant.
      *
@@ -193,10 +210,11 @@ public class UtilitaireController {
             @Parameter(description = "Tarif journalier de l'utilitaire") @RequestParam(required = false) Long tarifJournalier,
             @Parameter(description = "Kilométrage de l'utilitaire") @RequestParam(required = false) Long kilometrage,
             @Parameter(description = "L'utilitaire est-il actif") @RequestParam(required = false) Boolean actif,
-            @Parameter(description = "L'utilitaire est-il retiré du parc") @RequestParam(required = false) Boolean retireDuParc) {
-        log.info("Recherche d'utilitaires avec les critères : id={}, marque={}, modele={}, couleur={}, nombreDePlace={}, carburant={}, transmission={}, clim={}, chargeMax={}, poidsPATC={}, capaciteM3={}, permis={}, tarifJournalier={}, kilometrage={}, actif={}, retireDuParc={}",
-                id, marque, modele, couleur, nombreDePlace, carburant, transmission, clim, chargeMax, poidsPATC, capaciteM3, permis, tarifJournalier, kilometrage, actif, retireDuParc);
-        List<UtilitaireResponseDto> utilitaires = utilitaireService.rechercher(id, marque, modele, couleur, nombreDePlace, carburant, transmission, clim, chargeMax, poidsPATC, capaciteM3, permis, tarifJournalier, kilometrage, actif, retireDuParc);
+            @Parameter(description = "L'utilitaire est-il retiré du parc") @RequestParam(required = false) Boolean retireDuParc,
+            @ParameterObject OptionsRechercheDto options) {
+        log.info("Recherche d'utilitaires avec les critères : id={}, marque={}, modele={}, couleur={}, nombreDePlace={}, carburant={}, transmission={}, clim={}, chargeMax={}, poidsPATC={}, capaciteM3={}, permis={}, tarifJournalier={}, kilometrage={}, actif={}, retireDuParc={}, options={}",
+                id, marque, modele, couleur, nombreDePlace, carburant, transmission, clim, chargeMax, poidsPATC, capaciteM3, permis, tarifJournalier, kilometrage, actif, retireDuParc, options);
+        List<UtilitaireResponseDto> utilitaires = utilitaireService.rechercher(id, marque, modele, couleur, nombreDePlace, carburant, transmission, clim, chargeMax, poidsPATC, capaciteM3, permis, tarifJournalier, kilometrage, actif, retireDuParc, options);
         log.info("Nombre d'utilitaires trouvés : {}", utilitaires.size());
         return ResponseEntity.ok(utilitaires);
     }
@@ -1,15 +1,26 @@
 package com.accenture.controller;
 
-import com.accenture.repository.entity.Vehicule;
 import com.accenture.service.VehiculeService;
+import com.accenture.service.dto.PageVehiculesDto;
+import com.accenture.service.dto.ResultatVehiculesDto;
+import com.accenture.service.dto.VehiculeDto;
+import com.accenture.service.dto.VehiculeResponseDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
 @Slf4j
 @RestController
@@ -18,28 +29,79 @@ import java.util.List;
 public class VehiculeController {
 
 
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    /** en-tête listant les types de véhicules absents d'une réponse partielle */
+    static final String TYPES_EN_ECHEC = "Vehicules-Types-En-Echec";
+
     private VehiculeService vehiculeService;
+    private ObjectMapper objectMapper;
 
-    public VehiculeController(VehiculeService vehiculeService) {
+    public VehiculeController(VehiculeService vehiculeService, ObjectMapper objectMapper) {
         this.vehiculeService = vehiculeService;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Trouver tous les véhicules.
+     * Trouver tous les véhicules, chacun dans le DTO de son type (propriété {@code typeVehicule}), sans historique.
+     * Si un type de véhicule n'a pas pu être lu, les autres sont rendus et l'en-tête {@value #TYPES_EN_ECHEC}
+     * liste les types manquants.
      *
      * @return la liste de tous les véhicules
      */
     @Operation(summary = "Trouver un vehicule")
     @GetMapping("/tous")
-    public ResponseEntity<List<Vehicule>> trouverToutVehicules() {
+    public ResponseEntity<List<VehiculeResponseDto>> trouverToutVehicules() {
         log.info("Entrée dans la méthode trouverToutVehicules");
-        List<Vehicule> vehicules = vehiculeService.trouverToutVehicules();
-        log.info("Sortie de la méthode trouverToutVehicules avec {} véhicules trouvés", vehicules.size());
-        return ResponseEntity.ok(vehicules);
+        ResultatVehiculesDto resultat = vehiculeService.trouverToutVehicules();
+        log.info("Sortie de la méthode trouverToutVehicules avec {} véhicules trouvés", resultat.vehicules().size());
+        return reponse(resultat);
     }
 
     /**
-     * Rechercher des véhicules par critères.
+     * Lire les véhicules page par page, tous types confondus, triés par identifiant.
+     *
+     * @param apres  curseur renvoyé par la page précédente (absent pour la première page)
+     * @param taille nombre de véhicules par page
+     * @return la page de véhicules et le curseur de la page suivante
+     */
+    @Operation(summary = "Lire les vehicules page par page (pagination par curseur)")
+    @GetMapping("/tous/page")
+    public ResponseEntity<PageVehiculesDto> trouverPage(
+            @RequestParam(required = false) Long apres,
+            @RequestParam(defaultValue = "50") int taille) {
+        log.info("Entrée dans la méthode trouverPage avec apres={} et taille={}", apres, taille);
+        PageVehiculesDto page = vehiculeService.trouverPage(apres, taille);
+        log.info("Sortie de la méthode trouverPage avec {} véhicules trouvés", page.vehicules().size());
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Diffuser tous les véhicules au format NDJSON (un objet JSON par ligne).
+     * Chaque véhicule est écrit dans la réponse dès qu'il est lu en base, sans charger le parc en mémoire.
+     *
+     * @return le flux NDJSON des véhicules
+     */
+    @Operation(summary = "Diffuser tous les vehicules en NDJSON")
+    @GetMapping(value = "/tous/flux", produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> fluxVehicules() {
+        log.info("Entrée dans la méthode fluxVehicules");
+        StreamingResponseBody corps = sortie -> {
+            try (JsonGenerator generateur = objectMapper.getFactory().createGenerator(sortie)) {
+                vehiculeService.parcourirTous(vehicule -> {
+                    try {
+                        generateur.writeObject(vehicule);
+                        generateur.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON)).body(corps);
+    }
+
+    /**
+     * Rechercher des véhicules par critères, tous types confondus, dans le catalogue des véhicules.
      *
      * @param actif        indique si le véhicule est actif
      * @param retireDuParc indique si le véhicule est retiré du parc
@@ -47,12 +109,37 @@ public class VehiculeController {
      */
     @Operation(summary = "Trouver vehicules par recherches")
     @GetMapping("/rechercher")
-    public ResponseEntity<List<Vehicule>> rechercher(
+    public ResponseEntity<List<VehiculeDto>> rechercher(
             @RequestParam(required = true) Boolean actif,
             @RequestParam(required = true) Boolean retireDuParc) {
         log.info("Entrée dans la méthode rechercher avec actif={} et retireDuParc={}", actif, retireDuParc);
-        List<Vehicule> vehicules = vehiculeService.rechercher(actif, retireDuParc);
+        List<VehiculeDto> vehicules = vehiculeService.rechercher(actif, retireDuParc);
         log.info("Sortie de la méthode rechercher avec {} véhicules trouvés", vehicules.size());
         return ResponseEntity.ok(vehicules);
     }
-}
\ No newline at end of file
+
+    /**
+     * Trouver les véhicules disponibles sur une période.
+     *
+     * @param debut premier jour de la location
+     * @param fin   dernier jour de la location
+     * @return les véhicules actifs, présents dans le parc et libres sur toute la période
+     */
+    @Operation(summary = "Trouver les vehicules disponibles sur une periode")
+    @GetMapping("/disponibles")
+    public ResponseEntity<List<VehiculeDto>> trouverDisponibles(
+            @RequestParam LocalDate debut,
+            @RequestParam LocalDate fin) {
+        log.info("Entrée dans la méthode trouverDisponibles du {} au {}", debut, fin);
+        List<VehiculeDto> vehicules = vehiculeService.trouverDisponibles(debut, fin);
+        log.info("Sortie de la méthode trouverDisponibles avec {} véhicules trouvés", vehicules.size());
+        return ResponseEntity.ok(vehicules);
+    }
+
+    private static ResponseEntity<List<VehiculeResponseDto>> reponse(ResultatVehiculesDto resultat) {
+        ResponseEntity.BodyBuilder reponse = ResponseEntity.ok();
+        if (!resultat.complet())
+            reponse.header(TYPES_EN_ECHEC, resultat.echecs().keySet().stream().map(Enum::name).toArray(String[]::new));
+        return reponse.body(resultat.vehicules());
+    }
+}
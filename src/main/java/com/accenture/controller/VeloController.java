@@ -1,6 +1,8 @@
 package com.accenture.controller;
 
 import com.accenture.service.VeloService;
+import com.accenture.service.dto.OptionsRechercheDto;
+import com.accenture.service.dto.RapportImportDto;
 import com.accenture.service.dto.VeloRequestDto;
 import com.accenture.service.dto.VeloResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -60,6 +63,20 @@ public class VeloController {
         return ResponseEntity.ok(veloResponseDto);
     }
 
+    @PostMapping("/import")
+    @Operation(summary = "Importer des vélos par lots", description = "Vérifie toutes les lignes, enregistre les vélos valides par lots et renvoie les lignes rejetées avec leur raison")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import terminé, les lignes rejetées sont listées dans le rapport"),
+            @ApiResponse(responseCode = "400", description = "Liste vide")
+    })
+    RapportImportDto importer(
+            @Parameter(description = "Vélos à importer", required = true) @RequestBody List<VeloRequestDto> veloRequestDtos) {
+        log.info("Import de {} vélos", veloRequestDtos.size());
+        RapportImportDto rapport = veloService.importer(veloRequestDtos);
+        log.info("Import terminé : {} vélos enregistrés, {} lignes rejetées", rapport.lignesImportees(), rapport.erreurs().size());
+        return rapport;
+    }
+
     /**
      * Trouver un vélo par son identifiant.
      *
@@ -173,10 +190,11 @@ public class VeloController {
             @Parameter(description = "Tarif journalier du vélo") @RequestParam(required = false) Long tarifJournalier,
             @Parameter(description = "Kilométrage du vélo") @RequestParam(required = false) Long kilometrage,
             @Parameter(description = "Le vélo est-il actif") @RequestParam(required = false) Boolean actif,
-            @Parameter(description = "Le vélo est-il retiré du parc") @RequestParam(required = false) Boolean retireDuParc) {
-        log.info("Recherche de vélos avec les critères : id={}, marque={}, modele={}, couleur={}, tailleCadre={}, poids={}, electrique={}, capaciteBatterie={}, autonomie={}, freinsADisque={}, tarifJournalier={}, kilometrage={}, actif={}, retireDuParc={}",
-                id, marque, modele, couleur, tailleCadre, poids, electrique, capaciteBatterie, autonomie, freinsADisque, tarifJournalier, kilometrage, actif, retireDuParc);
-        List<VeloResponseDto> velos = veloService.rechercher(id, marque, modele, couleur, tailleCadre, poids, electrique, capaciteBatterie, autonomie, freinsADisque, tarifJournalier, kilometrage, actif, retireDuParc);
+            @Parameter(description = "Le vélo est-il retiré du parc") @RequestParam(required = false) Boolean retireDuParc,
+            @ParameterObject OptionsRechercheDto options) {
+        log.info("Recherche de vélos avec les critères : id={}, marque={}, modele={}, couleur={}, tailleCadre={}, poids={}, electrique={}, capaciteBatterie={}, autonomie={}, freinsADisque={}, tarifJournalier={}, kilometrage={}, actif={}, retireDuParc={}, options={}",
+                id, marque, modele, couleur, tailleCadre, poids, electrique, capaciteBatterie, autonomie, freinsADisque, tarifJournalier, kilometrage, actif, retireDuParc, options);
+        List<VeloResponseDto> velos = veloService.rechercher(id, marque, modele, couleur, tailleCadre, poids, electrique, capaciteBatterie, autonomie, freinsADisque, tarifJournalier, kilometrage, actif, retireDuParc, options);
         log.info("Nombre de vélos trouvés : {}", velos.size());
         return ResponseEntity.ok(velos);
     }
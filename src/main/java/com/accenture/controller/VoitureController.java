@@ -3,6 +3,8 @@ package com.accenture.controller;
 import com.accenture.model.param.Carburant;
 import com.accenture.model.param.Permis;
 import com.accenture.service.VoitureService;
+import com.accenture.service.dto.OptionsRechercheDto;
+import com.accenture.service.dto.RapportImportDto;
 import com.accenture.service.dto.VoitureRequestDto;
 import com.accenture.service.dto.VoitureResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -67,6 +70,20 @@ public class VoitureController {
         return ResponseEntity.created(voiture).build();
     }
 
+    @PostMapping("/import")
+    @Operation(summary = "Importer des voitures par lots", description = "Vérifie toutes les lignes, enregistre les voitures valides par lots et renvoie les lignes rejetées avec leur raison")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import terminé, les lignes rejetées sont listées dans le rapport"),
+            @ApiResponse(responseCode = "400", description = "Liste vide")
+    })
+    RapportImportDto importer(
+            @Parameter(description = "Voitures à importer", required = true) @RequestBody List<VoitureRequestDto> voitureRequestDtos) {
+        log.info("Import de {} voitures", voitureRequestDtos.size());
+        RapportImportDto rapport = voitureService.importer(voitureRequestDtos);
+        log.info("Import terminé : {} voitures enregistrées, {} lignes rejetées", rapport.lignesImportees(), rapport.erreurs().size());
+        return rapport;
+    }
+
     @GetMapping
     @Operation(summary = "Obtenir toutes les voitures", description = "Récupère la liste de toutes les voitures disponibles")
     @ApiResponses(value = {
@@ -156,12 +173,13 @@ public class VoitureController {
             @Parameter(description = "Tarif journalier de la voiture") @RequestParam(required = false) Long tarifJournalier,
             @Parameter(description = "Kilométrage de la voiture") @RequestParam(required = false) Long kilometrage,
             @Parameter(description = "Statut actif de la voiture") @RequestParam(required = false) Boolean actif,
-            @Parameter(description = "Statut de retrait du parc de la voiture") @RequestParam(required = false) Boolean retireDuParc
+            @Parameter(description = "Statut de retrait du parc de la voiture") @RequestParam(required = false) Boolean retireDuParc,
+            @ParameterObject OptionsRechercheDto options
     ) {
-        log.info("Recherche de voitures avec les critères : id={}, marque={}, modele={}, couleur={}, nombreDePlaces={}, carburant={}, nombreDePortes={}, transmission={}, clim={}, nombreDeBagages={}, type={}, permis={}, tarifJournalier={}, kilometrage={}, actif={}, retireDuParc={}",
-                id, marque, modele, couleur, nombreDePlaces, carburant, nombreDePortes, transmission, clim, nombreDeBagages, type, permis, tarifJournalier, kilometrage, actif, retireDuParc);
+        log.info("Recherche de voitures avec les critères : id={}, marque={}, modele={}, couleur={}, nombreDePlaces={}, carburant={}, nombreDePortes={}, transmission={}, clim={}, nombreDeBagages={}, type={}, permis={}, tarifJournalier={}, kilometrage={}, actif={}, retireDuParc={}, options={}",
+                id, marque, modele, couleur, nombreDePlaces, carburant, nombreDePortes, transmission, clim, nombreDeBagages, type, permis, tarifJournalier, kilometrage, actif, retireDuParc, options);
         List<VoitureResponseDto> voitures = voitureService.rechercher(id, marque, modele, couleur, nombreDePlaces, carburant, nombreDePortes, transmission, clim,
-                nombreDeBagages, type, permis, tarifJournalier, kilometrage, actif, retireDuParc);
+                nombreDeBagages, type, permis, tarifJournalier, kilometrage, actif, retireDuParc, options);
         log.info("Nombre de voitures trouvées : {}", voitures.size());
         return voitures;
     }
@@ -1,7 +1,11 @@
 package com.accenture.controller.advice;
 
+import com.accenture.exception.LocationConflitException;
+import com.accenture.exception.LocationException;
+import com.accenture.exception.ModificationConcurrenteException;
 import com.accenture.exception.UtilisateurException;
 import com.accenture.exception.VehiculeException;
+import com.accenture.exception.VehiculesIndisponiblesException;
 import com.accenture.model.ErreurReponse;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
@@ -33,6 +37,31 @@ public class ApplicationControllerAdvice {
         ErreurReponse er = new ErreurReponse(LocalDateTime.now(), "Erreur lié à l'utilisateur", ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(er);
     }
+
+    @ExceptionHandler(VehiculesIndisponiblesException.class)
+    public ResponseEntity<ErreurReponse> gestionVehiculesIndisponiblesException(VehiculesIndisponiblesException ex){
+        ErreurReponse er = new ErreurReponse(LocalDateTime.now(), "Véhicules indisponibles", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(er);
+    }
+
+    @ExceptionHandler(LocationException.class)
+    public ResponseEntity<ErreurReponse> gestionLocationException(LocationException ex){
+        ErreurReponse er = new ErreurReponse(LocalDateTime.now(), "Erreur liée à la location", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(er);
+    }
+
+    @ExceptionHandler(LocationConflitException.class)
+    public ResponseEntity<ErreurReponse> gestionLocationConflitException(LocationConflitException ex){
+        ErreurReponse er = new ErreurReponse(LocalDateTime.now(), "Véhicule indisponible", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(er);
+    }
+
+    @ExceptionHandler(ModificationConcurrenteException.class)
+    public ResponseEntity<ErreurReponse> gestionModificationConcurrenteException(ModificationConcurrenteException ex){
+        ErreurReponse er = new ErreurReponse(LocalDateTime.now(), "Modification concurrente", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(er);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErreurReponse> problemeValidation(MethodArgumentNotValidException ex){
         String message = ex.getBindingResult().getAllErrors()
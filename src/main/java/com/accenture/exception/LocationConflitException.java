@@ -0,0 +1,10 @@
+package com.accenture.exception;
+
+/**
+ * Le véhicule est déjà loué sur tout ou partie de la période demandée.
+ */
+public class LocationConflitException extends LocationException {
+    public LocationConflitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.accenture.exception;
+
+/**
+ * La modification n'a pas pu être appliquée : l'enregistrement a été modifié par d'autres requêtes
+ * à chacune des tentatives.
+ */
+public class ModificationConcurrenteException extends RuntimeException {
+    public ModificationConcurrenteException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.accenture.exception;
+
+/**
+ * Aucun type de véhicule n'a pu être lu : toutes les requêtes ont échoué ou dépassé leur délai.
+ */
+public class VehiculesIndisponiblesException extends VehiculeException {
+    public VehiculesIndisponiblesException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.accenture.model;
+
+import com.accenture.model.param.Permis;
+
+import java.time.LocalDate;
+
+/**
+ * Ligne de la projection des clients : les colonnes du client et de son adresse, avec un de ses permis.
+ * Un client a autant de lignes que de permis (une seule, avec un permis null, s'il n'en a aucun).
+ */
+public record FicheClient(String mail, String password, String nom, String prenom,
+                          Integer adresseId, String rue, String codePostal, String ville,
+                          LocalDate dateNaissance, LocalDate dateInscription, Boolean desactive, Permis permis) {
+}
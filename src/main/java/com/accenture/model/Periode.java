@@ -0,0 +1,9 @@
+package com.accenture.model;
+
+import java.time.LocalDate;
+
+/**
+ * Période de location, bornes incluses.
+ */
+public record Periode(LocalDate debut, LocalDate fin) {
+}
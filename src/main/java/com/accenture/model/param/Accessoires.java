@@ -2,30 +2,36 @@ package com.accenture.model.param;
 
 import lombok.Getter;
 
+/**
+ * Accessoires proposés avec la location d'un véhicule, avec le type de véhicule auquel chacun est réservé
+ * et son prix par jour de location, en centimes.
+ */
 @Getter
 public enum Accessoires {
-    SIEGE_BEBE_VOITURE(TypeVehiculeEnum.VOITURE),
-    GPS_VOITURE(TypeVehiculeEnum.VOITURE),
-    PORTE_VELO_VOITURE(TypeVehiculeEnum.VOITURE),
-    COFFRE_TOIT_VOITURE(TypeVehiculeEnum.VOITURE),
-    CASQUE_MOTO(TypeVehiculeEnum.MOTO),
-    GANTS_MOTO(TypeVehiculeEnum.MOTO),
-    ANTIVOL_MOTO(TypeVehiculeEnum.MOTO),
-    PANTALON_PLUIE_MOTO(TypeVehiculeEnum.MOTO),
-    DIABLE_UTILITAIRE(TypeVehiculeEnum.UTILITAIRE),
-    SANGLE_UTILITAIRE(TypeVehiculeEnum.UTILITAIRE),
-    COUVERTURE_PROTECTION_UTILITAIRE(TypeVehiculeEnum.UTILITAIRE),
-    CASQUE_VELO(TypeVehiculeEnum.VELO),
-    ANTIVOL_VELO(TypeVehiculeEnum.VELO),
-    PANIER_VELO(TypeVehiculeEnum.VELO),
-    SACOCHE_VELO(TypeVehiculeEnum.VELO),
-    KIT_REPARATION_VELO(TypeVehiculeEnum.VELO),
-    GILET_REFLECHISSANT_VELO(TypeVehiculeEnum.VELO);
+    SIEGE_BEBE_VOITURE(TypeVehiculeEnum.VOITURE, 500),
+    GPS_VOITURE(TypeVehiculeEnum.VOITURE, 400),
+    PORTE_VELO_VOITURE(TypeVehiculeEnum.VOITURE, 600),
+    COFFRE_TOIT_VOITURE(TypeVehiculeEnum.VOITURE, 800),
+    CASQUE_MOTO(TypeVehiculeEnum.MOTO, 300),
+    GANTS_MOTO(TypeVehiculeEnum.MOTO, 200),
+    ANTIVOL_MOTO(TypeVehiculeEnum.MOTO, 200),
+    PANTALON_PLUIE_MOTO(TypeVehiculeEnum.MOTO, 200),
+    DIABLE_UTILITAIRE(TypeVehiculeEnum.UTILITAIRE, 500),
+    SANGLE_UTILITAIRE(TypeVehiculeEnum.UTILITAIRE, 100),
+    COUVERTURE_PROTECTION_UTILITAIRE(TypeVehiculeEnum.UTILITAIRE, 300),
+    CASQUE_VELO(TypeVehiculeEnum.VELO, 100),
+    ANTIVOL_VELO(TypeVehiculeEnum.VELO, 100),
+    PANIER_VELO(TypeVehiculeEnum.VELO, 100),
+    SACOCHE_VELO(TypeVehiculeEnum.VELO, 200),
+    KIT_REPARATION_VELO(TypeVehiculeEnum.VELO, 100),
+    GILET_REFLECHISSANT_VELO(TypeVehiculeEnum.VELO, 50);
 
     private TypeVehiculeEnum type;
+    private int prixJournalierCentimes;
 
-    Accessoires(TypeVehiculeEnum typeVehiculeEnum) {
+    Accessoires(TypeVehiculeEnum typeVehiculeEnum, int prixJournalierCentimes) {
         this.type = typeVehiculeEnum;
+        this.prixJournalierCentimes = prixJournalierCentimes;
     }
 
-}
\ No newline at end of file
+}
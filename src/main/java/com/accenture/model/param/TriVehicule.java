@@ -0,0 +1,6 @@
+package com.accenture.model.param;
+
+public enum TriVehicule {
+    TARIF_JOURNALIER,
+    KILOMETRAGE
+}
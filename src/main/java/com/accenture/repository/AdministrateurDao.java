@@ -2,19 +2,31 @@ package com.accenture.repository;
 
 import com.accenture.repository.entity.Administrateur;
 import org.springframework.data.jpa.repository.JpaRepository;
-
-import java.util.List;
-import java.util.Optional;
-
-public interface AdministrateurDao extends JpaRepository<Administrateur, String> {
-
-    Optional<Administrateur> findByMailContaining(String mail) ;
-
-    List<Administrateur> findByPrenomContaining(String prenom) ;
-
-    List<Administrateur> findByNomContaining(String nom) ;
-
-    List<Administrateur> findByFonctionContaining(String fonction) ;
-
-
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AdministrateurDao extends JpaRepository<Administrateur, String>, JpaSpecificationExecutor<Administrateur> {
+
+    /**
+     * Verrou consultatif PostgreSQL des suppressions d'administrateurs, tenu jusqu'à la fin de la transaction :
+     * les suppressions s'exécutent l'une après l'autre, et chacune voit celles qui l'ont précédée.
+     * Sans lui, deux suppressions simultanées verraient chacune l'autre administrateur encore présent.
+     */
+    @Query(value = "select 1 from pg_advisory_xact_lock(hashtext('suppression_administrateur'))", nativeQuery = true)
+    int verrouillerSuppressions();
+
+    /**
+     * Supprime l'administrateur (ses lignes administrateur et utilisateurs) en une requête, à condition qu'il
+     * en reste un autre. Les deux conditions sont résolues par la clé primaire : ni comptage ni parcours de la table.
+     *
+     * @param mail l'adresse email de l'administrateur
+     * @return 1 si l'administrateur a été supprimé, 0 s'il n'existe pas ou s'il est le dernier
+     */
+    @Modifying
+    @Query(value = "with supprime as (delete from administrateur a where a.mail = :mail "
+            + "and exists (select 1 from administrateur autre where autre.mail <> :mail) returning a.mail) "
+            + "delete from utilisateurs u using supprime where u.mail = supprime.mail", nativeQuery = true)
+    int supprimerSaufDernier(@Param("mail") String mail);
 }
@@ -0,0 +1,39 @@
+package com.accenture.repository;
+
+import com.accenture.repository.entity.Administrateur;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Critères de la recherche d'administrateurs, à combiner avec {@link Specification#allOf} en une seule requête.
+ * Chaque méthode rend null pour une valeur null : le critère est ignoré.
+ * <p>
+ * Les quatre critères portent sur une partie du texte ({@code like '%motif%'}), servie par les index trigrammes
+ * de la migration V2 ({@code idx_utilisateurs_*_trgm} et {@code idx_administrateur_fonction_trgm}).
+ */
+public final class AdministrateurSpecifications {
+
+    private AdministrateurSpecifications() {
+    }
+
+    public static Specification<Administrateur> mailContient(String motif) {
+        return contient("mail", motif);
+    }
+
+    public static Specification<Administrateur> prenomContient(String motif) {
+        return contient("prenom", motif);
+    }
+
+    public static Specification<Administrateur> nomContient(String motif) {
+        return contient("nom", motif);
+    }
+
+    public static Specification<Administrateur> fonctionContient(String motif) {
+        return contient("fonction", motif);
+    }
+
+    private static Specification<Administrateur> contient(String attribut, String motif) {
+        if (motif == null)
+            return null;
+        return (administrateur, requete, cb) -> cb.like(administrateur.get(attribut), Motifs.contenant(motif), Motifs.ECHAPPEMENT);
+    }
+}
@@ -1,32 +1,45 @@
 package com.accenture.repository;
 
-import com.accenture.model.param.Permis;
+import com.accenture.model.FicheClient;
 import com.accenture.repository.entity.Client;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ClientDao extends JpaRepository<Client, String> {
-
-    Optional<Client> findByMailContaining(String mail);
-
-    List<Client> findByPrenomContaining(String prenom);
-
-    List<Client> findBynomContaining(String nom);
-
-    List<Client> findByDateNaissance(LocalDate dateNaissance);
-
-    List<Client> findByAdresse_RueContaining(String rue);
-    List<Client> findByAdresse_CodePostalContaining(String codePostal);
-    List<Client> findByAdresse_VilleContaining(String ville);
-
-
-
-    List<Client> findByDesactive(Boolean desactive);
-
-    List<Client> findByDateInscription(LocalDate dateInscription);
-
-    List<Client> findByListePermisContaining(Permis permis);
+public interface ClientDao extends JpaRepository<Client, String>, ClientRecherche {
+
+    @Override
+    @EntityGraph(Client.GRAPHE_FICHE)
+    Optional<Client> findById(String mail);
+
+    @Override
+    @EntityGraph(Client.GRAPHE_FICHE)
+    List<Client> findAll();
+
+    /**
+     * Tous les clients, avec leur adresse et leurs permis, en une requête de projection : aucune entité n'est chargée
+     * ni suivie par le contexte de persistance. Un client a une ligne par permis.
+     *
+     * @return les lignes, triées par adresse mail
+     */
+    @Query("select new com.accenture.model.FicheClient(c.mail, c.password, c.nom, c.prenom, "
+            + "a.id, a.rue, a.codePostal, a.ville, c.dateNaissance, c.dateInscription, c.desactive, p) "
+            + "from Client c left join c.adresse a left join c.listePermis p order by c.mail")
+    List<FicheClient> listerFiches();
+
+    /**
+     * Les clients donnés, comme {@link #listerFiches()} : une ligne par permis.
+     *
+     * @param mails les adresses mail des clients
+     * @return les lignes, triées par adresse mail
+     */
+    @Query("select new com.accenture.model.FicheClient(c.mail, c.password, c.nom, c.prenom, "
+            + "a.id, a.rue, a.codePostal, a.ville, c.dateNaissance, c.dateInscription, c.desactive, p) "
+            + "from Client c left join c.adresse a left join c.listePermis p where c.mail in :mails order by c.mail")
+    List<FicheClient> listerFiches(@Param("mails") Collection<String> mails);
 }
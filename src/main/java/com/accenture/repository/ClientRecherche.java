@@ -0,0 +1,22 @@
+package com.accenture.repository;
+
+import com.accenture.repository.entity.Client;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Recherche de clients sur critères (voir {@link ClientSpecifications}), ajoutée à {@link ClientDao}.
+ */
+public interface ClientRecherche {
+
+    /**
+     * Adresses mail des clients qui vérifient les critères, en une requête, sans charger d'entité.
+     *
+     * @param criteres les critères combinés, null pour tous les clients
+     * @param limite   nombre maximum d'adresses
+     * @return les adresses, triées par ordre croissant
+     */
+    List<String> trouverMails(Specification<Client> criteres, Limit limite);
+}
@@ -0,0 +1,38 @@
+package com.accenture.repository;
+
+import com.accenture.repository.entity.Client;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class ClientRechercheImpl implements ClientRecherche {
+
+    private final EntityManager entityManager;
+
+    ClientRechercheImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<String> trouverMails(Specification<Client> criteres, Limit limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> requete = cb.createQuery(String.class);
+        Root<Client> client = requete.from(Client.class);
+        requete.select(client.get("mail")).orderBy(cb.asc(client.get("mail")));
+        Predicate filtre = criteres == null ? null : criteres.toPredicate(client, requete, cb);
+        if (filtre != null)
+            requete.where(filtre);
+
+        TypedQuery<String> mails = entityManager.createQuery(requete);
+        if (limite.isLimited())
+            mails.setMaxResults(limite.max());
+        return mails.getResultList();
+    }
+}
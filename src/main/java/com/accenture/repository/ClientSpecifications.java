@@ -0,0 +1,110 @@
+package com.accenture.repository;
+
+import com.accenture.model.param.Permis;
+import com.accenture.repository.entity.Adresse;
+import com.accenture.repository.entity.Client;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Critères de la recherche de clients, à combiner avec {@link Specification#allOf} en une seule requête.
+ * Chaque méthode rend null pour une valeur null : le critère est ignoré.
+ * <p>
+ * Chaque critère correspond à un index (migrations V2 et V4) : trigrammes pour les recherches par partie de texte
+ * ({@code like '%motif%'}), B-tree pour le début du code postal, les dates et le statut, et la clé primaire
+ * pour le curseur de pagination.
+ */
+public final class ClientSpecifications {
+
+    private ClientSpecifications() {
+    }
+
+    public static Specification<Client> mailContient(String motif) {
+        return contient(client -> client, "mail", motif);
+    }
+
+    public static Specification<Client> prenomContient(String motif) {
+        return contient(client -> client, "prenom", motif);
+    }
+
+    public static Specification<Client> nomContient(String motif) {
+        return contient(client -> client, "nom", motif);
+    }
+
+    public static Specification<Client> rueContient(String motif) {
+        return contient(ClientSpecifications::adresse, "rue", motif);
+    }
+
+    public static Specification<Client> villeContient(String motif) {
+        return contient(ClientSpecifications::adresse, "ville", motif);
+    }
+
+    public static Specification<Client> codePostalCommencePar(String debut) {
+        if (debut == null)
+            return null;
+        return (client, requete, cb) -> cb.like(adresse(client).get("codePostal"), Motifs.commencantPar(debut), Motifs.ECHAPPEMENT);
+    }
+
+    public static Specification<Client> neLe(LocalDate dateNaissance) {
+        return egal("dateNaissance", dateNaissance);
+    }
+
+    public static Specification<Client> inscritLe(LocalDate dateInscription) {
+        return egal("dateInscription", dateInscription);
+    }
+
+    public static Specification<Client> desactive(Boolean desactive) {
+        return egal("desactive", desactive);
+    }
+
+    /**
+     * Le client détient chacun des permis (il peut en détenir d'autres).
+     */
+    public static Specification<Client> detientPermis(List<Permis> listePermis) {
+        if (listePermis == null || listePermis.isEmpty())
+            return null;
+        return (client, requete, cb) -> cb.and(listePermis.stream()
+                .map(permis -> cb.isMember(permis, client.<Collection<Permis>>get("listePermis")))
+                .toArray(Predicate[]::new));
+    }
+
+    /**
+     * Clients dont l'adresse mail suit le curseur, dans l'ordre de tri de la recherche (pagination par curseur).
+     */
+    public static Specification<Client> mailApres(String curseur) {
+        if (curseur == null)
+            return null;
+        return (client, requete, cb) -> cb.greaterThan(client.get("mail"), curseur);
+    }
+
+    private static Specification<Client> contient(Function<Root<Client>, From<?, ?>> source, String attribut, String motif) {
+        if (motif == null)
+            return null;
+        return (client, requete, cb) -> cb.like(source.apply(client).get(attribut), Motifs.contenant(motif), Motifs.ECHAPPEMENT);
+    }
+
+    private static Specification<Client> egal(String attribut, Object valeur) {
+        if (valeur == null)
+            return null;
+        return (client, requete, cb) -> cb.equal(client.get(attribut), valeur);
+    }
+
+    /**
+     * Jointure de l'adresse, partagée par les critères qui portent sur elle.
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<Client, Adresse> adresse(Root<Client> client) {
+        for (Join<Client, ?> jointure : client.getJoins())
+            if (jointure.getAttribute().getName().equals("adresse"))
+                return (Join<Client, Adresse>) jointure;
+        return client.join("adresse");
+    }
+}
@@ -1,7 +1,36 @@
 package com.accenture.repository;
 
+import com.accenture.model.Periode;
 import com.accenture.repository.entity.Location;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface LocationDao extends JpaRepository<Location, Integer> {
+
+    /**
+     * Toutes les locations avec le plan de chargement de la facturation. Les entités sont chargées en lecture seule :
+     * Hibernate ne garde pas leur état initial et ne les contrôle pas au flush.
+     */
+    @Override
+    @EntityGraph(Location.GRAPHE_FACTURATION)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Location> findAll();
+
+    /**
+     * Périodes occupées d'un véhicule : toutes ses locations datées, sauf les locations annulées.
+     *
+     * @param vehiculeId l'identifiant du véhicule
+     * @return les périodes, dans un ordre quelconque
+     */
+    @Query("select new com.accenture.model.Periode(l.dateDebut, l.dateFin) from Location l "
+            + "where l.vehicule.id = :vehiculeId and l.etat <> com.accenture.model.param.Etat.ANNULE "
+            + "and l.dateDebut is not null and l.dateFin is not null")
+    List<Periode> trouverPeriodesOccupees(@Param("vehiculeId") long vehiculeId);
 }
@@ -0,0 +1,31 @@
+package com.accenture.repository;
+
+/**
+ * Motifs {@code like} des recherches par partie de texte : les caractères % et _ du texte cherché sont échappés,
+ * pour être cherchés tels quels.
+ */
+final class Motifs {
+
+    static final char ECHAPPEMENT = '\\';
+
+    private Motifs() {
+    }
+
+    /**
+     * @return le motif des valeurs qui contiennent le texte ({@code like '%texte%'}, servi par un index trigramme)
+     */
+    static String contenant(String texte) {
+        return "%" + echapper(texte) + "%";
+    }
+
+    /**
+     * @return le motif des valeurs qui commencent par le texte ({@code like 'texte%'}, servi par un index B-tree)
+     */
+    static String commencantPar(String texte) {
+        return echapper(texte) + "%";
+    }
+
+    private static String echapper(String texte) {
+        return texte.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
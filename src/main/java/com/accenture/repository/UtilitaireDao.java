@@ -1,7 +1,6 @@
 package com.accenture.repository;
 
 import com.accenture.repository.entity.Utilitaire;
-import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface UtilitaireDao extends JpaRepository<Utilitaire, Long> {
+public interface UtilitaireDao extends VehiculeTypeDao<Utilitaire> {
 }
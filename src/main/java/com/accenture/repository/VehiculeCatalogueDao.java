@@ -0,0 +1,38 @@
+package com.accenture.repository;
+
+import com.accenture.repository.entity.VehiculeCatalogue;
+import com.accenture.service.dto.TarifVehiculeDto;
+import com.accenture.service.dto.VehiculeDto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lecture du catalogue des véhicules, tous types confondus, en une requête sur une seule table.
+ */
+public interface VehiculeCatalogueDao extends JpaRepository<VehiculeCatalogue, Long> {
+
+    /**
+     * Véhicules de tous les types ayant ce statut, résolu par l'index (actif, retire_du_parc, id) qui donne aussi l'ordre.
+     *
+     * @return les véhicules, triés par identifiant
+     */
+    @Query("select new com.accenture.service.dto.VehiculeDto(c.id, c.typeVehicule, c.marque, c.modele, c.couleur, c.type, "
+            + "c.tarifJournalier, c.kilometrage, c.actif, c.retireDuParc) from VehiculeCatalogue c "
+            + "where c.actif = :actif and c.retireDuParc = :retireDuParc order by c.id")
+    List<VehiculeDto> rechercherParStatut(@Param("actif") boolean actif, @Param("retireDuParc") boolean retireDuParc);
+
+    /**
+     * Tarifs des véhicules proposés à la location parmi ces identifiants, en une requête sur la clé primaire.
+     * Un véhicule inconnu, inactif ou retiré du parc est absent du résultat.
+     *
+     * @param ids les identifiants, sans doublon
+     * @return les tarifs trouvés, dans un ordre quelconque
+     */
+    @Query("select new com.accenture.service.dto.TarifVehiculeDto(c.id, c.typeVehicule, c.tarifJournalier) "
+            + "from VehiculeCatalogue c where c.id in :ids and c.actif = true and c.retireDuParc = false")
+    List<TarifVehiculeDto> trouverTarifsLouables(@Param("ids") Collection<Long> ids);
+}
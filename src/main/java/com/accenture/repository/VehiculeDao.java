@@ -0,0 +1,66 @@
+package com.accenture.repository;
+
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.service.dto.VehiculeDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * DAO polymorphe sur la racine {@link Vehicule}.
+ * Les identifiants des véhicules sont tirés d'un compteur commun (GenerationType.TABLE),
+ * un identifiant désigne donc un seul véhicule tous types confondus et une seule requête suffit pour le retrouver.
+ */
+public interface VehiculeDao extends JpaRepository<Vehicule, Long> {
+
+    String PROJECTION_DTO = "select new com.accenture.service.dto.VehiculeDto(v.id, "
+            + "case type(v) when Voiture then com.accenture.model.param.TypeVehiculeEnum.VOITURE "
+            + "when Moto then com.accenture.model.param.TypeVehiculeEnum.MOTO "
+            + "when Velo then com.accenture.model.param.TypeVehiculeEnum.VELO "
+            + "else com.accenture.model.param.TypeVehiculeEnum.UTILITAIRE end, "
+            + "v.marque, v.modele, v.couleur, v.type, v.tarifJournalier, v.kilometrage, v.actif, v.retireDuParc) "
+            + "from Vehicule v ";
+
+    /**
+     * Page de véhicules, tous types confondus, dont l'identifiant est strictement supérieur au curseur.
+     * L'identifiant étant unique sur les quatre tables, le tri par id donne un ordre stable
+     * et la page suivante se lit sans OFFSET.
+     *
+     * @param apres  dernier identifiant de la page précédente (0 pour la première page)
+     * @param taille nombre maximum de véhicules à renvoyer
+     * @return les véhicules de la page, triés par identifiant
+     */
+    @Query(PROJECTION_DTO + "where v.id > :apres order by v.id")
+    List<VehiculeDto> trouverPageApres(@Param("apres") long apres, Limit taille);
+
+    /**
+     * Parcourt tous les véhicules dans l'ordre des identifiants, en lisant la base par paquets via un curseur JDBC.
+     * Doit être appelé dans une transaction et le flux doit être fermé après usage.
+     *
+     * @return le flux des véhicules
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(PROJECTION_DTO + "order by v.id")
+    Stream<VehiculeDto> parcourirTous();
+
+    /**
+     * Véhicules actifs, présents dans le parc et sans location non annulée qui chevauche [debut, fin] (bornes incluses).
+     * Le NOT EXISTS est résolu par l'index (vehicule_id, date_debut, date_fin) de la table location :
+     * seules les locations de chaque véhicule candidat sont lues.
+     */
+    @Query(PROJECTION_DTO + "where v.actif = true and v.retireDuParc = false and not exists ("
+            + "select 1 from Location l where l.vehicule = v and l.etat <> com.accenture.model.param.Etat.ANNULE "
+            + "and l.dateDebut <= :fin and l.dateFin >= :debut) order by v.id")
+    List<VehiculeDto> trouverDisponibles(@Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+}
@@ -0,0 +1,71 @@
+package com.accenture.repository;
+
+import com.accenture.repository.entity.Vehicule;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Critères de la recherche de véhicules d'un type, désignés par le nom de l'attribut de l'entité,
+ * à combiner avec {@link Specification#allOf} en une seule requête sur la table du type.
+ * Chaque méthode rend null pour une valeur null : le critère est ignoré.
+ * <p>
+ * Les filtres sur actif et retireDuParc, suivis d'une plage ou d'un tri sur le tarif, sont servis par l'index
+ * (actif, retire_du_parc, tarif_journalier) de chaque table ; les recherches par partie de texte par les index
+ * trigrammes de la migration V2.
+ */
+public final class VehiculeSpecifications {
+
+    private VehiculeSpecifications() {
+    }
+
+    /**
+     * La chaîne contient le motif (sensible à la casse) ; les caractères % et _ du motif sont cherchés tels quels.
+     */
+    public static <T extends Vehicule> Specification<T> contient(String attribut, String motif) {
+        if (motif == null)
+            return null;
+        return (vehicule, requete, cb) -> cb.like(vehicule.get(attribut), Motifs.contenant(motif), Motifs.ECHAPPEMENT);
+    }
+
+    public static <T extends Vehicule> Specification<T> egal(String attribut, Object valeur) {
+        if (valeur == null)
+            return null;
+        return (vehicule, requete, cb) -> cb.equal(vehicule.get(attribut), valeur);
+    }
+
+    /**
+     * Égalité d'un nombre, comparé sur sa partie entière si {@code partieEntiere} (attribut décimal).
+     */
+    public static <T extends Vehicule> Specification<T> nombreEgal(String attribut, boolean partieEntiere, Long valeur) {
+        if (valeur == null)
+            return null;
+        return (vehicule, requete, cb) -> cb.equal(nombre(vehicule, cb, attribut, partieEntiere), valeur);
+    }
+
+    /**
+     * Plage d'un nombre, bornes incluses ; une borne null n'est pas appliquée.
+     */
+    public static <T extends Vehicule> Specification<T> nombreEntre(String attribut, boolean partieEntiere, Long min, Long max) {
+        if (min == null && max == null)
+            return null;
+        return (vehicule, requete, cb) -> {
+            Expression<? extends Number> valeur = nombre(vehicule, cb, attribut, partieEntiere);
+            List<Predicate> bornes = new ArrayList<>(2);
+            if (min != null)
+                bornes.add(cb.ge(valeur, min));
+            if (max != null)
+                bornes.add(cb.le(valeur, max));
+            return cb.and(bornes.toArray(Predicate[]::new));
+        };
+    }
+
+    private static Expression<? extends Number> nombre(Root<?> vehicule, CriteriaBuilder cb, String attribut, boolean partieEntiere) {
+        return partieEntiere ? cb.floor(vehicule.<Double>get(attribut)) : vehicule.get(attribut);
+    }
+}
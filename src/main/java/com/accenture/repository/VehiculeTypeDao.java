@@ -0,0 +1,30 @@
+package com.accenture.repository;
+
+import com.accenture.repository.entity.Vehicule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Requêtes communes aux DAO d'un type de véhicule : chacune ne lit que la table de son type.
+ * Les recherches multicritères passent par {@link VehiculeSpecifications}.
+ *
+ * @param <T> le type de véhicule
+ */
+@NoRepositoryBean
+public interface VehiculeTypeDao<T extends Vehicule> extends JpaRepository<T, Long>, JpaSpecificationExecutor<T> {
+
+    /**
+     * Véhicules du type filtrés sur actif et retireDuParc (un critère null est ignoré), sans leurs accessoires
+     * ni leurs locations. Chaque table de véhicules a un index (actif, retire_du_parc, tarif_journalier) qui sert ce filtre.
+     *
+     * @return les véhicules, triés par identifiant
+     */
+    @Query("select v from #{#entityName} v where (:actif is null or v.actif = :actif) "
+            + "and (:retireDuParc is null or v.retireDuParc = :retireDuParc) order by v.id")
+    List<T> rechercher(@Param("actif") Boolean actif, @Param("retireDuParc") Boolean retireDuParc);
+}
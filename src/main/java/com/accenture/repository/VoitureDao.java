@@ -1,9 +1,22 @@
 package com.accenture.repository;
 
 import com.accenture.repository.entity.Voiture;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.accenture.service.dto.VoitureResponseDto;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 
-public interface VoitureDao extends JpaRepository<Voiture, Long> {
 
+public interface VoitureDao extends VehiculeTypeDao<Voiture> {
+
+    /**
+     * Toutes les voitures, lues directement dans leur DTO de réponse : aucune entité n'est chargée
+     * ni suivie par le contexte de persistance.
+     *
+     * @return les voitures, triées par identifiant
+     */
+    @Query("select new com.accenture.service.dto.VoitureResponseDto(v.id, v.marque, v.modele, v.couleur, v.type, "
+            + "v.nombreDePlaces, v.nombreDePortes, v.transmission, v.clim, v.nombreDeBagages, v.permis, v.carburant, "
+            + "v.tarifJournalier, v.kilometrage, v.actif, v.retireDuParc) from Voiture v order by v.id")
+    List<VoitureResponseDto> listerToutes();
 }
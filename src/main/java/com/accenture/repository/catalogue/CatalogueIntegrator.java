@@ -0,0 +1,30 @@
+package com.accenture.repository.catalogue;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Branche {@link SynchroCatalogue} sur les événements d'écriture de Hibernate.
+ * Déclaré dans META-INF/services : il s'applique à toute SessionFactory, y compris celles des tests JPA.
+ */
+public class CatalogueIntegrator implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        SynchroCatalogue synchro = new SynchroCatalogue();
+        EventListenerRegistry registre = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+        registre.appendListeners(EventType.POST_INSERT, synchro);
+        registre.appendListeners(EventType.POST_UPDATE, synchro);
+        registre.appendListeners(EventType.POST_DELETE, synchro);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // rien à libérer
+    }
+}
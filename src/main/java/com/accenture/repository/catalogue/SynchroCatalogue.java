@@ -0,0 +1,154 @@
+package com.accenture.repository.catalogue;
+
+import com.accenture.model.param.TypeVehiculeEnum;
+import com.accenture.repository.entity.Vehicule;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tient à jour la table vehicule_catalogue à chaque insertion, modification ou suppression d'un véhicule par Hibernate,
+ * quel que soit le chemin d'écriture (services, import par lots).
+ * <p>
+ * Les écritures d'une transaction sont regroupées par véhicule (une insertion suivie d'une modification reste une
+ * insertion, une insertion suivie d'une suppression n'écrit rien), puis envoyées par paquets JDBC juste avant la
+ * validation, sur la connexion de la transaction : le catalogue est validé ou annulé avec les véhicules. Une
+ * modification qui ne trouve pas la ligne du véhicule dans le catalogue (ligne perdue, véhicule antérieur au
+ * catalogue) l'insère à la place.
+ */
+public class SynchroCatalogue implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    static final String INSERTION = "insert into vehicule_catalogue (type_vehicule, marque, modele, couleur, type, "
+            + "tarif_journalier, kilometrage, actif, retire_du_parc, id) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String MODIFICATION = "update vehicule_catalogue set type_vehicule = ?, marque = ?, modele = ?, couleur = ?, "
+            + "type = ?, tarif_journalier = ?, kilometrage = ?, actif = ?, retire_du_parc = ? where id = ?";
+    static final String SUPPRESSION = "delete from vehicule_catalogue where id = ?";
+
+    private enum Operation {INSERTION, MODIFICATION, SUPPRESSION}
+
+    private record Ecriture(Operation operation, long id, TypeVehiculeEnum typeVehicule, String marque, String modele,
+                            String couleur, String type, long tarifJournalier, long kilometrage, Boolean actif,
+                            Boolean retireDuParc) {
+
+        static Ecriture de(Operation operation, Vehicule v) {
+            return new Ecriture(operation, v.getId(), Vehicule.typeDe(v), v.getMarque(), v.getModele(), v.getCouleur(),
+                    v.getType(), v.getTarifJournalier(), v.getKilometrage(), v.getActif(), v.getRetireDuParc());
+        }
+
+        Ecriture en(Operation autre) {
+            return new Ecriture(autre, id, typeVehicule, marque, modele, couleur, type, tarifJournalier, kilometrage, actif, retireDuParc);
+        }
+    }
+
+    /** écritures en attente de chaque session, jusqu'à la fin de sa transaction */
+    private final Map<EventSource, Map<Long, Ecriture>> enAttente = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Vehicule vehicule)
+            noter(event.getSession(), Ecriture.de(Operation.INSERTION, vehicule));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Vehicule vehicule)
+            noter(event.getSession(), Ecriture.de(Operation.MODIFICATION, vehicule));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Vehicule vehicule)
+            noter(event.getSession(), Ecriture.de(Operation.SUPPRESSION, vehicule));
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void noter(EventSource session, Ecriture ecriture) {
+        Map<Long, Ecriture> ecritures = enAttente.computeIfAbsent(session, this::ouvrir);
+        Ecriture precedente = ecritures.get(ecriture.id());
+        if (precedente != null && precedente.operation() == Operation.INSERTION) {
+            // le véhicule n'est pas encore dans le catalogue : on insère son dernier état, ou rien s'il a été supprimé
+            if (ecriture.operation() == Operation.SUPPRESSION)
+                ecritures.remove(ecriture.id());
+            else
+                ecritures.put(ecriture.id(), ecriture.en(Operation.INSERTION));
+            return;
+        }
+        ecritures.put(ecriture.id(), ecriture);
+    }
+
+    private Map<Long, Ecriture> ouvrir(EventSource session) {
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) s -> {
+            Map<Long, Ecriture> ecritures = enAttente.remove(session);
+            if (ecritures != null && !ecritures.isEmpty())
+                s.doWork(connexion -> ecrire(connexion, ecritures));
+        });
+        // transaction annulée : les écritures en attente sont abandonnées
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (succes, s) -> enAttente.remove(session));
+        return new LinkedHashMap<>();
+    }
+
+    private static void ecrire(Connection connexion, Map<Long, Ecriture> ecritures) throws SQLException {
+        try (PreparedStatement suppressions = connexion.prepareStatement(SUPPRESSION);
+             PreparedStatement modifications = connexion.prepareStatement(MODIFICATION);
+             PreparedStatement insertions = connexion.prepareStatement(INSERTION)) {
+            int[] nombres = new int[Operation.values().length];
+            List<Ecriture> modifiees = new ArrayList<>();
+            for (Ecriture ecriture : ecritures.values()) {
+                PreparedStatement requete = switch (ecriture.operation()) {
+                    case SUPPRESSION -> suppressions;
+                    case MODIFICATION -> modifications;
+                    case INSERTION -> insertions;
+                };
+                if (ecriture.operation() == Operation.SUPPRESSION)
+                    requete.setLong(1, ecriture.id());
+                else
+                    lier(requete, ecriture);
+                requete.addBatch();
+                nombres[ecriture.operation().ordinal()]++;
+                if (ecriture.operation() == Operation.MODIFICATION)
+                    modifiees.add(ecriture);
+            }
+            if (nombres[Operation.SUPPRESSION.ordinal()] > 0)
+                suppressions.executeBatch();
+            if (!modifiees.isEmpty()) {
+                int[] lignes = modifications.executeBatch();
+                for (int i = 0; i < lignes.length; i++)
+                    if (lignes[i] == 0) {
+                        lier(insertions, modifiees.get(i));
+                        insertions.addBatch();
+                        nombres[Operation.INSERTION.ordinal()]++;
+                    }
+            }
+            if (nombres[Operation.INSERTION.ordinal()] > 0)
+                insertions.executeBatch();
+        }
+    }
+
+    private static void lier(PreparedStatement requete, Ecriture ecriture) throws SQLException {
+        requete.setString(1, ecriture.typeVehicule().name());
+        requete.setString(2, ecriture.marque());
+        requete.setString(3, ecriture.modele());
+        requete.setString(4, ecriture.couleur());
+        requete.setString(5, ecriture.type());
+        requete.setLong(6, ecriture.tarifJournalier());
+        requete.setLong(7, ecriture.kilometrage());
+        requete.setObject(8, ecriture.actif(), Types.BOOLEAN);
+        requete.setObject(9, ecriture.retireDuParc(), Types.BOOLEAN);
+        requete.setLong(10, ecriture.id());
+    }
+}
@@ -1,13 +1,11 @@
 package com.accenture.repository.entity;
 
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
+import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * Classe utilisée pour gérer l'adresse nécéssaire à l'inscription des {@link Client}
@@ -30,6 +28,15 @@ public class Adresse {
     private String codePostal;
     @NotBlank(message = "la ville ne doit pas être vide")
     private String ville;
+    /** version pour le verrou optimiste : une adresse est modifiée par la modification partielle de son client */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    public Adresse(int id, String rue, String codePostal, String ville) {
+        this(id, rue, codePostal, ville, null);
+    }
 
     public Adresse(String rue, String codePostal, String ville) {
     }
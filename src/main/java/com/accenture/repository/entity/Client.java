@@ -1,11 +1,14 @@
 package com.accenture.repository.entity;
 
 import com.accenture.model.param.Permis;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -24,8 +27,17 @@ import java.util.List;
 @Data
 @Entity
 @DiscriminatorValue(value = "ROLE_CLIENT")
+@NamedEntityGraph(name = Client.GRAPHE_FICHE, attributeNodes = {
+        @NamedAttributeNode("adresse"),
+        @NamedAttributeNode("listePermis")
+})
 public class Client extends Utilisateur {
 
+    /**
+     * Plan de chargement des vues liste et détail : l'adresse et les permis, sans les locations.
+     */
+    public static final String GRAPHE_FICHE = "Client.fiche";
+
     @OneToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "adresse_id")
     private Adresse adresse;
@@ -33,9 +45,13 @@ public class Client extends Utilisateur {
     private LocalDate dateNaissance;
     private LocalDate dateInscription = LocalDate.now();
     @ElementCollection
+    @BatchSize(size = 50)
     private List<Permis> listePermis;
     private Boolean desactive;
 
-    @OneToMany(mappedBy = "client",fetch = FetchType.EAGER)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @OneToMany(mappedBy = "client", fetch = FetchType.LAZY)
     private List<Location> locations;
 }
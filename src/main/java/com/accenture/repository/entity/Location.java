@@ -9,6 +9,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import org.apache.catalina.LifecycleState;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -18,21 +19,35 @@ import java.util.List;
 @NoArgsConstructor
 @Data
 @Entity
+@NamedEntityGraph(name = Location.GRAPHE_FACTURATION, attributeNodes = {
+        @NamedAttributeNode(value = "client", subgraph = "client"),
+        @NamedAttributeNode("vehicule"),
+        @NamedAttributeNode("accessoires")
+}, subgraphs = @NamedSubgraph(name = "client", attributeNodes = @NamedAttributeNode("adresse")))
+@Table(indexes = @Index(name = "idx_location_vehicule_dates", columnList = "vehicule_id, date_debut, date_fin"))
 public class Location {
+
+        /**
+         * Plan de chargement de la vue facturation : la location avec son client, son adresse, son véhicule et ses accessoires.
+         * Les permis du client et les accessoires du véhicule sont chargés par lots (@BatchSize).
+         */
+        public static final String GRAPHE_FACTURATION = "Location.facturation";
+
         @Id
         @GeneratedValue(strategy = GenerationType.IDENTITY)
         private int id;
 
-        @ManyToOne(fetch = FetchType.EAGER)
+        @ManyToOne(fetch = FetchType.LAZY)
         @JoinColumn(name = "client_id")
         private Client client;
 
-        @ManyToOne(fetch = FetchType.EAGER)
+        @ManyToOne(fetch = FetchType.LAZY)
         @JoinColumn(name = "vehicule_id")
         private Vehicule vehicule;
 
         @ElementCollection(targetClass = Accessoires.class)
         @Enumerated(EnumType.STRING)
+        @BatchSize(size = 50)
         private List<Accessoires> accessoires;
 
         @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy/MM/dd")
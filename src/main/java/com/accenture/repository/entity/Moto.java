@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_moto_actif_retire_tarif", columnList = "actif, retire_du_parc, tarif_journalier"))
 @EqualsAndHashCode(callSuper = true)
 @DiscriminatorValue(value = "MOTO")
 
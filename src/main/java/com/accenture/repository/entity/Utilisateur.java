@@ -13,6 +13,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 @Data
 @AllArgsConstructor
@@ -28,4 +29,18 @@ public abstract class Utilisateur {
     private String password;
     private String nom;
     private String prenom;
+
+    /**
+     * Version pour le verrou optimiste, partagée par les clients et les administrateurs (voir ReessaiConcurrence).
+     * Null tant que l'utilisateur n'est pas enregistré : c'est ce qui le distingue d'un utilisateur existant,
+     * son identifiant (le mail) étant choisi à l'inscription.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    protected Utilisateur(String mail, String password, String nom, String prenom) {
+        this(mail, password, nom, prenom, null);
+    }
 }
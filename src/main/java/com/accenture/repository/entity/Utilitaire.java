@@ -13,6 +13,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_utilitaire_actif_retire_tarif", columnList = "actif, retire_du_parc, tarif_journalier"))
 @EqualsAndHashCode(callSuper = true)
 @DiscriminatorValue(value = "UTILITAIRE")
 
@@ -2,10 +2,18 @@ package com.accenture.repository.entity;
 
 import com.accenture.model.param.Accessoires;
 import com.accenture.model.param.TypeVehiculeEnum;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
@@ -13,17 +21,41 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Vehicule.REGION_CACHE)
 @Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
 @Table(name = "Vehicules")
 public abstract class Vehicule {
+
+    /** Régions du cache de second niveau, déclarées dans CacheVehiculesConfiguration. */
+    public static final String REGION_CACHE = "vehicules";
+    public static final String REGION_CACHE_ACCESSOIRES = "vehicules.accessoires";
+
+    /**
+     * Identifiants tirés de hibernate_sequences par blocs de 50 (même table et même segment que le générateur implicite) :
+     * un import de n véhicules ne fait qu'un aller-retour sur la table des compteurs tous les 50 véhicules.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.TABLE)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "vehicule_id")
+    @TableGenerator(name = "vehicule_id", table = "hibernate_sequences", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "default", allocationSize = 50)
     private long id;
 
+    /**
+     * Version pour le verrou optimiste : une écriture faite à partir d'une version périmée est refusée
+     * (voir ReessaiConcurrence). Null tant que le véhicule n'est pas enregistré.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Enumerated(EnumType.STRING)
     private TypeVehiculeEnum typeVehiculeEnum;
     @ElementCollection(targetClass = Accessoires.class)
     @Enumerated(EnumType.STRING)
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Vehicule.REGION_CACHE_ACCESSOIRES)
     private List<Accessoires> listeAccessoires;
     private String marque;
     private String modele;
@@ -34,9 +66,28 @@ public abstract class Vehicule {
     private Boolean actif;
     private Boolean retireDuParc;
 
-    @OneToMany(mappedBy = "vehicule",fetch = FetchType.EAGER)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @OneToMany(mappedBy = "vehicule", fetch = FetchType.LAZY)
     private List<Location> locations;
 
+    /**
+     * Déduit le type d'un véhicule de sa classe, le champ typeVehiculeEnum n'étant pas toujours renseigné.
+     *
+     * @param vehicule le véhicule
+     * @return le type correspondant à la classe du véhicule
+     */
+    public static TypeVehiculeEnum typeDe(Vehicule vehicule) {
+        return switch ((Vehicule) Hibernate.unproxy(vehicule)) {
+            case Voiture voiture -> TypeVehiculeEnum.VOITURE;
+            case Moto moto -> TypeVehiculeEnum.MOTO;
+            case Velo velo -> TypeVehiculeEnum.VELO;
+            case Utilitaire utilitaire -> TypeVehiculeEnum.UTILITAIRE;
+            default -> throw new IllegalArgumentException("Type de véhicule inconnu : " + vehicule.getClass().getName());
+        };
+    }
+
     public void ajouterAccessoire(Accessoires accessoire) {
         if (accessoire.getType() == this.typeVehiculeEnum) {
             listeAccessoires.add(accessoire);
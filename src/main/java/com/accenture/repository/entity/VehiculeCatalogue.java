@@ -0,0 +1,42 @@
+package com.accenture.repository.entity;
+
+import com.accenture.model.param.TypeVehiculeEnum;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Catalogue des véhicules : une ligne par véhicule, tous types confondus, avec les colonnes communes.
+ * Les quatre tables de véhicules (TABLE_PER_CLASS) ne peuvent pas partager d'index : cette table sert
+ * les recherches sur tout le parc en une requête indexée, sans UNION.
+ * <p>
+ * Entité en lecture seule : les lignes sont écrites par {@link com.accenture.repository.catalogue.SynchroCatalogue},
+ * dans la transaction qui écrit le véhicule.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "vehicule_catalogue", indexes = {
+        @Index(name = "idx_catalogue_statut", columnList = "actif, retire_du_parc, id"),
+        @Index(name = "idx_catalogue_marque_modele", columnList = "marque, modele"),
+        @Index(name = "idx_catalogue_tarif", columnList = "tarif_journalier")
+})
+public class VehiculeCatalogue {
+
+    @Id
+    private long id;
+    @Enumerated(EnumType.STRING)
+    private TypeVehiculeEnum typeVehicule;
+    private String marque;
+    private String modele;
+    private String couleur;
+    private String type;
+    private long tarifJournalier;
+    private long kilometrage;
+    private Boolean actif;
+    private Boolean retireDuParc;
+}
@@ -2,6 +2,8 @@ package com.accenture.repository.entity;
 
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -12,6 +14,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_velo_actif_retire_tarif", columnList = "actif, retire_du_parc, tarif_journalier"))
 @DiscriminatorValue(value = "VELO ")
 
 public class Velo extends Vehicule {
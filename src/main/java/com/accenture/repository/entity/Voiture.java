@@ -5,6 +5,8 @@ import com.accenture.model.param.Permis;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -15,6 +17,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_voiture_actif_retire_tarif", columnList = "actif, retire_du_parc, tarif_journalier"))
 
 @EqualsAndHashCode(callSuper = true)
 public class Voiture extends Vehicule {
@@ -1,18 +1,26 @@
 package com.accenture.service;
 
+import com.accenture.configuration.security.CacheAuthentification;
+import com.accenture.exception.ModificationConcurrenteException;
 import com.accenture.exception.UtilisateurException;
 import com.accenture.repository.AdministrateurDao;
+import com.accenture.repository.AdministrateurSpecifications;
 import com.accenture.repository.entity.Administrateur;
 import com.accenture.service.dto.AdministrateurRequestDto;
 import com.accenture.service.dto.AdministrateurResponseDto;
 import com.accenture.service.mapper.AdministrateurMapper;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
+import static com.accenture.repository.AdministrateurSpecifications.*;
+
 /**
  * Classe d'implémentation du service de gestion des administrateurs.
  * Cette classe fournit des méthodes pour ajouter, trouver, modifier, et supprimer des administrateurs,
@@ -23,6 +31,8 @@ public class AdministrateurServiceImpl implements AdministrateurService {
     private final AdministrateurDao administrateurDao;
     private final AdministrateurMapper administrateurMapper;
     private final PasswordEncoder passwordEncoder;
+    private final CacheAuthentification cacheAuthentification;
+    private final ReessaiConcurrence reessaiConcurrence;
 
     private static final String REGEX_PW = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[&#@-_§])[A-Za-z\\d&%$_]{8,16}$";
 
@@ -32,11 +42,17 @@ public class AdministrateurServiceImpl implements AdministrateurService {
      * @param administrateurDao    l'objet DAO pour accéder aux données des administrateurs
      * @param administrateurMapper l'objet Mapper pour convertir entre les entités Administrateur et les DTO
      * @param passwordEncoder      l'objet pour encoder les mots de passe des administrateurs
+     * @param cacheAuthentification le cache des authentifications, vidé pour un compte modifié ou supprimé
+     * @param reessaiConcurrence    rejoue les modifications partielles en conflit de version
      */
-    public AdministrateurServiceImpl(AdministrateurDao administrateurDao, AdministrateurMapper administrateurMapper, PasswordEncoder passwordEncoder) {
+    public AdministrateurServiceImpl(AdministrateurDao administrateurDao, AdministrateurMapper administrateurMapper, PasswordEncoder passwordEncoder,
+                                     CacheAuthentification cacheAuthentification,
+                                     ReessaiConcurrence reessaiConcurrence) {
         this.administrateurDao = administrateurDao;
         this.administrateurMapper = administrateurMapper;
         this.passwordEncoder = passwordEncoder;
+        this.cacheAuthentification = cacheAuthentification;
+        this.reessaiConcurrence = reessaiConcurrence;
     }
 
     /**
@@ -66,8 +82,9 @@ public class AdministrateurServiceImpl implements AdministrateurService {
 
     /**
      * Méthode pour supprimer un administrateur.
-     * Cette méthode vérifie si un administrateur existe dans la base de données avec l'adresse email fournie.
-     * Si l'administrateur existe et qu'il n'est pas le dernier administrateur, il est supprimé de la base de données.
+     * La suppression est une seule requête conditionnelle, qui ne supprime l'administrateur que s'il en reste un autre
+     * (voir {@link AdministrateurDao#supprimerSaufDernier}). Les suppressions simultanées sont sérialisées par un
+     * verrou de transaction : deux suppressions concurrentes ne peuvent pas retirer le dernier administrateur.
      *
      * @param mail l'adresse email de l'administrateur à supprimer
      * @throws EntityNotFoundException si aucun administrateur n'est trouvé avec cette adresse email
@@ -75,39 +92,38 @@ public class AdministrateurServiceImpl implements AdministrateurService {
      */
 
     @Override
+    @Transactional
     public void supprimer(String mail) throws EntityNotFoundException {
-        if (!administrateurDao.existsById(mail)) {
-            throw new EntityNotFoundException("Aucun compte trouvé avec cette adresse mail");
-        }
-
-        long count = administrateurDao.count();
-        if (count <= 1) {
+        administrateurDao.verrouillerSuppressions();
+        if (administrateurDao.supprimerSaufDernier(mail) == 0) {
+            if (!administrateurDao.existsById(mail))
+                throw new EntityNotFoundException("Aucun compte trouvé avec cette adresse mail");
             throw new IllegalStateException("Impossible de supprimer le dernier administrateur");
         }
-
-        administrateurDao.deleteById(mail);
+        cacheAuthentification.invalider(mail);
     }
 
     /**
      * Méthode pour rechercher des administrateurs en fonction de plusieurs critères.
+     * Les critères renseignés sont combinés en une seule requête, servie par les index trigrammes
+     * (voir {@link AdministrateurSpecifications}).
      *
-     * @param mail     l'adresse email de l'administrateur (String)
-     * @param prenom   le prénom de l'administrateur (String)
-     * @param nom      le nom de l'administrateur (String)
-     * @param fonction la fonction de l'administrateur (String)
-     * @return une liste d'objets AdministrateurResponseDto correspondant aux critères de recherche
-     * @throws UtilisateurException si un critère de recherche est obligatoire
+     * @param mail     une partie de l'adresse email de l'administrateur (String)
+     * @param prenom   une partie du prénom de l'administrateur (String)
+     * @param nom      une partie du nom de l'administrateur (String)
+     * @param fonction une partie de la fonction de l'administrateur (String)
+     * @return une liste d'objets AdministrateurResponseDto correspondant aux critères de recherche, triés par adresse email
      */
     @Override
+    @Transactional(readOnly = true)
     public List<AdministrateurResponseDto> rechercher(String mail, String prenom, String nom, String fonction) throws UtilisateurException {
+        Specification<Administrateur> criteres = Specification.allOf(
+                mailContient(mail),
+                prenomContient(prenom),
+                nomContient(nom),
+                fonctionContient(fonction));
 
-
-        List<Administrateur> liste = administrateurDao.findAll();
-
-
-        liste = rechercheAdministrateur(mail, prenom, nom, fonction, liste);
-
-        return liste.stream()
+        return administrateurDao.findAll(criteres, Sort.by("mail")).stream()
                 .map(administrateurMapper::toAdministrateurResponseDto)
                 .toList();
     }
@@ -115,27 +131,31 @@ public class AdministrateurServiceImpl implements AdministrateurService {
 
     /**
      * Méthode pour modifier un ou plusieurs paramètres d'un compte administrateur.
+     * Si l'enregistrement est modifié par une autre requête pendant ce temps, la modification est rejouée
+     * sur sa dernière version (voir {@link ReessaiConcurrence}).
      *
      * @param mail                     l'adresse email de l'administrateur à modifier
      * @param administrateurRequestDto l'objet contenant les nouvelles informations de l'administrateur
      * @return un objet AdministrateurResponseDto contenant les informations de l'administrateur modifié
      * @throws UtilisateurException    si une erreur survient lors de la modification de l'administrateur
      * @throws EntityNotFoundException si aucun administrateur n'est trouvé avec cette adresse email
+     * @throws ModificationConcurrenteException si l'enregistrement reste modifié par d'autres requêtes à chaque tentative
      */
     @Override
     public AdministrateurResponseDto modifierPartiellement(String mail, AdministrateurRequestDto administrateurRequestDto) throws UtilisateurException, EntityNotFoundException {
-
-        Optional<Administrateur> optAdmin = administrateurDao.findById(mail);
-        if (optAdmin.isEmpty())
-            throw new UtilisateurException("Erreur, l'identifiant ne correspond pas");
-        Administrateur adminExistant = optAdmin.get();
-
-        Administrateur nouveau = administrateurMapper.toAdministrateur(administrateurRequestDto);
-        remplacer(nouveau, adminExistant);
-
-        Administrateur adminEnreg = administrateurDao.save(adminExistant);
-        return administrateurMapper.toAdministrateurResponseDto(adminEnreg);
-
+        return reessaiConcurrence.executer("Administrateur", () -> {
+            Optional<Administrateur> optAdmin = administrateurDao.findById(mail);
+            if (optAdmin.isEmpty())
+                throw new UtilisateurException("Erreur, l'identifiant ne correspond pas");
+            Administrateur adminExistant = optAdmin.get();
+
+            Administrateur nouveau = administrateurMapper.toAdministrateur(administrateurRequestDto);
+            remplacer(nouveau, adminExistant);
+
+            Administrateur adminEnreg = administrateurDao.save(adminExistant);
+            cacheAuthentification.invalider(mail);
+            return administrateurMapper.toAdministrateurResponseDto(adminEnreg);
+        });
     }
 
 
@@ -169,32 +189,4 @@ public class AdministrateurServiceImpl implements AdministrateurService {
         if (administrateur.getFonction() != null && !administrateur.getFonction().isBlank())
             administrateurExistant.setFonction(administrateur.getFonction());
     }
-
-    private static List<Administrateur> rechercheAdministrateur(String mail, String prenom, String nom, String fonction, List<Administrateur> liste) {
-        if (mail != null) {
-            liste = liste.stream()
-                    .filter(admin -> admin.getMail().contains(mail))
-                    .toList();
-        }
-        if (prenom != null) {
-            liste = liste.stream()
-                    .filter(admin -> admin.getPrenom().contains(prenom))
-                    .toList();
-        }
-        if (nom != null) {
-            liste = liste.stream()
-                    .filter(admin -> admin.getNom().contains(nom))
-                    .toList();
-        }
-        if (fonction != null) {
-            liste = liste.stream()
-                    .filter(admin -> admin.getFonction().contains(fonction))
-                    .toList();
-        }
-        if (liste == null) {
-            throw new UtilisateurException("Un critère de recherche est obligatoire !");
-        }
-        return liste;
-    }
 }
-
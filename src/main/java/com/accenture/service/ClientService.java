@@ -1,12 +1,12 @@
 package com.accenture.service;
 
 import com.accenture.exception.UtilisateurException;
-import com.accenture.model.param.Permis;
 import com.accenture.service.dto.ClientRequestDto;
 import com.accenture.service.dto.ClientResponseDto;
+import com.accenture.service.dto.CriteresClientDto;
+import com.accenture.service.dto.PageClientsDto;
 import jakarta.persistence.EntityNotFoundException;
 
-import java.time.LocalDate;
 import java.util.List;
 
 public interface ClientService {
@@ -22,6 +22,5 @@ public interface ClientService {
 
     void supprimer(String mail) throws EntityNotFoundException;
 
-    List<ClientResponseDto> rechercher(String mail, String prenom, String nom, LocalDate dateNaissance, String rue, String codePostal,
-                                       String ville, Boolean desactive, List<Permis> listePermis, LocalDate dateInscription);
+    PageClientsDto rechercher(CriteresClientDto criteres, String apres, int taille) throws UtilisateurException;
 }
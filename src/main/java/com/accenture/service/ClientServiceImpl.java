@@ -1,19 +1,35 @@
 package com.accenture.service;
 
+import com.accenture.configuration.security.CacheAuthentification;
+import com.accenture.exception.ModificationConcurrenteException;
 import com.accenture.exception.UtilisateurException;
+import com.accenture.model.FicheClient;
 import com.accenture.model.param.Permis;
 import com.accenture.repository.ClientDao;
+import com.accenture.repository.ClientSpecifications;
+import com.accenture.repository.entity.Adresse;
 import com.accenture.repository.entity.Client;
 import com.accenture.service.dto.ClientRequestDto;
 import com.accenture.service.dto.ClientResponseDto;
+import com.accenture.service.dto.CriteresClientDto;
+import com.accenture.service.dto.PageClientsDto;
 import com.accenture.service.mapper.ClientMapper;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static com.accenture.repository.ClientSpecifications.*;
 
 /**
  * Classe d'implémentation du service de gestion des clients.
@@ -25,7 +41,11 @@ public class ClientServiceImpl implements ClientService {
     private final ClientDao clientDao;
     private final ClientMapper clientMapper;
     private final PasswordEncoder passwordEncoder;
+    private final CacheAuthentification cacheAuthentification;
+    private final ReessaiConcurrence reessaiConcurrence;
+
 
+    static final int TAILLE_PAGE_MAX = 500;
 
     private static final String REGEX_PW = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[&#@-_§])[A-Za-z\\d&%$_]{8,16}$";
 
@@ -35,12 +55,18 @@ public class ClientServiceImpl implements ClientService {
      * @param clientDao       l'objet DAO pour accéder aux données des clients
      * @param clientMapper    l'objet Mapper pour convertir entre les entités Client et les DTO
      * @param passwordEncoder l'objet pour encoder les mots de passe des clients
+     * @param cacheAuthentification le cache des authentifications, vidé pour un compte modifié ou supprimé
+     * @param reessaiConcurrence    rejoue les modifications partielles en conflit de version
      */
 
-    public ClientServiceImpl(ClientDao clientDao, ClientMapper clientMapper, PasswordEncoder passwordEncoder) {
+    public ClientServiceImpl(ClientDao clientDao, ClientMapper clientMapper, PasswordEncoder passwordEncoder,
+                             CacheAuthentification cacheAuthentification,
+                             ReessaiConcurrence reessaiConcurrence) {
         this.clientDao = clientDao;
         this.clientMapper = clientMapper;
         this.passwordEncoder = passwordEncoder;
+        this.cacheAuthentification = cacheAuthentification;
+        this.reessaiConcurrence = reessaiConcurrence;
     }
 
 
@@ -86,41 +112,70 @@ public class ClientServiceImpl implements ClientService {
 
     /**
      * Méthode pour afficher tous les clients.
+     * Les clients, leur adresse et leurs permis sont lus en une requête de projection, sans charger d'entité,
+     * dans une transaction en lecture seule ; les lignes d'un même client (une par permis) sont regroupées ici.
      *
-     * @return une liste d'objets ClientResponseDto contenant les informations de tous les clients
+     * @return une liste d'objets ClientResponseDto contenant les informations de tous les clients, triée par adresse mail
      */
 
     @Override
+    @Transactional(readOnly = true)
     public List<ClientResponseDto> trouverTous() {
-        return clientDao.findAll().stream()
-                .map(clientMapper::toClientResponseDto)
+        return regrouper(clientDao.listerFiches());
+    }
+
+    /**
+     * Regroupe les lignes de projection d'un même client (une par permis), dans l'ordre des lignes.
+     */
+    private static List<ClientResponseDto> regrouper(List<FicheClient> lignes) {
+        Map<String, List<FicheClient>> fiches = lignes.stream()
+                .collect(Collectors.groupingBy(FicheClient::mail, LinkedHashMap::new, Collectors.toList()));
+        return fiches.values().stream()
+                .map(ClientServiceImpl::toClientResponseDto)
                 .toList();
     }
 
+    private static ClientResponseDto toClientResponseDto(List<FicheClient> lignes) {
+        FicheClient fiche = lignes.getFirst();
+        Adresse adresse = fiche.adresseId() == null ? null
+                : new Adresse(fiche.adresseId(), fiche.rue(), fiche.codePostal(), fiche.ville());
+        List<Permis> listePermis = lignes.stream()
+                .map(FicheClient::permis)
+                .filter(Objects::nonNull)
+                .toList();
+        return new ClientResponseDto(fiche.mail(), fiche.password(), fiche.nom(), fiche.prenom(), adresse,
+                fiche.dateNaissance(), fiche.dateInscription(), listePermis, fiche.desactive());
+    }
+
 
     /**
      * Méthode pour modifier un ou plusieurs paramètres d'un compte client.
+     * Si l'enregistrement est modifié par une autre requête pendant ce temps, la modification est rejouée
+     * sur sa dernière version (voir {@link ReessaiConcurrence}).
      *
      * @param mail             l'adresse email du client à modifier
      * @param clientRequestDto l'objet contenant les nouvelles informations du client
      * @return un objet ClientResponseDto contenant les informations du client modifié
      * @throws UtilisateurException    si une erreur survient lors de la modification du client
      * @throws EntityNotFoundException si aucun client n'est trouvé avec cette adresse email
+     * @throws ModificationConcurrenteException si l'enregistrement reste modifié par d'autres requêtes à chaque tentative
      */
 
     @Override
     public ClientResponseDto modifierPartiellement(String mail, ClientRequestDto clientRequestDto) throws UtilisateurException, EntityNotFoundException {
-
-        Optional<Client> optClient = clientDao.findById(mail);
-        if (optClient.isEmpty())
-            throw new UtilisateurException("Erreur, l'identifiant ne correspond pas");
-        Client clientExistant = optClient.get();
-
-        Client nouveau = clientMapper.toClient(clientRequestDto);
-        remplacer(nouveau, clientExistant);
-
-        Client clientEnreg = clientDao.save(clientExistant);
-        return clientMapper.toClientResponseDto(clientEnreg);
+        return reessaiConcurrence.executer("Client", () -> {
+            Optional<Client> optClient = clientDao.findById(mail);
+            if (optClient.isEmpty())
+                throw new UtilisateurException("Erreur, l'identifiant ne correspond pas");
+            Client clientExistant = optClient.get();
+
+            Client nouveau = clientMapper.toClient(clientRequestDto);
+            remplacer(nouveau, clientExistant);
+
+            Client clientEnreg = clientDao.save(clientExistant);
+            cacheAuthentification.invalider(mail);
+            return clientMapper.toClientResponseDto(clientEnreg);
+        });
     }
 
     /**
@@ -132,120 +187,60 @@ public class ClientServiceImpl implements ClientService {
     //ajouter une vérification si le client possède des locations en cours
     @Override
     public void supprimer(String mail) throws EntityNotFoundException {
-        if (clientDao.existsById(mail))
-
+        if (clientDao.existsById(mail)) {
             clientDao.deleteById(mail);
-        else
+            cacheAuthentification.invalider(mail);
+        } else
             throw new EntityNotFoundException("Aucun utilisateur n'est enregistré sous cette adresse mail.");
     }
 
     /**
-     * Méthode permettant de retrouver un client selon l'un des paramètres choisis.
+     * Méthode permettant de rechercher des clients selon les critères renseignés, page par page.
+     * Les critères sont combinés en une seule requête servie par les index (voir {@link ClientSpecifications}),
+     * qui ne lit que les adresses mail de la page ; les clients de la page sont ensuite lus en une requête de
+     * projection, comme dans {@link #trouverTous()}. La pagination se fait par curseur (keyset) sur l'adresse mail :
+     * la page suivante commence après le dernier client renvoyé, sans OFFSET.
      *
-     * @param mail            l'adresse email du client (String)
-     * @param prenom          le prénom du client (String)
-     * @param nom             le nom du client (String)
-     * @param dateNaissance   la date de naissance du client (LocalDate)
-     * @param rue             la rue de l'adresse du client (String)
-     * @param codePostal      le code postal de l'adresse du client (String)
-     * @param ville           la ville de l'adresse du client (String)
-     * @param desactive       indique si le client est désactivé (Boolean)
-     * @param listePermis     la liste des permis du client (List<Permis>)
-     * @param dateInscription la date d'inscription du client (LocalDate)
-     * @return une liste d'objets ClientResponseDto correspondant aux critères de recherche
-     * @throws UtilisateurException si un critère de recherche est obligatoire
+     * @param criteres les critères ; mail, prénom, nom, rue et ville par partie de texte, code postal par son début,
+     *                 permis tous détenus, les autres par égalité
+     * @param apres    adresse mail du dernier client de la page précédente, null pour la première page
+     * @param taille   nombre de clients par page, entre 1 et {@value #TAILLE_PAGE_MAX}
+     * @return la page de clients, triés par adresse mail, et le curseur de la page suivante (null si c'est la dernière)
+     * @throws UtilisateurException si les critères sont null ou la taille hors bornes
      */
     @Override
-    public List<ClientResponseDto> rechercher(String mail, String prenom, String nom, LocalDate dateNaissance, String rue,
-                                              String codePostal, String ville, Boolean desactive, List<Permis> listePermis,
-                                              LocalDate dateInscription) throws UtilisateurException {
-        List<Client> liste = clientDao.findAll();
-
-        liste = rechercheClient(mail, prenom, nom, dateNaissance, rue, codePostal, ville, desactive, listePermis, dateInscription, liste);
-
-        return liste.stream()
-                .map(clientMapper::toClientResponseDto)
-                .toList();
+    @Transactional(readOnly = true)
+    public PageClientsDto rechercher(CriteresClientDto criteres, String apres, int taille) throws UtilisateurException {
+        if (criteres == null)
+            throw new UtilisateurException("Les critères de recherche sont obligatoires");
+        if (taille < 1 || taille > TAILLE_PAGE_MAX)
+            throw new UtilisateurException("La taille de page doit être comprise entre 1 et " + TAILLE_PAGE_MAX);
+
+        Specification<Client> specification = Specification.allOf(
+                mailApres(apres),
+                mailContient(criteres.mail()),
+                prenomContient(criteres.prenom()),
+                nomContient(criteres.nom()),
+                neLe(criteres.dateNaissance()),
+                rueContient(criteres.rue()),
+                codePostalCommencePar(criteres.codePostal()),
+                villeContient(criteres.ville()),
+                desactive(criteres.desactive()),
+                detientPermis(criteres.listePermis()),
+                inscritLe(criteres.dateInscription()));
+
+        // une adresse de plus que demandé pour savoir s'il reste une page sans requête de comptage
+        List<String> mails = clientDao.trouverMails(specification, Limit.of(taille + 1));
+        boolean suite = mails.size() > taille;
+        if (suite)
+            mails = mails.subList(0, taille);
+        List<ClientResponseDto> clients = mails.isEmpty() ? List.of() : regrouper(clientDao.listerFiches(mails));
+        return new PageClientsDto(clients, suite ? mails.getLast() : null);
     }
 
     //______________________________________________________________________________________________________________________
 //    METHODES PRIVEES
 //_______________________________________________________________________________________________________________________
-    private static List<Client> rechercheClient(String mail, String prenom, String nom, LocalDate dateNaissance, String rue, String codePostal, String ville, Boolean desactive, List<Permis> listePermis, LocalDate dateInscription, List<Client> liste) {
-
-        if (listePermis != null) {
-            liste = liste.stream()
-                    .filter(client -> client.getListePermis().equals(listePermis))
-                    .toList();
-        }
-        if (liste == null)
-            throw new UtilisateurException("Un critère de recherche est obligatoire ! ");
-
-        liste = rechercheClientParProprieteCompte(desactive, dateInscription, liste);
-        liste = rechercheClientParPropriete(mail, prenom, nom, dateNaissance, liste);
-        liste = rechercherClientParAdresse(rue, codePostal, ville, liste);
-
-        return liste;
-    }
-
-    private static List<Client> rechercheClientParProprieteCompte(Boolean desactive, LocalDate dateInscription, List<Client> liste) {
-        if (desactive != null) {
-            liste = liste.stream()
-                    .filter(client -> client.getDesactive().equals(desactive))
-                    .toList();
-        }
-
-        if (dateInscription != null) {
-            liste = liste.stream()
-                    .filter(client -> client.getDateInscription().equals(dateInscription))
-                    .toList();
-        }
-        return liste;
-    }
-
-    private static List<Client> rechercheClientParPropriete(String mail, String prenom, String nom, LocalDate dateNaissance, List<Client> liste) {
-        if (mail != null) {
-            liste = liste.stream()
-                    .filter(client -> client.getMail().contains(mail))
-                    .toList();
-        }
-        if (prenom != null) {
-            liste = liste.stream()
-                    .filter(client -> client.getPrenom().contains(prenom))
-                    .toList();
-        }
-        if (nom != null) {
-            liste = liste.stream()
-                    .filter(client -> client.getNom().contains(nom))
-                    .toList();
-        }
-        if (dateNaissance != null) {
-            liste = liste.stream()
-                    .filter(client -> client.getDateNaissance().equals(dateNaissance))
-                    .toList();
-        }
-        return liste;
-    }
-
-    private static List<Client> rechercherClientParAdresse(String rue, String codePostal, String ville, List<Client> liste) {
-        if (rue != null) {
-            liste = liste.stream()
-                    .filter(client -> client.getAdresse().getRue().equals(rue))
-                    .toList();
-        }
-        if (codePostal != null) {
-            liste = liste.stream()
-                    .filter(client -> client.getAdresse().getCodePostal().equals(codePostal))
-                    .toList();
-        }
-        if (ville != null) {
-            liste = liste.stream()
-                    .filter(client -> client.getAdresse().getVille().equals(ville))
-                    .toList();
-        }
-        return liste;
-    }
-
 
     private static void verifClient(ClientRequestDto clientRequestDto) {
         if (clientRequestDto == null)
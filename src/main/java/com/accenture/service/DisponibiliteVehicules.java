@@ -0,0 +1,173 @@
+package com.accenture.service;
+
+import com.accenture.exception.LocationConflitException;
+import com.accenture.model.Periode;
+import com.accenture.repository.LocationDao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Index en mémoire des périodes occupées de chaque véhicule.
+ * Pour un véhicule, les périodes sont rangées dans un {@link TreeMap} date de début → date de fin,
+ * fusionnées pour ne jamais se chevaucher : un test de disponibilité est alors un seul {@code floorEntry}, en O(log n).
+ * Le planning d'un véhicule est chargé depuis la base à sa première utilisation. Au-delà de {@code planningsMax}
+ * véhicules, les plannings inutilisés depuis le plus longtemps sont oubliés ; ils seront relus au besoin.
+ * <p>
+ * Les réservations d'un même véhicule sont sérialisées par un verrou propre au véhicule :
+ * le contrôle, l'enregistrement en base et la mise à jour de l'index se font sous ce verrou.
+ * Un {@link ReentrantLock} est utilisé plutôt que {@code synchronized}, qui bloquerait le thread porteur
+ * d'un thread virtuel pendant l'écriture en base.
+ * Entre plusieurs instances de l'application, c'est la contrainte d'exclusion de la table location qui fait foi.
+ */
+@Slf4j
+@Component
+public class DisponibiliteVehicules {
+
+    private final LocationDao locationDao;
+    private final int planningsMax;
+    private final Map<Long, Planning> plannings = new ConcurrentHashMap<>();
+    /** un seul thread à la fois fait le ménage des plannings inutilisés */
+    private final AtomicBoolean menageEnCours = new AtomicBoolean();
+
+    public DisponibiliteVehicules(LocationDao locationDao, @Value("${disponibilite.plannings-max:10000}") int planningsMax) {
+        this.locationDao = locationDao;
+        this.planningsMax = planningsMax;
+    }
+
+    /**
+     * Réserve le véhicule sur la période : vérifie la disponibilité, exécute l'enregistrement puis met l'index à jour.
+     * L'enregistrement doit être validé en base quand il rend la main, sans quoi le verrou serait relâché avant le commit.
+     * Si l'enregistrement échoue, l'index n'est pas modifié.
+     *
+     * @param enregistrement l'écriture de la location en base
+     * @return le résultat de l'enregistrement
+     * @throws LocationConflitException si le véhicule est déjà loué sur une partie de la période
+     */
+    public <T> T reserver(long vehiculeId, LocalDate debut, LocalDate fin, Supplier<T> enregistrement) {
+        Planning planning = verrouiller(vehiculeId);
+        try {
+            planning.dernierUsage = System.nanoTime();
+            charger(planning, vehiculeId);
+            if (chevauche(planning.periodes, debut, fin))
+                throw new LocationConflitException("Le véhicule " + vehiculeId + " est déjà loué entre le " + debut + " et le " + fin);
+            T resultat = enregistrement.get();
+            inserer(planning.periodes, debut, fin);
+            return resultat;
+        } finally {
+            planning.verrou.unlock();
+            if (plannings.size() > planningsMax)
+                oublierInutilises();
+        }
+    }
+
+    /**
+     * Vide le planning du véhicule sous son verrou, il sera relu depuis la base au prochain usage.
+     * À appeler quand les locations du véhicule ont changé sans passer par {@link #reserver}, y compris depuis
+     * l'enregistrement d'une réservation : le verrou est réentrant, et le planning reste celui qu'attendent
+     * les réservations suivantes.
+     */
+    public void invalider(long vehiculeId) {
+        Planning planning = plannings.get(vehiculeId);
+        if (planning == null)
+            return;
+        planning.verrou.lock();
+        try {
+            planning.periodes.clear();
+            planning.charge = false;
+        } finally {
+            planning.verrou.unlock();
+        }
+    }
+
+    int taille() {
+        return plannings.size();
+    }
+
+    /**
+     * Verrou du planning du véhicule. Un planning oublié entre sa lecture et l'obtention de son verrou n'est plus
+     * celui de la table : on recommence avec le planning courant.
+     */
+    private Planning verrouiller(long vehiculeId) {
+        while (true) {
+            Planning planning = plannings.computeIfAbsent(vehiculeId, id -> new Planning());
+            planning.verrou.lock();
+            if (plannings.get(vehiculeId) == planning)
+                return planning;
+            planning.verrou.unlock();
+        }
+    }
+
+    /**
+     * Oublie les plannings inutilisés depuis le plus longtemps jusqu'à redescendre aux trois quarts de {@code planningsMax}.
+     * Un planning n'est oublié que si son verrou est libre : aucune réservation ne le tient ni ne l'attend.
+     */
+    private void oublierInutilises() {
+        if (!menageEnCours.compareAndSet(false, true))
+            return;
+        try {
+            int cible = planningsMax * 3 / 4;
+            List<Map.Entry<Long, Planning>> parAnciennete = new ArrayList<>(plannings.entrySet());
+            parAnciennete.sort(Comparator.comparingLong(entree -> entree.getValue().dernierUsage));
+            for (Map.Entry<Long, Planning> entree : parAnciennete) {
+                if (plannings.size() <= cible)
+                    break;
+                Planning planning = entree.getValue();
+                if (!planning.verrou.hasQueuedThreads() && planning.verrou.tryLock()) {
+                    try {
+                        plannings.remove(entree.getKey(), planning);
+                    } finally {
+                        planning.verrou.unlock();
+                    }
+                }
+            }
+            log.debug("Plannings inutilisés oubliés, {} gardés", plannings.size());
+        } finally {
+            menageEnCours.set(false);
+        }
+    }
+
+    private void charger(Planning planning, long vehiculeId) {
+        if (planning.charge)
+            return;
+        log.debug("Chargement du planning du véhicule {}", vehiculeId);
+        for (Periode periode : locationDao.trouverPeriodesOccupees(vehiculeId))
+            inserer(planning.periodes, periode.debut(), periode.fin());
+        planning.charge = true;
+    }
+
+    static boolean chevauche(TreeMap<LocalDate, LocalDate> periodes, LocalDate debut, LocalDate fin) {
+        Map.Entry<LocalDate, LocalDate> precedente = periodes.floorEntry(fin);
+        return precedente != null && !precedente.getValue().isBefore(debut);
+    }
+
+    static void inserer(TreeMap<LocalDate, LocalDate> periodes, LocalDate debut, LocalDate fin) {
+        Map.Entry<LocalDate, LocalDate> precedente;
+        while ((precedente = periodes.floorEntry(fin)) != null && !precedente.getValue().isBefore(debut)) {
+            periodes.remove(precedente.getKey());
+            if (precedente.getKey().isBefore(debut))
+                debut = precedente.getKey();
+            if (precedente.getValue().isAfter(fin))
+                fin = precedente.getValue();
+        }
+        periodes.put(debut, fin);
+    }
+
+    private static final class Planning {
+        private final ReentrantLock verrou = new ReentrantLock();
+        private final TreeMap<LocalDate, LocalDate> periodes = new TreeMap<>();
+        private boolean charge;
+        private volatile long dernierUsage;
+    }
+}
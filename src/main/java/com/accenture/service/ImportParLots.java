@@ -0,0 +1,141 @@
+package com.accenture.service;
+
+import com.accenture.exception.VehiculeException;
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.service.dto.ErreurImportDto;
+import com.accenture.service.dto.RapportImportDto;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Import de véhicules en nombre.
+ * Toutes les lignes sont d'abord vérifiées ; les lignes valides sont ensuite enregistrées par lots de {@code tailleLot},
+ * un lot par transaction. Dans un lot, les INSERT partent par paquets JDBC (hibernate.jdbc.batch_size)
+ * et les identifiants sont pris dans le bloc déjà réservé par le générateur, sans aller-retour par véhicule.
+ * <p>
+ * Si la base refuse un lot, seul ce lot est annulé : il est rejoué ligne par ligne pour enregistrer les lignes saines
+ * et rapporter précisément les lignes en erreur. Les lots déjà validés restent en base. Le rapport ne donne qu'un motif
+ * générique par ligne refusée ; le message de la base (tables, contraintes, valeurs) ne va que dans le journal.
+ */
+@Slf4j
+@Component
+public class ImportParLots {
+
+    static final String VALEUR_INVALIDE = "Une valeur de la ligne est refusée par la base (trop longue ou hors limites)";
+    static final String CONTRAINTE_VIOLEE = "La ligne enfreint une contrainte de la base (doublon ou valeur obligatoire manquante)";
+    static final String ECHEC_ENREGISTREMENT = "La ligne n'a pas pu être enregistrée";
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int tailleLot;
+
+    public ImportParLots(PlatformTransactionManager transactionManager, EntityManager entityManager,
+                         @Value("${import.taille-lot:500}") int tailleLot) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.tailleLot = tailleLot;
+    }
+
+    /**
+     * Importe une liste de véhicules d'un même type.
+     *
+     * @param lignes   les véhicules à importer, dans l'ordre reçu
+     * @param preparer vérifie une ligne et la convertit en entité prête à être enregistrée,
+     *                 lève une VehiculeException si la ligne est invalide
+     * @param dao      le DAO du type de véhicule importé
+     * @return le rapport d'import : lignes reçues, lignes enregistrées et lignes rejetées
+     * @throws VehiculeException si la liste est vide
+     */
+    public <D, E extends Vehicule> RapportImportDto importer(List<D> lignes, Function<D, E> preparer, JpaRepository<E, Long> dao) {
+        if (lignes == null || lignes.isEmpty())
+            throw new VehiculeException("La liste des véhicules à importer est vide");
+        log.info("Entrée dans la méthode importer avec {} lignes, lots de {}", lignes.size(), tailleLot);
+
+        List<ErreurImportDto> erreurs = new ArrayList<>();
+        List<LignePreparee<D, E>> valides = new ArrayList<>(lignes.size());
+        for (int i = 0; i < lignes.size(); i++) {
+            try {
+                valides.add(new LignePreparee<>(i + 1, lignes.get(i), preparer.apply(lignes.get(i))));
+            } catch (VehiculeException e) {
+                erreurs.add(new ErreurImportDto(i + 1, e.getMessage()));
+            }
+        }
+
+        int importees = 0;
+        for (int debut = 0; debut < valides.size(); debut += tailleLot) {
+            List<LignePreparee<D, E>> lot = valides.subList(debut, Math.min(debut + tailleLot, valides.size()));
+            try {
+                enregistrer(dao, lot.stream().map(LignePreparee::entite).toList());
+                importees += lot.size();
+            } catch (RuntimeException e) {
+                log.warn("Lot de {} lignes refusé par la base, reprise ligne par ligne : {}", lot.size(), cause(e));
+                importees += reprendreLigneParLigne(lot, preparer, dao, erreurs);
+            }
+        }
+
+        erreurs.sort(Comparator.comparingInt(ErreurImportDto::ligne));
+        log.info("Sortie de la méthode importer : {} lignes enregistrées, {} rejetées", importees, erreurs.size());
+        return new RapportImportDto(lignes.size(), importees, List.copyOf(erreurs));
+    }
+
+    private <E extends Vehicule> void enregistrer(JpaRepository<E, Long> dao, List<E> entites) {
+        transactionTemplate.executeWithoutResult(statut -> {
+            dao.saveAll(entites);
+            dao.flush();
+            // le contexte de persistance peut être celui de la requête (open-in-view) : il est vidé à chaque lot
+            entityManager.clear();
+        });
+    }
+
+    private <D, E extends Vehicule> int reprendreLigneParLigne(List<LignePreparee<D, E>> lot, Function<D, E> preparer,
+                                              JpaRepository<E, Long> dao, List<ErreurImportDto> erreurs) {
+        int importees = 0;
+        for (LignePreparee<D, E> ligne : lot) {
+            try {
+                // nouvelle entité : celle du lot a reçu un identifiant dans la transaction annulée
+                enregistrer(dao, List.of(preparer.apply(ligne.requete())));
+                importees++;
+            } catch (RuntimeException e) {
+                log.warn("Ligne {} refusée par la base : {}", ligne.numero(), cause(e));
+                erreurs.add(new ErreurImportDto(ligne.numero(), motif(e)));
+            }
+        }
+        return importees;
+    }
+
+    private static String cause(Exception e) {
+        return NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+    }
+
+    /**
+     * Motif rapporté au client pour une ligne refusée, d'après la classe du SQLSTATE : 22 pour une valeur invalide,
+     * 23 pour une contrainte d'intégrité.
+     */
+    static String motif(Exception e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && sql.getSQLState() != null) {
+                if (sql.getSQLState().startsWith("22"))
+                    return VALEUR_INVALIDE;
+                if (sql.getSQLState().startsWith("23"))
+                    return CONTRAINTE_VIOLEE;
+            }
+        }
+        return e instanceof DataIntegrityViolationException ? CONTRAINTE_VIOLEE : ECHEC_ENREGISTREMENT;
+    }
+
+    private record LignePreparee<D, E>(int numero, D requete, E entite) {
+    }
+}
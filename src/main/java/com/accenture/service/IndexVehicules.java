@@ -0,0 +1,487 @@
+package com.accenture.service;
+
+import com.accenture.model.param.Carburant;
+import com.accenture.model.param.Permis;
+import com.accenture.model.param.TypeVehiculeEnum;
+import com.accenture.repository.VehiculeDao;
+import com.accenture.repository.entity.*;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Index en mémoire des véhicules, tous types confondus, qui peut servir les recherches multicritères des services
+ * à la place de la base ({@link RechercheVehicules}). Il n'existe que si {@code index-vehicules.actif=true}
+ * (voir {@link com.accenture.configuration.recherche.IndexVehiculesConfiguration}).
+ * <p>
+ * Chaque véhicule occupe une ligne ; ses attributs sont rangés par colonne :
+ * <ul>
+ *     <li>les nombres (tarif, kilométrage, nombre de places, cylindres, taille du cadre...) dans des tableaux de long ;</li>
+ *     <li>le type de véhicule, le carburant, le permis et les booléens (actif, retireDuParc, clim...) dans un BitSet
+ *     par valeur, qui marque les lignes portant cette valeur ;</li>
+ *     <li>les chaînes (marque, modèle, couleur, type, transmission) avec un BitSet par trigramme (suite de trois caractères),
+ *     qui marque les lignes dont la valeur contient ce trigramme.</li>
+ * </ul>
+ * Une recherche est l'intersection des BitSets des critères ; seules les lignes restantes sont vérifiées une à une
+ * (égalité ou plage des nombres, {@code contains} des chaînes), au lieu de parcourir toute la flotte.
+ * Les résultats peuvent être triés sur une colonne numérique et limités à une page.
+ * <p>
+ * L'index est chargé depuis la base à la première recherche, puis tenu à jour à chaque écriture validée de cette instance.
+ * Il est relu en base au plus tard après {@code dureeMax}, pour rattraper les écritures faites ailleurs (autre instance, SQL) ;
+ * cette relecture est abandonnée si une écriture a eu lieu entre-temps.
+ * Les véhicules renvoyés sont partagés entre les recherches et ne doivent pas être modifiés.
+ */
+@Slf4j
+public class IndexVehicules {
+
+    /**
+     * Colonnes de chaînes, recherchées par contenu (sensible à la casse).
+     */
+    public enum Texte {
+        MARQUE("marque", Vehicule::getMarque),
+        MODELE("modele", Vehicule::getModele),
+        COULEUR("couleur", Vehicule::getCouleur),
+        TYPE("type", Vehicule::getType),
+        TRANSMISSION("transmission", vehicule -> switch (vehicule) {
+            case Voiture voiture -> voiture.getTransmission();
+            case Moto moto -> moto.getTransmission();
+            case Utilitaire utilitaire -> utilitaire.getTransmission();
+            default -> null;
+        });
+
+        final String attribut;
+        private final Function<Vehicule, String> valeur;
+
+        Texte(String attribut, Function<Vehicule, String> valeur) {
+            this.attribut = attribut;
+            this.valeur = valeur;
+        }
+    }
+
+    /**
+     * Colonnes numériques, recherchées par égalité ou par plage, et clés de tri. Le poids PATC d'un utilitaire est comparé sur sa partie entière.
+     */
+    public enum Nombre {
+        TARIF_JOURNALIER("tarifJournalier", Vehicule::getTarifJournalier),
+        KILOMETRAGE("kilometrage", Vehicule::getKilometrage),
+        NOMBRE_DE_PLACES("nombreDePlaces", vehicule -> switch (vehicule) {
+            case Voiture voiture -> voiture.getNombreDePlaces();
+            case Utilitaire utilitaire -> utilitaire.getNombreDePlace();
+            default -> null;
+        }),
+        NOMBRE_DE_PORTES("nombreDePortes", vehicule -> vehicule instanceof Voiture voiture ? voiture.getNombreDePortes() : null),
+        NOMBRE_DE_BAGAGES("nombreDeBagages", vehicule -> vehicule instanceof Voiture voiture ? voiture.getNombreDeBagages() : null),
+        NOMBRE_CYLINDRES("nombreCylindres", vehicule -> vehicule instanceof Moto moto ? moto.getNombreCylindres() : null),
+        PUISSANCE_EN_KW("puissanceEnkW", vehicule -> vehicule instanceof Moto moto ? moto.getPuissanceEnkW() : null),
+        HAUTEUR_SELLE("hauteurSelle", vehicule -> vehicule instanceof Moto moto ? moto.getHauteurSelle() : null),
+        POIDS("poids", vehicule -> switch (vehicule) {
+            case Moto moto -> moto.getPoids();
+            case Velo velo -> velo.getPoids();
+            default -> null;
+        }),
+        TAILLE_CADRE("tailleCadre", vehicule -> vehicule instanceof Velo velo ? velo.getTailleCadre() : null),
+        CAPACITE_BATTERIE("capaciteBatterie", vehicule -> vehicule instanceof Velo velo ? velo.getCapaciteBatterie() : null),
+        AUTONOMIE("autonomie", vehicule -> vehicule instanceof Velo velo ? velo.getAutonomie() : null),
+        CHARGE_MAX("chargeMax", vehicule -> vehicule instanceof Utilitaire utilitaire ? utilitaire.getChargeMax() : null),
+        POIDS_PATC("poidsPATC", vehicule -> vehicule instanceof Utilitaire utilitaire ? utilitaire.getPoidsPATC() : null),
+        CAPACITE_M3("capaciteM3", vehicule -> vehicule instanceof Utilitaire utilitaire ? utilitaire.getCapaciteM3() : null);
+
+        private final String attribut;
+        private final Function<Vehicule, Number> valeur;
+
+        Nombre(String attribut, Function<Vehicule, Number> valeur) {
+            this.attribut = attribut;
+            this.valeur = valeur;
+        }
+
+        /**
+         * @return l'attribut de l'entité de ce type qui porte la colonne (le nombre de places d'un utilitaire est {@code nombreDePlace})
+         */
+        String attribut(Class<? extends Vehicule> classe) {
+            return this == NOMBRE_DE_PLACES && classe == Utilitaire.class ? "nombreDePlace" : attribut;
+        }
+
+        boolean partieEntiere() {
+            return this == POIDS_PATC;
+        }
+    }
+
+    /**
+     * Colonnes booléennes, recherchées par égalité.
+     */
+    public enum Drapeau {
+        ACTIF("actif", Vehicule::getActif),
+        RETIRE_DU_PARC("retireDuParc", Vehicule::getRetireDuParc),
+        CLIM("clim", vehicule -> switch (vehicule) {
+            case Voiture voiture -> voiture.getClim();
+            case Utilitaire utilitaire -> utilitaire.getClim();
+            default -> null;
+        }),
+        ELECTRIQUE("electrique", vehicule -> vehicule instanceof Velo velo ? velo.getElectrique() : null),
+        FREINS_A_DISQUE("freinsADisque", vehicule -> vehicule instanceof Velo velo ? velo.getFreinsADisque() : null);
+
+        final String attribut;
+        private final Function<Vehicule, Boolean> valeur;
+
+        Drapeau(String attribut, Function<Vehicule, Boolean> valeur) {
+            this.attribut = attribut;
+            this.valeur = valeur;
+        }
+    }
+
+    private static final Map<Class<?>, TypeVehiculeEnum> TYPES = Map.of(
+            Voiture.class, TypeVehiculeEnum.VOITURE,
+            Moto.class, TypeVehiculeEnum.MOTO,
+            Velo.class, TypeVehiculeEnum.VELO,
+            Utilitaire.class, TypeVehiculeEnum.UTILITAIRE);
+    /** valeur d'une colonne numérique non renseignée, jamais égale à un critère (toujours positif) */
+    private static final long ABSENT = Long.MIN_VALUE;
+    /** BitSet vide partagé : il n'est jamais modifié, seulement passé à {@link BitSet#and} */
+    private static final BitSet AUCUN = new BitSet();
+    private static final int CAPACITE_INITIALE = 1024;
+
+    private final VehiculeDao vehiculeDao;
+    private final Duration dureeMax;
+    private final Clock horloge;
+
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+    private final AtomicBoolean rechargementEnCours = new AtomicBoolean();
+    private final AtomicLong ecritures = new AtomicLong();
+    private volatile boolean charge;
+    private volatile Instant chargeA;
+
+    // protégés par verrou
+    private Vehicule[] vehicules = new Vehicule[0];
+    private final Map<Long, Integer> lignes = new HashMap<>();
+    private final BitSet occupees = new BitSet();
+    private final Map<TypeVehiculeEnum, BitSet> parType = new EnumMap<>(TypeVehiculeEnum.class);
+    private final Map<Carburant, BitSet> parCarburant = new EnumMap<>(Carburant.class);
+    private final Map<Permis, BitSet> parPermis = new EnumMap<>(Permis.class);
+    private final Map<Drapeau, BitSet> vrais = new EnumMap<>(Drapeau.class);
+    private final Map<Drapeau, BitSet> faux = new EnumMap<>(Drapeau.class);
+    private final Map<Nombre, long[]> nombres = new EnumMap<>(Nombre.class);
+    private final Map<Texte, String[]> textes = new EnumMap<>(Texte.class);
+    private final Map<Texte, Map<Long, BitSet>> trigrammes = new EnumMap<>(Texte.class);
+
+    public IndexVehicules(VehiculeDao vehiculeDao, Duration dureeMax) {
+        this(vehiculeDao, dureeMax, Clock.systemUTC());
+    }
+
+    IndexVehicules(VehiculeDao vehiculeDao, Duration dureeMax, Clock horloge) {
+        this.vehiculeDao = vehiculeDao;
+        this.dureeMax = dureeMax;
+        this.horloge = horloge;
+    }
+
+    /**
+     * Recherche les véhicules d'un type qui satisfont tous les critères de la requête.
+     * Avec une page, seuls les {@code decalage + taille} meilleurs véhicules sont gardés pendant le parcours
+     * (tas borné) : les résultats ne sont ni tous collectés ni tous triés.
+     *
+     * @param classe  le type de véhicule recherché ({@code Vehicule.class} pour tous les types)
+     * @param requete les critères, le tri et la page
+     * @return les véhicules trouvés, dans l'ordre du tri demandé (par identifiant sans tri)
+     */
+    public <T extends Vehicule> List<T> rechercher(Class<T> classe, RequeteVehicules requete) {
+        chargerSiNecessaire();
+        List<T> resultat = new ArrayList<>();
+        verrou.readLock().lock();
+        try {
+            BitSet candidats = candidats(classe, requete);
+            Comparator<Integer> ordre = ordre(requete);
+            List<Integer> trouvees = new ArrayList<>();
+            // tas inversé : sa tête est la moins bonne des lignes gardées, évincée dès qu'une meilleure arrive
+            PriorityQueue<Integer> meilleures = requete.taille() == null ? null : new PriorityQueue<>(ordre.reversed());
+            long garder = requete.taille() == null ? Long.MAX_VALUE : requete.decalage() + requete.taille();
+            for (int ligne = candidats.nextSetBit(0); ligne >= 0; ligne = candidats.nextSetBit(ligne + 1)) {
+                if (!verifier(ligne, requete))
+                    continue;
+                if (meilleures == null) {
+                    trouvees.add(ligne);
+                } else {
+                    meilleures.add(ligne);
+                    if (meilleures.size() > garder)
+                        meilleures.poll();
+                }
+            }
+            if (meilleures != null)
+                trouvees.addAll(meilleures);
+            // les lignes libérées sont réutilisées : leur ordre n'est pas celui des identifiants
+            trouvees.sort(ordre);
+            for (int i = (int) Math.min(requete.decalage(), trouvees.size()); i < trouvees.size(); i++)
+                resultat.add(classe.cast(vehicules[trouvees.get(i)]));
+        } finally {
+            verrou.readLock().unlock();
+        }
+        log.debug("Recherche de {} dans l'index : {} résultats", classe.getSimpleName(), resultat.size());
+        return resultat;
+    }
+
+    /**
+     * Ajoute un véhicule enregistré à l'index, ou remplace sa version précédente.
+     *
+     * @param vehicule le véhicule tel qu'enregistré en base
+     */
+    public void indexer(Vehicule vehicule) {
+        indexer(List.of(vehicule));
+    }
+
+    /**
+     * Ajoute ou remplace plusieurs véhicules enregistrés, sous un seul verrou.
+     *
+     * @param liste les véhicules tels qu'enregistrés en base
+     */
+    public void indexer(Collection<? extends Vehicule> liste) {
+        verrou.writeLock().lock();
+        try {
+            ecritures.incrementAndGet();
+            // pas encore chargé : le chargement lira ces véhicules en base
+            if (!charge)
+                return;
+            for (Vehicule vehicule : liste) {
+                Vehicule reel = (Vehicule) Hibernate.unproxy(vehicule);
+                Integer ligne = lignes.get(reel.getId());
+                if (ligne != null)
+                    liberer(ligne);
+                inserer(reel);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un véhicule supprimé de l'index.
+     *
+     * @param id l'identifiant du véhicule
+     */
+    public void retirer(long id) {
+        verrou.writeLock().lock();
+        try {
+            ecritures.incrementAndGet();
+            Integer ligne = lignes.get(id);
+            if (ligne != null)
+                liberer(ligne);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private void chargerSiNecessaire() {
+        if (!charge) {
+            verrou.writeLock().lock();
+            try {
+                if (!charge)
+                    reconstruire(vehiculeDao.findAll());
+            } finally {
+                verrou.writeLock().unlock();
+            }
+        } else if (horloge.instant().isAfter(chargeA.plus(dureeMax)) && rechargementEnCours.compareAndSet(false, true)) {
+            try {
+                recharger();
+            } finally {
+                rechargementEnCours.set(false);
+            }
+        }
+    }
+
+    /**
+     * Relit la base sans bloquer les recherches, qui continuent sur l'index courant pendant la lecture.
+     */
+    private void recharger() {
+        long ecrituresAvant = ecritures.get();
+        List<Vehicule> liste = vehiculeDao.findAll();
+        verrou.writeLock().lock();
+        try {
+            if (ecritures.get() == ecrituresAvant) {
+                reconstruire(liste);
+            } else {
+                // la lecture peut précéder une écriture déjà reportée dans l'index : on garde l'index courant
+                log.debug("Rechargement de l'index abandonné : écritures pendant la lecture");
+                chargeA = horloge.instant();
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private void reconstruire(List<Vehicule> liste) {
+        vehicules = new Vehicule[Math.max(CAPACITE_INITIALE, liste.size() + liste.size() / 4)];
+        lignes.clear();
+        occupees.clear();
+        parType.clear();
+        parCarburant.clear();
+        parPermis.clear();
+        for (Drapeau drapeau : Drapeau.values()) {
+            vrais.put(drapeau, new BitSet());
+            faux.put(drapeau, new BitSet());
+        }
+        for (Nombre nombre : Nombre.values())
+            nombres.put(nombre, new long[vehicules.length]);
+        for (Texte texte : Texte.values()) {
+            textes.put(texte, new String[vehicules.length]);
+            trigrammes.put(texte, new HashMap<>());
+        }
+        for (Vehicule vehicule : liste)
+            inserer(vehicule);
+        chargeA = horloge.instant();
+        charge = true;
+        log.info("Index des véhicules chargé : {} véhicules", liste.size());
+    }
+
+    private void inserer(Vehicule vehicule) {
+        int ligne = occupees.nextClearBit(0);
+        if (ligne >= vehicules.length)
+            agrandir();
+        occupees.set(ligne);
+        lignes.put(vehicule.getId(), ligne);
+        vehicules[ligne] = vehicule;
+
+        parType.computeIfAbsent(Vehicule.typeDe(vehicule), t -> new BitSet()).set(ligne);
+        Carburant carburant = carburantDe(vehicule);
+        if (carburant != null)
+            parCarburant.computeIfAbsent(carburant, c -> new BitSet()).set(ligne);
+        Permis permis = permisDe(vehicule);
+        if (permis != null)
+            parPermis.computeIfAbsent(permis, p -> new BitSet()).set(ligne);
+        for (Drapeau drapeau : Drapeau.values()) {
+            Boolean valeur = drapeau.valeur.apply(vehicule);
+            if (valeur != null)
+                (valeur ? vrais : faux).get(drapeau).set(ligne);
+        }
+        for (Nombre nombre : Nombre.values()) {
+            Number valeur = nombre.valeur.apply(vehicule);
+            nombres.get(nombre)[ligne] = valeur == null ? ABSENT : valeur.longValue();
+        }
+        for (Texte texte : Texte.values()) {
+            String valeur = texte.valeur.apply(vehicule);
+            textes.get(texte)[ligne] = valeur;
+            if (valeur != null) {
+                Map<Long, BitSet> index = trigrammes.get(texte);
+                for (int i = 0; i + 3 <= valeur.length(); i++)
+                    index.computeIfAbsent(trigramme(valeur, i), t -> new BitSet()).set(ligne);
+            }
+        }
+    }
+
+    private void liberer(int ligne) {
+        lignes.remove(vehicules[ligne].getId());
+        vehicules[ligne] = null;
+        occupees.clear(ligne);
+        parType.values().forEach(bits -> bits.clear(ligne));
+        parCarburant.values().forEach(bits -> bits.clear(ligne));
+        parPermis.values().forEach(bits -> bits.clear(ligne));
+        vrais.values().forEach(bits -> bits.clear(ligne));
+        faux.values().forEach(bits -> bits.clear(ligne));
+        for (Texte texte : Texte.values()) {
+            String valeur = textes.get(texte)[ligne];
+            if (valeur == null)
+                continue;
+            Map<Long, BitSet> index = trigrammes.get(texte);
+            for (int i = 0; i + 3 <= valeur.length(); i++) {
+                BitSet bits = index.get(trigramme(valeur, i));
+                // un trigramme qui ne marque plus aucune ligne est oublié, l'index ne grossit pas avec les modifications
+                if (bits != null) {
+                    bits.clear(ligne);
+                    if (bits.isEmpty())
+                        index.remove(trigramme(valeur, i));
+                }
+            }
+            textes.get(texte)[ligne] = null;
+        }
+    }
+
+    private void agrandir() {
+        int capacite = vehicules.length + vehicules.length / 2;
+        vehicules = Arrays.copyOf(vehicules, capacite);
+        nombres.replaceAll((nombre, colonne) -> Arrays.copyOf(colonne, capacite));
+        textes.replaceAll((texte, colonne) -> Arrays.copyOf(colonne, capacite));
+    }
+
+    private BitSet candidats(Class<? extends Vehicule> classe, RequeteVehicules requete) {
+        BitSet candidats = (BitSet) (classe == Vehicule.class ? occupees : parType.getOrDefault(TYPES.get(classe), AUCUN)).clone();
+        if (requete.identifiant() != null) {
+            BitSet ligne = new BitSet();
+            Integer trouvee = lignes.get(requete.identifiant());
+            if (trouvee != null)
+                ligne.set(trouvee);
+            candidats.and(ligne);
+        }
+        if (requete.carburant() != null)
+            candidats.and(parCarburant.getOrDefault(requete.carburant(), AUCUN));
+        if (requete.permis() != null)
+            candidats.and(parPermis.getOrDefault(requete.permis(), AUCUN));
+        requete.drapeaux().forEach((drapeau, valeur) -> candidats.and((valeur ? vrais : faux).get(drapeau)));
+        requete.textes().forEach((texte, motif) -> {
+            Map<Long, BitSet> index = trigrammes.get(texte);
+            for (int i = 0; i + 3 <= motif.length() && !candidats.isEmpty(); i++)
+                candidats.and(index.getOrDefault(trigramme(motif, i), AUCUN));
+        });
+        return candidats;
+    }
+
+    /**
+     * Vérifie une ligne candidate : les trigrammes ne garantissent pas le contenu (ordre, motif de moins de trois caractères)
+     * et les nombres (égalités et plages) n'ont pas de BitSet.
+     */
+    private boolean verifier(int ligne, RequeteVehicules requete) {
+        for (Map.Entry<Texte, String> critere : requete.textes().entrySet()) {
+            String valeur = textes.get(critere.getKey())[ligne];
+            if (valeur == null || !valeur.contains(critere.getValue()))
+                return false;
+        }
+        for (Map.Entry<Nombre, Long> critere : requete.nombres().entrySet()) {
+            if (nombres.get(critere.getKey())[ligne] != critere.getValue())
+                return false;
+        }
+        for (Map.Entry<Nombre, long[]> plage : requete.plages().entrySet()) {
+            long valeur = nombres.get(plage.getKey())[ligne];
+            if (valeur == ABSENT || valeur < plage.getValue()[0] || valeur > plage.getValue()[1])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Ordre des lignes : la colonne de tri dans le sens demandé, puis l'identifiant croissant.
+     * À appeler sous le verrou, il lit les colonnes.
+     */
+    private Comparator<Integer> ordre(RequeteVehicules requete) {
+        Comparator<Integer> parId = Comparator.comparingLong(ligne -> vehicules[ligne].getId());
+        if (requete.tri() == null)
+            return parId;
+        long[] colonne = nombres.get(requete.tri());
+        Comparator<Integer> parValeur = Comparator.comparingLong(ligne -> colonne[ligne]);
+        return (requete.decroissant() ? parValeur.reversed() : parValeur).thenComparing(parId);
+    }
+
+    private static long trigramme(String valeur, int debut) {
+        return (long) valeur.charAt(debut) << 32 | (long) valeur.charAt(debut + 1) << 16 | valeur.charAt(debut + 2);
+    }
+
+    private static Carburant carburantDe(Vehicule vehicule) {
+        return switch (vehicule) {
+            case Voiture voiture -> voiture.getCarburant();
+            case Utilitaire utilitaire -> utilitaire.getCarburant();
+            default -> null;
+        };
+    }
+
+    private static Permis permisDe(Vehicule vehicule) {
+        return switch (vehicule) {
+            case Voiture voiture -> voiture.getPermis();
+            case Moto moto -> moto.getPermis();
+            case Utilitaire utilitaire -> utilitaire.getPermis();
+            default -> null;
+        };
+    }
+}
@@ -1,13 +1,22 @@
 package com.accenture.service;
 
+import com.accenture.exception.LocationConflitException;
 import com.accenture.exception.LocationException;
+import com.accenture.model.param.Etat;
+import com.accenture.repository.ClientDao;
 import com.accenture.repository.LocationDao;
+import com.accenture.repository.VehiculeDao;
+import com.accenture.repository.entity.Client;
 import com.accenture.repository.entity.Location;
+import com.accenture.repository.entity.Vehicule;
 import com.accenture.service.dto.LocationRequestDto;
 import com.accenture.service.dto.LocationResponseDto;
 import com.accenture.service.mapper.LocationMapper;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -17,24 +26,81 @@ public class LocationServiceImpl implements LocationService {
 
     private final LocationDao locationDao;
     private final LocationMapper locationMapper;
+    private final VehiculeDao vehiculeDao;
+    private final ClientDao clientDao;
+    private final DisponibiliteVehicules disponibiliteVehicules;
+    private final TarificationService tarificationService;
 
+    /**
+     * Nom de la contrainte d'exclusion PostgreSQL interdisant deux locations non annulées
+     * d'un même véhicule sur des périodes qui se chevauchent (migration Flyway V3, db/migration).
+     */
+    static final String CONTRAINTE_CHEVAUCHEMENT = "location_vehicule_sans_chevauchement";
 
-    public LocationServiceImpl(LocationDao locationDao, LocationMapper locationMapper) {
+
+    public LocationServiceImpl(LocationDao locationDao, LocationMapper locationMapper, VehiculeDao vehiculeDao,
+                               ClientDao clientDao, DisponibiliteVehicules disponibiliteVehicules,
+                               TarificationService tarificationService) {
         this.locationDao = locationDao;
         this.locationMapper = locationMapper;
+        this.vehiculeDao = vehiculeDao;
+        this.clientDao = clientDao;
+        this.disponibiliteVehicules = disponibiliteVehicules;
+        this.tarificationService = tarificationService;
     }
 
+    /**
+     * Ajouter une location.
+     * Sauf si elle est annulée, la location n'est enregistrée que si le véhicule est libre sur toute la période
+     * (bornes incluses) ; le contrôle et l'écriture sont faits sous le verrou du véhicule dans {@link DisponibiliteVehicules}.
+     * Cette méthode ne doit donc pas être transactionnelle : l'écriture doit être validée avant que le verrou soit relâché.
+     * Le montant total est calculé par le {@link TarificationService}, à partir du tarif du véhicule, de la période,
+     * des accessoires et des kilomètres.
+     *
+     * @param locationRequestDto la location à ajouter
+     * @return la location enregistrée
+     * @throws LocationException         si la location est incomplète, si le véhicule n'est pas proposé à la location
+     *                                   ou si un accessoire n'est pas proposé pour ce véhicule
+     * @throws LocationConflitException  si le véhicule est déjà loué sur une partie de la période
+     * @throws EntityNotFoundException   si le client ou le véhicule n'existe pas
+     */
     @Override
     public LocationResponseDto ajouter(LocationRequestDto locationRequestDto) throws LocationException {
 
         verifLocation(locationRequestDto);
+        Vehicule vehicule = vehiculeDao.findById(locationRequestDto.vehiculeId())
+                .orElseThrow(() -> new EntityNotFoundException("Aucun véhicule avec l'id " + locationRequestDto.vehiculeId()));
+        if (!Boolean.TRUE.equals(vehicule.getActif()) || Boolean.TRUE.equals(vehicule.getRetireDuParc()))
+            throw new LocationException("Le véhicule n'est pas proposé à la location");
+
+        int montantTotal = tarificationService.calculer(vehicule, locationRequestDto.accessoires(),
+                locationRequestDto.dateDebut(), locationRequestDto.dateFin(), locationRequestDto.kilometresParcourus());
+        Client client = clientDao.findById(locationRequestDto.clientMail())
+                .orElseThrow(() -> new EntityNotFoundException("Aucun client avec l'email " + locationRequestDto.clientMail()));
+
         Location location = locationMapper.toLocation(locationRequestDto);
+        location.setMontantTotal(montantTotal);
+        location.setVehicule(vehicule);
+        location.setClient(client);
 
-        Location locationEnreg = locationDao.save(location);
+        Location locationEnreg;
+        if (location.getEtat() == Etat.ANNULE)
+            locationEnreg = locationDao.save(location);
+        else
+            locationEnreg = disponibiliteVehicules.reserver(vehicule.getId(), location.getDateDebut(), location.getDateFin(),
+                    () -> enregistrer(location));
         return locationMapper.toLocationResponseDto(locationEnreg);
     }
 
+    /**
+     * Trouver toutes les locations, avec leur client et leur véhicule.
+     * LocationResponseDto contenant les entités Client et Vehicule, les locations ne peuvent pas être projetées
+     * directement en DTO : elles sont chargées en lecture seule, sans état initial gardé ni contrôle au flush.
+     *
+     * @return toutes les locations
+     */
     @Override
+    @Transactional(readOnly = true)
     public List<LocationResponseDto> trouverToutes() {
         return locationDao.findAll().stream()
                 .map(locationMapper::toLocationResponseDto)
@@ -43,6 +109,21 @@ public class LocationServiceImpl implements LocationService {
 
 
 
+    private Location enregistrer(Location location) {
+        try {
+            return locationDao.save(location);
+        } catch (DataIntegrityViolationException e) {
+            String cause = e.getMostSpecificCause().getMessage();
+            if (cause == null || !cause.contains(CONTRAINTE_CHEVAUCHEMENT))
+                throw e;
+            // réservation faite par une autre instance : l'index de celle-ci n'est plus à jour
+            log.warn("Chevauchement refusé par la base pour le véhicule {}", location.getVehicule().getId());
+            disponibiliteVehicules.invalider(location.getVehicule().getId());
+            throw new LocationConflitException("Le véhicule " + location.getVehicule().getId() + " est déjà loué entre le "
+                    + location.getDateDebut() + " et le " + location.getDateFin());
+        }
+    }
+
     private static void verifLocation(LocationRequestDto locationRequestDto) {
         if (locationRequestDto == null)
             throw new LocationException("La locationRequestDto est null");
@@ -54,10 +135,10 @@ public class LocationServiceImpl implements LocationService {
             throw new LocationException("Vous devez ajouter la date de début de la location");
         if (locationRequestDto.dateFin() == null)
             throw new LocationException("Vous devez ajouter la date de fin de la location");
+        if (locationRequestDto.dateFin().isBefore(locationRequestDto.dateDebut()))
+            throw new LocationException("La date de fin doit être postérieure ou égale à la date de début");
         if (locationRequestDto.kilometresParcourus() < 0)
             throw new LocationException("Vous devez ajouter les kilomètres parcourus");
-        if (locationRequestDto.montantTotal() <= 0)
-            throw new LocationException("Vous devez ajouter le montant total de la location");
         if (locationRequestDto.etat() == null)
             throw new LocationException("Vous devez ajouter l'état de la location");
     }
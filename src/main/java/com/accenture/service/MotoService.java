@@ -5,6 +5,8 @@ import com.accenture.model.param.Permis;
 import com.accenture.repository.entity.Moto;
 import com.accenture.service.dto.MotoRequestDto;
 import com.accenture.service.dto.MotoResponseDto;
+import com.accenture.service.dto.OptionsRechercheDto;
+import com.accenture.service.dto.RapportImportDto;
 import jakarta.persistence.EntityNotFoundException;
 
 import java.util.List;
@@ -12,6 +14,8 @@ import java.util.List;
 public interface MotoService {
     MotoResponseDto ajouter(MotoRequestDto motoRequestDto) throws VehiculeException;
 
+    RapportImportDto importer(List<MotoRequestDto> motoRequestDtos) throws VehiculeException;
+
     MotoResponseDto trouver(long id) throws EntityNotFoundException;
 
     List<MotoResponseDto> trouverToutes();
@@ -25,5 +29,5 @@ public interface MotoService {
     List<MotoResponseDto> rechercher(Long id, String marque, String modele, String couleur, Integer nombreCylindres,
                                      Integer poids, Integer puissanceEnkW, Integer hauteurSelle, String transmission,
                                      Permis permis, Long tarifJournalier, Long kilometrage, Boolean actif,
-                                     Boolean retireDuParc);
+                                     Boolean retireDuParc, OptionsRechercheDto options);
 }
@@ -1,12 +1,18 @@
 package com.accenture.service;
 
+import com.accenture.exception.ModificationConcurrenteException;
 import com.accenture.exception.VehiculeException;
 import com.accenture.model.param.Accessoires;
 import com.accenture.model.param.Permis;
 import com.accenture.repository.MotoDao;
 import com.accenture.repository.entity.Moto;
+import com.accenture.service.IndexVehicules.Drapeau;
+import com.accenture.service.IndexVehicules.Nombre;
+import com.accenture.service.IndexVehicules.Texte;
 import com.accenture.service.dto.MotoRequestDto;
 import com.accenture.service.dto.MotoResponseDto;
+import com.accenture.service.dto.OptionsRechercheDto;
+import com.accenture.service.dto.RapportImportDto;
 import com.accenture.service.mapper.MotoMapper;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
@@ -14,7 +20,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -28,10 +33,17 @@ public class MotoServiceImpl implements MotoService {
 
     private final MotoDao motoDao;
     private final MotoMapper motoMapper;
+    private final ImportParLots importParLots;
+    private final RechercheVehicules rechercheVehicules;
+    private final ReessaiConcurrence reessaiConcurrence;
 
-    public MotoServiceImpl(MotoDao motoDao, MotoMapper motoMapper) {
+    public MotoServiceImpl(MotoDao motoDao, MotoMapper motoMapper, ImportParLots importParLots, RechercheVehicules rechercheVehicules,
+                           ReessaiConcurrence reessaiConcurrence) {
         this.motoDao = motoDao;
         this.motoMapper = motoMapper;
+        this.importParLots = importParLots;
+        this.rechercheVehicules = rechercheVehicules;
+        this.reessaiConcurrence = reessaiConcurrence;
     }
 
     /**
@@ -44,26 +56,23 @@ public class MotoServiceImpl implements MotoService {
 
     @Override
     public MotoResponseDto ajouter(MotoRequestDto motoRequestDto) throws VehiculeException {
-        verifMoto(motoRequestDto);
-
-        Moto moto = motoMapper.toMoto(motoRequestDto);
-        if (moto.getPuissanceEnkW() <= 11) {
-            moto.setPermis(Permis.A1);
-        } else if (moto.getPuissanceEnkW() > 11 && moto.getPuissanceEnkW() < 35) {
-            moto.setPermis(Permis.A2);
-        } else {
-            moto.setPermis(Permis.A);
-        }
-
-        moto.ajouterAccessoire(Accessoires.CASQUE_MOTO);
-        moto.ajouterAccessoire(Accessoires.GANTS_MOTO);
-        moto.ajouterAccessoire(Accessoires.ANTIVOL_MOTO);
-        moto.ajouterAccessoire(Accessoires.PANTALON_PLUIE_MOTO);
-
-        Moto motoEnreg = motoDao.save(moto);
+        Moto motoEnreg = motoDao.save(preparer(motoRequestDto));
         return motoMapper.toMotoResponseDto(motoEnreg);
     }
 
+    /**
+     * Importer les motos en nombre : toutes les lignes sont vérifiées, puis les motos valides sont enregistrées par lots
+     * (voir {@link ImportParLots}). Une ligne invalide n'empêche pas l'import des autres.
+     *
+     * @param motoRequestDtos les motos à importer
+     * @return le rapport d'import, avec le numéro et la raison de chaque ligne rejetée
+     * @throws VehiculeException si la liste est vide
+     */
+    @Override
+    public RapportImportDto importer(List<MotoRequestDto> motoRequestDtos) throws VehiculeException {
+        return importParLots.importer(motoRequestDtos, this::preparer, motoDao);
+    }
+
     /**
      * Trouver une moto par son identifiant.
      *
@@ -96,26 +105,31 @@ public class MotoServiceImpl implements MotoService {
 
     /**
      * Modifier partiellement une moto.
+     * Si l'enregistrement est modifié par une autre requête pendant ce temps, la modification est rejouée
+     * sur sa dernière version (voir {@link ReessaiConcurrence}).
      *
      * @param id             l'identifiant unique de la moto à modifier
      * @param motoRequestDto l'objet contenant les informations de la moto à modifier
      * @return un objet MotoResponseDto contenant les informations de la moto modifiée
      * @throws VehiculeException       si une erreur survient lors de la modification de la moto
      * @throws EntityNotFoundException si aucune moto n'est trouvée avec l'identifiant fourni
+     * @throws ModificationConcurrenteException si l'enregistrement reste modifié par d'autres requêtes à chaque tentative
      */
 
     @Override
     public MotoResponseDto modifierPartiellement(Long id, MotoRequestDto motoRequestDto) throws VehiculeException, EntityNotFoundException {
-        Optional<Moto> optMoto = motoDao.findById(id);
-        if (optMoto.isEmpty())
-            throw new VehiculeException("Erreur, l'identifiant ne correspond à aucune moto en base");
-        Moto motoExistante = optMoto.get();
-
-        Moto nouvelle = motoMapper.toMoto(motoRequestDto);
-        remplacer(nouvelle, motoExistante);
-
-        Moto motoEnreg = motoDao.save(motoExistante);
-        return getMotoResponseDto(motoEnreg);
+        return reessaiConcurrence.executer("Moto", () -> {
+            Optional<Moto> optMoto = motoDao.findById(id);
+            if (optMoto.isEmpty())
+                throw new VehiculeException("Erreur, l'identifiant ne correspond à aucune moto en base");
+            Moto motoExistante = optMoto.get();
+
+            Moto nouvelle = motoMapper.toMoto(motoRequestDto);
+            remplacer(nouvelle, motoExistante);
+
+            Moto motoEnreg = motoDao.save(motoExistante);
+            return getMotoResponseDto(motoEnreg);
+        });
     }
 
     /**
@@ -139,9 +153,9 @@ public class MotoServiceImpl implements MotoService {
 
     @Override
     public void supprimer(Long id) throws EntityNotFoundException {
-        if (motoDao.existsById(id))
+        if (motoDao.existsById(id)) {
             motoDao.deleteById(id);
-        else
+        } else
             throw new EntityNotFoundException("Aucune moto n'est enregistrée sous cet identifiant");
     }
 
@@ -162,6 +176,7 @@ public class MotoServiceImpl implements MotoService {
      * @param kilometrage     le kilométrage de la moto
      * @param actif           la moto est-elle active
      * @param retireDuParc    la moto est-elle retirée du parc
+     * @param options         plages de tarif et de kilométrage, tri et page (facultatif)
      * @return la liste des motos correspondant aux critères
      */
 
@@ -169,19 +184,53 @@ public class MotoServiceImpl implements MotoService {
     public List<MotoResponseDto> rechercher(Long id, String marque, String modele, String couleur, Integer nombreCylindres,
                                             Integer poids, Integer puissanceEnkW, Integer hauteurSelle, String transmission,
                                             Permis permis, Long tarifJournalier, Long kilometrage, Boolean actif,
-                                            Boolean retireDuParc) {
-
-        List<Moto> liste = motoDao.findAll();
-
+                                            Boolean retireDuParc, OptionsRechercheDto options) {
+
+        List<Moto> liste = rechercheVehicules.rechercher(Moto.class, motoDao, new RequeteVehicules()
+                .identifiant(id)
+                .contient(Texte.MARQUE, marque)
+                .contient(Texte.MODELE, modele)
+                .contient(Texte.COULEUR, couleur)
+                .egalSiPositif(Nombre.NOMBRE_CYLINDRES, nombreCylindres)
+                .egalSiPositif(Nombre.POIDS, poids)
+                .egalSiPositif(Nombre.PUISSANCE_EN_KW, puissanceEnkW)
+                .egalSiPositif(Nombre.HAUTEUR_SELLE, hauteurSelle)
+                .contientSiAdmis(Texte.TRANSMISSION, transmission, RequeteVehicules.TRANSMISSIONS)
+                .permis(permis)
+                .egalSiPositif(Nombre.TARIF_JOURNALIER, tarifJournalier)
+                .egalSiPositifOuNul(Nombre.KILOMETRAGE, kilometrage)
+                .egal(Drapeau.ACTIF, actif)
+                .egal(Drapeau.RETIRE_DU_PARC, retireDuParc)
+                .options(options));
 
-        liste = rechercheMoto(id, marque, modele, couleur, nombreCylindres, poids, puissanceEnkW, hauteurSelle,
-                transmission, permis, tarifJournalier, kilometrage, actif, retireDuParc, liste);
+        if (liste.isEmpty()) {
+            throw new VehiculeException("Un critère de recherche est obligatoire !");
+        }
 
         return liste.stream()
                 .map(motoMapper::toMotoResponseDto)
                 .toList();
     }
 
+    private Moto preparer(MotoRequestDto motoRequestDto) {
+        verifMoto(motoRequestDto);
+
+        Moto moto = motoMapper.toMoto(motoRequestDto);
+        if (moto.getPuissanceEnkW() <= 11) {
+            moto.setPermis(Permis.A1);
+        } else if (moto.getPuissanceEnkW() > 11 && moto.getPuissanceEnkW() < 35) {
+            moto.setPermis(Permis.A2);
+        } else {
+            moto.setPermis(Permis.A);
+        }
+
+        moto.ajouterAccessoire(Accessoires.CASQUE_MOTO);
+        moto.ajouterAccessoire(Accessoires.GANTS_MOTO);
+        moto.ajouterAccessoire(Accessoires.ANTIVOL_MOTO);
+        moto.ajouterAccessoire(Accessoires.PANTALON_PLUIE_MOTO);
+        return moto;
+    }
+
     private static void verifMoto(MotoRequestDto motoRequestDto) {
         if (motoRequestDto == null)
             throw new VehiculeException("Le motoRequestDto est null");
@@ -276,115 +325,4 @@ public class MotoServiceImpl implements MotoService {
         if (moto.getRetireDuParc() != null)
             motoExistante.setRetireDuParc(moto.getRetireDuParc());
     }
-
-    private static List<Moto> filtrerParCaracteristiquesPhysiques(Integer poids, Integer puissanceEnkW, Integer hauteurSelle, List<Moto> liste) {
-        if (poids != null && poids > 0) {
-            liste = liste.stream()
-                    .filter(moto -> Objects.equals(moto.getPoids(), poids))
-                    .toList();
-            log.debug("List size after filtering by poids: {}", liste.size());
-        }
-        if (puissanceEnkW != null && puissanceEnkW > 0) {
-            liste = liste.stream()
-                    .filter(moto -> Objects.equals(moto.getPuissanceEnkW(), puissanceEnkW))
-                    .toList();
-            log.debug("List size after filtering by puissanceEnkW: {}", liste.size());
-        }
-        if (hauteurSelle != null && hauteurSelle > 0) {
-            liste = liste.stream()
-                    .filter(moto -> Objects.equals(moto.getHauteurSelle(), hauteurSelle))
-                    .toList();
-            log.debug("List size after filtering by hauteurSelle: {}", liste.size());
-        }
-        return liste;
-    }
-    private static List<Moto> filtrerParAttributsDeBase(Long id, String marque, String modele, String couleur, List<Moto> liste) {
-        if (id != null && id != 0) {
-            liste = liste.stream()
-                    .filter(moto -> Objects.equals(moto.getId(), id))
-                    .toList();
-            log.debug("List size after filtering by ID: {}", liste.size());
-        }
-        if (marque != null) {
-            liste = liste.stream()
-                    .filter(moto -> moto.getMarque().contains(marque))
-                    .toList();
-            log.debug("List size after filtering by marque: {}", liste.size());
-        }
-        if (modele != null) {
-            liste = liste.stream()
-                    .filter(moto -> moto.getModele().contains(modele))
-                    .toList();
-            log.debug("List size after filtering by modele: {}", liste.size());
-        }
-        if (couleur != null) {
-            liste = liste.stream()
-                    .filter(moto -> moto.getCouleur().contains(couleur))
-                    .toList();
-            log.debug("List size after filtering by couleur: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Moto> filtrerParEtatEtDisponibilite(Boolean actif, Boolean retireDuParc, List<Moto> liste) {
-        if (actif != null) {
-            liste = liste.stream()
-                    .filter(moto -> Objects.equals(moto.getActif(), actif))
-                    .toList();
-            log.debug("List size after filtering by actif: {}", liste.size());
-        }
-        if (retireDuParc != null) {
-            liste = liste.stream()
-                    .filter(moto -> Objects.equals(moto.getRetireDuParc(), retireDuParc))
-                    .toList();
-            log.debug("List size after filtering by retireDuParc: {}", liste.size());
-        }
-        return liste;
-    }
-    private static List<Moto> rechercheMoto(Long id, String marque, String modele, String couleur, Integer nombreCylindres,
-                                            Integer poids, Integer puissanceEnkW, Integer hauteurSelle, String transmission,
-                                            Permis permis, Long tarifJournalier, Long kilometrage, Boolean actif,
-                                            Boolean retireDuParc, List<Moto> liste) throws VehiculeException {
-        log.debug("Initial list size: {}", liste.size());
-
-        liste = filtrerParAttributsDeBase(id, marque, modele, couleur, liste);
-        liste = filtrerParCaracteristiquesPhysiques(poids, puissanceEnkW, hauteurSelle, liste);
-        liste = filtrerParEtatEtDisponibilite(actif, retireDuParc, liste);
-
-        if (nombreCylindres != null && nombreCylindres > 0) {
-            liste = liste.stream()
-                    .filter(moto -> Objects.equals(moto.getNombreCylindres(), nombreCylindres))
-                    .toList();
-            log.debug("List size after filtering by nombreCylindres: {}", liste.size());
-        }
-        if (transmission != null && (transmission.equals("automatique") || transmission.equals("manuelle"))) {
-            liste = liste.stream()
-                    .filter(moto -> moto.getTransmission().contains(transmission))
-                    .toList();
-            log.debug("List size after filtering by transmission: {}", liste.size());
-        }
-        if (permis != null) {
-            liste = liste.stream()
-                    .filter(moto -> Objects.equals(moto.getPermis(), permis))
-                    .toList();
-            log.debug("List size after filtering by permis: {}", liste.size());
-        }
-        if (tarifJournalier != null && tarifJournalier > 0) {
-            liste = liste.stream()
-                    .filter(moto -> Objects.equals(moto.getTarifJournalier(), tarifJournalier))
-                    .toList();
-            log.debug("List size after filtering by tarifJournalier: {}", liste.size());
-        }
-        if (kilometrage != null && kilometrage >= 0) {
-            liste = liste.stream()
-                    .filter(moto -> Objects.equals(moto.getKilometrage(), kilometrage))
-                    .toList();
-            log.debug("List size after filtering by kilometrage: {}", liste.size());
-        }
-
-        if (liste.isEmpty()) {
-            throw new VehiculeException("Un critère de recherche est obligatoire !");
-        }
-        return liste;
-    }
-}
\ No newline at end of file
+}
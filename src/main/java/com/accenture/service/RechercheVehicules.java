@@ -0,0 +1,53 @@
+package com.accenture.service;
+
+import com.accenture.repository.VehiculeTypeDao;
+import com.accenture.repository.entity.Vehicule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Recherches multicritères des services de véhicules.
+ * <p>
+ * Par défaut la recherche est une seule requête sur la table du type : les critères, le tri et la page sont appliqués
+ * par la base, qui rend toujours l'état validé, quelle que soit l'origine des écritures (autre instance, SQL, correction
+ * manuelle). Si l'{@link IndexVehicules} est activé ({@code index-vehicules.actif=true}), la recherche est servie
+ * par l'index en mémoire, au prix d'un décalage possible avec les écritures faites hors de cette instance.
+ */
+@Slf4j
+@Component
+public class RechercheVehicules {
+
+    private final ObjectProvider<IndexVehicules> indexVehicules;
+
+    public RechercheVehicules(ObjectProvider<IndexVehicules> indexVehicules) {
+        this.indexVehicules = indexVehicules;
+    }
+
+    /**
+     * Recherche les véhicules d'un type qui satisfont tous les critères de la requête.
+     *
+     * @param classe  le type de véhicule recherché
+     * @param dao     le DAO de ce type
+     * @param requete les critères, le tri et la page
+     * @return les véhicules trouvés, dans l'ordre du tri demandé (par identifiant sans tri)
+     */
+    public <T extends Vehicule> List<T> rechercher(Class<T> classe, VehiculeTypeDao<T> dao, RequeteVehicules requete) {
+        IndexVehicules index = indexVehicules.getIfAvailable();
+        if (index != null)
+            return index.rechercher(classe, requete);
+
+        Specification<T> specification = requete.specification(classe);
+        Sort ordre = requete.ordre(classe);
+        List<T> liste = requete.taille() == null
+                ? dao.findAll(specification, ordre)
+                : dao.findAll(specification, PageRequest.of((int) (requete.decalage() / requete.taille()), requete.taille(), ordre)).getContent();
+        log.debug("Recherche de {} en base : {} résultats", classe.getSimpleName(), liste.size());
+        return liste;
+    }
+}
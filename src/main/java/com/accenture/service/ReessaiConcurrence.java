@@ -0,0 +1,121 @@
+package com.accenture.service;
+
+import com.accenture.exception.ModificationConcurrenteException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Rejoue une modification partielle quand une autre requête a modifié le même enregistrement entre sa lecture
+ * et son écriture (verrou optimiste, {@code @Version}).
+ * <p>
+ * Chaque tentative relit l'enregistrement et réapplique les seuls champs envoyés par la requête PATCH : les champs
+ * modifiés entre-temps par l'autre requête sont conservés. Aucun verrou de ligne n'est pris, la lecture et l'écriture
+ * d'une tentative sont deux transactions courtes. Avant de rejouer, l'entrée du cache de second niveau est expulsée
+ * pour que la relecture voie la version écrite par l'autre requête (ou l'autre instance).
+ * <p>
+ * Les conflits sont comptés dans {@value #COMPTEUR}, par entité et par issue : {@code reessai} quand la modification
+ * est rejouée, {@code abandon} quand les tentatives sont épuisées.
+ */
+@Slf4j
+@Component
+public class ReessaiConcurrence implements MeterBinder {
+
+    static final String COMPTEUR = "modifications.conflits";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final int tentativesMax;
+    private final Map<String, LongAdder[]> conflits = new ConcurrentHashMap<>();
+    private final List<MeterRegistry> registres = new CopyOnWriteArrayList<>();
+
+    public ReessaiConcurrence(EntityManagerFactory entityManagerFactory,
+                              @Value("${concurrence.tentatives-max:3}") int tentativesMax) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.tentativesMax = tentativesMax;
+    }
+
+    /**
+     * Exécute une modification, et la rejoue en cas de conflit de version.
+     *
+     * @param entite       le nom de l'entité modifiée, repris dans les métriques et le message d'erreur
+     * @param modification la lecture, la fusion des champs envoyés et l'écriture ; elle est rejouée entièrement
+     * @return le résultat de la première tentative sans conflit
+     * @throws ModificationConcurrenteException si toutes les tentatives sont en conflit
+     */
+    public <T> T executer(String entite, Supplier<T> modification) {
+        for (int tentative = 1; ; tentative++) {
+            try {
+                return modification.get();
+            } catch (OptimisticLockingFailureException e) {
+                expulser(e);
+                LongAdder[] compteurs = compteurs(entite);
+                if (tentative >= tentativesMax) {
+                    compteurs[1].increment();
+                    log.warn("Modification de {} abandonnée après {} conflits de version", entite, tentative);
+                    throw new ModificationConcurrenteException("Modification de " + entite
+                            + " impossible : l'enregistrement est modifié en même temps par une autre requête, réessayez");
+                }
+                compteurs[0].increment();
+                log.debug("Conflit de version sur {}, tentative {} sur {}", entite, tentative, tentativesMax);
+                attendre(tentative);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registre) {
+        registres.add(registre);
+        conflits.forEach((entite, compteurs) -> enregistrer(registre, entite, compteurs));
+    }
+
+    private LongAdder[] compteurs(String entite) {
+        return conflits.computeIfAbsent(entite, e -> {
+            LongAdder[] compteurs = {new LongAdder(), new LongAdder()};
+            registres.forEach(registre -> enregistrer(registre, e, compteurs));
+            return compteurs;
+        });
+    }
+
+    private static void enregistrer(MeterRegistry registre, String entite, LongAdder[] compteurs) {
+        FunctionCounter.builder(COMPTEUR, compteurs[0], LongAdder::sum)
+                .description("Conflits de version sur les modifications partielles")
+                .tags("entite", entite, "issue", "reessai")
+                .register(registre);
+        FunctionCounter.builder(COMPTEUR, compteurs[1], LongAdder::sum)
+                .description("Conflits de version sur les modifications partielles")
+                .tags("entite", entite, "issue", "abandon")
+                .register(registre);
+    }
+
+    private void expulser(OptimisticLockingFailureException e) {
+        if (e instanceof ObjectOptimisticLockingFailureException conflit && conflit.getPersistentClass() != null
+                && conflit.getIdentifier() != null)
+            entityManagerFactory.getCache().evict(conflit.getPersistentClass(), conflit.getIdentifier());
+    }
+
+    /**
+     * Courte pause aléatoire, croissante avec les tentatives, pour que deux requêtes en conflit ne se rejouent pas en même temps.
+     */
+    private static void attendre(int tentative) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 10L * tentative + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModificationConcurrenteException("Modification interrompue");
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.accenture.service;
+
+import com.accenture.exception.VehiculesIndisponiblesException;
+import com.accenture.model.param.TypeVehiculeEnum;
+import com.accenture.repository.*;
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.service.dto.ResultatVehiculesDto;
+import com.accenture.service.dto.VehiculeResponseDto;
+import com.accenture.service.mapper.MotoMapper;
+import com.accenture.service.mapper.UtilitaireMapper;
+import com.accenture.service.mapper.VeloMapper;
+import com.accenture.service.mapper.VoitureMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Lecture des véhicules des quatre types en parallèle : une requête par table, chacune sur son propre thread,
+ * dans sa propre transaction en lecture seule (donc sur sa propre connexion), puis fusion des résultats.
+ * Chaque véhicule est converti dans le DTO de son type dans la transaction qui l'a lu : aucune entité n'est rendue.
+ * La latence est celle de la plus lente des quatre requêtes plutôt que leur somme.
+ * <p>
+ * Toutes les requêtes partagent le même délai : un type dont la requête échoue ou n'a pas répondu à temps
+ * est signalé dans {@link ResultatVehiculesDto#echecs()} sans empêcher de rendre les autres.
+ * Le délai est aussi posé comme timeout de la transaction, la base arrête donc la requête abandonnée.
+ * <p>
+ * Les lectures en cours, tous appels confondus, ne tiennent jamais plus de {@code connexionsMax} connexions du pool :
+ * des appels simultanés à {@code /vehicules/tous} attendent une place dans la limite du délai, puis le type est en échec,
+ * sans priver de connexions le reste de l'application.
+ */
+@Slf4j
+@Component
+public class RepartitionVehicules implements AutoCloseable {
+
+    private final Map<TypeVehiculeEnum, Table<?>> tables = new EnumMap<>(TypeVehiculeEnum.class);
+    private final TransactionTemplate lecture;
+    private final Duration delai;
+    private final Semaphore connexions;
+    private final ExecutorService executeur = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param transactionManager le gestionnaire des transactions ouvertes par chaque requête
+     * @param delai              temps maximum laissé aux quatre requêtes
+     * @param connexionsMax      nombre maximum de lectures simultanées, donc de connexions prises au pool
+     */
+    @Autowired
+    public RepartitionVehicules(VoitureDao voitureDao, MotoDao motoDao, VeloDao veloDao, UtilitaireDao utilitaireDao,
+                                VoitureMapper voitureMapper, MotoMapper motoMapper, VeloMapper veloMapper,
+                                UtilitaireMapper utilitaireMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${vehicules.repartition.delai:PT5S}") Duration delai,
+                                @Value("${vehicules.repartition.connexions-max:8}") int connexionsMax) {
+        tables.put(TypeVehiculeEnum.VOITURE, new Table<>(voitureDao, voitureMapper::toVoitureResponseDto));
+        tables.put(TypeVehiculeEnum.MOTO, new Table<>(motoDao, motoMapper::toMotoResponseDto));
+        tables.put(TypeVehiculeEnum.VELO, new Table<>(veloDao, veloMapper::toVeloResponseDto));
+        tables.put(TypeVehiculeEnum.UTILITAIRE, new Table<>(utilitaireDao, utilitaireMapper::toUtilitaireResponseDto));
+        this.delai = delai;
+        this.connexions = new Semaphore(connexionsMax);
+        this.lecture = new TransactionTemplate(transactionManager);
+        lecture.setReadOnly(true);
+        lecture.setTimeout((int) Math.max(1, (delai.toMillis() + 999) / 1000));
+    }
+
+    /**
+     * Véhicules de tous les types filtrés sur actif et retireDuParc (un critère null est ignoré).
+     *
+     * @return les véhicules lus, triés par identifiant, et les types en échec
+     * @throws VehiculesIndisponiblesException si aucun type n'a pu être lu
+     */
+    public ResultatVehiculesDto rechercher(Boolean actif, Boolean retireDuParc) {
+        long limite = System.nanoTime() + delai.toNanos();
+        Map<TypeVehiculeEnum, Future<List<VehiculeResponseDto>>> requetes = new EnumMap<>(TypeVehiculeEnum.class);
+        tables.forEach((type, table) -> requetes.put(type, executeur.submit(() -> lire(table, actif, retireDuParc, limite))));
+
+        List<VehiculeResponseDto> vehicules = new ArrayList<>();
+        Map<TypeVehiculeEnum, String> echecs = new EnumMap<>(TypeVehiculeEnum.class);
+        requetes.forEach((type, requete) -> {
+            try {
+                vehicules.addAll(requete.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                requete.cancel(true);
+                echecs.put(type, "délai de " + delai.toMillis() + " ms dépassé");
+            } catch (ExecutionException e) {
+                log.error("Échec de la lecture des véhicules de type {} : {}", type, e.getCause().getMessage(), e.getCause());
+                echecs.put(type, String.valueOf(e.getCause().getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                requete.cancel(true);
+                echecs.put(type, "lecture interrompue");
+            }
+        });
+        if (echecs.size() == requetes.size()) {
+            log.error("Aucun type de véhicule n'a pu être lu : {}", echecs);
+            // les raisons (messages du pilote JDBC) restent dans le journal : le client ne reçoit que les types
+            throw new VehiculesIndisponiblesException("Aucun type de véhicule n'a pu être lu : " + echecs.keySet());
+        }
+        if (!echecs.isEmpty())
+            log.warn("Véhicules incomplets, types en échec : {}", echecs);
+        vehicules.sort(Comparator.comparingLong(VehiculeResponseDto::id));
+        return new ResultatVehiculesDto(vehicules, echecs);
+    }
+
+    /**
+     * Lit une table dès qu'une des connexions réservées aux lectures est libre, sans dépasser la limite commune.
+     */
+    private List<VehiculeResponseDto> lire(Table<?> table, Boolean actif, Boolean retireDuParc, long limite)
+            throws InterruptedException, TimeoutException {
+        if (!connexions.tryAcquire(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS))
+            throw new TimeoutException("toutes les lectures simultanées autorisées sont en cours");
+        try {
+            return lecture.execute(statut -> table.lire(actif, retireDuParc));
+        } finally {
+            connexions.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        executeur.shutdownNow();
+    }
+
+    /**
+     * Une table de véhicules : son DAO et la conversion de ses véhicules dans le DTO de leur type.
+     */
+    private record Table<T extends Vehicule>(VehiculeTypeDao<T> dao, Function<T, VehiculeResponseDto> enDto) {
+
+        List<VehiculeResponseDto> lire(Boolean actif, Boolean retireDuParc) {
+            return dao.rechercher(actif, retireDuParc).stream().map(enDto).toList();
+        }
+    }
+}
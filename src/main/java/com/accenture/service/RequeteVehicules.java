@@ -0,0 +1,238 @@
+package com.accenture.service;
+
+import com.accenture.exception.VehiculeException;
+import com.accenture.model.param.Carburant;
+import com.accenture.model.param.Permis;
+import com.accenture.repository.VehiculeSpecifications;
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.service.IndexVehicules.Drapeau;
+import com.accenture.service.IndexVehicules.Nombre;
+import com.accenture.service.IndexVehicules.Texte;
+import com.accenture.service.dto.OptionsRechercheDto;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Critères d'une recherche de véhicules, résolue en base par {@link RechercheVehicules}
+ * ou dans l'{@link IndexVehicules} s'il est activé.
+ * Un critère null est ignoré ; les règles propres à chaque attribut (valeur 0 ignorée, valeur négative ignorée...)
+ * sont portées par la méthode appelée, comme dans les anciennes recherches des services.
+ */
+public final class RequeteVehicules {
+
+    /** transmissions admises comme critère de recherche */
+    public static final Set<String> TRANSMISSIONS = Set.of("automatique", "manuelle");
+    public static final int TAILLE_PAGE_MAX = 500;
+
+    private Long identifiant;
+    private Carburant carburant;
+    private Permis permis;
+    private final Map<Texte, String> textes = new EnumMap<>(Texte.class);
+    private final Map<Nombre, Long> nombres = new EnumMap<>(Nombre.class);
+    private final Map<Drapeau, Boolean> drapeaux = new EnumMap<>(Drapeau.class);
+    private final Map<Nombre, long[]> plages = new EnumMap<>(Nombre.class);
+    private Nombre tri;
+    private boolean decroissant;
+    private long decalage;
+    private Integer taille;
+
+    /**
+     * @param id l'identifiant recherché, ignoré s'il est null ou égal à 0
+     */
+    public RequeteVehicules identifiant(Long id) {
+        if (id != null && id != 0)
+            identifiant = id;
+        return this;
+    }
+
+    /**
+     * @param motif la chaîne que doit contenir la colonne (sensible à la casse)
+     */
+    public RequeteVehicules contient(Texte colonne, String motif) {
+        if (motif != null)
+            textes.put(colonne, motif);
+        return this;
+    }
+
+    /**
+     * Comme {@link #contient}, seulement si le motif est l'une des valeurs admises (sinon le critère est ignoré).
+     */
+    public RequeteVehicules contientSiAdmis(Texte colonne, String motif, Set<String> valeursAdmises) {
+        if (motif != null && valeursAdmises.contains(motif))
+            textes.put(colonne, motif);
+        return this;
+    }
+
+    /**
+     * Égalité, si la valeur est strictement positive.
+     */
+    public RequeteVehicules egalSiPositif(Nombre colonne, Number valeur) {
+        if (valeur != null && valeur.longValue() > 0)
+            nombres.put(colonne, valeur.longValue());
+        return this;
+    }
+
+    /**
+     * Égalité, si la valeur est positive ou nulle.
+     */
+    public RequeteVehicules egalSiPositifOuNul(Nombre colonne, Number valeur) {
+        if (valeur != null && valeur.longValue() >= 0)
+            nombres.put(colonne, valeur.longValue());
+        return this;
+    }
+
+    /**
+     * Plage de valeurs, bornes incluses ; une borne null n'est pas appliquée.
+     *
+     * @throws VehiculeException si le minimum dépasse le maximum
+     */
+    public RequeteVehicules entre(Nombre colonne, Long min, Long max) {
+        if (min == null && max == null)
+            return this;
+        if (min != null && max != null && min > max)
+            throw new VehiculeException("Le minimum doit être inférieur ou égal au maximum");
+        plages.put(colonne, new long[]{min == null ? Long.MIN_VALUE : min, max == null ? Long.MAX_VALUE : max});
+        return this;
+    }
+
+    /**
+     * Trie les résultats sur une colonne, puis par identifiant croissant à valeur égale.
+     */
+    public RequeteVehicules trierPar(Nombre colonne, boolean decroissant) {
+        this.tri = colonne;
+        this.decroissant = decroissant;
+        return this;
+    }
+
+    /**
+     * Ne rend qu'une page des résultats triés.
+     *
+     * @throws VehiculeException si le numéro est négatif ou la taille hors bornes
+     */
+    public RequeteVehicules page(int numero, int taille) {
+        if (numero < 0)
+            throw new VehiculeException("Le numéro de page doit être positif ou nul");
+        if (taille < 1 || taille > TAILLE_PAGE_MAX)
+            throw new VehiculeException("La taille de page doit être comprise entre 1 et " + TAILLE_PAGE_MAX);
+        this.decalage = (long) numero * taille;
+        this.taille = taille;
+        return this;
+    }
+
+    /**
+     * Applique les options reçues par les contrôleurs : plages de tarif et de kilométrage, tri et page.
+     *
+     * @param options les options, null pour n'en appliquer aucune
+     * @throws VehiculeException si une plage ou la page est invalide
+     */
+    public RequeteVehicules options(OptionsRechercheDto options) {
+        if (options == null)
+            return this;
+        entre(Nombre.TARIF_JOURNALIER, options.tarifMin(), options.tarifMax());
+        entre(Nombre.KILOMETRAGE, options.kilometrageMin(), options.kilometrageMax());
+        if (options.tri() != null) {
+            Nombre colonne = switch (options.tri()) {
+                case TARIF_JOURNALIER -> Nombre.TARIF_JOURNALIER;
+                case KILOMETRAGE -> Nombre.KILOMETRAGE;
+            };
+            trierPar(colonne, options.sens() == Sort.Direction.DESC);
+        }
+        if (options.taille() != null)
+            page(options.page() == null ? 0 : options.page(), options.taille());
+        else if (options.page() != null)
+            throw new VehiculeException("La taille de page est obligatoire avec un numéro de page");
+        return this;
+    }
+
+    public RequeteVehicules egal(Drapeau colonne, Boolean valeur) {
+        if (valeur != null)
+            drapeaux.put(colonne, valeur);
+        return this;
+    }
+
+    public RequeteVehicules carburant(Carburant valeur) {
+        carburant = valeur;
+        return this;
+    }
+
+    public RequeteVehicules permis(Permis valeur) {
+        permis = valeur;
+        return this;
+    }
+
+    /**
+     * Les critères en une seule {@link Specification} sur la table du type recherché.
+     */
+    <T extends Vehicule> Specification<T> specification(Class<T> classe) {
+        List<Specification<T>> criteres = new ArrayList<>();
+        criteres.add(VehiculeSpecifications.egal("id", identifiant));
+        criteres.add(VehiculeSpecifications.egal("carburant", carburant));
+        criteres.add(VehiculeSpecifications.egal("permis", permis));
+        textes.forEach((texte, motif) -> criteres.add(VehiculeSpecifications.contient(texte.attribut, motif)));
+        nombres.forEach((nombre, valeur) -> criteres.add(VehiculeSpecifications.nombreEgal(nombre.attribut(classe), nombre.partieEntiere(), valeur)));
+        plages.forEach((nombre, plage) -> criteres.add(VehiculeSpecifications.nombreEntre(nombre.attribut(classe), nombre.partieEntiere(),
+                plage[0] == Long.MIN_VALUE ? null : plage[0], plage[1] == Long.MAX_VALUE ? null : plage[1])));
+        drapeaux.forEach((drapeau, valeur) -> criteres.add(VehiculeSpecifications.egal(drapeau.attribut, valeur)));
+        return Specification.allOf(criteres);
+    }
+
+    /**
+     * L'ordre des résultats : la colonne de tri dans le sens demandé, puis l'identifiant croissant.
+     */
+    Sort ordre(Class<? extends Vehicule> classe) {
+        Sort parId = Sort.by("id");
+        if (tri == null)
+            return parId;
+        return Sort.by(decroissant ? Sort.Direction.DESC : Sort.Direction.ASC, tri.attribut(classe)).and(parId);
+    }
+
+    Long identifiant() {
+        return identifiant;
+    }
+
+    Carburant carburant() {
+        return carburant;
+    }
+
+    Permis permis() {
+        return permis;
+    }
+
+    Map<Texte, String> textes() {
+        return textes;
+    }
+
+    Map<Nombre, Long> nombres() {
+        return nombres;
+    }
+
+    Map<Drapeau, Boolean> drapeaux() {
+        return drapeaux;
+    }
+
+    Map<Nombre, long[]> plages() {
+        return plages;
+    }
+
+    Nombre tri() {
+        return tri;
+    }
+
+    boolean decroissant() {
+        return decroissant;
+    }
+
+    long decalage() {
+        return decalage;
+    }
+
+    Integer taille() {
+        return taille;
+    }
+}
@@ -0,0 +1,47 @@
+package com.accenture.service;
+
+import com.accenture.model.param.TypeVehiculeEnum;
+import com.accenture.repository.entity.Vehicule;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index en mémoire associant l'identifiant d'un véhicule à son type.
+ * Comme les quatre tables de véhicules partagent le même compteur d'identifiants, un identifiant
+ * n'appartient qu'à une seule table : une fois son type connu, la recherche peut aller directement
+ * dans la bonne table au lieu d'interroger les quatre.
+ */
+@Component
+public class RoutageVehicule {
+
+    private final Map<Long, TypeVehiculeEnum> typeParId = new ConcurrentHashMap<>();
+
+    /**
+     * @param id l'identifiant du véhicule
+     * @return le type du véhicule s'il est déjà connu de l'index
+     */
+    public Optional<TypeVehiculeEnum> trouverType(long id) {
+        return Optional.ofNullable(typeParId.get(id));
+    }
+
+    /**
+     * Mémorise le type d'un véhicule chargé depuis la base.
+     *
+     * @param vehicule le véhicule à indexer
+     */
+    public void enregistrer(Vehicule vehicule) {
+        typeParId.put(vehicule.getId(), Vehicule.typeDe(vehicule));
+    }
+
+    /**
+     * Oublie un identifiant, par exemple lorsque le véhicule n'existe plus en base.
+     *
+     * @param id l'identifiant du véhicule
+     */
+    public void retirer(long id) {
+        typeParId.remove(id);
+    }
+}
@@ -0,0 +1,16 @@
+package com.accenture.service;
+
+import com.accenture.exception.LocationException;
+import com.accenture.model.param.Accessoires;
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.service.dto.DemandeDevisDto;
+import com.accenture.service.dto.DevisDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TarificationService {
+    int calculer(Vehicule vehicule, List<Accessoires> accessoires, LocalDate debut, LocalDate fin, int kilometres) throws LocationException;
+
+    List<DevisDto> deviser(List<DemandeDevisDto> demandes) throws LocationException;
+}
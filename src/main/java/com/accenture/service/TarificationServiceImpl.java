@@ -0,0 +1,157 @@
+package com.accenture.service;
+
+import com.accenture.exception.LocationException;
+import com.accenture.model.param.Accessoires;
+import com.accenture.model.param.TypeVehiculeEnum;
+import com.accenture.repository.VehiculeCatalogueDao;
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.service.dto.DemandeDevisDto;
+import com.accenture.service.dto.DevisDto;
+import com.accenture.service.dto.TarifVehiculeDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Calcul du prix des locations par le serveur :
+ * {@code jours × (tarif journalier du véhicule + prix journalier des accessoires) + kilomètres prévus × prix du kilomètre},
+ * les jours étant comptés bornes incluses, comme les réservations. Le total est arrondi à l'euro supérieur.
+ * <p>
+ * Les composantes du prix sont rangées dans des tableaux de long : le prix de chaque accessoire par ordinal,
+ * et pour chaque type de véhicule le masque des accessoires qui lui sont réservés. Les accessoires d'une demande
+ * deviennent un masque de bits, vérifié en une opération. Les tarifs des véhicules d'un lot de devis sont lus
+ * en une seule requête dans le catalogue des véhicules, tenu à jour dans la transaction qui écrit chaque véhicule.
+ */
+@Slf4j
+@Service
+public class TarificationServiceImpl implements TarificationService {
+
+    private static final long[] PRIX_ACCESSOIRES = new long[Accessoires.values().length];
+    private static final long[] ACCESSOIRES_PAR_TYPE = new long[TypeVehiculeEnum.values().length];
+
+    static {
+        for (Accessoires accessoire : Accessoires.values()) {
+            PRIX_ACCESSOIRES[accessoire.ordinal()] = accessoire.getPrixJournalierCentimes();
+            ACCESSOIRES_PAR_TYPE[accessoire.getType().ordinal()] |= 1L << accessoire.ordinal();
+        }
+    }
+
+    private final VehiculeCatalogueDao vehiculeCatalogueDao;
+    private final long prixKilometre;
+    private final int tailleMaxDevis;
+
+    public TarificationServiceImpl(VehiculeCatalogueDao vehiculeCatalogueDao,
+                                   @Value("${tarification.prix-kilometre:25}") long prixKilometre,
+                                   @Value("${tarification.taille-max-devis:10000}") int tailleMaxDevis) {
+        this.vehiculeCatalogueDao = vehiculeCatalogueDao;
+        this.prixKilometre = prixKilometre;
+        this.tailleMaxDevis = tailleMaxDevis;
+    }
+
+    /**
+     * Calculer le montant d'une location.
+     *
+     * @param vehicule    le véhicule loué
+     * @param accessoires les accessoires choisis (un accessoire répété n'est compté qu'une fois), null pour aucun
+     * @param debut       premier jour de la location
+     * @param fin         dernier jour de la location
+     * @param kilometres  kilomètres prévus
+     * @return le montant total, en euros
+     * @throws LocationException si la période ou les kilomètres sont invalides, ou si un accessoire n'est pas proposé pour ce véhicule
+     */
+    @Override
+    public int calculer(Vehicule vehicule, List<Accessoires> accessoires, LocalDate debut, LocalDate fin, int kilometres) throws LocationException {
+        return montant(vehicule.getTarifJournalier(), Vehicule.typeDe(vehicule), masque(accessoires),
+                jours(debut, fin), kilometres);
+    }
+
+    /**
+     * Chiffrer un lot de demandes, par exemple pour comparer des véhicules et des périodes.
+     * Une demande invalide n'interrompt pas le lot : son devis porte la raison du rejet.
+     *
+     * @param demandes les demandes, au plus {@code tarification.taille-max-devis}
+     * @return un devis par demande, dans le même ordre
+     * @throws LocationException si le lot est vide ou trop grand
+     */
+    @Override
+    public List<DevisDto> deviser(List<DemandeDevisDto> demandes) throws LocationException {
+        if (demandes == null || demandes.isEmpty())
+            throw new LocationException("Vous devez envoyer au moins une demande de devis");
+        if (demandes.size() > tailleMaxDevis)
+            throw new LocationException("Un lot de devis ne peut pas dépasser " + tailleMaxDevis + " demandes");
+
+        Set<Long> ids = new HashSet<>();
+        for (DemandeDevisDto demande : demandes)
+            if (demande != null && demande.vehiculeId() != null)
+                ids.add(demande.vehiculeId());
+        Map<Long, TarifVehiculeDto> tarifs = new HashMap<>();
+        if (!ids.isEmpty())
+            for (TarifVehiculeDto tarif : vehiculeCatalogueDao.trouverTarifsLouables(ids))
+                tarifs.put(tarif.id(), tarif);
+
+        List<DevisDto> devis = new ArrayList<>(demandes.size());
+        for (DemandeDevisDto demande : demandes)
+            devis.add(deviser(demande, demande == null || demande.vehiculeId() == null ? null : tarifs.get(demande.vehiculeId())));
+        log.debug("Lot de {} devis chiffré", devis.size());
+        return devis;
+    }
+
+    private DevisDto deviser(DemandeDevisDto demande, TarifVehiculeDto tarif) {
+        if (demande == null)
+            return new DevisDto(null, null, null, 0, null, "La demande de devis est null");
+        long jours = 0;
+        try {
+            jours = jours(demande.dateDebut(), demande.dateFin());
+            if (tarif == null)
+                throw new LocationException("Le véhicule " + demande.vehiculeId() + " n'est pas proposé à la location");
+            int montant = montant(tarif.tarifJournalier(), tarif.typeVehicule(), masque(demande.accessoires()), jours, demande.kilometres());
+            return new DevisDto(demande.vehiculeId(), demande.dateDebut(), demande.dateFin(), jours, montant, null);
+        } catch (LocationException e) {
+            return new DevisDto(demande.vehiculeId(), demande.dateDebut(), demande.dateFin(), jours, null, e.getMessage());
+        }
+    }
+
+    private int montant(long tarifJournalier, TypeVehiculeEnum type, long accessoires, long jours, int kilometres) {
+        if (kilometres < 0)
+            throw new LocationException("Les kilomètres prévus doivent être positifs ou nuls");
+        long horsType = accessoires & ~ACCESSOIRES_PAR_TYPE[type.ordinal()];
+        if (horsType != 0)
+            throw new LocationException("L'accessoire " + Accessoires.values()[Long.numberOfTrailingZeros(horsType)]
+                    + " n'est pas proposé pour un véhicule de type " + type);
+        try {
+            long parJour = Math.multiplyExact(tarifJournalier, 100);
+            for (long reste = accessoires; reste != 0; reste &= reste - 1)
+                parJour += PRIX_ACCESSOIRES[Long.numberOfTrailingZeros(reste)];
+            long centimes = Math.addExact(Math.multiplyExact(jours, parJour), Math.multiplyExact(kilometres, prixKilometre));
+            return Math.toIntExact(Math.ceilDiv(centimes, 100));
+        } catch (ArithmeticException e) {
+            throw new LocationException("Le montant de la location dépasse la limite autorisée");
+        }
+    }
+
+    private static long jours(LocalDate debut, LocalDate fin) {
+        if (debut == null || fin == null)
+            throw new LocationException("Les dates de début et de fin sont obligatoires");
+        if (fin.isBefore(debut))
+            throw new LocationException("La date de fin doit être postérieure ou égale à la date de début");
+        return ChronoUnit.DAYS.between(debut, fin) + 1;
+    }
+
+    private static long masque(List<Accessoires> accessoires) {
+        long masque = 0;
+        if (accessoires != null)
+            for (Accessoires accessoire : accessoires)
+                if (accessoire != null)
+                    masque |= 1L << accessoire.ordinal();
+        return masque;
+    }
+}
@@ -4,6 +4,8 @@ import com.accenture.exception.VehiculeException;
 import com.accenture.model.param.Carburant;
 import com.accenture.model.param.Permis;
 import com.accenture.repository.entity.Utilitaire;
+import com.accenture.service.dto.OptionsRechercheDto;
+import com.accenture.service.dto.RapportImportDto;
 import com.accenture.service.dto.UtilitaireRequestDto;
 import com.accenture.service.dto.UtilitaireResponseDto;
 import jakarta.persistence.EntityNotFoundException;
@@ -13,6 +15,8 @@ import java.util.List;
 public interface UtilitaireService {
     UtilitaireResponseDto ajouter(UtilitaireRequestDto utilitaireRequestDto) throws VehiculeException;
 
+    RapportImportDto importer(List<UtilitaireRequestDto> utilitaireRequestDtos) throws VehiculeException;
+
     UtilitaireResponseDto trouver(long id) throws EntityNotFoundException;
 
     List<UtilitaireResponseDto> trouverToutes();
@@ -26,5 +30,6 @@ public interface UtilitaireService {
     List<UtilitaireResponseDto> rechercher(Long id, String marque, String modele, String couleur, Integer nombreDePlace,
                                            Carburant carburant, String transmission, Boolean clim, Integer chargeMax,
                                            Integer poidsPATC, Integer capaciteM3, Permis permis, Long tarifJournalier,
-                                           Long kilometrage, Boolean actif, Boolean retireDuParc);
+                                           Long kilometrage, Boolean actif, Boolean retireDuParc,
+                                           OptionsRechercheDto options);
 }
@@ -1,11 +1,17 @@
 package com.accenture.service;
 
+import com.accenture.exception.ModificationConcurrenteException;
 import com.accenture.exception.VehiculeException;
 import com.accenture.model.param.Accessoires;
 import com.accenture.model.param.Carburant;
 import com.accenture.model.param.Permis;
 import com.accenture.repository.UtilitaireDao;
 import com.accenture.repository.entity.Utilitaire;
+import com.accenture.service.IndexVehicules.Drapeau;
+import com.accenture.service.IndexVehicules.Nombre;
+import com.accenture.service.IndexVehicules.Texte;
+import com.accenture.service.dto.OptionsRechercheDto;
+import com.accenture.service.dto.RapportImportDto;
 import com.accenture.service.dto.UtilitaireRequestDto;
 import com.accenture.service.dto.UtilitaireResponseDto;
 import com.accenture.service.mapper.UtilitaireMapper;
@@ -27,10 +33,17 @@ public class UtilitaireServiceImpl implements UtilitaireService {
 
     private final UtilitaireDao utilitaireDao;
     private final UtilitaireMapper utilitaireMapper;
+    private final ImportParLots importParLots;
+    private final RechercheVehicules rechercheVehicules;
+    private final ReessaiConcurrence reessaiConcurrence;
 
-    public UtilitaireServiceImpl(UtilitaireDao utilitaireDao, UtilitaireMapper utilitaireMapper) {
+    public UtilitaireServiceImpl(UtilitaireDao utilitaireDao, UtilitaireMapper utilitaireMapper, ImportParLots importParLots, RechercheVehicules rechercheVehicules,
+                                 ReessaiConcurrence reessaiConcurrence) {
         this.utilitaireDao = utilitaireDao;
         this.utilitaireMapper = utilitaireMapper;
+        this.importParLots = importParLots;
+        this.rechercheVehicules = rechercheVehicules;
+        this.reessaiConcurrence = reessaiConcurrence;
     }
 
     /**
@@ -43,25 +56,23 @@ public class UtilitaireServiceImpl implements UtilitaireService {
 
     @Override
     public UtilitaireResponseDto ajouter(UtilitaireRequestDto utilitaireRequestDto) throws VehiculeException {
-        verifUtilitaire(utilitaireRequestDto);
-
-        Utilitaire utilitaire = utilitaireMapper.toUtilitaire(utilitaireRequestDto);
-        if (utilitaire.getPoidsPATC()<= 3.5){
-        utilitaire.setPermis(Permis.B);
-        }
-        else if (utilitaire.getPoidsPATC()> 3.5 && utilitaire.getPoidsPATC()<7.5){
-            utilitaire.setPermis(Permis.C1);
-        }
-        else log.info("L'utilitaire est trop lourd");
-
-        utilitaire.ajouterAccessoire(Accessoires.DIABLE_UTILITAIRE);
-        utilitaire.ajouterAccessoire(Accessoires.SANGLE_UTILITAIRE);
-        utilitaire.ajouterAccessoire(Accessoires.COUVERTURE_PROTECTION_UTILITAIRE);
-
-        Utilitaire utilitaireEnreg = utilitaireDao.save(utilitaire);
+        Utilitaire utilitaireEnreg = utilitaireDao.save(preparer(utilitaireRequestDto));
         return utilitaireMapper.toUtilitaireResponseDto(utilitaireEnreg);
     }
 
+    /**
+     * Importer les utilitaires en nombre : toutes les lignes sont vérifiées, puis les utilitaires valides sont enregistrés par lots
+     * (voir {@link ImportParLots}). Une ligne invalide n'empêche pas l'import des autres.
+     *
+     * @param utilitaireRequestDtos les utilitaires à importer
+     * @return le rapport d'import, avec le numéro et la raison de chaque ligne rejetée
+     * @throws VehiculeException si la liste est vide
+     */
+    @Override
+    public RapportImportDto importer(List<UtilitaireRequestDto> utilitaireRequestDtos) throws VehiculeException {
+        return importParLots.importer(utilitaireRequestDtos, this::preparer, utilitaireDao);
+    }
+
     /**
      * Trouver un utilitaire par son identifiant.
      *
@@ -94,27 +105,32 @@ public class UtilitaireServiceImpl implements UtilitaireService {
 
     /**
      * Modifier partiellement un utilitaire.
+     * Si l'enregistrement est modifié par une autre requête pendant ce temps, la modification est rejouée
+     * sur sa dernière version (voir {@link ReessaiConcurrence}).
      *
      * @param id                   l'identifiant unique de l'utilitaire à modifier
      * @param utilitaireRequestDto l'objet contenant les informations de l'utilitaire à modifier
      * @return un objet UtilitaireResponseDto contenant les informations de l'utilitaire modifié
      * @throws VehiculeException       si une erreur survient lors de la modification de l'utilitaire
      * @throws EntityNotFoundException si aucun utilitaire n'est trouvé avec l'identifiant fourni
+     * @throws ModificationConcurrenteException si l'enregistrement reste modifié par d'autres requêtes à chaque tentative
      */
 
 
     @Override
     public UtilitaireResponseDto modifierPartiellement(Long id, UtilitaireRequestDto utilitaireRequestDto) throws VehiculeException, EntityNotFoundException {
-        Optional<Utilitaire> optUtilitaire = utilitaireDao.findById(id);
-        if (optUtilitaire.isEmpty())
-            throw new VehiculeException("Erreur, l'identifiant ne correspond à aucun utilitaire en base");
-        Utilitaire utilitaireExistante = optUtilitaire.get();
-
-        Utilitaire nouvelle = utilitaireMapper.toUtilitaire(utilitaireRequestDto);
-        remplacer(nouvelle, utilitaireExistante);
-
-        Utilitaire utilitaireEnreg = utilitaireDao.save(utilitaireExistante);
-        return getUtilitaireResponseDto(utilitaireEnreg);
+        return reessaiConcurrence.executer("Utilitaire", () -> {
+            Optional<Utilitaire> optUtilitaire = utilitaireDao.findById(id);
+            if (optUtilitaire.isEmpty())
+                throw new VehiculeException("Erreur, l'identifiant ne correspond à aucun utilitaire en base");
+            Utilitaire utilitaireExistante = optUtilitaire.get();
+
+            Utilitaire nouvelle = utilitaireMapper.toUtilitaire(utilitaireRequestDto);
+            remplacer(nouvelle, utilitaireExistante);
+
+            Utilitaire utilitaireEnreg = utilitaireDao.save(utilitaireExistante);
+            return getUtilitaireResponseDto(utilitaireEnreg);
+        });
     }
 
     /**
@@ -138,9 +154,9 @@ public class UtilitaireServiceImpl implements UtilitaireService {
 
     @Override
     public void supprimer(Long id) throws EntityNotFoundException {
-        if (utilitaireDao.existsById(id))
+        if (utilitaireDao.existsById(id)) {
             utilitaireDao.deleteById(id);
-        else
+        } else
             throw new EntityNotFoundException("Aucun utilitaire n'est enregistré sous cet identifiant");
     }
 
@@ -163,6 +179,7 @@ public class UtilitaireServiceImpl implements UtilitaireService {
      * @param kilometrage     le kilométrage de l'utilitaire
      * @param actif           l'utilitaire est-il actif
      * @param retireDuParc    l'utilitaire est-il retiré du parc
+     * @param options         plages de tarif et de kilométrage, tri et page (facultatif)
      * @return la liste des utilitaires correspondant aux critères
      */
 
@@ -170,19 +187,55 @@ public class UtilitaireServiceImpl implements UtilitaireService {
     public List<UtilitaireResponseDto> rechercher(Long id, String marque, String modele, String couleur, Integer nombreDePlace,
                                                   Carburant carburant, String transmission, Boolean clim, Integer chargeMax,
                                                   Integer poidsPATC, Integer capaciteM3,Permis permis, Long tarifJournalier,
-                                                  Long kilometrage, Boolean actif, Boolean retireDuParc) {
+                                                  Long kilometrage, Boolean actif, Boolean retireDuParc,
+                                                  OptionsRechercheDto options) {
+
+        List<Utilitaire> liste = rechercheVehicules.rechercher(Utilitaire.class, utilitaireDao, new RequeteVehicules()
+                .identifiant(id)
+                .contient(Texte.MARQUE, marque)
+                .contient(Texte.MODELE, modele)
+                .contient(Texte.COULEUR, couleur)
+                .egalSiPositif(Nombre.NOMBRE_DE_PLACES, nombreDePlace)
+                .carburant(carburant)
+                .contientSiAdmis(Texte.TRANSMISSION, transmission, RequeteVehicules.TRANSMISSIONS)
+                .egal(Drapeau.CLIM, clim)
+                .egalSiPositif(Nombre.CHARGE_MAX, chargeMax)
+                .egalSiPositif(Nombre.POIDS_PATC, poidsPATC)
+                .egalSiPositif(Nombre.CAPACITE_M3, capaciteM3)
+                .permis(permis)
+                .egalSiPositif(Nombre.TARIF_JOURNALIER, tarifJournalier)
+                .egalSiPositifOuNul(Nombre.KILOMETRAGE, kilometrage)
+                .egal(Drapeau.ACTIF, actif)
+                .egal(Drapeau.RETIRE_DU_PARC, retireDuParc)
+                .options(options));
 
-        List<Utilitaire> liste = utilitaireDao.findAll();
-
-
-        liste = rechercheUtilitaire(id, marque, modele, couleur, nombreDePlace, carburant, transmission, clim, chargeMax,
-                poidsPATC, capaciteM3, permis, tarifJournalier, kilometrage, actif, retireDuParc, liste);
+        if (liste.isEmpty()) {
+            throw new VehiculeException("Un critère de recherche est obligatoire !");
+        }
 
         return liste.stream()
                 .map(utilitaireMapper::toUtilitaireResponseDto)
                 .toList();
     }
 
+    private Utilitaire preparer(UtilitaireRequestDto utilitaireRequestDto) {
+        verifUtilitaire(utilitaireRequestDto);
+
+        Utilitaire utilitaire = utilitaireMapper.toUtilitaire(utilitaireRequestDto);
+        if (utilitaire.getPoidsPATC()<= 3.5){
+        utilitaire.setPermis(Permis.B);
+        }
+        else if (utilitaire.getPoidsPATC()> 3.5 && utilitaire.getPoidsPATC()<7.5){
+            utilitaire.setPermis(Permis.C1);
+        }
+        else log.info("L'utilitaire est trop lourd");
+
+        utilitaire.ajouterAccessoire(Accessoires.DIABLE_UTILITAIRE);
+        utilitaire.ajouterAccessoire(Accessoires.SANGLE_UTILITAIRE);
+        utilitaire.ajouterAccessoire(Accessoires.COUVERTURE_PROTECTION_UTILITAIRE);
+        return utilitaire;
+    }
+
     private static void verifUtilitaire(UtilitaireRequestDto utilitaireRequestDto) {
         if (utilitaireRequestDto == null)
             throw new VehiculeException("Le utilitaireRequestDto est null");
@@ -264,137 +317,4 @@ public class UtilitaireServiceImpl implements UtilitaireService {
         if (utilitaire.getNombreDePlace() != null && utilitaire.getNombreDePlace() > 0)
             utilitaireExistante.setNombreDePlace(utilitaire.getNombreDePlace());
     }
-
-    private static List<Utilitaire> rechercheUtilitaire(Long id, String marque, String modele, String couleur, Integer nombreDePlace,
-                                                        Carburant carburant, String transmission, Boolean clim, Integer chargeMax,
-                                                        Integer poidsPATC, Integer capaciteM3, Permis permis, Long tarifJournalier,
-                                                        Long kilometrage, Boolean actif, Boolean retireDuParc, List<Utilitaire> liste) throws VehiculeException {
-        log.debug("Initial list size: {}", liste.size());
-        if (id != null && id != 0) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getId() == id)
-                    .toList();
-            log.debug("List size after filtering by ID: {}", liste.size());
-        }
-        if (actif != null) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getActif().equals(actif))
-                    .toList();
-            log.debug("List size after filtering by actif: {}", liste.size());
-        }
-        if (retireDuParc != null) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getRetireDuParc().equals(retireDuParc))
-                    .toList();
-            log.debug("List size after filtering by retireDuParc: {}", liste.size());
-        }
-        if (liste.isEmpty()) {
-            throw new VehiculeException("Un critère de recherche est obligatoire !");
-        }
-        liste = rechercherUtilitaireParamBase(marque, modele, couleur, nombreDePlace, liste);
-        liste = rechercheUtilitaireParOptions(marque, modele, couleur, nombreDePlace, carburant, transmission, clim, chargeMax, poidsPATC,
-                capaciteM3, permis, tarifJournalier, kilometrage, liste);
-
-        return liste;
-    }
-
-    private static List<Utilitaire> rechercheUtilitaireParOptions(String marque, String modele, String couleur, Integer nombreDePlace,
-                                                                  Carburant carburant, String transmission, Boolean clim, Integer chargeMax,
-                                                                  Integer poidsPATC, Integer capaciteM3, Permis permis, Long tarifJournalier,
-                                                                  Long kilometrage, List<Utilitaire> liste) {
-
-        if (carburant != null) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getCarburant().equals(carburant))
-                    .toList();
-            log.debug("List size after filtering by carburant: {}", liste.size());
-        }
-        if (transmission != null && (transmission.equals("automatique") || transmission.equals("manuelle"))) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getTransmission().contains(transmission))
-                    .toList();
-            log.debug("List size after filtering by transmission: {}", liste.size());
-        }
-        if (clim != null) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getClim().equals(clim))
-                    .toList();
-            log.debug("List size after filtering by clim: {}", liste.size());
-        }
-
-        if (permis != null) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getPermis() == permis)
-                    .toList();
-            log.debug("List size after filtering by permis: {}", liste.size());
-        }
-        if (tarifJournalier != null && tarifJournalier > 0) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getTarifJournalier() == tarifJournalier)
-                    .toList();
-            log.debug("List size after filtering by tarifJournalier: {}", liste.size());
-        }
-        if (kilometrage != null && kilometrage >= 0) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getKilometrage() == kilometrage)
-                    .toList();
-            log.debug("List size after filtering by kilometrage: {}", liste.size());
-
-
-        }
-        liste = rechercheOptionsPourUtilitaire(chargeMax, poidsPATC, capaciteM3, liste);
-        liste = rechercherUtilitaireParamBase (marque, modele, couleur,  nombreDePlace, liste);
-
-            return liste;
-    }
-
-    private static List<Utilitaire> rechercheOptionsPourUtilitaire(Integer chargeMax, Integer poidsPATC, Integer capaciteM3, List<Utilitaire> liste) {
-        if (chargeMax != null && chargeMax > 0) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getChargeMax().equals(chargeMax))
-                    .toList();
-            log.debug("List size after filtering by chargeMax: {}", liste.size());
-        }
-        if (poidsPATC != null && poidsPATC > 0) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getPoidsPATC().intValue() == poidsPATC)
-                    .toList();
-            log.debug("List size after filtering by poidsPATC: {}", liste.size());
-        }
-        if (capaciteM3 != null && capaciteM3 > 0) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getCapaciteM3().equals(capaciteM3))
-                    .toList();
-            log.debug("List size after filtering by capaciteM3: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Utilitaire> rechercherUtilitaireParamBase(String marque, String modele, String couleur, Integer nombreDePlace, List<Utilitaire> liste) {
-        if (marque != null) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getMarque().contains(marque))
-                    .toList();
-            log.debug("List size after filtering by marque: {}", liste.size());
-        }
-        if (modele != null) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getModele().contains(modele))
-                    .toList();
-            log.debug("List size after filtering by modele: {}", liste.size());
-        }
-        if (couleur != null) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getCouleur().contains(couleur))
-                    .toList();
-            log.debug("List size after filtering by couleur: {}", liste.size());
-        }
-        if (nombreDePlace != null && nombreDePlace > 0) {
-            liste = liste.stream()
-                    .filter(utilitaire -> utilitaire.getNombreDePlace().equals(nombreDePlace))
-                    .toList();
-            log.debug("List size after filtering by nombreDePlace: {}", liste.size());
-        }
-        return liste;
-    }
-}
\ No newline at end of file
+}
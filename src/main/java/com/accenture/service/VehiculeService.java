@@ -1,13 +1,24 @@
 package com.accenture.service;
 
 import com.accenture.repository.entity.Vehicule;
+import com.accenture.service.dto.PageVehiculesDto;
+import com.accenture.service.dto.ResultatVehiculesDto;
+import com.accenture.service.dto.VehiculeDto;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface VehiculeService {
     Vehicule trouverParId(Long id);
 
-    List<Vehicule> trouverToutVehicules();
+    ResultatVehiculesDto trouverToutVehicules();
 
-    List<Vehicule> rechercher(Boolean actif, Boolean retireDuParc);
+    PageVehiculesDto trouverPage(Long apres, int taille);
+
+    void parcourirTous(Consumer<VehiculeDto> consommateur);
+
+    List<VehiculeDto> rechercher(Boolean actif, Boolean retireDuParc);
+
+    List<VehiculeDto> trouverDisponibles(LocalDate debut, LocalDate fin);
 }
@@ -1,15 +1,24 @@
 package com.accenture.service;
 
-import com.accenture.repository.MotoDao;
-import com.accenture.repository.UtilitaireDao;
-import com.accenture.repository.VeloDao;
-import com.accenture.repository.VoitureDao;
+import com.accenture.exception.VehiculeException;
+import com.accenture.exception.VehiculesIndisponiblesException;
+import com.accenture.model.param.TypeVehiculeEnum;
+import com.accenture.repository.*;
 import com.accenture.repository.entity.*;
+import com.accenture.service.dto.PageVehiculesDto;
+import com.accenture.service.dto.ResultatVehiculesDto;
+import com.accenture.service.dto.VehiculeDto;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 @Slf4j
 @Service
 public class VehiculeServiceImpl implements VehiculeService {
@@ -18,34 +27,53 @@ public class VehiculeServiceImpl implements VehiculeService {
     MotoDao motoDao;
     VeloDao veloDao;
     UtilitaireDao utilitaireDao;
+    VehiculeDao vehiculeDao;
+    RoutageVehicule routageVehicule;
+    RepartitionVehicules repartitionVehicules;
+    VehiculeCatalogueDao vehiculeCatalogueDao;
 
+    static final int TAILLE_PAGE_MAX = 500;
 
 
-    public VehiculeServiceImpl(UtilitaireDao utilitaireDao, MotoDao motoDao, VeloDao veloDao, VoitureDao voitureDao) {
+
+    public VehiculeServiceImpl(UtilitaireDao utilitaireDao, MotoDao motoDao, VeloDao veloDao, VoitureDao voitureDao,
+                               VehiculeDao vehiculeDao, RoutageVehicule routageVehicule,
+                               RepartitionVehicules repartitionVehicules, VehiculeCatalogueDao vehiculeCatalogueDao) {
         this.utilitaireDao = utilitaireDao;
         this.motoDao = motoDao;
         this.veloDao = veloDao;
         this.voitureDao = voitureDao;
+        this.vehiculeDao = vehiculeDao;
+        this.routageVehicule = routageVehicule;
+        this.repartitionVehicules = repartitionVehicules;
+        this.vehiculeCatalogueDao = vehiculeCatalogueDao;
     }
 
+    /**
+     * Trouver un véhicule par son identifiant, quel que soit son type.
+     * Si le type du véhicule est déjà connu de {@link RoutageVehicule}, la recherche se fait directement
+     * dans la table du bon type. Sinon une seule requête polymorphe sur {@link VehiculeDao} est faite,
+     * et le type trouvé est mémorisé pour les appels suivants.
+     *
+     * @param id l'identifiant du véhicule
+     * @return le véhicule trouvé, ou null si aucun véhicule ne correspond
+     */
     @Override
     public Vehicule trouverParId(Long id) {
         log.info("Entrée dans la méthode trouverParId avec ID : {}", id);
         Vehicule vehicule = null;
         try {
-            log.debug("Recherche du véhicule avec ID : {} dans voitureDao", id);
-            vehicule = voitureDao.findById(id).orElse(null);
-            if (vehicule == null) {
-                log.debug("Recherche du véhicule avec ID : {} dans motoDao", id);
-                vehicule = motoDao.findById(id).orElse(null);
-            }
-            if (vehicule == null) {
-                log.debug("Recherche du véhicule avec ID : {} dans veloDao", id);
-                vehicule = veloDao.findById(id).orElse(null);
-            }
-            if (vehicule == null) {
-                log.debug("Recherche du véhicule avec ID : {} dans utilitaireDao", id);
-                vehicule = utilitaireDao.findById(id).orElse(null);
+            Optional<TypeVehiculeEnum> type = routageVehicule.trouverType(id);
+            if (type.isPresent()) {
+                log.debug("Recherche du véhicule avec ID : {} dans la table {}", id, type.get());
+                vehicule = daoPour(type.get()).findById(id).orElse(null);
+                if (vehicule == null)
+                    routageVehicule.retirer(id);
+            } else {
+                log.debug("Recherche polymorphe du véhicule avec ID : {}", id);
+                vehicule = vehiculeDao.findById(id).orElse(null);
+                if (vehicule != null)
+                    routageVehicule.enregistrer(vehicule);
             }
         } catch (Exception e) {
             log.error("Une exception est survenue lors de la recherche du véhicule avec ID : {} : {}", id, e.getMessage(), e);
@@ -58,55 +86,121 @@ public class VehiculeServiceImpl implements VehiculeService {
         return vehicule;
     }
 
+    /**
+     * Trouver tous les véhicules, tous types confondus, avec leurs accessoires.
+     * Les quatre tables sont lues en parallèle par {@link RepartitionVehicules} ; les locations ne sont pas chargées.
+     *
+     * @return les véhicules triés par identifiant, et les types qui n'ont pas pu être lus
+     * @throws VehiculesIndisponiblesException si aucun type n'a pu être lu
+     */
     @Override
-    public List<Vehicule> trouverToutVehicules() {
+    public ResultatVehiculesDto trouverToutVehicules() {
         log.info("Entrée dans la méthode trouverToutVehicules");
-        List<Vehicule> vehicule = new ArrayList<>();
-        try {
-            log.debug("Récupération de toutes les voitures depuis voiturdao");
-            vehicule.addAll(voitureDao.findAll());
-            log.debug("Récupération de toutes les motos depuis motoDao");
-            vehicule.addAll(motoDao.findAll());
-            log.debug("Récupération de toutes les velos depuis velodao");
-            vehicule.addAll(veloDao.findAll());
-            log.debug("Récupération de toutes les utilitaires depuis utilitaireDao");
-            vehicule.addAll(utilitaireDao.findAll());
-        } catch (Exception e) {
-            log.error("Une exception est survenue lors de la recherche de tous les véhicules : {}", e.getMessage(), e);
+        ResultatVehiculesDto resultat = repartitionVehicules.rechercher(null, null);
+        log.info("Sortie de la méthode trouverToutVehicules avec {} véhicules trouvés, types en échec : {}",
+                resultat.vehicules().size(), resultat.echecs().keySet());
+        return resultat;
+    }
+
+    /**
+     * Lire une page de véhicules, tous types confondus, par pagination sur curseur (keyset).
+     * Les véhicules sont triés par identifiant ; la page suivante commence après le dernier identifiant renvoyé,
+     * sans OFFSET, donc sans relire les pages précédentes.
+     *
+     * @param apres  identifiant du dernier véhicule de la page précédente, null pour la première page
+     * @param taille nombre de véhicules par page, entre 1 et {@value #TAILLE_PAGE_MAX}
+     * @return la page et le curseur de la page suivante (null si c'est la dernière)
+     * @throws VehiculeException si la taille est hors bornes
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PageVehiculesDto trouverPage(Long apres, int taille) {
+        log.info("Entrée dans la méthode trouverPage avec apres={} et taille={}", apres, taille);
+        if (taille < 1 || taille > TAILLE_PAGE_MAX)
+            throw new VehiculeException("La taille de page doit être comprise entre 1 et " + TAILLE_PAGE_MAX);
+        long curseur = apres == null ? 0 : apres;
+
+        // une ligne de plus que demandé pour savoir s'il reste une page sans requête de comptage
+        List<VehiculeDto> lus = vehiculeDao.trouverPageApres(curseur, Limit.of(taille + 1));
+        boolean suite = lus.size() > taille;
+        List<VehiculeDto> vehicules = suite ? lus.subList(0, taille) : lus;
+        Long curseurSuivant = suite ? vehicules.getLast().id() : null;
+
+        log.info("Sortie de la méthode trouverPage avec {} véhicules, curseur suivant : {}", vehicules.size(), curseurSuivant);
+        return new PageVehiculesDto(List.copyOf(vehicules), curseurSuivant);
+    }
+
+    /**
+     * Parcourir tous les véhicules, tous types confondus, dans l'ordre des identifiants.
+     * Les lignes sont lues par paquets depuis un curseur JDBC et passées une à une au consommateur :
+     * aucune liste n'est construite, la mémoire utilisée ne dépend pas de la taille du parc.
+     *
+     * @param consommateur traitement appliqué à chaque véhicule lu
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void parcourirTous(Consumer<VehiculeDto> consommateur) {
+        log.info("Entrée dans la méthode parcourirTous");
+        long[] nombre = {0};
+        try (Stream<VehiculeDto> vehicules = vehiculeDao.parcourirTous()) {
+            vehicules.forEach(vehicule -> {
+                consommateur.accept(vehicule);
+                nombre[0]++;
+            });
         }
-        log.info("Sortie de la méthode trouverToutVehicules avec {} véhicules trouvés", vehicule.size());
-        return vehicule;
+        log.info("Sortie de la méthode parcourirTous avec {} véhicules lus", nombre[0]);
     }
+
+    /**
+     * Rechercher les véhicules selon leur statut, tous types confondus.
+     * La recherche est une seule requête indexée sur le catalogue des véhicules ({@link VehiculeCatalogueDao}),
+     * tenu à jour à chaque écriture d'un véhicule, au lieu d'une lecture des quatre tables.
+     *
+     * @param actif        indique si le véhicule est actif
+     * @param retireDuParc indique si le véhicule est retiré du parc
+     * @return les véhicules correspondant aux critères, triés par identifiant
+     * @throws VehiculeException si un des critères est absent
+     */
     @Override
-    public List<Vehicule> rechercher(Boolean actif, Boolean retireDuParc) {
+    @Transactional(readOnly = true)
+    public List<VehiculeDto> rechercher(Boolean actif, Boolean retireDuParc) {
         log.info("Entrée dans la méthode rechercher avec actif={} et retireDuParc={}", actif, retireDuParc);
-        List<Vehicule> vehicules = new ArrayList<>();
-        try {
-            log.debug("Récupération de toutes les voitures");
-            List<Voiture> voitures = voitureDao.findAll();
-            log.debug("Récupération de toutes les motos");
-            List<Moto> motos = motoDao.findAll();
-            log.debug("Récupération de toutes les vélos");
-            List<Velo> velos = veloDao.findAll();
-            log.debug("Récupération de toutes les utilitaires");
-            List<Utilitaire> utilitaires = utilitaireDao.findAll();
-
-            vehicules.addAll(filtrerVehicules(voitures, actif, retireDuParc));
-            vehicules.addAll(filtrerVehicules(motos, actif, retireDuParc));
-            vehicules.addAll(filtrerVehicules(velos, actif, retireDuParc));
-            vehicules.addAll(filtrerVehicules(utilitaires, actif, retireDuParc));
-        } catch (Exception e) {
-            log.error("Une exception est survenue lors de la recherche de tous les véhicules : {}", e.getMessage(), e);
-        }
+        if (actif == null || retireDuParc == null)
+            throw new VehiculeException("Les critères actif et retireDuParc sont obligatoires");
+        List<VehiculeDto> vehicules = vehiculeCatalogueDao.rechercherParStatut(actif, retireDuParc);
         log.info("Sortie de la méthode rechercher avec {} véhicules trouvés", vehicules.size());
         return vehicules;
     }
 
-    private <T extends Vehicule> List<T> filtrerVehicules(List<T> vehicules, Boolean actif, Boolean retireDuParc) {
-        return vehicules.stream()
-                .filter(vehicule -> (actif == null || vehicule.getActif().equals(actif)) &&
-                                    (retireDuParc == null || vehicule.getRetireDuParc().equals(retireDuParc)))
-                .toList();
+    /**
+     * Trouver les véhicules qu'on peut louer sur toute la période [debut, fin], bornes incluses.
+     * La recherche est faite en une requête par la base, sans lire toutes les locations.
+     *
+     * @param debut premier jour de la location
+     * @param fin   dernier jour de la location
+     * @return les véhicules disponibles, triés par identifiant
+     * @throws VehiculeException si une date manque ou si la fin précède le début
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<VehiculeDto> trouverDisponibles(LocalDate debut, LocalDate fin) {
+        log.info("Entrée dans la méthode trouverDisponibles du {} au {}", debut, fin);
+        if (debut == null || fin == null)
+            throw new VehiculeException("Les dates de début et de fin sont obligatoires");
+        if (fin.isBefore(debut))
+            throw new VehiculeException("La date de fin doit être postérieure ou égale à la date de début");
+        List<VehiculeDto> vehicules = vehiculeDao.trouverDisponibles(debut, fin);
+        log.info("Sortie de la méthode trouverDisponibles avec {} véhicules disponibles", vehicules.size());
+        return vehicules;
+    }
+
+    private JpaRepository<? extends Vehicule, Long> daoPour(TypeVehiculeEnum type) {
+        return switch (type) {
+            case VOITURE -> voitureDao;
+            case MOTO -> motoDao;
+            case VELO -> veloDao;
+            case UTILITAIRE -> utilitaireDao;
+        };
     }
 
 }
\ No newline at end of file
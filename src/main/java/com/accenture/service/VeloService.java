@@ -2,6 +2,8 @@ package com.accenture.service;
 
 import com.accenture.exception.VehiculeException;
 import com.accenture.repository.entity.Velo;
+import com.accenture.service.dto.OptionsRechercheDto;
+import com.accenture.service.dto.RapportImportDto;
 import com.accenture.service.dto.VeloRequestDto;
 import com.accenture.service.dto.VeloResponseDto;
 import jakarta.persistence.EntityNotFoundException;
@@ -11,6 +13,8 @@ import java.util.List;
 public interface VeloService {
     VeloResponseDto ajouter(VeloRequestDto veloRequestDto) throws VehiculeException;
 
+    RapportImportDto importer(List<VeloRequestDto> veloRequestDtos) throws VehiculeException;
+
     VeloResponseDto trouver(long id) throws EntityNotFoundException;
 
     List<VeloResponseDto> trouverToutes();
@@ -24,5 +28,5 @@ public interface VeloService {
     List<VeloResponseDto> rechercher(Long id, String marque, String modele, String couleur, Integer tailleCadre,
                                      Integer poids, Boolean electrique, Integer capaciteBatterie, Integer autonomie,
                                      Boolean freinsADisque, Long tarifJournalier, Long kilometrage, Boolean actif,
-                                     Boolean retireDuParc);
+                                     Boolean retireDuParc, OptionsRechercheDto options);
 }
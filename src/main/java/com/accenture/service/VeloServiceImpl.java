@@ -1,9 +1,15 @@
 package com.accenture.service;
 
+import com.accenture.exception.ModificationConcurrenteException;
 import com.accenture.exception.VehiculeException;
 import com.accenture.model.param.Accessoires;
 import com.accenture.repository.VeloDao;
 import com.accenture.repository.entity.Velo;
+import com.accenture.service.IndexVehicules.Drapeau;
+import com.accenture.service.IndexVehicules.Nombre;
+import com.accenture.service.IndexVehicules.Texte;
+import com.accenture.service.dto.OptionsRechercheDto;
+import com.accenture.service.dto.RapportImportDto;
 import com.accenture.service.dto.VeloRequestDto;
 import com.accenture.service.dto.VeloResponseDto;
 import com.accenture.service.mapper.VeloMapper;
@@ -25,10 +31,17 @@ public class VeloServiceImpl implements VeloService {
 
     private final VeloDao veloDao;
     private final VeloMapper veloMapper;
+    private final ImportParLots importParLots;
+    private final RechercheVehicules rechercheVehicules;
+    private final ReessaiConcurrence reessaiConcurrence;
 
-    public VeloServiceImpl(VeloDao veloDao, VeloMapper veloMapper) {
+    public VeloServiceImpl(VeloDao veloDao, VeloMapper veloMapper, ImportParLots importParLots, RechercheVehicules rechercheVehicules,
+                           ReessaiConcurrence reessaiConcurrence) {
         this.veloDao = veloDao;
         this.veloMapper = veloMapper;
+        this.importParLots = importParLots;
+        this.rechercheVehicules = rechercheVehicules;
+        this.reessaiConcurrence = reessaiConcurrence;
     }
 
     /**
@@ -41,21 +54,23 @@ public class VeloServiceImpl implements VeloService {
 
     @Override
     public VeloResponseDto ajouter(VeloRequestDto veloRequestDto) throws VehiculeException {
-        verifVelo(veloRequestDto);
-
-        Velo velo = veloMapper.toVelo(veloRequestDto);
-
-        velo.ajouterAccessoire(Accessoires.CASQUE_VELO);
-        velo.ajouterAccessoire(Accessoires.ANTIVOL_VELO);
-        velo.ajouterAccessoire(Accessoires.PANIER_VELO);
-        velo.ajouterAccessoire(Accessoires.SACOCHE_VELO);
-        velo.ajouterAccessoire(Accessoires.KIT_REPARATION_VELO);
-        velo.ajouterAccessoire(Accessoires.GILET_REFLECHISSANT_VELO);
-
-        Velo veloEnreg = veloDao.save(velo);
+        Velo veloEnreg = veloDao.save(preparer(veloRequestDto));
         return veloMapper.toVeloResponseDto(veloEnreg);
     }
 
+    /**
+     * Importer les vélos en nombre : toutes les lignes sont vérifiées, puis les vélos valides sont enregistrés par lots
+     * (voir {@link ImportParLots}). Une ligne invalide n'empêche pas l'import des autres.
+     *
+     * @param veloRequestDtos les vélos à importer
+     * @return le rapport d'import, avec le numéro et la raison de chaque ligne rejetée
+     * @throws VehiculeException si la liste est vide
+     */
+    @Override
+    public RapportImportDto importer(List<VeloRequestDto> veloRequestDtos) throws VehiculeException {
+        return importParLots.importer(veloRequestDtos, this::preparer, veloDao);
+    }
+
     /**
      * Trouver un vélo par son identifiant.
      *
@@ -88,25 +103,30 @@ public class VeloServiceImpl implements VeloService {
 
     /**
      * Modifier partiellement un vélo.
+     * Si l'enregistrement est modifié par une autre requête pendant ce temps, la modification est rejouée
+     * sur sa dernière version (voir {@link ReessaiConcurrence}).
      *
      * @param id             l'identifiant unique du vélo à modifier
      * @param veloRequestDto l'objet contenant les informations du vélo à modifier
      * @return un objet VeloResponseDto contenant les informations du vélo modifié
      * @throws VehiculeException       si une erreur survient lors de la modification du vélo
      * @throws EntityNotFoundException si aucun vélo n'est trouvé avec l'identifiant fourni
+     * @throws ModificationConcurrenteException si l'enregistrement reste modifié par d'autres requêtes à chaque tentative
      */
     @Override
     public VeloResponseDto modifierPartiellement(Long id, VeloRequestDto veloRequestDto) throws VehiculeException, EntityNotFoundException {
-        Optional<Velo> optVelo = veloDao.findById(id);
-        if (optVelo.isEmpty())
-            throw new VehiculeException("Erreur, l'identifiant ne correspond à aucun vélo en base");
-        Velo veloExistante = optVelo.get();
+        return reessaiConcurrence.executer("Velo", () -> {
+            Optional<Velo> optVelo = veloDao.findById(id);
+            if (optVelo.isEmpty())
+                throw new VehiculeException("Erreur, l'identifiant ne correspond à aucun vélo en base");
+            Velo veloExistante = optVelo.get();
 
-        Velo nouvelle = veloMapper.toVelo(veloRequestDto);
-        remplacer(nouvelle, veloExistante);
+            Velo nouvelle = veloMapper.toVelo(veloRequestDto);
+            remplacer(nouvelle, veloExistante);
 
-        Velo veloEnreg = veloDao.save(veloExistante);
-        return getVeloResponseDto(veloEnreg);
+            Velo veloEnreg = veloDao.save(veloExistante);
+            return getVeloResponseDto(veloEnreg);
+        });
     }
 
     /**
@@ -129,9 +149,9 @@ public class VeloServiceImpl implements VeloService {
      */
     @Override
     public void supprimer(Long id) throws EntityNotFoundException {
-        if (veloDao.existsById(id))
+        if (veloDao.existsById(id)) {
             veloDao.deleteById(id);
-        else
+        } else
             throw new EntityNotFoundException("Aucun vélo n'est enregistré sous cet identifiant");
     }
 
@@ -152,6 +172,7 @@ public class VeloServiceImpl implements VeloService {
      * @param kilometrage      le kilométrage du vélo
      * @param actif            le vélo est-il actif
      * @param retireDuParc     le vélo est-il retiré du parc
+     * @param options          plages de tarif et de kilométrage, tri et page (facultatif)
      * @return la liste des vélos correspondant aux critères
      */
 
@@ -159,12 +180,28 @@ public class VeloServiceImpl implements VeloService {
     public List<VeloResponseDto> rechercher(Long id, String marque, String modele, String couleur, Integer tailleCadre,
                                             Integer poids, Boolean electrique, Integer capaciteBatterie, Integer autonomie,
                                             Boolean freinsADisque, Long tarifJournalier, Long kilometrage, Boolean actif,
-                                            Boolean retireDuParc) {
-
-        List<Velo> liste = veloDao.findAll();
+                                            Boolean retireDuParc, OptionsRechercheDto options) {
+
+        List<Velo> liste = rechercheVehicules.rechercher(Velo.class, veloDao, new RequeteVehicules()
+                .identifiant(id)
+                .contient(Texte.MARQUE, marque)
+                .contient(Texte.MODELE, modele)
+                .contient(Texte.COULEUR, couleur)
+                .egalSiPositif(Nombre.TAILLE_CADRE, tailleCadre)
+                .egalSiPositif(Nombre.POIDS, poids)
+                .egal(Drapeau.ELECTRIQUE, electrique)
+                .egalSiPositif(Nombre.CAPACITE_BATTERIE, capaciteBatterie)
+                .egalSiPositif(Nombre.AUTONOMIE, autonomie)
+                .egal(Drapeau.FREINS_A_DISQUE, freinsADisque)
+                .egalSiPositif(Nombre.TARIF_JOURNALIER, tarifJournalier)
+                .egalSiPositifOuNul(Nombre.KILOMETRAGE, kilometrage)
+                .egal(Drapeau.ACTIF, actif)
+                .egal(Drapeau.RETIRE_DU_PARC, retireDuParc)
+                .options(options));
 
-        liste = rechercheVelo(id, marque, modele, couleur, tailleCadre, poids, electrique, capaciteBatterie, autonomie,
-                freinsADisque, tarifJournalier, kilometrage, actif, retireDuParc, liste);
+        if (liste.isEmpty()) {
+            throw new VehiculeException("Un critère de recherche est obligatoire !");
+        }
 
         return liste.stream()
                 .map(veloMapper::toVeloResponseDto)
@@ -172,6 +209,20 @@ public class VeloServiceImpl implements VeloService {
     }
 
 
+    private Velo preparer(VeloRequestDto veloRequestDto) {
+        verifVelo(veloRequestDto);
+
+        Velo velo = veloMapper.toVelo(veloRequestDto);
+
+        velo.ajouterAccessoire(Accessoires.CASQUE_VELO);
+        velo.ajouterAccessoire(Accessoires.ANTIVOL_VELO);
+        velo.ajouterAccessoire(Accessoires.PANIER_VELO);
+        velo.ajouterAccessoire(Accessoires.SACOCHE_VELO);
+        velo.ajouterAccessoire(Accessoires.KIT_REPARATION_VELO);
+        velo.ajouterAccessoire(Accessoires.GILET_REFLECHISSANT_VELO);
+        return velo;
+    }
+
     private static void verifVelo(VeloRequestDto veloRequestDto) {
         if (veloRequestDto == null)
             throw new VehiculeException("Le veloRequestDto est null");
@@ -273,171 +324,4 @@ public class VeloServiceImpl implements VeloService {
         if (velo.getRetireDuParc() != null)
             veloExistante.setRetireDuParc(velo.getRetireDuParc());
     }
-
-
-    private static List<Velo> rechercheVelo(Long id, String marque, String modele, String couleur, Integer tailleCadre,
-                                            Integer poids, Boolean electrique, Integer capaciteBatterie, Integer autonomie,
-                                            Boolean freinsADisque, Long tarifJournalier, Long kilometrage, Boolean actif,
-                                            Boolean retireDuParc, List<Velo> liste) throws VehiculeException {
-        log.debug("Initial list size: {}", liste.size());
-        liste = filtrerParId(id, liste);
-        liste = filtrerParMarque(marque, liste);
-        liste = filtrerParModele(modele, liste);
-        liste = filtrerParCouleur(couleur, liste);
-        liste = filtrerParTailleCadre(tailleCadre, liste);
-        liste = filtrerParPoids(poids, liste);
-        liste = filtrerParElectrique(electrique, liste);
-        liste = filtrerParCapaciteBatterie(capaciteBatterie, liste);
-        liste = filtrerParAutonomie(autonomie, liste);
-        liste = filtrerParFreinsADisque(freinsADisque, liste);
-        liste = filtrerParTarifJournalier(tarifJournalier, liste);
-        liste = filtrerParKilometrage(kilometrage, liste);
-        liste = filtrerParActif(actif, liste);
-        liste = filtrerParRetireDuParc(retireDuParc, liste);
-
-        if (liste.isEmpty()) {
-            throw new VehiculeException("Un critère de recherche est obligatoire !");
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParId(Long id, List<Velo> liste) {
-        if (id != null && id != 0) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getId() == id)
-                    .toList();
-            log.debug("List size after filtering by ID: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParMarque(String marque, List<Velo> liste) {
-        if (marque != null) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getMarque().contains(marque))
-                    .toList();
-            log.debug("List size after filtering by marque: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParModele(String modele, List<Velo> liste) {
-        if (modele != null) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getModele().contains(modele))
-                    .toList();
-            log.debug("List size after filtering by modele: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParCouleur(String couleur, List<Velo> liste) {
-        if (couleur != null) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getCouleur().contains(couleur))
-                    .toList();
-            log.debug("List size after filtering by couleur: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParTailleCadre(Integer tailleCadre, List<Velo> liste) {
-        if (tailleCadre != null && tailleCadre > 0) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getTailleCadre().equals(tailleCadre))
-                    .toList();
-            log.debug("List size after filtering by tailleCadre: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParPoids(Integer poids, List<Velo> liste) {
-        if (poids != null && poids > 0) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getPoids().equals(poids))
-                    .toList();
-            log.debug("List size after filtering by poids: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParElectrique(Boolean electrique, List<Velo> liste) {
-        if (electrique != null) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getElectrique().equals(electrique))
-                    .toList();
-            log.debug("List size after filtering by electrique: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParCapaciteBatterie(Integer capaciteBatterie, List<Velo> liste) {
-        if (capaciteBatterie != null && capaciteBatterie > 0) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getCapaciteBatterie().equals(capaciteBatterie))
-                    .toList();
-            log.debug("List size after filtering by capaciteBatterie: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParAutonomie(Integer autonomie, List<Velo> liste) {
-        if (autonomie != null && autonomie > 0) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getAutonomie().equals(autonomie))
-                    .toList();
-            log.debug("List size after filtering by autonomie: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParFreinsADisque(Boolean freinsADisque, List<Velo> liste) {
-        if (freinsADisque != null) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getFreinsADisque().equals(freinsADisque))
-                    .toList();
-            log.debug("List size after filtering by freinsADisque: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParTarifJournalier(Long tarifJournalier, List<Velo> liste) {
-        if (tarifJournalier != null && tarifJournalier > 0) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getTarifJournalier() == (tarifJournalier))
-                    .toList();
-            log.debug("List size after filtering by tarifJournalier: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParKilometrage(Long kilometrage, List<Velo> liste) {
-        if (kilometrage != null && kilometrage >= 0) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getKilometrage() == (kilometrage))
-                    .toList();
-            log.debug("List size after filtering by kilometrage: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParActif(Boolean actif, List<Velo> liste) {
-        if (actif != null) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getActif().equals(actif))
-                    .toList();
-            log.debug("List size after filtering by actif: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Velo> filtrerParRetireDuParc(Boolean retireDuParc, List<Velo> liste) {
-        if (retireDuParc != null) {
-            liste = liste.stream()
-                    .filter(velo -> velo.getRetireDuParc().equals(retireDuParc))
-                    .toList();
-            log.debug("List size after filtering by retireDuParc: {}", liste.size());
-        }
-        return liste;
-    }
 }
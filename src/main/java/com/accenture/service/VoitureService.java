@@ -4,6 +4,8 @@ import com.accenture.exception.VehiculeException;
 import com.accenture.model.param.Carburant;
 import com.accenture.model.param.Permis;
 import com.accenture.repository.entity.Voiture;
+import com.accenture.service.dto.OptionsRechercheDto;
+import com.accenture.service.dto.RapportImportDto;
 import com.accenture.service.dto.VoitureRequestDto;
 import com.accenture.service.dto.VoitureResponseDto;
 import jakarta.persistence.EntityNotFoundException;
@@ -13,6 +15,8 @@ import java.util.List;
 public interface VoitureService {
     VoitureResponseDto ajouter(VoitureRequestDto voitureRequestDto) throws VehiculeException;
 
+    RapportImportDto importer(List<VoitureRequestDto> voitureRequestDtos) throws VehiculeException;
+
     VoitureResponseDto trouver(long id) throws EntityNotFoundException;
 
     List<VoitureResponseDto> trouverToutes();
@@ -25,5 +29,6 @@ public interface VoitureService {
 
     List<VoitureResponseDto> rechercher(Long id, String marque, String modele, String couleur, Integer nombreDePlaces, Carburant carburant, Integer nombreDePortes,
                                         String transmission, Boolean clim, Integer nombreDeBagages, String type,Permis permis, Long tarifJournalier,
-                                        Long kilometrage, Boolean actif, Boolean retireDuParc);
+                                        Long kilometrage, Boolean actif, Boolean retireDuParc,
+                                        OptionsRechercheDto options);
 }
@@ -1,20 +1,28 @@
 package com.accenture.service;
 
+import com.accenture.exception.ModificationConcurrenteException;
 import com.accenture.exception.VehiculeException;
 import com.accenture.model.param.Accessoires;
 import com.accenture.model.param.Carburant;
 import com.accenture.model.param.Permis;
 import com.accenture.repository.VoitureDao;
 import com.accenture.repository.entity.Voiture;
+import com.accenture.service.IndexVehicules.Drapeau;
+import com.accenture.service.IndexVehicules.Nombre;
+import com.accenture.service.IndexVehicules.Texte;
+import com.accenture.service.dto.OptionsRechercheDto;
+import com.accenture.service.dto.RapportImportDto;
 import com.accenture.service.dto.VoitureRequestDto;
 import com.accenture.service.dto.VoitureResponseDto;
 import com.accenture.service.mapper.VoitureMapper;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * @author tatiana.tessier
@@ -26,19 +34,32 @@ import java.util.Optional;
 @Service
 public class VoitureServiceImpl implements VoitureService {
 
+    private static final Set<String> TYPES = Set.of("Citadine", "Berline", "SUV", "Familiales", "Voiture électrique", "Voiture de luxe");
+
     private final VoitureDao voitureDao;
     private final VoitureMapper voitureMapper;
+    private final ImportParLots importParLots;
+    private final RechercheVehicules rechercheVehicules;
+    private final ReessaiConcurrence reessaiConcurrence;
 
     /**
      * Constructeur de la classe VoitureServiceImpl.
      *
-     * @param voitureDao    l'objet DAO pour accéder aux données des voitures
-     * @param voitureMapper l'objet Mapper pour convertir entre les entités Voiture et les DTO
+     * @param voitureDao         l'objet DAO pour accéder aux données des voitures
+     * @param voitureMapper      l'objet Mapper pour convertir entre les entités Voiture et les DTO
+     * @param importParLots      l'enregistrement par lots utilisé par l'import
+     * @param rechercheVehicules les recherches multicritères, en base ou dans l'index en mémoire s'il est activé
+     * @param reessaiConcurrence rejoue les modifications partielles en conflit de version
      */
 
-    public VoitureServiceImpl(VoitureDao voitureDao, VoitureMapper voitureMapper) {
+    public VoitureServiceImpl(VoitureDao voitureDao, VoitureMapper voitureMapper, ImportParLots importParLots,
+                              RechercheVehicules rechercheVehicules,
+                              ReessaiConcurrence reessaiConcurrence) {
         this.voitureDao = voitureDao;
         this.voitureMapper = voitureMapper;
+        this.importParLots = importParLots;
+        this.rechercheVehicules = rechercheVehicules;
+        this.reessaiConcurrence = reessaiConcurrence;
     }
 
     /**
@@ -55,23 +76,23 @@ public class VoitureServiceImpl implements VoitureService {
      */
     @Override
     public VoitureResponseDto ajouter(VoitureRequestDto voitureRequestDto) throws VehiculeException {
-        verifVoiture(voitureRequestDto);
-
-        Voiture voiture = voitureMapper.toVoiture(voitureRequestDto);
-        if (voiture.getNombreDePlaces()<= 9) {
-        voiture.setPermis(Permis.B);
-        }
-        else {
-            voiture.setPermis(Permis.D1);
-        }
-        voiture.ajouterAccessoire(Accessoires.GPS_VOITURE);
-        voiture.ajouterAccessoire(Accessoires.SIEGE_BEBE_VOITURE);
-        voiture.ajouterAccessoire(Accessoires.COFFRE_TOIT_VOITURE);
-        voiture.ajouterAccessoire(Accessoires.PORTE_VELO_VOITURE);
-        Voiture voitureEnreg = voitureDao.save(voiture);
+        Voiture voitureEnreg = voitureDao.save(preparer(voitureRequestDto));
         return voitureMapper.toVoitureResponseDto(voitureEnreg);
     }
 
+    /**
+     * Importer les voitures en nombre : toutes les lignes sont vérifiées, puis les voitures valides sont enregistrées par lots
+     * (voir {@link ImportParLots}). Une ligne invalide n'empêche pas l'import des autres.
+     *
+     * @param voitureRequestDtos les voitures à importer
+     * @return le rapport d'import, avec le numéro et la raison de chaque ligne rejetée
+     * @throws VehiculeException si la liste est vide
+     */
+    @Override
+    public RapportImportDto importer(List<VoitureRequestDto> voitureRequestDtos) throws VehiculeException {
+        return importParLots.importer(voitureRequestDtos, this::preparer, voitureDao);
+    }
+
     /**
      * Méthode servant à trouver une voiture par son identifiant.
      * Cette méthode recherche une voiture dans la base de données à partir de son identifiant.
@@ -93,16 +114,15 @@ public class VoitureServiceImpl implements VoitureService {
 
     /**
      * Méthode servant à trouver toutes les voitures.
-     * Cette méthode récupère toutes les voitures de la base de données,
-     * les convertit en objets VoitureResponseDto et retourne la liste de ces objets.
+     * Les voitures sont lues directement en VoitureResponseDto par une requête de projection,
+     * sans charger d'entité, dans une transaction en lecture seule.
      *
-     * @return une liste d'objets VoitureResponseDto contenant les informations de toutes les voitures
+     * @return une liste d'objets VoitureResponseDto contenant les informations de toutes les voitures, triée par identifiant
      */
     @Override
+    @Transactional(readOnly = true)
     public List<VoitureResponseDto> trouverToutes() {
-        return voitureDao.findAll().stream()
-                .map(voitureMapper::toVoitureResponseDto)
-                .toList();
+        return voitureDao.listerToutes();
     }
 
     /**
@@ -111,6 +131,8 @@ public class VoitureServiceImpl implements VoitureService {
      * Si aucune voiture n'est trouvée, une exception EntityNotFoundException est levée.
      * Si l'identifiant est valide, les informations de la voiture sont partiellement mises à jour
      * avec les données fournies dans VoitureRequestDto.
+     * Si l'enregistrement est modifié par une autre requête pendant ce temps, la modification est rejouée
+     * sur sa dernière version (voir {@link ReessaiConcurrence}).
      *
      * @param id                l'identifiant unique de la voiture à modifier
      * @param voitureRequestDto l'objet contenant les informations à mettre à jour
@@ -118,21 +140,23 @@ public class VoitureServiceImpl implements VoitureService {
      * @throws VehiculeException       si une erreur survient lors de la modification de la voiture,
      *                                 par exemple si l'identifiant ne correspond à aucune voiture en base
      * @throws EntityNotFoundException si aucune voiture n'est trouvée avec l'identifiant fourni
+     * @throws ModificationConcurrenteException si l'enregistrement reste modifié par d'autres requêtes à chaque tentative
      */
 
     @Override
     public VoitureResponseDto modifierPartiellement(Long id, VoitureRequestDto voitureRequestDto) throws VehiculeException, EntityNotFoundException {
-        Optional<Voiture> optVoiture = voitureDao.findById(id);
-        if (optVoiture.isEmpty())
-            throw new VehiculeException("Erreur, l'identifiant ne correspond à aucune voiture en base");
-        Voiture voitureExistante = optVoiture.get();
-
+        return reessaiConcurrence.executer("Voiture", () -> {
+            Optional<Voiture> optVoiture = voitureDao.findById(id);
+            if (optVoiture.isEmpty())
+                throw new VehiculeException("Erreur, l'identifiant ne correspond à aucune voiture en base");
+            Voiture voitureExistante = optVoiture.get();
 
-        Voiture nouvelle = voitureMapper.toVoiture(voitureRequestDto);
-        remplacer(nouvelle, voitureExistante);
+            Voiture nouvelle = voitureMapper.toVoiture(voitureRequestDto);
+            remplacer(nouvelle, voitureExistante);
 
-        Voiture voitureEnreg = voitureDao.save(voitureExistante);
-        return getVoitureResponseDto(voitureEnreg);
+            Voiture voitureEnreg = voitureDao.save(voitureExistante);
+            return getVoitureResponseDto(voitureEnreg);
+        });
     }
 
     /**
@@ -159,31 +183,51 @@ public class VoitureServiceImpl implements VoitureService {
      */
     @Override
     public void supprimer(Long id) throws EntityNotFoundException {
-        if (voitureDao.existsById(id))
+        if (voitureDao.existsById(id)) {
             voitureDao.deleteById(id);
-        else
+        } else
             throw new EntityNotFoundException("Aucune voiture n'est enregistrée sous cet identifiant");
     }
 
     /**
      * Méthode servant à rechercher des voitures en fonction de plusieurs critères.
-     * Cette méthode récupère toutes les voitures de la base de données, vérifie les objets nécessaires,
-     * applique les critères de recherche fournis, trie les résultats par modèle, et retourne une liste
-     * d'objets VoitureResponseDto correspondant aux critères.
+     * Les critères renseignés sont résolus en une requête par {@link RechercheVehicules} :
+     * recherche par contenu pour les chaînes, égalité pour le reste, les valeurs hors bornes (id à 0, nombre négatif...) sont ignorées.
      *
+     * @param options plages de tarif et de kilométrage, tri et page (facultatif)
      * @return une liste d'objets VoitureResponseDto correspondant aux critères de recherche
-     * @throws VehiculeException si une erreur survient lors de la recherche, par exemple si les objets nécessaires ne sont pas initialisés
+     * @throws VehiculeException si aucune voiture ne correspond aux critères de recherche
      */
     @Override
     public List<VoitureResponseDto> rechercher(Long id, String marque, String modele, String couleur, Integer nombreDePlaces,
                                                Carburant carburant, Integer nombreDePortes, String transmission, Boolean clim,
                                                Integer nombreDeBagages, String type,Permis permis, Long tarifJournalier,
-                                               Long kilometrage, Boolean actif, Boolean retireDuParc) {
+                                               Long kilometrage, Boolean actif, Boolean retireDuParc,
+                                               OptionsRechercheDto options) {
+
+        List<Voiture> liste = rechercheVehicules.rechercher(Voiture.class, voitureDao, new RequeteVehicules()
+                .identifiant(id)
+                .contient(Texte.MARQUE, marque)
+                .contient(Texte.MODELE, modele)
+                .contient(Texte.COULEUR, couleur)
+                .egalSiPositif(Nombre.NOMBRE_DE_PLACES, nombreDePlaces)
+                .carburant(carburant)
+                .egalSiPositif(Nombre.NOMBRE_DE_PORTES, nombreDePortes)
+                .contientSiAdmis(Texte.TRANSMISSION, transmission, RequeteVehicules.TRANSMISSIONS)
+                .egal(Drapeau.CLIM, clim)
+                .egalSiPositifOuNul(Nombre.NOMBRE_DE_BAGAGES, nombreDeBagages)
+                .contientSiAdmis(Texte.TYPE, type, TYPES)
+                .permis(permis)
+                .egalSiPositif(Nombre.TARIF_JOURNALIER, tarifJournalier)
+                .egalSiPositifOuNul(Nombre.KILOMETRAGE, kilometrage)
+                .egal(Drapeau.ACTIF, actif)
+                .egal(Drapeau.RETIRE_DU_PARC, retireDuParc)
+                .options(options));
+        log.debug("Nombre de voitures trouvées : {}", liste.size());
 
-        List<Voiture> liste = voitureDao.findAll();
-
-
-        liste = rechercheVoiture(id, marque, modele, couleur, nombreDePlaces, carburant, nombreDePortes, transmission, clim, nombreDeBagages, type, permis, tarifJournalier, kilometrage, actif, retireDuParc, liste);
+        if (liste.isEmpty()) {
+            throw new VehiculeException("Un critère de recherche est obligatoire !");
+        }
 
         return liste.stream()
                 .map(voitureMapper::toVoitureResponseDto)
@@ -192,6 +236,23 @@ public class VoitureServiceImpl implements VoitureService {
 
 
     //__________________________________________________________________________________________________________
+    private Voiture preparer(VoitureRequestDto voitureRequestDto) {
+        verifVoiture(voitureRequestDto);
+
+        Voiture voiture = voitureMapper.toVoiture(voitureRequestDto);
+        if (voiture.getNombreDePlaces()<= 9) {
+        voiture.setPermis(Permis.B);
+        }
+        else {
+            voiture.setPermis(Permis.D1);
+        }
+        voiture.ajouterAccessoire(Accessoires.GPS_VOITURE);
+        voiture.ajouterAccessoire(Accessoires.SIEGE_BEBE_VOITURE);
+        voiture.ajouterAccessoire(Accessoires.COFFRE_TOIT_VOITURE);
+        voiture.ajouterAccessoire(Accessoires.PORTE_VELO_VOITURE);
+        return voiture;
+    }
+
     private static void verifVoiture(VoitureRequestDto voitureRequestDto) {
         if (voitureRequestDto == null)
             throw new VehiculeException("La voitureRequestDto est null");
@@ -288,194 +349,4 @@ public class VoitureServiceImpl implements VoitureService {
             voitureExistante.setRetireDuParc(voiture.getRetireDuParc());
     }
 
-
-    private static List<Voiture> rechercheVoiture(Long id, String marque, String modele, String couleur, Integer nombreDePlaces, Carburant carburant,
-                                                 Integer nombreDePortes, String transmission, Boolean clim, Integer nombreDeBagages, String type,
-                                                 Permis permis, Long tarifJournalier, Long kilometrage, Boolean actif, Boolean retireDuParc,
-                                                 List<Voiture> liste)
-            throws VehiculeException {
-        log.debug("Initial list size: {}", liste.size());
-        liste = filtrerParId(id, liste);
-        liste = filtrerParMarque(marque, liste);
-        liste = filtrerParModele(modele, liste);
-        liste = filtrerParCouleur(couleur, liste);
-        liste = filtrerParNombreDePlaces(nombreDePlaces, liste);
-        liste = filtrerParCarburant(carburant, liste);
-        liste = filtrerParNombreDePortes(nombreDePortes, liste);
-        liste = filtrerParTransmission(transmission, liste);
-        liste = filtrerParClim(clim, liste);
-        liste = filtrerParNombreDeBagages(nombreDeBagages, liste);
-        liste = filtrerParType(type, liste);
-        liste = filtrerParPermis(permis, liste);
-        liste = filtrerParTarifJournalier(tarifJournalier, liste);
-        liste = filtrerParKilometrage(kilometrage, liste);
-        liste = filtrerParActif(actif, liste);
-        liste = filtrerParRetireDuParc(retireDuParc, liste);
-
-        if (liste.isEmpty()) {
-            throw new VehiculeException("Un critère de recherche est obligatoire !");
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParId(Long id, List<Voiture> liste) {
-        if (id != null && id != 0) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getId() == id)
-                    .toList();
-            log.debug("List size after filtering by ID: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParMarque(String marque, List<Voiture> liste) {
-        if (marque != null) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getMarque().contains(marque))
-                    .toList();
-            log.debug("List size after filtering by marque: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParModele(String modele, List<Voiture> liste) {
-        if (modele != null) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getModele().contains(modele))
-                    .toList();
-            log.debug("List size after filtering by modele: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParCouleur(String couleur, List<Voiture> liste) {
-        if (couleur != null) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getCouleur().contains(couleur))
-                    .toList();
-            log.debug("List size after filtering by couleur: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParNombreDePlaces(Integer nombreDePlaces, List<Voiture> liste) {
-        if (nombreDePlaces != null && nombreDePlaces > 0) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getNombreDePlaces().equals(nombreDePlaces))
-                    .toList();
-            log.debug("List size after filtering by nombreDePlaces: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParCarburant(Carburant carburant, List<Voiture> liste) {
-        if (carburant != null) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getCarburant().equals(carburant))
-                    .toList();
-            log.debug("List size after filtering by carburant: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParNombreDePortes(Integer nombreDePortes, List<Voiture> liste) {
-        if (nombreDePortes != null && nombreDePortes > 0) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getNombreDePortes().equals(nombreDePortes))
-                    .toList();
-            log.debug("List size after filtering by nombreDePortes: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParTransmission(String transmission, List<Voiture> liste) {
-        if (transmission != null && (transmission.equals("automatique") || transmission.equals("manuelle"))) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getTransmission().contains(transmission))
-                    .toList();
-            log.debug("List size after filtering by transmission: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParClim(Boolean clim, List<Voiture> liste) {
-        if (clim != null) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getClim().equals(clim))
-                    .toList();
-            log.debug("List size after filtering by clim: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParNombreDeBagages(Integer nombreDeBagages, List<Voiture> liste) {
-        if (nombreDeBagages != null && nombreDeBagages >= 0) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getNombreDeBagages().equals(nombreDeBagages))
-                    .toList();
-            log.debug("List size after filtering by nombreDeBagages: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParType(String type, List<Voiture> liste) {
-        if (type != null && (type.equals("Citadine") || type.equals("Berline") || type.equals("SUV") || type.equals("Familiales") || type.equals("Voiture électrique") || type.equals("Voiture de luxe"))) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getType().contains(type))
-                    .toList();
-            log.debug("List size after filtering by type: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParPermis(Permis permis, List<Voiture> liste) {
-        if (permis != null) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getPermis() == permis)
-                    .toList();
-            log.debug("List size after filtering by permis: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParTarifJournalier(Long tarifJournalier, List<Voiture> liste) {
-        if (tarifJournalier != null && tarifJournalier > 0) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getTarifJournalier() == tarifJournalier)
-                    .toList();
-            log.debug("List size after filtering by tarifJournalier: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParKilometrage(Long kilometrage, List<Voiture> liste) {
-        if (kilometrage != null && kilometrage >= 0) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getKilometrage() == kilometrage)
-                    .toList();
-            log.debug("List size after filtering by kilometrage: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParActif(Boolean actif, List<Voiture> liste) {
-        if (actif != null) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getActif().equals(actif))
-                    .toList();
-            log.debug("List size after filtering by actif: {}", liste.size());
-        }
-        return liste;
-    }
-
-    private static List<Voiture> filtrerParRetireDuParc(Boolean retireDuParc, List<Voiture> liste) {
-        if (retireDuParc != null) {
-            liste = liste.stream()
-                    .filter(voiture -> voiture.getRetireDuParc().equals(retireDuParc))
-                    .toList();
-            log.debug("List size after filtering by retireDuParc: {}", liste.size());
-        }
-        return liste;
-    }
-
 }
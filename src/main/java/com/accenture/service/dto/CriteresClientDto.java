@@ -0,0 +1,48 @@
+package com.accenture.service.dto;
+
+import com.accenture.model.param.Permis;
+import io.swagger.v3.oas.annotations.Parameter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Critères de la recherche de clients ; un critère null est ignoré, les critères renseignés se cumulent.
+ */
+public record CriteresClientDto(
+        @Parameter(description = "Partie de l'adresse email du client", example = "dupont")
+        String mail,
+
+        @Parameter(description = "Partie du prénom du client", example = "Jea")
+        String prenom,
+
+        @Parameter(description = "Partie du nom du client", example = "Dup")
+        String nom,
+
+        @Parameter(description = "Date de naissance du client", example = "1990-01-01")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate dateNaissance,
+
+        @Parameter(description = "Partie de la rue du client", example = "Victor Hugo")
+        String rue,
+
+        @Parameter(description = "Début du code postal du client", example = "75")
+        String codePostal,
+
+        @Parameter(description = "Partie de la ville du client", example = "Paris")
+        String ville,
+
+        @Parameter(description = "Statut désactivé du client")
+        Boolean desactive,
+
+        @Parameter(description = "Permis que le client doit tous détenir")
+        List<Permis> listePermis,
+
+        @Parameter(description = "Date d'inscription du client", example = "2023-01-01")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate dateInscription) {
+
+    /** aucun critère : tous les clients */
+    public static final CriteresClientDto AUCUN = new CriteresClientDto(null, null, null, null, null, null, null, null, null, null);
+}
@@ -0,0 +1,25 @@
+package com.accenture.service.dto;
+
+import com.accenture.model.param.Accessoires;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Demande de prix pour la location d'un véhicule sur une période")
+public record DemandeDevisDto(
+        @Schema(description = "ID du véhicule", example = "1")
+        Long vehiculeId,
+
+        @Schema(description = "Date de début de la location", example = "2025-03-01")
+        LocalDate dateDebut,
+
+        @Schema(description = "Date de fin de la location, incluse", example = "2025-03-10")
+        LocalDate dateFin,
+
+        @Schema(description = "Accessoires de la location")
+        List<Accessoires> accessoires,
+
+        @Schema(description = "Kilomètres prévus", example = "100")
+        int kilometres) {
+}
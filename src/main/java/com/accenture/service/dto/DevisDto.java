@@ -0,0 +1,26 @@
+package com.accenture.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Prix d'une location, ou raison pour laquelle elle ne peut pas être chiffrée")
+public record DevisDto(
+        @Schema(description = "ID du véhicule", example = "1")
+        Long vehiculeId,
+
+        @Schema(description = "Date de début de la location", example = "2025-03-01")
+        LocalDate dateDebut,
+
+        @Schema(description = "Date de fin de la location, incluse", example = "2025-03-10")
+        LocalDate dateFin,
+
+        @Schema(description = "Nombre de jours facturés, bornes incluses", example = "10")
+        long jours,
+
+        @Schema(description = "Montant total en euros, null si la demande est rejetée", example = "500")
+        Integer montantTotal,
+
+        @Schema(description = "Raison du rejet, null si la demande est chiffrée", example = "Le véhicule n'est pas proposé à la location")
+        String erreur) {
+}
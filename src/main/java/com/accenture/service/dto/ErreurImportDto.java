@@ -0,0 +1,12 @@
+package com.accenture.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Ligne rejetée lors d'un import")
+public record ErreurImportDto(
+        @Schema(description = "Numéro de la ligne dans la liste envoyée, à partir de 1", example = "12")
+        int ligne,
+
+        @Schema(description = "Raison du rejet", example = "Vous devez ajouter la marque de la voiture")
+        String message) {
+}
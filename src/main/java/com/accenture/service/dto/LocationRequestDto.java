@@ -28,12 +28,9 @@ public record LocationRequestDto(
         @Schema(description = "Date de fin de la location", example = "2025-03-10")
         LocalDate dateFin,
 
-        @Schema(description = "Kilomètres parcourus", example = "100")
+        @Schema(description = "Kilomètres parcourus, facturés au kilomètre", example = "100")
         int kilometresParcourus,
 
-        @Schema(description = "Montant total de la location", example = "500")
-        int montantTotal,
-
         @Schema(description = "État de la location")
         @NotNull(message = "L'état de la location est obligatoire")
         Etat etat) {
@@ -48,5 +48,5 @@ public record MotoResponseDto(
         Boolean actif,
 
         @Schema(description = "Statut de retrait du parc de la moto", example = "false")
-        Boolean retireDuParc) {
+        Boolean retireDuParc) implements VehiculeResponseDto {
 }
\ No newline at end of file
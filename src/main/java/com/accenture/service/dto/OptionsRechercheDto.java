@@ -0,0 +1,39 @@
+package com.accenture.service.dto;
+
+import com.accenture.model.param.TriVehicule;
+import io.swagger.v3.oas.annotations.Parameter;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Options communes aux recherches de véhicules : plages de tarif et de kilométrage (bornes incluses), tri et page.
+ * Tous les champs sont facultatifs ; sans tri, les véhicules sont rendus par identifiant croissant
+ * et sans taille, tous les véhicules trouvés sont rendus.
+ */
+public record OptionsRechercheDto(
+        @Parameter(description = "Tarif journalier minimum", example = "30")
+        Long tarifMin,
+
+        @Parameter(description = "Tarif journalier maximum", example = "80")
+        Long tarifMax,
+
+        @Parameter(description = "Kilométrage minimum", example = "0")
+        Long kilometrageMin,
+
+        @Parameter(description = "Kilométrage maximum", example = "50000")
+        Long kilometrageMax,
+
+        @Parameter(description = "Clé de tri")
+        TriVehicule tri,
+
+        @Parameter(description = "Sens du tri (ASC par défaut)")
+        Sort.Direction sens,
+
+        @Parameter(description = "Numéro de page, à partir de 0 (0 par défaut)", example = "0")
+        Integer page,
+
+        @Parameter(description = "Nombre de véhicules par page, entre 1 et 500", example = "20")
+        Integer taille) {
+
+    /** aucune plage, aucun tri, pas de pagination */
+    public static final OptionsRechercheDto AUCUNE = new OptionsRechercheDto(null, null, null, null, null, null, null, null);
+}
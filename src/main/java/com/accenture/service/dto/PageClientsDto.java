@@ -0,0 +1,14 @@
+package com.accenture.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Page de clients triés par adresse mail")
+public record PageClientsDto(
+        @Schema(description = "Clients de la page")
+        List<ClientResponseDto> clients,
+
+        @Schema(description = "Curseur à passer dans 'apres' pour lire la page suivante, null s'il n'y a plus de clients", example = "dupont@mail.fr")
+        String curseurSuivant) {
+}
@@ -0,0 +1,14 @@
+package com.accenture.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Page de véhicules triés par identifiant")
+public record PageVehiculesDto(
+        @Schema(description = "Véhicules de la page")
+        List<VehiculeDto> vehicules,
+
+        @Schema(description = "Curseur à passer dans 'apres' pour lire la page suivante, null s'il n'y a plus de véhicules", example = "51")
+        Long curseurSuivant) {
+}
@@ -0,0 +1,17 @@
+package com.accenture.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Résultat d'un import de véhicules par lots")
+public record RapportImportDto(
+        @Schema(description = "Nombre de lignes reçues", example = "2000")
+        int lignesRecues,
+
+        @Schema(description = "Nombre de véhicules enregistrés", example = "1998")
+        int lignesImportees,
+
+        @Schema(description = "Lignes rejetées, avec la raison du rejet")
+        List<ErreurImportDto> erreurs) {
+}
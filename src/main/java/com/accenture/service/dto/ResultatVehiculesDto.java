@@ -0,0 +1,19 @@
+package com.accenture.service.dto;
+
+import com.accenture.model.param.TypeVehiculeEnum;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Véhicules lus table par table : ceux des types lus sans erreur, et la raison de l'échec de chaque autre type.
+ *
+ * @param vehicules les véhicules des types lus, triés par identifiant
+ * @param echecs    pour chaque type qui n'a pas pu être lu, la raison (erreur ou délai dépassé)
+ */
+public record ResultatVehiculesDto(List<VehiculeResponseDto> vehicules, Map<TypeVehiculeEnum, String> echecs) {
+
+    public boolean complet() {
+        return echecs.isEmpty();
+    }
+}
@@ -0,0 +1,12 @@
+package com.accenture.service.dto;
+
+import com.accenture.model.param.TypeVehiculeEnum;
+
+/**
+ * Tarif journalier et type d'un véhicule proposé à la location, lus dans le catalogue pour chiffrer un devis.
+ */
+public record TarifVehiculeDto(
+        long id,
+        TypeVehiculeEnum typeVehicule,
+        long tarifJournalier) {
+}
@@ -55,5 +55,5 @@ public record UtilitaireResponseDto(
         Boolean actif,
 
         @Schema(description = "Statut de retrait du parc de l'utilitaire", example = "false")
-        Boolean retireDuParc) {
+        Boolean retireDuParc) implements VehiculeResponseDto {
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.accenture.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import io.swagger.v3.oas.annotations.media.DiscriminatorMapping;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Véhicule rendu par l'API, quel que soit son type : les champs communs, plus ceux de son type.
+ * Le JSON porte le type dans la propriété {@code typeVehicule} ; l'historique des locations n'en fait jamais partie.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "typeVehicule")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = VoitureResponseDto.class, name = "VOITURE"),
+        @JsonSubTypes.Type(value = MotoResponseDto.class, name = "MOTO"),
+        @JsonSubTypes.Type(value = VeloResponseDto.class, name = "VELO"),
+        @JsonSubTypes.Type(value = UtilitaireResponseDto.class, name = "UTILITAIRE")
+})
+@Schema(description = "Détails du véhicule, selon son type",
+        oneOf = {VoitureResponseDto.class, MotoResponseDto.class, VeloResponseDto.class, UtilitaireResponseDto.class},
+        discriminatorProperty = "typeVehicule",
+        discriminatorMapping = {
+                @DiscriminatorMapping(value = "VOITURE", schema = VoitureResponseDto.class),
+                @DiscriminatorMapping(value = "MOTO", schema = MotoResponseDto.class),
+                @DiscriminatorMapping(value = "VELO", schema = VeloResponseDto.class),
+                @DiscriminatorMapping(value = "UTILITAIRE", schema = UtilitaireResponseDto.class)
+        })
+public sealed interface VehiculeResponseDto
+        permits VoitureResponseDto, MotoResponseDto, VeloResponseDto, UtilitaireResponseDto {
+
+    long id();
+
+    String marque();
+
+    String modele();
+
+    String couleur();
+
+    String type();
+
+    long tarifJournalier();
+
+    long kilometrage();
+
+    Boolean actif();
+
+    Boolean retireDuParc();
+}
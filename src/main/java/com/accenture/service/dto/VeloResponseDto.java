@@ -47,5 +47,5 @@ public record VeloResponseDto(
         Boolean actif,
 
         @Schema(description = "Statut de retrait du parc du vélo", example = "false")
-        Boolean retireDuParc) {
+        Boolean retireDuParc) implements VehiculeResponseDto {
 }
\ No newline at end of file
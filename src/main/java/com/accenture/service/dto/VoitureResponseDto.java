@@ -53,5 +53,5 @@ public record VoitureResponseDto(
         Boolean actif,
 
         @Schema(description = "Statut de retrait du parc de la voiture", example = "false")
-        Boolean retireDuParc) {
+        Boolean retireDuParc) implements VehiculeResponseDto {
 }
\ No newline at end of file
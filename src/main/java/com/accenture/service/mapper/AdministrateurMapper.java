@@ -4,10 +4,12 @@ import com.accenture.repository.entity.Administrateur;
 import com.accenture.service.dto.AdministrateurRequestDto;
 import com.accenture.service.dto.AdministrateurResponseDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface AdministrateurMapper{
 
+    @Mapping(target = "version", ignore = true)
     Administrateur toAdministrateur (AdministrateurRequestDto administrateurRequestDto);
     AdministrateurResponseDto toAdministrateurResponseDto (Administrateur administrateur);
 }
@@ -3,9 +3,11 @@ package com.accenture.service.mapper;
 import com.accenture.repository.entity.Adresse;
 import com.accenture.service.dto.AdresseDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface AdresseMapper {
+    @Mapping(target = "version", ignore = true)
     Adresse toAdresse (AdresseDto adresseDto);
     AdresseDto toAdresseDto (Adresse adresse);
 }
@@ -4,9 +4,11 @@ import com.accenture.repository.entity.Client;
 import com.accenture.service.dto.ClientRequestDto;
 import com.accenture.service.dto.ClientResponseDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring", uses= {AdresseMapper.class})
 public interface ClientMapper {
+    @Mapping(target = "version", ignore = true)
     Client toClient (ClientRequestDto clientRequestDto);
     ClientResponseDto toClientResponseDto (Client client);
 
@@ -4,9 +4,11 @@ import com.accenture.repository.entity.Moto;
 import com.accenture.service.dto.MotoRequestDto;
 import com.accenture.service.dto.MotoResponseDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface MotoMapper {
+    @Mapping(target = "version", ignore = true)
     Moto toMoto(MotoRequestDto motoRequestDto);
     MotoResponseDto toMotoResponseDto(Moto moto);
 }
\ No newline at end of file
@@ -4,9 +4,11 @@ import com.accenture.repository.entity.Utilitaire;
 import com.accenture.service.dto.UtilitaireRequestDto;
 import com.accenture.service.dto.UtilitaireResponseDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface UtilitaireMapper {
+    @Mapping(target = "version", ignore = true)
     Utilitaire toUtilitaire(UtilitaireRequestDto utilitaireRequestDto);
     UtilitaireResponseDto toUtilitaireResponseDto(Utilitaire utilitaire);
 }
\ No newline at end of file
@@ -4,9 +4,11 @@ import com.accenture.repository.entity.Velo;
 import com.accenture.service.dto.VeloRequestDto;
 import com.accenture.service.dto.VeloResponseDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface VeloMapper {
+    @Mapping(target = "version", ignore = true)
     Velo toVelo(VeloRequestDto veloRequestDto);
     VeloResponseDto toVeloResponseDto(Velo velo);
 }
\ No newline at end of file
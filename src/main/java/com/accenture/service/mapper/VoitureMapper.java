@@ -4,9 +4,11 @@ import com.accenture.repository.entity.Voiture;
 import com.accenture.service.dto.VoitureRequestDto;
 import com.accenture.service.dto.VoitureResponseDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring" )
 public interface VoitureMapper {
+    @Mapping(target = "version", ignore = true)
     Voiture toVoiture (VoitureRequestDto voitureRequestDto);
     VoitureResponseDto toVoitureResponseDto (Voiture voiture);
 
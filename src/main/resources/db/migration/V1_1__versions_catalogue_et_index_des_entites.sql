@@ -0,0 +1,34 @@
+-- Ajouts au schéma des entités depuis le schéma de départ (V1) : colonnes de verrouillage optimiste (@Version),
+-- catalogue des véhicules et index déclarés par les entités (@Table(indexes = ...)).
+-- Jouée aussi sur une base marquée en version 1 ; IF NOT EXISTS : ddl-auto=update a pu en créer une partie.
+
+alter table utilisateurs add column if not exists version bigint default 0 not null;
+alter table adresse add column if not exists version bigint default 0 not null;
+alter table voiture add column if not exists version bigint default 0 not null;
+alter table moto add column if not exists version bigint default 0 not null;
+alter table velo add column if not exists version bigint default 0 not null;
+alter table utilitaire add column if not exists version bigint default 0 not null;
+
+-- catalogue des véhicules (VehiculeCatalogue), alimenté par V3 puis tenu à jour par SynchroCatalogue
+create table if not exists vehicule_catalogue (
+    id bigint not null,
+    type_vehicule varchar(255) check (type_vehicule in ('VOITURE','MOTO','VELO','UTILITAIRE')),
+    marque varchar(255),
+    modele varchar(255),
+    couleur varchar(255),
+    type varchar(255),
+    tarif_journalier bigint not null,
+    kilometrage bigint not null,
+    actif boolean,
+    retire_du_parc boolean,
+    primary key (id)
+);
+
+create index if not exists idx_voiture_actif_retire_tarif on voiture (actif, retire_du_parc, tarif_journalier);
+create index if not exists idx_moto_actif_retire_tarif on moto (actif, retire_du_parc, tarif_journalier);
+create index if not exists idx_velo_actif_retire_tarif on velo (actif, retire_du_parc, tarif_journalier);
+create index if not exists idx_utilitaire_actif_retire_tarif on utilitaire (actif, retire_du_parc, tarif_journalier);
+create index if not exists idx_location_vehicule_dates on location (vehicule_id, date_debut, date_fin);
+create index if not exists idx_catalogue_statut on vehicule_catalogue (actif, retire_du_parc, id);
+create index if not exists idx_catalogue_marque_modele on vehicule_catalogue (marque, modele);
+create index if not exists idx_catalogue_tarif on vehicule_catalogue (tarif_journalier);
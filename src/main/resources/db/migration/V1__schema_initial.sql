@@ -0,0 +1,164 @@
+-- Schéma de départ : celui que ddl-auto=update créait avant les migrations, ni plus ni moins.
+-- Une base créée auparavant par ddl-auto=update est dans cet état : elle est marquée en version 1 sans rejouer ce script
+-- (spring.flyway.baseline-on-migrate, voir application.properties). Tout ajout au schéma va dans une migration suivante,
+-- jouée sur les deux sortes de bases.
+
+create table utilisateurs (
+    mail varchar(255) not null,
+    role varchar(31) not null,
+    password varchar(255),
+    nom varchar(255),
+    prenom varchar(255),
+    primary key (mail)
+);
+
+create table administrateur (
+    mail varchar(255) not null,
+    fonction varchar(255),
+    primary key (mail),
+    constraint fk_administrateur_utilisateur foreign key (mail) references utilisateurs
+);
+
+create table adresse (
+    id integer generated by default as identity,
+    rue varchar(255) not null,
+    code_postal varchar(255) not null,
+    ville varchar(255) not null,
+    primary key (id)
+);
+
+create table client (
+    mail varchar(255) not null,
+    adresse_id integer unique,
+    date_naissance date,
+    date_inscription date,
+    desactive boolean,
+    primary key (mail),
+    constraint fk_client_utilisateur foreign key (mail) references utilisateurs,
+    constraint fk_client_adresse foreign key (adresse_id) references adresse
+);
+
+create table client_liste_permis (
+    client_mail varchar(255) not null,
+    liste_permis smallint check (liste_permis between 0 and 5),
+    constraint fk_client_liste_permis_client foreign key (client_mail) references client
+);
+
+-- identifiants des véhicules (Vehicule, @TableGenerator), communs aux quatre tables
+create table hibernate_sequences (
+    sequence_name varchar(255) not null,
+    next_val bigint,
+    primary key (sequence_name)
+);
+
+insert into hibernate_sequences (sequence_name, next_val) values ('default', 0);
+
+create table voiture (
+    id bigint not null,
+    type_vehicule_enum varchar(255) check (type_vehicule_enum in ('VOITURE','MOTO','VELO','UTILITAIRE')),
+    marque varchar(255),
+    modele varchar(255),
+    couleur varchar(255),
+    type varchar(255),
+    tarif_journalier bigint not null,
+    kilometrage bigint not null,
+    actif boolean,
+    retire_du_parc boolean,
+    nombre_de_places integer,
+    carburant varchar(255) check (carburant in ('DIESEL','ESSENCE','ELECTRIQUE','HYBRIDE')),
+    nombre_de_portes integer,
+    transmission varchar(255),
+    clim boolean,
+    nombre_de_bagages integer,
+    permis varchar(255) check (permis in ('A','A1','A2','B','C1','D1')),
+    primary key (id)
+);
+
+create table moto (
+    id bigint not null,
+    type_vehicule_enum varchar(255) check (type_vehicule_enum in ('VOITURE','MOTO','VELO','UTILITAIRE')),
+    marque varchar(255),
+    modele varchar(255),
+    couleur varchar(255),
+    type varchar(255),
+    tarif_journalier bigint not null,
+    kilometrage bigint not null,
+    actif boolean,
+    retire_du_parc boolean,
+    nombre_cylindres integer,
+    poids integer,
+    puissance_enkw integer,
+    hauteur_selle integer,
+    transmission varchar(255),
+    permis varchar(255) check (permis in ('A','A1','A2','B','C1','D1')),
+    primary key (id)
+);
+
+create table velo (
+    id bigint not null,
+    type_vehicule_enum varchar(255) check (type_vehicule_enum in ('VOITURE','MOTO','VELO','UTILITAIRE')),
+    marque varchar(255),
+    modele varchar(255),
+    couleur varchar(255),
+    type varchar(255),
+    tarif_journalier bigint not null,
+    kilometrage bigint not null,
+    actif boolean,
+    retire_du_parc boolean,
+    taille_cadre integer,
+    poids integer,
+    electrique boolean,
+    capacite_batterie integer,
+    autonomie integer,
+    freinsadisque boolean,
+    primary key (id)
+);
+
+create table utilitaire (
+    id bigint not null,
+    type_vehicule_enum varchar(255) check (type_vehicule_enum in ('VOITURE','MOTO','VELO','UTILITAIRE')),
+    marque varchar(255),
+    modele varchar(255),
+    couleur varchar(255),
+    type varchar(255),
+    tarif_journalier bigint not null,
+    kilometrage bigint not null,
+    actif boolean,
+    retire_du_parc boolean,
+    nombre_de_place integer,
+    carburant varchar(255) check (carburant in ('DIESEL','ESSENCE','ELECTRIQUE','HYBRIDE')),
+    transmission varchar(255),
+    clim boolean,
+    charge_max integer,
+    poidspatc float(53),
+    capacitem3 integer,
+    permis varchar(255) check (permis in ('A','A1','A2','B','C1','D1')),
+    primary key (id)
+);
+
+-- accessoires d'un véhicule, de l'une des quatre tables (pas de clé étrangère possible)
+create table vehicule_liste_accessoires (
+    vehicule_id bigint not null,
+    liste_accessoires varchar(255) check (liste_accessoires in ('SIEGE_BEBE_VOITURE','GPS_VOITURE','PORTE_VELO_VOITURE','COFFRE_TOIT_VOITURE','CASQUE_MOTO','GANTS_MOTO','ANTIVOL_MOTO','PANTALON_PLUIE_MOTO','DIABLE_UTILITAIRE','SANGLE_UTILITAIRE','COUVERTURE_PROTECTION_UTILITAIRE','CASQUE_VELO','ANTIVOL_VELO','PANIER_VELO','SACOCHE_VELO','KIT_REPARATION_VELO','GILET_REFLECHISSANT_VELO'))
+);
+
+-- location.vehicule_id désigne un véhicule de l'une des quatre tables (pas de clé étrangère possible)
+create table location (
+    id integer generated by default as identity,
+    client_id varchar(255),
+    vehicule_id bigint,
+    date_debut date,
+    date_fin date,
+    date_validation date,
+    kilometres_parcourus integer not null,
+    montant_total integer not null,
+    etat varchar(255) check (etat in ('RESERVE','VALIDE','ANNULE','TERMINE')),
+    primary key (id),
+    constraint fk_location_client foreign key (client_id) references client
+);
+
+create table location_accessoires (
+    location_id integer not null,
+    accessoires varchar(255) check (accessoires in ('SIEGE_BEBE_VOITURE','GPS_VOITURE','PORTE_VELO_VOITURE','COFFRE_TOIT_VOITURE','CASQUE_MOTO','GANTS_MOTO','ANTIVOL_MOTO','PANTALON_PLUIE_MOTO','DIABLE_UTILITAIRE','SANGLE_UTILITAIRE','COUVERTURE_PROTECTION_UTILITAIRE','CASQUE_VELO','ANTIVOL_VELO','PANIER_VELO','SACOCHE_VELO','KIT_REPARATION_VELO','GILET_REFLECHISSANT_VELO')),
+    constraint fk_location_accessoires_location foreign key (location_id) references location
+);
@@ -0,0 +1,28 @@
+-- Index des jointures et des recherches, absents du schéma créé par Hibernate.
+-- IF NOT EXISTS : une base marquée en version 1 a pu en recevoir une partie à la main.
+
+-- Côté référençant des clés étrangères et des collections : PostgreSQL ne l'indexe pas de lui-même.
+-- location.vehicule_id est déjà en tête de idx_location_vehicule_dates.
+create index if not exists idx_location_client on location (client_id);
+create index if not exists idx_location_accessoires_location on location_accessoires (location_id);
+create index if not exists idx_client_liste_permis_client on client_liste_permis (client_mail);
+create index if not exists idx_vehicule_liste_accessoires_vehicule on vehicule_liste_accessoires (vehicule_id);
+create index if not exists idx_utilisateurs_role on utilisateurs (role);
+
+-- Véhicules disponibles (VehiculeDao.trouverDisponibles, listes des services) : seules les lignes louables sont indexées.
+create index if not exists idx_voiture_disponibles on voiture (id) where actif = true and retire_du_parc = false;
+create index if not exists idx_moto_disponibles on moto (id) where actif = true and retire_du_parc = false;
+create index if not exists idx_velo_disponibles on velo (id) where actif = true and retire_du_parc = false;
+create index if not exists idx_utilitaire_disponibles on utilitaire (id) where actif = true and retire_du_parc = false;
+
+-- Recherches ...Containing de ClientDao et AdministrateurDao (like '%motif%') : un index B-tree ne sert pas,
+-- un index trigramme si.
+create extension if not exists pg_trgm;
+
+create index if not exists idx_utilisateurs_mail_trgm on utilisateurs using gin (mail gin_trgm_ops);
+create index if not exists idx_utilisateurs_nom_trgm on utilisateurs using gin (nom gin_trgm_ops);
+create index if not exists idx_utilisateurs_prenom_trgm on utilisateurs using gin (prenom gin_trgm_ops);
+create index if not exists idx_administrateur_fonction_trgm on administrateur using gin (fonction gin_trgm_ops);
+create index if not exists idx_adresse_rue_trgm on adresse using gin (rue gin_trgm_ops);
+create index if not exists idx_adresse_code_postal_trgm on adresse using gin (code_postal gin_trgm_ops);
+create index if not exists idx_adresse_ville_trgm on adresse using gin (ville gin_trgm_ops);
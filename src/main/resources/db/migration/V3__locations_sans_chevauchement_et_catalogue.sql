@@ -0,0 +1,34 @@
+-- Reprend l'ancien script de démarrage schema-postgresql.sql, joué une seule fois.
+-- Idempotent : une base marquée en version 1 l'a déjà reçu à chaque démarrage précédent.
+
+create extension if not exists btree_gist;
+
+-- Deux locations non annulées d'un même véhicule ne peuvent pas se chevaucher (bornes incluses).
+-- Filet de sécurité de l'index en mémoire DisponibiliteVehicules quand plusieurs instances écrivent.
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conname = 'location_vehicule_sans_chevauchement') then
+        alter table location add constraint location_vehicule_sans_chevauchement
+            exclude using gist (vehicule_id with =, daterange(date_debut, date_fin, '[]') with &&)
+            where (etat <> 'ANNULE');
+    end if;
+end
+$$;
+
+-- Catalogue des véhicules (voir VehiculeCatalogue) : alimentation depuis les quatre tables, puis retrait des lignes
+-- orphelines. Les écritures suivantes passent par SynchroCatalogue.
+insert into vehicule_catalogue (id, type_vehicule, marque, modele, couleur, type, tarif_journalier, kilometrage, actif, retire_du_parc)
+select id, 'VOITURE', marque, modele, couleur, type, tarif_journalier, kilometrage, actif, retire_du_parc from voiture
+union all
+select id, 'MOTO', marque, modele, couleur, type, tarif_journalier, kilometrage, actif, retire_du_parc from moto
+union all
+select id, 'VELO', marque, modele, couleur, type, tarif_journalier, kilometrage, actif, retire_du_parc from velo
+union all
+select id, 'UTILITAIRE', marque, modele, couleur, type, tarif_journalier, kilometrage, actif, retire_du_parc from utilitaire
+on conflict (id) do nothing;
+
+delete from vehicule_catalogue c
+where not exists (select 1 from voiture where id = c.id)
+  and not exists (select 1 from moto where id = c.id)
+  and not exists (select 1 from velo where id = c.id)
+  and not exists (select 1 from utilitaire where id = c.id);
@@ -0,0 +1,16 @@
+-- Recherche de clients (ClientSpecifications) : les recherches par partie de texte ont leurs index trigrammes (V2),
+-- les autres critères des index B-tree.
+
+create index if not exists idx_client_date_naissance on client (date_naissance);
+create index if not exists idx_client_date_inscription on client (date_inscription);
+
+-- Peu de clients sont désactivés : seules leurs lignes sont indexées, desactive = false passe par les autres critères.
+create index if not exists idx_client_desactives on client (mail) where desactive = true;
+
+-- Code postal cherché par son début (like '75%') : opérateurs de motif, indépendants de la collation de la base.
+create index if not exists idx_adresse_code_postal_prefixe on adresse (code_postal varchar_pattern_ops);
+drop index if exists idx_adresse_code_postal_trgm;
+
+-- Permis détenus : chaque permis demandé est vérifié dans l'index seul.
+create index if not exists idx_client_liste_permis_client_permis on client_liste_permis (client_mail, liste_permis);
+drop index if exists idx_client_liste_permis_client;
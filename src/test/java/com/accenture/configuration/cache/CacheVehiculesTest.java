@@ -0,0 +1,165 @@
+package com.accenture.configuration.cache;
+
+import com.accenture.configuration.security.CacheAuthentification;
+import com.accenture.model.param.Carburant;
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.repository.entity.Voiture;
+import com.accenture.service.ImportParLots;
+import com.accenture.service.RechercheVehicules;
+import com.accenture.service.ReessaiConcurrence;
+import com.accenture.service.VoitureService;
+import com.accenture.service.VoitureServiceImpl;
+import com.accenture.service.dto.VoitureRequestDto;
+import com.accenture.service.mapper.VoitureMapperImpl;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationProvider;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache de second niveau des véhicules : chaque appel de service a sa propre session, comme une requête HTTP,
+ * seul le cache de second niveau peut donc éviter la base.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import({CacheVehiculesTest.Configuration.class, CacheVehiculesConfiguration.class, VoitureServiceImpl.class, ImportParLots.class, RechercheVehicules.class, ReessaiConcurrence.class, VoitureMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheVehiculesTest {
+
+    @TestConfiguration
+    static class Configuration {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        }
+
+        @Bean
+        CacheAuthentification cacheAuthentification() {
+            return new CacheAuthentification(new TestingAuthenticationProvider(), Duration.ofMinutes(1), 10);
+        }
+    }
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    VoitureService voitureService;
+    @Autowired
+    MeterBinder metriquesCacheVehicules;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    Statistics statistiques;
+    long id;
+
+    @BeforeEach
+    void init() {
+        id = voitureService.ajouter(creerVoitureRequestDto("Rouge")).id();
+        statistiques = emf.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+    }
+
+    @DisplayName("Voiture ajoutée : elle est en cache, les lectures par id ne vont pas en base")
+    @Test
+    void testTrouverServiParLeCache() {
+        assertTrue(emf.getCache().contains(Voiture.class, id));
+
+        voitureService.trouver(id);
+        voitureService.trouver(id);
+
+        assertEquals(0, statistiques.getPrepareStatementCount());
+        assertEquals(2, statistiques.getDomainDataRegionStatistics(Vehicule.REGION_CACHE).getHitCount());
+    }
+
+    @DisplayName("Entrée expulsée : une requête, puis le cache reprend le relais")
+    @Test
+    void testTrouverApresEviction() {
+        emf.getCache().evict(Voiture.class, id);
+
+        voitureService.trouver(id);
+        voitureService.trouver(id);
+        voitureService.trouver(id);
+
+        assertEquals(1, statistiques.getPrepareStatementCount());
+    }
+
+    @DisplayName("Modification : la lecture suivante voit la nouvelle valeur")
+    @Test
+    void testModifierMetAJourLeCache() {
+        voitureService.trouver(id);
+
+        voitureService.modifierPartiellement(id, creerVoitureRequestDto("Bleu"));
+
+        assertEquals("Bleu", voitureService.trouver(id).couleur());
+    }
+
+    @DisplayName("Modification concurrente : la version en cache est périmée, la modification est rejouée sur la ligne à jour")
+    @Test
+    void testModifierApresModificationConcurrente() {
+        voitureService.trouver(id);
+        // une autre instance modifie la ligne sans passer par ce cache
+        jdbc.update("update voiture set version = version + 1 where id = ?", id);
+
+        voitureService.modifierPartiellement(id, creerVoitureRequestDto("Bleu"));
+
+        emf.getCache().evict(Voiture.class, id);
+        assertEquals("Bleu", voitureService.trouver(id).couleur());
+        assertEquals(2L, jdbc.queryForObject("select version from voiture where id = ?", Long.class, id));
+    }
+
+    @DisplayName("Suppression : l'entrée n'est plus servie, la lecture suivante va en base")
+    @Test
+    void testSupprimerRetireDuCache() {
+        voitureService.trouver(id);
+
+        voitureService.supprimer(id);
+        statistiques.clear();
+
+        assertThrows(EntityNotFoundException.class, () -> voitureService.trouver(id));
+        assertEquals(0, statistiques.getDomainDataRegionStatistics(Vehicule.REGION_CACHE).getHitCount());
+        assertEquals(1, statistiques.getPrepareStatementCount());
+    }
+
+    @DisplayName("Métriques : hits et misses de la région publiés sous cache.gets")
+    @Test
+    void testMetriques() {
+        SimpleMeterRegistry registre = new SimpleMeterRegistry();
+        metriquesCacheVehicules.bindTo(registre);
+        double hitsAvant = registre.get("cache.gets").tag("cache", Vehicule.REGION_CACHE).tag("result", "hit")
+                .functionCounter().count();
+
+        voitureService.trouver(id);
+
+        assertEquals(hitsAvant + 1, registre.get("cache.gets").tag("cache", Vehicule.REGION_CACHE).tag("result", "hit")
+                .functionCounter().count());
+        assertNotNull(registre.find("cache.evictions").tag("cache", Vehicule.REGION_CACHE).functionCounter());
+    }
+
+    private static VoitureRequestDto creerVoitureRequestDto(String couleur) {
+        return new VoitureRequestDto("Renault", "Clio", couleur, "Citadine", 5, 5, "manuelle", true, 3,
+                Carburant.values()[0], 45, 12000, true, false);
+    }
+}
@@ -0,0 +1,66 @@
+package com.accenture.configuration.demarrage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InitialisationDiffereeTest {
+
+    @Configuration
+    static class Beans {
+        @Bean
+        StringBuilder essentiel() {
+            return new StringBuilder();
+        }
+    }
+
+    @DisplayName("Paquet listé : ses beans sont différés, les autres restent créés au démarrage")
+    @Test
+    void testPaquetDiffere() {
+        try (AnnotationConfigApplicationContext contexte = contexte("java.util")) {
+            assertTrue(contexte.getBeanDefinition("documentation").isLazyInit());
+            assertFalse(contexte.getBeanDefinition("essentiel").isLazyInit());
+            assertFalse(contexte.getBeanFactory().containsSingleton("documentation"));
+            assertTrue(contexte.getBeanFactory().containsSingleton("essentiel"));
+
+            assertNotNull(contexte.getBean("documentation"));
+        }
+    }
+
+    @DisplayName("Paquet listé : une classe de configuration du paquet est différée avec ses méthodes @Bean")
+    @Test
+    void testClasseDeConfigurationDifferee() {
+        try (AnnotationConfigApplicationContext contexte = contexte(InitialisationDiffereeTest.class.getPackageName())) {
+            assertTrue(contexte.getBeanDefinition("essentiel").isLazyInit());
+            assertFalse(contexte.getBeanDefinition("documentation").isLazyInit());
+        }
+    }
+
+    @DisplayName("Sans la propriété : rien n'est différé")
+    @Test
+    void testSansPropriete() {
+        try (AnnotationConfigApplicationContext contexte = contexte(null)) {
+            assertFalse(contexte.getBeanDefinition("documentation").isLazyInit());
+            assertTrue(contexte.getBeanFactory().containsSingleton("documentation"));
+        }
+    }
+
+    private static AnnotationConfigApplicationContext contexte(String paquets) {
+        MockEnvironment environnement = new MockEnvironment();
+        if (paquets != null)
+            environnement.setProperty(InitialisationDifferee.PROPRIETE, paquets);
+        AnnotationConfigApplicationContext contexte = new AnnotationConfigApplicationContext();
+        contexte.setEnvironment(environnement);
+        contexte.register(InitialisationDifferee.class, Beans.class);
+        contexte.registerBean("documentation", ArrayList.class);
+        contexte.refresh();
+        return contexte;
+    }
+}
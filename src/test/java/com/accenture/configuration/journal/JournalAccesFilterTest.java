@@ -0,0 +1,69 @@
+package com.accenture.configuration.journal;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalAccesFilterTest {
+
+    JournalAccesFilter filtre = new JournalAccesFilter();
+    Logger logger = (Logger) LoggerFactory.getLogger(JournalAccesFilter.LOGGER);
+    ListAppender<ILoggingEvent> lignes = new ListAppender<>();
+
+    @BeforeEach
+    void initialiser() {
+        lignes.start();
+        logger.addAppender(lignes);
+    }
+
+    @AfterEach
+    void nettoyer() {
+        logger.detachAppender(lignes);
+    }
+
+    @DisplayName("Une seule ligne par requête avec le modèle d'URI, le statut et les tailles")
+    @Test
+    void testUneLigneParRequete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/voitures/12");
+        request.setContent("{\"marque\":\"Renault\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtre.doFilter(request, response, (req, rep) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/voitures/{id}");
+            ((HttpServletResponse) rep).setStatus(201);
+            rep.getOutputStream().write(new byte[42]);
+        });
+
+        assertEquals(1, lignes.list.size());
+        String ligne = lignes.list.getFirst().getFormattedMessage();
+        assertTrue(ligne.startsWith("methode=POST uri=/voitures/{id} statut=201 duree_us="), ligne);
+        assertTrue(ligne.endsWith("taille_requete=20 taille_reponse=42"), ligne);
+        assertEquals(42, response.getContentAsByteArray().length);
+    }
+
+    @DisplayName("Sans contrôleur trouvé, l'URI brute est journalisée")
+    @Test
+    void testSansModele() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/inconnu");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtre.doFilter(request, response, (req, rep) -> rep.getWriter().write("introuvable"));
+
+        String ligne = lignes.list.getFirst().getFormattedMessage();
+        assertTrue(ligne.startsWith("methode=GET uri=/inconnu statut=200"), ligne);
+        assertTrue(ligne.endsWith("taille_requete=-1 taille_reponse=11"), ligne);
+    }
+}
@@ -0,0 +1,80 @@
+package com.accenture.configuration.metriques;
+
+import com.accenture.controller.MotoController;
+import com.accenture.service.MotoService;
+import com.accenture.service.dto.MotoResponseDto;
+import com.accenture.service.dto.OptionsRechercheDto;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MetriquesAppelsTest {
+
+    @Mock
+    MotoService motoServiceMock;
+
+    PrometheusMeterRegistry registre = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    MotoController controller;
+
+    @BeforeEach
+    void initialiser() {
+        AspectJProxyFactory proxy = new AspectJProxyFactory(new MotoController(motoServiceMock));
+        proxy.setProxyTargetClass(true);
+        proxy.addAspect(new MetriquesAppels(registre, Set.of("rechercher")));
+        controller = proxy.getProxy();
+    }
+
+    @DisplayName("Appel réussi puis en échec : un timer par résultat, tagué par couche, méthode et type de véhicule")
+    @Test
+    void testAppelsChronometres() {
+        when(motoServiceMock.trouver(1L)).thenReturn(mock(MotoResponseDto.class));
+        when(motoServiceMock.trouver(2L)).thenThrow(new EntityNotFoundException("Moto non trouvée"));
+
+        controller.trouver(1L);
+        assertThrows(EntityNotFoundException.class, () -> controller.trouver(2L));
+
+        Timer succes = registre.find(MetriquesAppels.TIMER)
+                .tags("couche", "controller", "classe", "MotoController", "methode", "trouver", "typeVehicule", "MOTO",
+                        "resultat", "SUCCES", "exception", MetriquesAppels.AUCUN)
+                .timer();
+        Timer echec = registre.find(MetriquesAppels.TIMER)
+                .tags("methode", "trouver", "resultat", "ECHEC", "exception", "EntityNotFoundException")
+                .timer();
+        assertEquals(1, succes.count());
+        assertEquals(1, echec.count());
+    }
+
+    @DisplayName("Export Prometheus : histogramme détaillé pour une méthode suivie en percentiles, seuils seuls pour les autres")
+    @Test
+    void testHistogrammePrometheus() {
+        when(motoServiceMock.trouverToutes()).thenReturn(List.of());
+
+        controller.trouverToutes();
+        controller.rechercher(null, null, null, null, null, null, null, null, null, null, null, null, null, null, OptionsRechercheDto.AUCUNE);
+
+        String export = registre.scrape();
+        assertEquals(MetriquesAppels.SEUILS.length + 1, seaux(export, "trouverToutes"), export);
+        assertTrue(seaux(export, "rechercher") > 20, export);
+    }
+
+    private static long seaux(String export, String methode) {
+        return export.lines()
+                .filter(ligne -> ligne.startsWith("application_appels_seconds_bucket{") && ligne.contains("methode=\"" + methode + "\""))
+                .count();
+    }
+}
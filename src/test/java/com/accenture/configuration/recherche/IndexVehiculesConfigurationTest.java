@@ -0,0 +1,125 @@
+package com.accenture.configuration.recherche;
+
+import com.accenture.configuration.security.CacheAuthentification;
+import com.accenture.repository.VoitureDao;
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.repository.entity.Voiture;
+import com.accenture.service.IndexVehicules;
+import com.accenture.service.IndexVehicules.Texte;
+import com.accenture.service.RechercheVehicules;
+import com.accenture.service.RequeteVehicules;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationProvider;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Index en mémoire activé : les recherches passent par lui, et il suit les écritures validées par Hibernate.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "index-vehicules.actif=true"
+})
+@Import({IndexVehiculesConfigurationTest.Configuration.class, IndexVehiculesConfiguration.class, RechercheVehicules.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IndexVehiculesConfigurationTest {
+
+    @TestConfiguration
+    static class Configuration {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        }
+
+        @Bean
+        CacheAuthentification cacheAuthentification() {
+            return new CacheAuthentification(new TestingAuthenticationProvider(), Duration.ofMinutes(1), 10);
+        }
+    }
+
+    @Autowired
+    IndexVehicules indexVehicules;
+    @Autowired
+    RechercheVehicules rechercheVehicules;
+    @Autowired
+    VoitureDao voitureDao;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @AfterEach
+    void nettoyer() {
+        voitureDao.deleteAll();
+    }
+
+    @DisplayName("Ajout, modification et suppression validés : reportés dans l'index, qui sert la recherche")
+    @Test
+    void testEcrituresValidees() {
+        // l'index est chargé (vide) avant les écritures : la suite ne peut venir que des événements
+        assertEquals(List.of(), rechercher("Clio"));
+
+        Voiture voiture = voitureDao.save(creerVoiture("Clio"));
+        assertEquals(List.of(voiture.getId()), rechercher("Clio"));
+
+        voiture.setModele("Megane");
+        voitureDao.save(voiture);
+        assertEquals(List.of(), rechercher("Clio"));
+        assertEquals(List.of(voiture.getId()), rechercher("Megane"));
+
+        // la ligne effacée sans Hibernate reste dans l'index jusqu'à sa relecture : c'est bien lui qui répond
+        jdbc.update("delete from vehicule_catalogue where id = ?", voiture.getId());
+        jdbc.update("delete from voiture where id = ?", voiture.getId());
+        assertEquals(List.of(voiture.getId()), rechercher("Megane"));
+
+        Voiture autre = voitureDao.save(creerVoiture("Twingo"));
+        voitureDao.delete(autre);
+        assertEquals(List.of(), rechercher("Twingo"));
+    }
+
+    @DisplayName("Transaction annulée : rien n'est reporté dans l'index")
+    @Test
+    void testAnnulation() {
+        assertEquals(List.of(), rechercher("Clio"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(statut -> {
+            voitureDao.saveAndFlush(creerVoiture("Clio"));
+            statut.setRollbackOnly();
+        });
+
+        assertEquals(List.of(), rechercher("Clio"));
+    }
+
+    private List<Long> rechercher(String modele) {
+        return rechercheVehicules.rechercher(Voiture.class, voitureDao, new RequeteVehicules().contient(Texte.MODELE, modele))
+                .stream().map(Vehicule::getId).toList();
+    }
+
+    private static Voiture creerVoiture(String modele) {
+        Voiture voiture = new Voiture();
+        voiture.setMarque("Renault");
+        voiture.setModele(modele);
+        voiture.setActif(true);
+        voiture.setRetireDuParc(false);
+        return voiture;
+    }
+}
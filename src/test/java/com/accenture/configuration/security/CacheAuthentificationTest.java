@@ -0,0 +1,165 @@
+package com.accenture.configuration.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheAuthentificationTest {
+
+    @Mock
+    AuthenticationProvider delegueMock;
+
+    HorlogeReglable horloge = new HorlogeReglable();
+    CacheAuthentification cache;
+
+    @BeforeEach
+    void initialiser() {
+        cache = new CacheAuthentification(delegueMock, Duration.ofMinutes(5), 2, horloge);
+    }
+
+    @DisplayName("Deuxième authentification avec le même mot de passe : le délégué n'est appelé qu'une fois")
+    @Test
+    void testAuthentificationEnCache() {
+        when(delegueMock.authenticate(any())).thenReturn(authentifie("admin@mail.com"));
+
+        Authentication premiere = cache.authenticate(demande("admin@mail.com", "Password123&"));
+        Authentication seconde = cache.authenticate(demande("admin@mail.com", "Password123&"));
+
+        verify(delegueMock, times(1)).authenticate(any());
+        assertTrue(seconde.isAuthenticated());
+        assertEquals(premiere.getAuthorities(), seconde.getAuthorities());
+        assertNull(seconde.getCredentials());
+    }
+
+    @DisplayName("Mauvais mot de passe : le cache ne répond pas, le délégué refuse")
+    @Test
+    void testMauvaisMotDePasse() {
+        when(delegueMock.authenticate(any()))
+                .thenReturn(authentifie("admin@mail.com"))
+                .thenThrow(new BadCredentialsException("Mauvais identifiants"));
+
+        cache.authenticate(demande("admin@mail.com", "Password123&"));
+
+        assertThrows(BadCredentialsException.class, () -> cache.authenticate(demande("admin@mail.com", "autre")));
+    }
+
+    @DisplayName("Entrée expirée : retour au délégué")
+    @Test
+    void testExpiration() {
+        when(delegueMock.authenticate(any())).thenReturn(authentifie("admin@mail.com"));
+
+        cache.authenticate(demande("admin@mail.com", "Password123&"));
+        horloge.avancer(Duration.ofMinutes(6));
+        cache.authenticate(demande("admin@mail.com", "Password123&"));
+
+        verify(delegueMock, times(2)).authenticate(any());
+    }
+
+    @DisplayName("Compte modifié : l'entrée est retirée")
+    @Test
+    void testInvalider() {
+        when(delegueMock.authenticate(any())).thenReturn(authentifie("admin@mail.com"));
+
+        cache.authenticate(demande("admin@mail.com", "Password123&"));
+        cache.invalider("admin@mail.com");
+        cache.authenticate(demande("admin@mail.com", "Password123&"));
+
+        verify(delegueMock, times(2)).authenticate(any());
+    }
+
+    @DisplayName("Compte modifié pendant l'authentification : le résultat n'est pas mis en cache")
+    @Test
+    void testInvaliderPendantAuthentification() {
+        when(delegueMock.authenticate(any())).thenAnswer(invocation -> {
+            cache.invalider("admin@mail.com");
+            return authentifie("admin@mail.com");
+        });
+
+        cache.authenticate(demande("admin@mail.com", "Password123&"));
+
+        assertEquals(0, cache.taille());
+    }
+
+    @DisplayName("Compte modifié dans une transaction : une authentification faite avant la validation est retirée après")
+    @Test
+    void testInvaliderApresValidation() {
+        when(delegueMock.authenticate(any())).thenReturn(authentifie("admin@mail.com"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalider("admin@mail.com");
+            // l'ancienne ligne est encore visible : cette authentification est mise en cache
+            cache.authenticate(demande("admin@mail.com", "Password123&"));
+            assertEquals(1, cache.taille());
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, cache.taille());
+    }
+
+    @DisplayName("Cache plein : les nouvelles entrées ne sont plus mémorisées")
+    @Test
+    void testTailleMax() {
+        when(delegueMock.authenticate(any())).thenAnswer(invocation -> authentifie(invocation.<Authentication>getArgument(0).getName()));
+
+        cache.authenticate(demande("a@mail.com", "Password123&"));
+        cache.authenticate(demande("b@mail.com", "Password123&"));
+        cache.authenticate(demande("c@mail.com", "Password123&"));
+
+        assertEquals(2, cache.taille());
+    }
+
+    private static Authentication demande(String mail, String motDePasse) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(mail, motDePasse);
+    }
+
+    private static Authentication authentifie(String mail) {
+        return UsernamePasswordAuthenticationToken.authenticated(mail, null, AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+    }
+
+    private static final class HorlogeReglable extends Clock {
+        private Instant instant = Instant.parse("2025-03-01T10:00:00Z");
+
+        void avancer(Duration duree) {
+            instant = instant.plus(duree);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
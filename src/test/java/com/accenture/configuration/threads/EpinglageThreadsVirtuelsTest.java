@@ -0,0 +1,60 @@
+package com.accenture.configuration.threads;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EpinglageThreadsVirtuelsTest {
+
+    SimpleMeterRegistry registre = new SimpleMeterRegistry();
+    EpinglageThreadsVirtuels epinglage = new EpinglageThreadsVirtuels(registre, Duration.ofMillis(10));
+
+    @AfterEach
+    void arreter() {
+        epinglage.stop();
+    }
+
+    @DisplayName("Thread virtuel endormi dans un bloc synchronized : l'épinglage est compté")
+    @Test
+    void testEpinglageCompte() throws InterruptedException {
+        epinglage.start();
+        assertTrue(epinglage.isRunning());
+
+        // les événements JFR sont livrés au flux par paquets, environ une fois par seconde
+        long limite = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (compteur() == 0 && System.nanoTime() < limite)
+            Thread.ofVirtual().start(EpinglageThreadsVirtuelsTest::dormirDansUnMoniteur).join();
+
+        assertTrue(compteur() >= 1);
+    }
+
+    @DisplayName("Arrêt : le flux JFR est fermé")
+    @Test
+    void testArret() {
+        epinglage.start();
+
+        epinglage.stop();
+
+        assertFalse(epinglage.isRunning());
+    }
+
+    private double compteur() {
+        return registre.counter(EpinglageThreadsVirtuels.COMPTEUR).count();
+    }
+
+    private static void dormirDansUnMoniteur() {
+        Object moniteur = new Object();
+        synchronized (moniteur) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.accenture.repository;
+
+import com.accenture.configuration.security.CacheAuthentification;
+import com.accenture.service.AdministrateurServiceImpl;
+import com.accenture.service.dto.AdministrateurResponseDto;
+import com.accenture.service.mapper.AdministrateurMapperImpl;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recherche et suppression d'administrateurs sur PostgreSQL (même contexte que {@link MigrationsSchemaTest}).
+ * Les suppressions concurrentes doivent être réellement validées : les tests ne s'exécutent pas dans une transaction,
+ * chaque appel au service a la sienne, comme derrière son proxy transactionnel.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MigrationsSchemaTest.Configuration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AdministrateursConcurrentsTest {
+
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    AdministrateurDao administrateurDao;
+    @Autowired
+    CacheAuthentification cacheAuthentification;
+    @Autowired
+    PlatformTransactionManager transactions;
+
+    AdministrateurServiceImpl service;
+    TransactionTemplate transaction;
+
+    @BeforeEach
+    void preparer() {
+        service = new AdministrateurServiceImpl(administrateurDao, new AdministrateurMapperImpl(), null, cacheAuthentification, null);
+        transaction = new TransactionTemplate(transactions);
+    }
+
+    @AfterEach
+    void vider() {
+        jdbc.update("delete from administrateur");
+        jdbc.update("delete from utilisateurs where role = 'ROLE_ADMIN'");
+    }
+
+    @DisplayName("Suppressions simultanées de tous les administrateurs : une seule est refusée, il en reste un")
+    @Test
+    void testSuppressionsConcurrentes() throws Exception {
+        for (int essai = 0; essai < 20; essai++) {
+            int nombre = essai % 2 == 0 ? 2 : 8;
+            List<String> mails = IntStream.range(0, nombre).mapToObj(i -> "admin" + i + "@mail.fr").toList();
+            mails.forEach(mail -> ajouterAdministrateur(mail, "Martin", "Gestionnaire"));
+
+            List<Throwable> erreurs = supprimerEnMemeTemps(mails);
+
+            assertEquals(1, administrateurDao.count(), "essai " + essai);
+            assertEquals(1, erreurs.size(), "essai " + essai + " : " + erreurs);
+            assertInstanceOf(IllegalStateException.class, erreurs.getFirst());
+            vider();
+        }
+    }
+
+    @DisplayName("Suppression : administrateur inconnu, puis dernier administrateur refusé")
+    @Test
+    void testSuppressionRefusee() {
+        ajouterAdministrateur("admin@mail.fr", "Martin", "Gestionnaire");
+
+        assertThrows(EntityNotFoundException.class, () -> supprimer("inconnu@mail.fr"));
+        assertThrows(IllegalStateException.class, () -> supprimer("admin@mail.fr"));
+        assertEquals(List.of("admin@mail.fr"), jdbc.queryForList("select mail from utilisateurs where role = 'ROLE_ADMIN'", String.class));
+    }
+
+    @DisplayName("Recherche : critères combinés en une requête, résultats triés par adresse mail")
+    @Test
+    void testRechercher() {
+        ajouterAdministrateur("martin@mail.fr", "Martin", "Gestionnaire de flotte");
+        ajouterAdministrateur("marty@mail.fr", "Marty", "Comptable");
+        ajouterAdministrateur("amar@mail.fr", "Amar", "Gestionnaire");
+        ajouterAdministrateur("dupont@mail.fr", "Dupont", "Gestionnaire");
+
+        List<AdministrateurResponseDto> resultats = transaction.execute(statut -> service.rechercher(null, null, "ar", "Gestion"));
+
+        assertEquals(List.of("amar@mail.fr", "martin@mail.fr"), resultats.stream().map(AdministrateurResponseDto::mail).toList());
+        assertEquals(List.of(), transaction.execute(statut -> service.rechercher("%", null, null, null)));
+    }
+
+    private List<Throwable> supprimerEnMemeTemps(List<String> mails) throws Exception {
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<?>> suppressions = new ArrayList<>();
+        try (ExecutorService executeur = Executors.newFixedThreadPool(mails.size())) {
+            for (String mail : mails)
+                suppressions.add(executeur.submit(() -> {
+                    depart.await();
+                    supprimer(mail);
+                    return null;
+                }));
+            depart.countDown();
+        }
+        List<Throwable> erreurs = new ArrayList<>();
+        for (Future<?> suppression : suppressions)
+            if (suppression.state() == Future.State.FAILED)
+                erreurs.add(suppression.exceptionNow());
+        return erreurs;
+    }
+
+    private void supprimer(String mail) {
+        transaction.executeWithoutResult(statut -> service.supprimer(mail));
+    }
+
+    private void ajouterAdministrateur(String mail, String nom, String fonction) {
+        jdbc.update("insert into utilisateurs (mail, role, password, nom, prenom) values (?, 'ROLE_ADMIN', 'x', ?, 'Jean')", mail, nom);
+        jdbc.update("insert into administrateur (mail, fonction) values (?, ?)", mail, fonction);
+    }
+}
@@ -0,0 +1,194 @@
+package com.accenture.repository;
+
+import com.accenture.configuration.security.CacheAuthentification;
+import com.accenture.model.param.TypeVehiculeEnum;
+import com.accenture.repository.entity.Moto;
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.repository.entity.VehiculeCatalogue;
+import com.accenture.repository.entity.Voiture;
+import com.accenture.service.dto.TarifVehiculeDto;
+import com.accenture.service.dto.VehiculeDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationProvider;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Catalogue des véhicules, sur une vraie base : chaque écriture d'un véhicule est reportée dans vehicule_catalogue
+ * par la même transaction.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import(CatalogueVehiculesTest.Configuration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogueVehiculesTest {
+
+    @TestConfiguration
+    static class Configuration {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        }
+
+        @Bean
+        CacheAuthentification cacheAuthentification() {
+            return new CacheAuthentification(new TestingAuthenticationProvider(), Duration.ofMinutes(1), 10);
+        }
+    }
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    VoitureDao voitureDao;
+    @Autowired
+    MotoDao motoDao;
+    @Autowired
+    VehiculeCatalogueDao catalogueDao;
+
+    @AfterEach
+    void nettoyer() {
+        voitureDao.deleteAll();
+        motoDao.deleteAll();
+    }
+
+    @DisplayName("Ajout, modification puis suppression d'un véhicule : le catalogue suit chaque écriture")
+    @Test
+    void testSynchronisation() {
+        Voiture voiture = voitureDao.save(creer(new Voiture(), "Rouge", true));
+        assertEquals(new VehiculeCatalogue(voiture.getId(), TypeVehiculeEnum.VOITURE, "Renault", "Clio", "Rouge",
+                "Citadine", 45, 12000, true, false), catalogueDao.findById(voiture.getId()).orElseThrow());
+
+        voiture.setCouleur("Bleu");
+        voiture.setActif(false);
+        voitureDao.save(voiture);
+        VehiculeCatalogue ligne = catalogueDao.findById(voiture.getId()).orElseThrow();
+        assertEquals("Bleu", ligne.getCouleur());
+        assertFalse(ligne.getActif());
+
+        voitureDao.deleteById(voiture.getId());
+        assertTrue(catalogueDao.findById(voiture.getId()).isEmpty());
+    }
+
+    @DisplayName("Modification d'un véhicule absent du catalogue : sa ligne est insérée")
+    @Test
+    void testModificationSansLigne() {
+        Voiture voiture = voitureDao.save(creer(new Voiture(), "Rouge", true));
+        jdbc.update("delete from vehicule_catalogue where id = ?", voiture.getId());
+
+        voiture.setCouleur("Bleu");
+        voitureDao.save(voiture);
+
+        assertEquals(new VehiculeCatalogue(voiture.getId(), TypeVehiculeEnum.VOITURE, "Renault", "Clio", "Bleu",
+                "Citadine", 45, 12000, true, false), catalogueDao.findById(voiture.getId()).orElseThrow());
+    }
+
+    @DisplayName("Ajout puis modification dans la même transaction : une seule insertion, avec le dernier état")
+    @Test
+    void testEcrituresRegroupees() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long id = transaction.execute(statut -> {
+            Voiture voiture = voitureDao.saveAndFlush(creer(new Voiture(), "Rouge", true));
+            voiture.setCouleur("Vert");
+            voitureDao.flush();
+            return voiture.getId();
+        });
+
+        assertEquals("Vert", catalogueDao.findById(id).orElseThrow().getCouleur());
+    }
+
+    @DisplayName("Transaction annulée : aucune ligne dans le catalogue")
+    @Test
+    void testAnnulation() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long id = transaction.execute(statut -> {
+            statut.setRollbackOnly();
+            return voitureDao.saveAndFlush(creer(new Voiture(), "Rouge", true)).getId();
+        });
+
+        assertFalse(voitureDao.existsById(id));
+        assertTrue(catalogueDao.findById(id).isEmpty());
+        assertEquals(0, catalogueDao.count());
+    }
+
+    @DisplayName("Recherche par statut : tous les types en une seule requête, triés par identifiant")
+    @Test
+    void testRechercherParStatut() {
+        Voiture voiture = voitureDao.save(creer(new Voiture(), "Rouge", true));
+        Moto moto = motoDao.save(creer(new Moto(), "Noir", true));
+        motoDao.save(creer(new Moto(), "Blanc", false));
+        Statistics statistiques = emf.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+
+        List<VehiculeDto> vehicules = catalogueDao.rechercherParStatut(true, false);
+
+        assertEquals(List.of(voiture.getId(), moto.getId()), vehicules.stream().map(VehiculeDto::id).toList());
+        assertEquals(List.of(TypeVehiculeEnum.VOITURE, TypeVehiculeEnum.MOTO),
+                vehicules.stream().map(VehiculeDto::typeVehiculeEnum).toList());
+        assertEquals(1, statistiques.getPrepareStatementCount());
+    }
+
+    @DisplayName("Tarifs louables : une requête pour le lot, les véhicules inactifs ou inconnus sont absents, le tarif est celui de la base")
+    @Test
+    void testTrouverTarifsLouables() {
+        Voiture voiture = voitureDao.save(creer(new Voiture(), "Rouge", true));
+        Moto inactive = motoDao.save(creer(new Moto(), "Noir", false));
+        voiture.setTarifJournalier(52);
+        voitureDao.save(voiture);
+        Statistics statistiques = emf.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+
+        List<TarifVehiculeDto> tarifs = catalogueDao.trouverTarifsLouables(List.of(voiture.getId(), inactive.getId(), -1L));
+
+        assertEquals(List.of(new TarifVehiculeDto(voiture.getId(), TypeVehiculeEnum.VOITURE, 52)), tarifs);
+        assertEquals(1, statistiques.getPrepareStatementCount());
+    }
+
+    @DisplayName("Index du catalogue créés avec la table")
+    @Test
+    void testIndex() {
+        List<String> index = jdbc.queryForList("select index_name from information_schema.indexes "
+                + "where lower(table_name) = 'vehicule_catalogue'", String.class).stream().map(String::toLowerCase).toList();
+
+        assertTrue(index.containsAll(List.of("idx_catalogue_statut", "idx_catalogue_marque_modele", "idx_catalogue_tarif")), index.toString());
+    }
+
+    private static <T extends Vehicule> T creer(T vehicule, String couleur, boolean actif) {
+        vehicule.setMarque("Renault");
+        vehicule.setModele("Clio");
+        vehicule.setCouleur(couleur);
+        vehicule.setType("Citadine");
+        vehicule.setTarifJournalier(45);
+        vehicule.setKilometrage(12000);
+        vehicule.setActif(actif);
+        vehicule.setRetireDuParc(false);
+        return vehicule;
+    }
+}
@@ -0,0 +1,102 @@
+package com.accenture.repository;
+
+import com.accenture.configuration.security.CacheAuthentification;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.authentication.TestingAuthenticationProvider;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mise à jour d'une base créée par ddl-auto=update avant les migrations (db/schema_avant_migrations.sql) :
+ * marquée en version 1 par la configuration de l'application, elle reçoit les migrations suivantes, puis le schéma
+ * est vérifié par Hibernate ({@code ddl-auto=validate}).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MigrationsDepuisBaseExistanteTest.Configuration.class)
+class MigrationsDepuisBaseExistanteTest {
+
+    @TestConfiguration
+    static class Configuration {
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres postgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres postgres) {
+            DataSource dataSource = postgres.getPostgresDatabase();
+            new ResourceDatabasePopulator(new ClassPathResource("db/schema_avant_migrations.sql")).execute(dataSource);
+            return dataSource;
+        }
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        }
+
+        @Bean
+        CacheAuthentification cacheAuthentification() {
+            return new CacheAuthentification(new TestingAuthenticationProvider(), Duration.ofMinutes(1), 10);
+        }
+    }
+
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    VoitureDao voitureDao;
+    @Autowired
+    VehiculeCatalogueDao catalogueDao;
+
+    @DisplayName("Base existante : marquée en version 1, les migrations suivantes sont jouées et le schéma correspond aux entités")
+    @Test
+    void testMigrationsJouees() {
+        List<Map<String, Object>> historique = jdbc.queryForList(
+                "select version, type from flyway_schema_history where success order by installed_rank");
+
+        assertEquals(List.of("1", "1.1", "2", "3", "4"), historique.stream().map(ligne -> ligne.get("version")).toList());
+        assertEquals("BASELINE", historique.get(0).get("type"));
+    }
+
+    @DisplayName("Base existante : les lignes en place reçoivent la version 0 et le véhicule entre au catalogue")
+    @Test
+    void testDonneesConservees() {
+        assertEquals(0L, voitureDao.findById(1L).orElseThrow().getVersion());
+        assertEquals(0L, jdbc.queryForObject("select version from utilisateurs where mail = 'dupont@mail.fr'", Long.class));
+        assertEquals(45L, catalogueDao.findById(1L).orElseThrow().getTarifJournalier());
+    }
+
+    @DisplayName("Base existante : les index déclarés par les entités sont créés")
+    @Test
+    void testIndex() {
+        List<String> index = jdbc.queryForList("select indexname from pg_indexes where schemaname = 'public'", String.class);
+
+        assertTrue(index.containsAll(List.of(
+                "idx_voiture_actif_retire_tarif", "idx_moto_actif_retire_tarif", "idx_velo_actif_retire_tarif",
+                "idx_utilitaire_actif_retire_tarif", "idx_location_vehicule_dates", "idx_catalogue_statut",
+                "idx_catalogue_marque_modele", "idx_catalogue_tarif")), index::toString);
+    }
+}
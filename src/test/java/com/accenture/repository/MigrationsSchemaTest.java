@@ -0,0 +1,181 @@
+package com.accenture.repository;
+
+import com.accenture.configuration.security.CacheAuthentification;
+import com.accenture.repository.entity.Voiture;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationProvider;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrations Flyway jouées sur un vrai PostgreSQL (binaires embarqués), puis schéma vérifié par Hibernate
+ * ({@code ddl-auto=validate}) : le contexte ne démarre que si les migrations décrivent bien les entités.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MigrationsSchemaTest.Configuration.class)
+class MigrationsSchemaTest {
+
+    @TestConfiguration
+    static class Configuration {
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres postgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres postgres) {
+            return postgres.getPostgresDatabase();
+        }
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        }
+
+        @Bean
+        CacheAuthentification cacheAuthentification() {
+            return new CacheAuthentification(new TestingAuthenticationProvider(), Duration.ofMinutes(1), 10);
+        }
+    }
+
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    ClientDao clientDao;
+    @Autowired
+    VoitureDao voitureDao;
+
+    @DisplayName("Base vide : toutes les migrations sont jouées et le schéma correspond aux entités")
+    @Test
+    void testMigrationsJouees() {
+        List<String> versions = jdbc.queryForList(
+                "select version from flyway_schema_history where success order by installed_rank", String.class);
+
+        assertEquals(List.of("1", "1.1", "2", "3", "4"), versions);
+    }
+
+    @DisplayName("Index des clés étrangères, partiels et trigrammes présents")
+    @Test
+    void testIndex() {
+        List<String> index = jdbc.queryForList("select indexname from pg_indexes where schemaname = 'public'", String.class);
+
+        assertTrue(index.containsAll(List.of(
+                "idx_location_client", "idx_location_vehicule_dates", "idx_location_accessoires_location",
+                "idx_client_liste_permis_client_permis", "idx_vehicule_liste_accessoires_vehicule", "idx_utilisateurs_role",
+                "idx_voiture_disponibles", "idx_moto_disponibles", "idx_velo_disponibles", "idx_utilitaire_disponibles",
+                "idx_utilisateurs_nom_trgm", "idx_utilisateurs_prenom_trgm", "idx_utilisateurs_mail_trgm",
+                "idx_administrateur_fonction_trgm", "idx_adresse_rue_trgm", "idx_adresse_ville_trgm",
+                "idx_adresse_code_postal_prefixe", "idx_client_date_naissance", "idx_client_date_inscription",
+                "idx_client_desactives")), index::toString);
+        assertEquals("(id) WHERE ((actif = true) AND (retire_du_parc = false))", jdbc.queryForObject(
+                "select substring(indexdef from '\\(id\\).*') from pg_indexes where indexname = 'idx_voiture_disponibles'",
+                String.class));
+    }
+
+    @DisplayName("Recherche par partie du nom : servie par ClientDao, le plan passe par l'index trigramme")
+    @Test
+    void testRechercheContainingParIndexTrigramme() {
+        ajouterClient("dupont@mail.fr", "Dupont");
+        ajouterClient("martin@mail.fr", "Martin");
+
+        List<String> clients = clientDao.trouverMails(ClientSpecifications.nomContient("upon"), Limit.of(10));
+        String plan = expliquer("explain select mail from utilisateurs where nom like '%upon%'");
+
+        assertEquals(List.of("dupont@mail.fr"), clients);
+        assertTrue(plan.contains("idx_utilisateurs_nom_trgm"), plan);
+    }
+
+    @DisplayName("Recherche de voitures par statut et plage de tarif, triée par tarif : le plan passe par l'index composite")
+    @Test
+    void testRechercheParStatutEtTarifParIndexComposite() {
+        ajouterVoiture(45, true);
+        ajouterVoiture(60, true);
+        ajouterVoiture(90, true);
+        ajouterVoiture(50, false);
+
+        List<Long> tarifs = voitureDao.findAll(Specification.allOf(
+                        VehiculeSpecifications.egal("actif", true),
+                        VehiculeSpecifications.egal("retireDuParc", false),
+                        VehiculeSpecifications.nombreEntre("tarifJournalier", false, 40L, 70L)),
+                Sort.by(Sort.Direction.DESC, "tarifJournalier").and(Sort.by("id"))).stream().map(Voiture::getTarifJournalier).toList();
+        String plan = expliquer("explain select * from voiture where actif = true and retire_du_parc = false "
+                + "and tarif_journalier between 40 and 70 order by tarif_journalier desc, id");
+
+        assertEquals(List.of(60L, 45L), tarifs);
+        assertTrue(plan.contains("idx_voiture_actif_retire_tarif"), plan);
+    }
+
+    @DisplayName("Contrainte d'exclusion : deux locations non annulées d'un véhicule ne se chevauchent pas")
+    @Test
+    void testLocationsSansChevauchement() {
+        ajouterClient("dupont@mail.fr", "Dupont");
+        String location = "insert into location (client_id, vehicule_id, date_debut, date_fin, kilometres_parcourus, montant_total, etat) "
+                + "values ('dupont@mail.fr', 1, ?, ?, 0, 100, ?)";
+        jdbc.update(location, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 10), "RESERVE");
+        jdbc.update(location, LocalDate.of(2025, 6, 5), LocalDate.of(2025, 6, 6), "ANNULE");
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbc.update(location, LocalDate.of(2025, 6, 10), LocalDate.of(2025, 6, 12), "RESERVE"));
+    }
+
+    /**
+     * Plan de la requête, les parcours séquentiels étant écartés : sur une table presque vide ils seraient toujours choisis.
+     */
+    private String expliquer(String explain) {
+        return jdbc.execute((ConnectionCallback<String>) connexion -> {
+            try (Statement requete = connexion.createStatement()) {
+                requete.execute("set local enable_seqscan = off");
+                StringBuilder lignes = new StringBuilder();
+                try (ResultSet resultat = requete.executeQuery(explain)) {
+                    while (resultat.next())
+                        lignes.append(resultat.getString(1)).append('\n');
+                }
+                return lignes.toString();
+            }
+        });
+    }
+
+    private void ajouterVoiture(long tarifJournalier, boolean actif) {
+        Voiture voiture = new Voiture();
+        voiture.setMarque("Renault");
+        voiture.setModele("Clio");
+        voiture.setTarifJournalier(tarifJournalier);
+        voiture.setActif(actif);
+        voiture.setRetireDuParc(false);
+        voitureDao.saveAndFlush(voiture);
+    }
+
+    private void ajouterClient(String mail, String nom) {
+        jdbc.update("insert into utilisateurs (mail, role, password, nom, prenom) values (?, 'ROLE_CLIENT', 'x', ?, 'Jean')", mail, nom);
+        jdbc.update("insert into client (mail, desactive) values (?, false)", mail);
+    }
+}
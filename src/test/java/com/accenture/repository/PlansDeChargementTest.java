@@ -0,0 +1,242 @@
+package com.accenture.repository;
+
+import com.accenture.configuration.security.CacheAuthentification;
+import com.accenture.model.param.Accessoires;
+import com.accenture.model.param.Etat;
+import com.accenture.model.param.Permis;
+import com.accenture.repository.entity.*;
+import com.accenture.service.*;
+import com.accenture.service.dto.ClientResponseDto;
+import com.accenture.service.dto.ResultatVehiculesDto;
+import com.accenture.service.dto.VoitureResponseDto;
+import com.accenture.service.mapper.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.security.authentication.TestingAuthenticationProvider;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie, pour chaque endpoint de lecture, le nombre de requêtes SQL et d'entités chargées
+ * une fois la réponse sérialisée en JSON (comme le fait le contrôleur, session ouverte).
+ * Le nombre de requêtes ne doit pas dépendre du nombre de lignes.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import({PlansDeChargementTest.Configuration.class, ClientServiceImpl.class, LocationServiceImpl.class, TarificationServiceImpl.class, VehiculeServiceImpl.class, RepartitionVehicules.class,
+        VoitureServiceImpl.class, ImportParLots.class, RechercheVehicules.class, ReessaiConcurrence.class, DisponibiliteVehicules.class, RoutageVehicule.class, ClientMapperImpl.class,
+        AdresseMapperImpl.class, LocationMapperImpl.class, VoitureMapperImpl.class, MotoMapperImpl.class, VeloMapperImpl.class, UtilitaireMapperImpl.class})
+class PlansDeChargementTest {
+
+    private static final int NOMBRE = 5;
+
+    @TestConfiguration
+    static class Configuration {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        }
+
+        @Bean
+        CacheAuthentification cacheAuthentification() {
+            return new CacheAuthentification(new TestingAuthenticationProvider(), Duration.ofMinutes(1), 10);
+        }
+    }
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    ClientService clientService;
+    @Autowired
+    LocationService locationService;
+    @Autowired
+    VehiculeService vehiculeService;
+    @Autowired
+    VoitureService voitureService;
+
+    ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    Statistics statistiques;
+
+    @BeforeEach
+    void initialiser() {
+        for (int i = 0; i < NOMBRE; i++) {
+            Client client = creerClient(i);
+            Voiture voiture = creerVoiture(i);
+            Moto moto = creerMoto(i);
+            em.persist(client);
+            em.persist(voiture);
+            em.persist(moto);
+            em.persist(creerLocation(client, voiture, i));
+            em.persist(creerLocation(client, moto, i));
+        }
+        em.flush();
+        em.clear();
+        statistiques = emf.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+    }
+
+/*
+ *************************************
+ *          Vue liste / détail       *
+ *************************************
+ */
+    @DisplayName("GET /clients : une requête de projection, aucune entité chargée")
+    @Test
+    void testTrouverTousClients() throws Exception {
+        List<ClientResponseDto> clients = clientService.trouverTous();
+        objectMapper.writeValueAsString(clients);
+
+        assertEquals(1, statistiques.getPrepareStatementCount());
+        assertEquals(0, statistiques.getEntityLoadCount());
+        assertEquals(NOMBRE, clients.size());
+        assertEquals(Set.of(Permis.B, Permis.A), Set.copyOf(clients.getFirst().listePermis()));
+        assertEquals("Nantes", clients.getFirst().adresse().getVille());
+    }
+
+    @DisplayName("GET /clients/{mail} : une requête pour le client, son adresse et ses permis")
+    @Test
+    void testTrouverClient() throws Exception {
+        objectMapper.writeValueAsString(clientService.trouver("client0@mail.com"));
+
+        assertEquals(1, statistiques.getPrepareStatementCount());
+        assertEquals(2, statistiques.getEntityLoadCount());
+    }
+
+    @DisplayName("GET /voitures : une requête de projection, aucune entité chargée")
+    @Test
+    void testTrouverToutesVoitures() throws Exception {
+        List<VoitureResponseDto> voitures = voitureService.trouverToutes();
+        objectMapper.writeValueAsString(voitures);
+
+        assertEquals(1, statistiques.getPrepareStatementCount());
+        assertEquals(0, statistiques.getEntityLoadCount());
+        assertEquals(List.of("Clio 0", "Clio 1", "Clio 2", "Clio 3", "Clio 4"),
+                voitures.stream().map(VoitureResponseDto::modele).toList());
+    }
+
+    @DisplayName("GET /vehicules/tous : une requête par table, lues en parallèle par RepartitionVehicules, sans accessoires ni locations")
+    @Test
+    @DirtiesContext
+    void testTrouverToutVehicules() throws Exception {
+        // les quatre tables sont lues sur d'autres threads, chacune dans sa transaction : les véhicules doivent être validés
+        // (le contexte, donc la base, est recréé après ce test)
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        statistiques.clear();
+
+        ResultatVehiculesDto resultat = vehiculeService.trouverToutVehicules();
+        objectMapper.writeValueAsString(resultat.vehicules());
+
+        assertTrue(resultat.complet());
+        assertEquals(2 * NOMBRE, resultat.vehicules().size());
+        assertEquals(4, statistiques.getPrepareStatementCount());
+        assertEquals(2 * NOMBRE, statistiques.getEntityLoadCount());
+        assertEquals(0, statistiques.getCollectionFetchCount());
+    }
+
+/*
+ *************************************
+ *          Vue facturation          *
+ *************************************
+ */
+    @DisplayName("GET /locations : une requête pour les locations, puis un lot pour les permis et un pour les accessoires")
+    @Test
+    void testTrouverToutesLocations() throws Exception {
+        objectMapper.writeValueAsString(locationService.trouverToutes());
+
+        assertEquals(3, statistiques.getPrepareStatementCount());
+        // locations + clients + adresses + voitures + motos, aucune autre location n'est chargée
+        assertEquals(2 * NOMBRE + NOMBRE + NOMBRE + 2 * NOMBRE, statistiques.getEntityLoadCount());
+    }
+
+/*
+ *************************************
+ *          Index                    *
+ *************************************
+ */
+    @DisplayName("Tables de véhicules : index composite (actif, retire_du_parc, tarif_journalier) sur chacune")
+    @Test
+    void testIndexCompositesVehicules() {
+        for (String table : List.of("VOITURE", "MOTO", "VELO", "UTILITAIRE")) {
+            List<?> colonnes = em.createNativeQuery("select column_name from information_schema.index_columns "
+                            + "where table_name = ?1 and index_name = ?2 order by ordinal_position")
+                    .setParameter(1, table)
+                    .setParameter(2, "IDX_" + table + "_ACTIF_RETIRE_TARIF")
+                    .getResultList();
+            assertEquals(List.of("ACTIF", "RETIRE_DU_PARC", "TARIF_JOURNALIER"), colonnes, table);
+        }
+    }
+
+    private static Client creerClient(int i) {
+        Client client = new Client();
+        client.setMail("client" + i + "@mail.com");
+        client.setPassword("{noop}Password123&");
+        client.setNom("Nom" + i);
+        client.setPrenom("Prenom" + i);
+        client.setAdresse(new Adresse(0, "rue " + i, "4400" + i, "Nantes"));
+        client.setDateNaissance(LocalDate.of(1990, 1, 1));
+        client.setListePermis(new ArrayList<>(List.of(Permis.B, Permis.A)));
+        client.setDesactive(false);
+        return client;
+    }
+
+    private static Voiture creerVoiture(int i) {
+        Voiture voiture = new Voiture();
+        voiture.setMarque("Renault");
+        voiture.setModele("Clio " + i);
+        voiture.setActif(true);
+        voiture.setRetireDuParc(false);
+        voiture.setListeAccessoires(new ArrayList<>());
+        return voiture;
+    }
+
+    private static Moto creerMoto(int i) {
+        Moto moto = new Moto();
+        moto.setMarque("Yamaha");
+        moto.setModele("MT-0" + i);
+        moto.setActif(true);
+        moto.setRetireDuParc(false);
+        moto.setListeAccessoires(new ArrayList<>());
+        return moto;
+    }
+
+    private static Location creerLocation(Client client, Vehicule vehicule, int i) {
+        Location location = new Location();
+        location.setClient(client);
+        location.setVehicule(vehicule);
+        location.setDateDebut(LocalDate.of(2025, 3, 1).plusDays(10L * i));
+        location.setDateFin(LocalDate.of(2025, 3, 5).plusDays(10L * i));
+        location.setMontantTotal(100);
+        location.setEtat(Etat.RESERVE);
+        location.setAccessoires(new ArrayList<>(List.of(Accessoires.GPS_VOITURE)));
+        return location;
+    }
+}
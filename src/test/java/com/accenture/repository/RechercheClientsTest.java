@@ -0,0 +1,111 @@
+package com.accenture.repository;
+
+import com.accenture.model.param.Permis;
+import com.accenture.repository.entity.Client;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.accenture.repository.ClientSpecifications.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recherche de clients par {@link ClientSpecifications} sur PostgreSQL, avec le schéma et les index des migrations
+ * (même contexte que {@link MigrationsSchemaTest}).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MigrationsSchemaTest.Configuration.class)
+class RechercheClientsTest {
+
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    ClientDao clientDao;
+
+    @BeforeEach
+    void ajouterClients() {
+        ajouterClient("dupont@mail.fr", "Dupont", "12 rue de la Paix", "75002", "Paris", false, Permis.B, Permis.A);
+        ajouterClient("durand@mail.fr", "Durand", "3 avenue Foch", "69006", "Lyon", false, Permis.B);
+        ajouterClient("dubois@mail.fr", "Dubois", "8 rue du 100%_Bio", "75011", "Paris", true);
+        ajouterClient("martin@mail.fr", "Martin", "1 place Bellecour", "69002", "Lyon", false, Permis.A);
+    }
+
+    @DisplayName("Critères combinés : partie du nom, début du code postal, statut et permis tous détenus")
+    @Test
+    void testCriteresCombines() {
+        assertEquals(List.of("dupont@mail.fr"), trouver(Specification.allOf(
+                nomContient("u"), codePostalCommencePar("75"), desactive(false), detientPermis(List.of(Permis.A, Permis.B)))));
+        assertEquals(List.of("durand@mail.fr", "martin@mail.fr"), trouver(Specification.allOf(
+                villeContient("yon"), neLe(LocalDate.of(1990, 1, 1)))));
+        assertEquals(List.of("dubois@mail.fr", "dupont@mail.fr", "durand@mail.fr", "martin@mail.fr"),
+                trouver(Specification.allOf(nomContient(null), detientPermis(List.of()))));
+    }
+
+    @DisplayName("Pagination par curseur : chaque page commence après le dernier mail de la précédente")
+    @Test
+    void testPagesParCurseur() {
+        assertEquals(List.of("dubois@mail.fr", "dupont@mail.fr"),
+                clientDao.trouverMails(nomContient("D"), Limit.of(2)));
+        assertEquals(List.of("durand@mail.fr"),
+                clientDao.trouverMails(Specification.allOf(nomContient("D"), mailApres("dupont@mail.fr")), Limit.of(2)));
+    }
+
+    @DisplayName("Les caractères % et _ du texte cherché ne sont pas des jokers")
+    @Test
+    void testMotifEchappe() {
+        assertEquals(List.of("dubois@mail.fr"), trouver(rueContient("100%_")));
+        assertEquals(List.of(), trouver(rueContient("_de")));
+        assertEquals(List.of(), trouver(codePostalCommencePar("%")));
+    }
+
+    @DisplayName("Code postal par son début : le plan passe par l'index de préfixe")
+    @Test
+    void testCodePostalParIndexPrefixe() {
+        String plan = jdbc.execute((ConnectionCallback<String>) connexion -> {
+            try (Statement requete = connexion.createStatement()) {
+                requete.execute("set local enable_seqscan = off");
+                StringBuilder lignes = new StringBuilder();
+                try (ResultSet resultat = requete.executeQuery("explain select id from adresse where code_postal like '75%'")) {
+                    while (resultat.next())
+                        lignes.append(resultat.getString(1)).append('\n');
+                }
+                return lignes.toString();
+            }
+        });
+
+        assertTrue(plan.contains("idx_adresse_code_postal_prefixe"), plan);
+    }
+
+    private List<String> trouver(Specification<Client> criteres) {
+        return clientDao.trouverMails(criteres, Limit.of(10));
+    }
+
+    private void ajouterClient(String mail, String nom, String rue, String codePostal, String ville, boolean desactive,
+                               Permis... listePermis) {
+        Integer adresse = jdbc.queryForObject("insert into adresse (rue, code_postal, ville) values (?, ?, ?) returning id",
+                Integer.class, rue, codePostal, ville);
+        jdbc.update("insert into utilisateurs (mail, role, password, nom, prenom) values (?, 'ROLE_CLIENT', 'x', ?, 'Jean')", mail, nom);
+        jdbc.update("insert into client (mail, adresse_id, date_naissance, date_inscription, desactive) values (?, ?, ?, ?, ?)",
+                mail, adresse, LocalDate.of(1990, 1, 1), LocalDate.of(2024, 1, 1), desactive);
+        for (Permis permis : listePermis)
+            jdbc.update("insert into client_liste_permis (client_mail, liste_permis) values (?, ?)", mail, permis.ordinal());
+    }
+}
@@ -0,0 +1,142 @@
+package com.accenture.repository;
+
+import com.accenture.configuration.requetes.RequeteLente;
+import com.accenture.configuration.requetes.RequetesLentes;
+import com.accenture.configuration.requetes.RequetesLentesConfiguration;
+import com.accenture.repository.entity.Moto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Journal des requêtes lentes branché sur la source de données PostgreSQL (schéma des migrations, comme
+ * {@link MigrationsSchemaTest}) : seuil nul et EXPLAIN systématique, toutes les requêtes sont retenues.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true",
+        "requetes-lentes.seuil=PT0S",
+        "requetes-lentes.taux-explain=1",
+        "requetes-lentes.delai-explain=PT30S"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MigrationsSchemaTest.Configuration.class, RequetesLentesConfiguration.class})
+class RequetesLentesTest {
+
+    @Autowired
+    RequetesLentes requetesLentes;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    ClientDao clientDao;
+    @Autowired
+    MotoDao motoDao;
+    @Autowired
+    AdministrateurDao administrateurDao;
+
+    @BeforeEach
+    void vider() {
+        requetesLentes.vider();
+    }
+
+    @DisplayName("Requêtes des DAO : retenues avec leur DAO d'origine et la forme de leurs paramètres, sans leurs valeurs")
+    @Test
+    void testOrigineEtParametres() {
+        clientDao.trouverMails(ClientSpecifications.nomContient("Dupont"), Limit.of(10));
+        motoDao.findAll();
+
+        RequeteLente clients = trouver("utilisateurs").orElseThrow();
+        RequeteLente motos = trouver("from moto").orElseThrow();
+        assertEquals(List.of("ClientDao.trouverMails"), List.copyOf(clients.daos()));
+        assertEquals(List.of("MotoDao.findAll"), List.copyOf(motos.daos()));
+        assertEquals(List.of("hors requête HTTP"), List.copyOf(clients.endpoints()));
+        assertTrue(clients.parametres().startsWith("String"), clients.parametres());
+        assertFalse(clients.sql().contains("Dupont") || clients.parametres().contains("Dupont"));
+    }
+
+    @DisplayName("SELECT lent rejoué sous EXPLAIN (ANALYZE, BUFFERS) avec ses paramètres, valeurs masquées dans le plan gardé")
+    @Test
+    void testPlanCapture() throws InterruptedException {
+        clientDao.trouverMails(ClientSpecifications.nomContient("Dupont"), Limit.of(10));
+        jdbc.queryForList("select id from moto where kilometrage > ?", Long.class, 12345L);
+
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (trouver("where kilometrage").map(RequeteLente::plan).isEmpty() && System.nanoTime() < limite)
+            Thread.sleep(20);
+
+        String plan = trouver("utilisateurs").map(RequeteLente::plan).orElseThrow();
+        assertTrue(plan.contains("actual time") && plan.contains("Planning"), plan);
+        assertTrue(plan.contains("'?'") && !plan.contains("Dupont"), plan);
+        String planMotos = trouver("where kilometrage").map(RequeteLente::plan).orElseThrow();
+        assertTrue(planMotos.contains("(kilometrage > '?'::bigint)") && !planMotos.contains("12345"), planMotos);
+    }
+
+    @DisplayName("SELECT lent d'un Statement simple, sans jeu de paramètres : la requête aboutit et son plan est capturé")
+    @Test
+    void testStatementSansParametres() throws InterruptedException {
+        assertEquals(List.of(1), jdbc.queryForList("select 1 as sans_parametres", Integer.class));
+
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (trouver("sans_parametres").map(RequeteLente::plan).isEmpty() && System.nanoTime() < limite)
+            Thread.sleep(20);
+
+        RequeteLente requete = trouver("sans_parametres").orElseThrow();
+        assertEquals("", requete.parametres());
+        assertNotNull(requete.plan());
+    }
+
+    @DisplayName("Écritures jamais rejouées : pas de plan pour un INSERT")
+    @Test
+    void testEcritureNonExpliquee() throws InterruptedException {
+        jdbc.update("insert into adresse (rue, code_postal, ville) values (?, ?, ?)", "1 rue de la Paix", "75002", "Paris");
+        Thread.sleep(200);
+
+        RequeteLente insertion = trouver("insert into adresse").orElseThrow();
+        assertNull(insertion.plan());
+        assertEquals(List.of("aucun"), List.copyOf(insertion.daos()));
+        assertEquals(1, jdbc.queryForObject("select count(*) from adresse", Integer.class));
+    }
+
+    @DisplayName("SELECT qui verrouillent jamais rejoués : générateur d'identifiants (FOR UPDATE) et verrou consultatif")
+    @Test
+    void testVerrousNonExpliques() throws InterruptedException {
+        Moto moto = new Moto();
+        moto.setMarque("Yamaha");
+        moto.setModele("MT-07");
+        moto.setCouleur("Noir");
+        moto.setType("Roadster");
+        moto.setTarifJournalier(60);
+        moto.setKilometrage(8000);
+        moto.setActif(true);
+        moto.setRetireDuParc(false);
+        motoDao.save(moto);
+        administrateurDao.verrouillerSuppressions();
+        // les EXPLAIN passent un à un dans l'ordre : le plan du SELECT suivant n'arrive à temps que si aucun EXPLAIN
+        // n'a attendu le verrou consultatif, tenu par la transaction du test
+        motoDao.findAll();
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (trouver("from moto").map(RequeteLente::plan).isEmpty() && System.nanoTime() < limite)
+            Thread.sleep(20);
+        assertTrue(trouver("from moto").map(RequeteLente::plan).isPresent());
+
+        assertNull(trouver("from hibernate_sequences tbl where tbl.sequence_name=? for update").orElseThrow().plan());
+        assertNull(trouver("pg_advisory_xact_lock").orElseThrow().plan());
+    }
+
+    private Optional<RequeteLente> trouver(String extrait) {
+        return requetesLentes.pires().stream().filter(requete -> requete.sql().contains(extrait)).findFirst();
+    }
+}
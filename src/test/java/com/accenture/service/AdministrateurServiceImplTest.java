@@ -1,18 +1,24 @@
 package com.accenture.service;
 
+import com.accenture.configuration.security.CacheAuthentification;
 import com.accenture.exception.UtilisateurException;
 import com.accenture.repository.AdministrateurDao;
 import com.accenture.repository.entity.Administrateur;
 import com.accenture.service.dto.*;
 import com.accenture.service.mapper.AdministrateurMapper;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Arrays;
@@ -31,6 +37,10 @@ class AdministrateurServiceImplTest {
     AdministrateurMapper mapperMock;
     @Mock
     PasswordEncoder passwordEncoder;
+    @Mock
+    CacheAuthentification cacheAuthentification;
+    @Spy
+    ReessaiConcurrence reessaiConcurrence = new ReessaiConcurrence(mock(EntityManagerFactory.class, RETURNS_DEEP_STUBS), 3);
     @InjectMocks
     AdministrateurServiceImpl service;
 
@@ -153,29 +163,32 @@ class AdministrateurServiceImplTest {
     @Test
     void supprimerAdminOk() {
     String mail = "test@test.com";
-    when(daoMock.existsById(mail)).thenReturn(true);
-    when(daoMock.count()).thenReturn(14L);
+    when(daoMock.supprimerSaufDernier(mail)).thenReturn(1);
     service.supprimer(mail);
-    verify(daoMock).deleteById(mail);
-    verify(daoMock).count();
+    InOrder ordre = inOrder(daoMock);
+    ordre.verify(daoMock).verrouillerSuppressions();
+    ordre.verify(daoMock).supprimerSaufDernier(mail);
+    verify(daoMock, never()).count();
+    verify(cacheAuthentification).invalider(mail);
 }
 
     @DisplayName("Test pour supprimer un admin / Nok_mail non trouvé")
     @Test
     void supprimerAdminNotOkMail() {
         String mail = "test@test.com";
+        when(daoMock.supprimerSaufDernier(mail)).thenReturn(0);
         when(daoMock.existsById(mail)).thenReturn(false);
        assertThrows(EntityNotFoundException.class, ()-> service.supprimer(mail) );
-
+        verifyNoInteractions(cacheAuthentification);
     }
     @DisplayName("Test pour supprimer un admin / Nok_dernier admin")
     @Test
     void supprimerAdminNotOkDernier() {
         String mail = "test@test.com";
+        when(daoMock.supprimerSaufDernier(mail)).thenReturn(0);
         when(daoMock.existsById(mail)).thenReturn(true);
-        when(daoMock.count()).thenReturn(1L);
         assertThrows(IllegalStateException.class, () -> service.supprimer(mail));
-
+        verifyNoInteractions(cacheAuthentification);
     }
 /*
  ******************************************************************
@@ -202,7 +215,7 @@ void testRechercherAdministrateurs() {
     AdministrateurResponseDto adminResponseDto2 = creerAdminResponseDto2();
 
     // Simuler les appels de méthodes
-    when(daoMock.findAll()).thenReturn(administrateurs);
+    when(daoMock.findAll(any(Specification.class), eq(Sort.by("mail")))).thenReturn(administrateurs);
     when(mapperMock.toAdministrateurResponseDto(admin1)).thenReturn(adminResponseDto1);
     when(mapperMock.toAdministrateurResponseDto(admin2)).thenReturn(adminResponseDto2);
 
@@ -216,7 +229,7 @@ void testRechercherAdministrateurs() {
     assertEquals("test2", result.get(1).prenom());
 
     // Vérifier que les méthodes simulées ont été appelées
-    verify(daoMock).findAll();
+    verify(daoMock, never()).findAll();
     verify(mapperMock).toAdministrateurResponseDto(admin1);
     verify(mapperMock).toAdministrateurResponseDto(admin2);
 }
@@ -262,6 +275,7 @@ void testRechercherAdministrateurs() {
         verify(mapperMock).toAdministrateur(adminRequestDto);
         verify(daoMock).save(adminExistant);
         verify(mapperMock).toAdministrateurResponseDto(adminExistant);
+        verify(cacheAuthentification).invalider(mail);
     }
 
     @DisplayName("Test modifier partiellement un administrateur / administrateur non trouvé")
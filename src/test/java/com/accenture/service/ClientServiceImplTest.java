@@ -1,6 +1,8 @@
 package com.accenture.service;
 
+import com.accenture.configuration.security.CacheAuthentification;
 import com.accenture.exception.UtilisateurException;
+import com.accenture.model.FicheClient;
 import com.accenture.model.param.Permis;
 import com.accenture.repository.ClientDao;
 import com.accenture.repository.entity.Adresse;
@@ -8,7 +10,10 @@ import com.accenture.repository.entity.Client;
 import com.accenture.service.dto.AdresseDto;
 import com.accenture.service.dto.ClientRequestDto;
 import com.accenture.service.dto.ClientResponseDto;
+import com.accenture.service.dto.CriteresClientDto;
+import com.accenture.service.dto.PageClientsDto;
 import com.accenture.service.mapper.ClientMapper;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,11 +21,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +43,10 @@ class ClientServiceImplTest {
 ClientMapper mappermock;
 @Mock
     PasswordEncoder passwordEncoder;
+@Mock
+    CacheAuthentification cacheAuthentification;
+@Spy
+    ReessaiConcurrence reessaiConcurrence = new ReessaiConcurrence(mock(EntityManagerFactory.class, RETURNS_DEEP_STUBS), 3);
 @InjectMocks
 ClientServiceImpl service;
 
@@ -78,17 +88,24 @@ void testTrouverExiste(){
 @DisplayName("Test de la méthode trouverTous qui doit renvoyer une liste de clientResponseDto corresponsant aux clients existants en base")
     @Test
 void testTrouverToutes(){
-    Client client1 = creerClient();
-    Client client2 = creerClient2();
-
-    List<Client> clients = List.of(creerClient(), creerClient2());
-    List<ClientResponseDto> dtos = List.of(creerClientResponseDtoClient(), creerClientResponseDtoClient2());
-
-    when(daoMock.findAll()).thenReturn(clients);
-    when(mappermock.toClientResponseDto(client1)).thenReturn(creerClientResponseDtoClient());
-    when(mappermock.toClientResponseDto(client2)).thenReturn(creerClientResponseDtoClient2());
+    LocalDate inscription = LocalDate.of(2024, 1, 1);
+    List<FicheClient> fiches = List.of(
+            new FicheClient("test@test.com", "test", "test", "test", 1, "rue", "12345", "Ville",
+                    LocalDate.of(1999, 4, 1), inscription, false, Permis.B),
+            new FicheClient("test@test.com", "test", "test", "test", 1, "rue", "12345", "Ville",
+                    LocalDate.of(1999, 4, 1), inscription, false, Permis.A),
+            new FicheClient("test2@test.com", "test", "test", "test", null, null, null, null,
+                    LocalDate.of(1999, 4, 30), inscription, false, null));
+    List<ClientResponseDto> dtos = List.of(
+            new ClientResponseDto("test@test.com", "test", "test", "test", new Adresse(1, "rue", "12345", "Ville"),
+                    LocalDate.of(1999, 4, 1), inscription, List.of(Permis.B, Permis.A), false),
+            new ClientResponseDto("test2@test.com", "test", "test", "test", null,
+                    LocalDate.of(1999, 4, 30), inscription, List.of(), false));
+
+    when(daoMock.listerFiches()).thenReturn(fiches);
 
     assertEquals(dtos, service.trouverTous());
+    verifyNoInteractions(mappermock);
 }
 /*
  ****************************************************
@@ -246,6 +263,7 @@ void supprimerClientOk() {
     when(daoMock.existsById(mail)).thenReturn(true);
     service.supprimer(mail);
     verify(daoMock).deleteById(mail);
+    verify(cacheAuthentification).invalider(mail);
 
 }
 
@@ -298,6 +316,7 @@ void supprimerClientNotOkMail() {
         verify(mappermock).toClient(clientRequestDto);
         verify(daoMock).save(clientExistant);
         verify(mappermock).toClientResponseDto(clientExistant);
+        verify(cacheAuthentification).invalider(mail);
     }
 
     @DisplayName("Test modifier partiellement un client / client non trouvé")
@@ -333,36 +352,48 @@ void supprimerClientNotOkMail() {
  ******************************************************************
  */
 
-    @DisplayName("Test rechercher clients")
+    @DisplayName("Test rechercher clients : une page par curseur, les fiches lues pour les seuls mails de la page")
     @Test
     void testRechercherClients() {
-        // Préparer les données de test
-        Client client1 = creerClient();
-        Client client2 = creerClient2();
-        List<Client> clients = Arrays.asList(client1, client2);
-
-        ClientResponseDto clientResponseDto1 = creerClientResponseDtoClient();
-        ClientResponseDto clientResponseDto2 = creerClientResponseDtoClient2();
+        LocalDate inscription = LocalDate.of(2024, 1, 1);
+        List<FicheClient> fiches = List.of(
+                new FicheClient("a@test.com", "test", "test", "test", null, null, null, null,
+                        LocalDate.of(1999, 4, 1), inscription, false, Permis.B),
+                new FicheClient("b@test.com", "test", "test", "test", null, null, null, null,
+                        LocalDate.of(1999, 4, 30), inscription, false, null));
+
+        when(daoMock.trouverMails(any(), eq(Limit.of(3)))).thenReturn(List.of("a@test.com", "b@test.com", "c@test.com"));
+        when(daoMock.listerFiches(List.of("a@test.com", "b@test.com"))).thenReturn(fiches);
+
+        PageClientsDto page = service.rechercher(
+                new CriteresClientDto(null, "test", null, null, null, null, null, false, List.of(Permis.B), null), null, 2);
+
+        assertEquals(List.of("a@test.com", "b@test.com"), page.clients().stream().map(ClientResponseDto::mail).toList());
+        assertEquals(List.of(Permis.B), page.clients().get(0).listePermis());
+        assertEquals("b@test.com", page.curseurSuivant());
+        verify(daoMock, never()).findAll();
+    }
 
-        // Simuler les appels de méthodes
-        when(daoMock.findAll()).thenReturn(clients);
-        when(mappermock.toClientResponseDto(client1)).thenReturn(clientResponseDto1);
-        when(
-                mappermock.toClientResponseDto(client2)).thenReturn(clientResponseDto2);
+    @DisplayName("Test rechercher clients : dernière page sans curseur, aucune lecture des fiches si elle est vide")
+    @Test
+    void testRechercherClientsDernierePage() {
+        when(daoMock.trouverMails(any(), eq(Limit.of(51)))).thenReturn(List.of());
 
-        // Appeler la méthode à tester
-        List<ClientResponseDto> result = service.rechercher(null, "test", null, null, null, null, null, null, null, null);
+        PageClientsDto page = service.rechercher(CriteresClientDto.AUCUN, "b@test.com", 50);
 
-        // Vérifier les résultats
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("test", result.get(0).prenom());
-        assertEquals("test", result.get(1).prenom());
+        assertEquals(List.of(), page.clients());
+        assertNull(page.curseurSuivant());
+        verify(daoMock, never()).listerFiches(anyCollection());
+    }
 
-        // Vérifier que les méthodes simulées ont été appelées
-        verify(daoMock).findAll();
-        verify(mappermock).toClientResponseDto(client1);
-        verify(mappermock).toClientResponseDto(client2);
+    @DisplayName("Test rechercher clients : taille de page hors bornes ou critères null")
+    @Test
+    void testRechercherClientsParametresInvalides() {
+        assertThrows(UtilisateurException.class, () -> service.rechercher(CriteresClientDto.AUCUN, null, 0));
+        assertThrows(UtilisateurException.class,
+                () -> service.rechercher(CriteresClientDto.AUCUN, null, ClientServiceImpl.TAILLE_PAGE_MAX + 1));
+        assertThrows(UtilisateurException.class, () -> service.rechercher(null, null, 10));
+        verifyNoInteractions(daoMock);
     }
 
 /*
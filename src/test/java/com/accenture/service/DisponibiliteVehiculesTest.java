@@ -0,0 +1,216 @@
+package com.accenture.service;
+
+import com.accenture.exception.LocationConflitException;
+import com.accenture.model.Periode;
+import com.accenture.repository.LocationDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DisponibiliteVehiculesTest {
+
+    @Mock
+    LocationDao locationDaoMock;
+    DisponibiliteVehicules disponibilite;
+
+    @BeforeEach
+    void init() {
+        disponibilite = new DisponibiliteVehicules(locationDaoMock, 2);
+    }
+
+    @DisplayName("Le planning est chargé depuis la base une seule fois par véhicule")
+    @Test
+    void testChargementUnique() {
+        when(locationDaoMock.trouverPeriodesOccupees(1L)).thenReturn(List.of(new Periode(jour(10), jour(15))));
+
+        assertFalse(libre(1L, jour(12), jour(20)));
+        assertTrue(libre(1L, jour(16), jour(20)));
+
+        verify(locationDaoMock, times(1)).trouverPeriodesOccupees(1L);
+    }
+
+    @DisplayName("Les bornes sont incluses : une location qui commence le jour de fin d'une autre la chevauche")
+    @Test
+    void testBornesIncluses() {
+        when(locationDaoMock.trouverPeriodesOccupees(1L)).thenReturn(List.of(new Periode(jour(10), jour(15))));
+
+        assertFalse(libre(1L, jour(15), jour(18)));
+        assertFalse(libre(1L, jour(5), jour(10)));
+        assertTrue(libre(1L, jour(5), jour(9)));
+    }
+
+    @DisplayName("Réserver une période libre l'enregistre, la même période est ensuite refusée")
+    @Test
+    void testReserver() {
+        when(locationDaoMock.trouverPeriodesOccupees(1L)).thenReturn(List.of());
+
+        assertEquals("ok", disponibilite.reserver(1L, jour(1), jour(3), () -> "ok"));
+
+        assertThrows(LocationConflitException.class, () -> disponibilite.reserver(1L, jour(2), jour(2), () -> "ko"));
+        assertTrue(libre(2L, jour(1), jour(3)));
+    }
+
+    @DisplayName("Si l'enregistrement échoue, la période reste libre")
+    @Test
+    void testReserverEchecEnregistrement() {
+        when(locationDaoMock.trouverPeriodesOccupees(1L)).thenReturn(List.of());
+
+        assertThrows(IllegalStateException.class, () -> disponibilite.reserver(1L, jour(1), jour(3), () -> {
+            throw new IllegalStateException("base indisponible");
+        }));
+        assertTrue(libre(1L, jour(1), jour(3)));
+    }
+
+    @DisplayName("Après invalidation, le planning est relu depuis la base")
+    @Test
+    void testInvalider() {
+        when(locationDaoMock.trouverPeriodesOccupees(1L)).thenReturn(List.of(), List.of(new Periode(jour(1), jour(3))));
+
+        assertTrue(libre(1L, jour(1), jour(3)));
+        disponibilite.invalider(1L);
+        assertFalse(libre(1L, jour(1), jour(3)));
+    }
+
+    @DisplayName("Invalidation pendant une réservation : la réservation qui attendait le verrou voit le planning relu")
+    @Test
+    void testInvaliderPendantReservation() throws Exception {
+        // la seconde lecture voit la location enregistrée entre-temps par une autre instance
+        when(locationDaoMock.trouverPeriodesOccupees(1L)).thenReturn(List.of(), List.of(new Periode(jour(1), jour(3))));
+        CountDownLatch enregistrementCommence = new CountDownLatch(1);
+        CountDownLatch suite = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> refusee = executor.submit(() -> disponibilite.reserver(1L, jour(1), jour(3), () -> {
+                enregistrementCommence.countDown();
+                await(suite);
+                // chevauchement refusé par la base, comme dans LocationServiceImpl
+                disponibilite.invalider(1L);
+                throw new LocationConflitException("déjà loué");
+            }));
+            enregistrementCommence.await();
+            AtomicReference<Thread> attente = new AtomicReference<>();
+            Future<String> suivante = executor.submit(() -> {
+                attente.set(Thread.currentThread());
+                return disponibilite.reserver(1L, jour(2), jour(2), () -> "ok");
+            });
+            while (attente.get() == null || attente.get().getState() != Thread.State.WAITING)
+                Thread.sleep(5);
+            suite.countDown();
+
+            assertThrows(ExecutionException.class, refusee::get);
+            ExecutionException echec = assertThrows(ExecutionException.class, suivante::get);
+            assertInstanceOf(LocationConflitException.class, echec.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(locationDaoMock, times(2)).trouverPeriodesOccupees(1L);
+    }
+
+    @DisplayName("Au-delà de planningsMax, les plannings les moins récents sont oubliés puis relus au besoin")
+    @Test
+    void testPlanningsBornes() {
+        when(locationDaoMock.trouverPeriodesOccupees(anyLong())).thenReturn(List.of());
+
+        disponibilite.reserver(1L, jour(1), jour(3), () -> "ok");
+        disponibilite.reserver(2L, jour(1), jour(3), () -> "ok");
+        disponibilite.reserver(3L, jour(1), jour(3), () -> "ok");
+        assertEquals(1, disponibilite.taille());
+
+        disponibilite.reserver(1L, jour(10), jour(12), () -> "ok");
+        verify(locationDaoMock, times(2)).trouverPeriodesOccupees(1L);
+    }
+
+    @DisplayName("Des périodes qui se chevauchent sont fusionnées")
+    @Test
+    void testInsererFusionne() {
+        TreeMap<LocalDate, LocalDate> periodes = new TreeMap<>();
+        DisponibiliteVehicules.inserer(periodes, jour(1), jour(5));
+        DisponibiliteVehicules.inserer(periodes, jour(10), jour(12));
+        DisponibiliteVehicules.inserer(periodes, jour(2), jour(3));
+        DisponibiliteVehicules.inserer(periodes, jour(4), jour(11));
+
+        assertEquals(new TreeMap<>(Map.of(jour(1), jour(12))), periodes);
+        assertFalse(DisponibiliteVehicules.chevauche(periodes, jour(13), jour(20)));
+        assertTrue(DisponibiliteVehicules.chevauche(periodes, jour(6), jour(7)));
+    }
+
+    @DisplayName("Réservations concurrentes de la même période : une seule aboutit")
+    @Test
+    void testReserverConcurrent() throws Exception {
+        when(locationDaoMock.trouverPeriodesOccupees(1L)).thenReturn(List.of());
+        int nombre = 16;
+        AtomicInteger enregistrees = new AtomicInteger();
+        CountDownLatch depart = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(nombre);
+        try {
+            List<Future<?>> taches = new ArrayList<>();
+            for (int i = 0; i < nombre; i++) {
+                taches.add(executor.submit(() -> {
+                    depart.await();
+                    try {
+                        disponibilite.reserver(1L, jour(1), jour(7), enregistrees::incrementAndGet);
+                    } catch (LocationConflitException e) {
+                        // attendu pour toutes les réservations sauf une
+                    }
+                    return null;
+                }));
+            }
+            depart.countDown();
+            for (Future<?> tache : taches)
+                tache.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, enregistrees.get());
+    }
+
+    /**
+     * Vrai si la période est libre : la réservation est tentée avec un enregistrement qui échoue,
+     * le planning n'est donc pas modifié.
+     */
+    private boolean libre(long vehiculeId, LocalDate debut, LocalDate fin) {
+        try {
+            disponibilite.reserver(vehiculeId, debut, fin, () -> {
+                throw new UnsupportedOperationException();
+            });
+            return true;
+        } catch (LocationConflitException e) {
+            return false;
+        } catch (UnsupportedOperationException e) {
+            return true;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static LocalDate jour(int jour) {
+        return LocalDate.of(2025, 3, jour);
+    }
+}
@@ -0,0 +1,140 @@
+package com.accenture.service;
+
+import com.accenture.configuration.security.CacheAuthentification;
+import com.accenture.exception.VehiculeException;
+import com.accenture.model.param.Carburant;
+import com.accenture.repository.VoitureDao;
+import com.accenture.service.dto.ErreurImportDto;
+import com.accenture.service.dto.RapportImportDto;
+import com.accenture.service.dto.VoitureRequestDto;
+import com.accenture.service.mapper.VoitureMapperImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.TestingAuthenticationProvider;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Import de voitures par lots de 50, sur une vraie base : chaque lot est validé dans sa propre transaction.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "import.taille-lot=50"
+})
+@Import({ImportParLotsTest.Configuration.class, ImportParLots.class, RechercheVehicules.class, VoitureServiceImpl.class, ReessaiConcurrence.class, VoitureMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImportParLotsTest {
+
+    @TestConfiguration
+    static class Configuration {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        }
+
+        @Bean
+        CacheAuthentification cacheAuthentification() {
+            return new CacheAuthentification(new TestingAuthenticationProvider(), Duration.ofMinutes(1), 10);
+        }
+    }
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    VoitureService voitureService;
+    @Autowired
+    VoitureDao voitureDao;
+
+    Statistics statistiques;
+
+    @BeforeEach
+    void init() {
+        statistiques = emf.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+    }
+
+    @AfterEach
+    void nettoyer() {
+        voitureDao.deleteAll();
+    }
+
+    @DisplayName("120 voitures valides : 3 transactions, les INSERT partent par paquets JDBC")
+    @Test
+    void testImporterParLots() {
+        RapportImportDto rapport = voitureService.importer(creerVoitures(120));
+
+        assertEquals(new RapportImportDto(120, 120, List.of()), rapport);
+        assertEquals(3, statistiques.getSuccessfulTransactionCount());
+        assertEquals(120, statistiques.getEntityInsertCount());
+        // un INSERT préparé par paquet et quelques accès à hibernate_sequences, pas une requête par voiture
+        assertTrue(statistiques.getPrepareStatementCount() < 20, "requêtes : " + statistiques.getPrepareStatementCount());
+        assertEquals(120, voitureDao.count());
+    }
+
+    @DisplayName("Lignes invalides : rejetées avec leur numéro, les autres sont importées")
+    @Test
+    void testImporterLignesInvalides() {
+        List<VoitureRequestDto> voitures = creerVoitures(5);
+        voitures.set(1, new VoitureRequestDto(null, "Clio", "Rouge", "Citadine", 5, 5, "manuelle", true, 3,
+                Carburant.values()[0], 45, 12000, true, false));
+        voitures.set(3, new VoitureRequestDto("Renault", "Clio", " ", "Citadine", 5, 5, "manuelle", true, 3,
+                Carburant.values()[0], 45, 12000, true, false));
+
+        RapportImportDto rapport = voitureService.importer(voitures);
+
+        assertEquals(3, rapport.lignesImportees());
+        assertEquals(List.of(
+                new ErreurImportDto(2, "Vous devez ajouter la marque de la voiture"),
+                new ErreurImportDto(4, "Vous devez ajouter la couleur de la voiture")), rapport.erreurs());
+        assertEquals(3, voitureDao.count());
+    }
+
+    @DisplayName("Ligne refusée par la base : seul son lot est rejoué ligne par ligne")
+    @Test
+    void testImporterLigneRefuseeParLaBase() {
+        List<VoitureRequestDto> voitures = creerVoitures(60);
+        voitures.set(54, new VoitureRequestDto("R".repeat(300), "Clio", "Rouge", "Citadine", 5, 5, "manuelle", true, 3,
+                Carburant.values()[0], 45, 12000, true, false));
+
+        RapportImportDto rapport = voitureService.importer(voitures);
+
+        assertEquals(59, rapport.lignesImportees());
+        assertEquals(List.of(new ErreurImportDto(55, ImportParLots.VALEUR_INVALIDE)), rapport.erreurs());
+        assertEquals(59, voitureDao.count());
+    }
+
+    @DisplayName("Liste vide : VehiculeException")
+    @Test
+    void testImporterListeVide() {
+        assertThrows(VehiculeException.class, () -> voitureService.importer(List.of()));
+    }
+
+    private static List<VoitureRequestDto> creerVoitures(int nombre) {
+        List<VoitureRequestDto> voitures = new ArrayList<>();
+        for (int i = 0; i < nombre; i++)
+            voitures.add(new VoitureRequestDto("Renault", "Clio " + i, "Rouge", "Citadine", 5, 5, "manuelle", true, 3,
+                    Carburant.values()[0], 45, 12000, true, false));
+        return voitures;
+    }
+}
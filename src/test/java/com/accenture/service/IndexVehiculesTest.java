@@ -0,0 +1,256 @@
+package com.accenture.service;
+
+import com.accenture.exception.VehiculeException;
+import com.accenture.model.param.Carburant;
+import com.accenture.model.param.Permis;
+import com.accenture.model.param.TriVehicule;
+import com.accenture.repository.VehiculeDao;
+import com.accenture.repository.entity.Moto;
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.repository.entity.Velo;
+import com.accenture.repository.entity.Voiture;
+import com.accenture.service.IndexVehicules.Drapeau;
+import com.accenture.service.IndexVehicules.Nombre;
+import com.accenture.service.IndexVehicules.Texte;
+import com.accenture.service.dto.OptionsRechercheDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndexVehiculesTest {
+
+    @Mock
+    VehiculeDao daoMock;
+    @Mock
+    Clock horlogeMock;
+
+    IndexVehicules index;
+    Instant maintenant = Instant.parse("2025-01-01T10:00:00Z");
+
+    @BeforeEach
+    void init() {
+        lenient().when(horlogeMock.instant()).thenAnswer(invocation -> maintenant);
+        index = new IndexVehicules(daoMock, Duration.ofMinutes(15), horlogeMock);
+    }
+
+    @DisplayName("Chargé en base à la première recherche seulement")
+    @Test
+    void testChargementALaPremiereRecherche() {
+        when(daoMock.findAll()).thenReturn(List.of(creerVoiture(1, "Renault", "Clio", "Rouge")));
+
+        assertEquals(1, index.rechercher(Voiture.class, new RequeteVehicules()).size());
+        assertEquals(1, index.rechercher(Voiture.class, new RequeteVehicules()).size());
+
+        verify(daoMock, times(1)).findAll();
+    }
+
+    @DisplayName("Recherche par contenu : motif court, casse respectée, trigrammes présents mais dans le désordre")
+    @Test
+    void testRechercherParContenu() {
+        when(daoMock.findAll()).thenReturn(List.of(
+                creerVoiture(1, "Renault", "Clio", "Rouge"),
+                creerVoiture(2, "Renault", "Clilio", "Rouge"),
+                creerVoiture(3, "Peugeot", "208", "Bleu")));
+
+        assertEquals(List.of(1L), ids(index.rechercher(Voiture.class, new RequeteVehicules().contient(Texte.MODELE, "Clio"))));
+        assertEquals(List.of(1L, 2L), ids(index.rechercher(Voiture.class, new RequeteVehicules().contient(Texte.MODELE, "li"))));
+        assertEquals(List.of(), ids(index.rechercher(Voiture.class, new RequeteVehicules().contient(Texte.MARQUE, "renault"))));
+        assertEquals(List.of(3L), ids(index.rechercher(Voiture.class, new RequeteVehicules().contient(Texte.COULEUR, "leu"))));
+    }
+
+    @DisplayName("Critères combinés : type, carburant, permis, booléens et nombres")
+    @Test
+    void testRechercherCriteresCombines() {
+        Voiture electrique = creerVoiture(1, "Renault", "Zoe", "Blanc");
+        electrique.setCarburant(Carburant.values()[1]);
+        Voiture inactive = creerVoiture(2, "Renault", "Clio", "Blanc");
+        inactive.setActif(false);
+        Moto moto = new Moto();
+        remplir(moto, 3, "Renault", "Moto", "Blanc");
+        moto.setPermis(Permis.A);
+        moto.setNombreCylindres(2);
+        when(daoMock.findAll()).thenReturn(List.of(creerVoiture(4, "Renault", "Clio", "Blanc"), electrique, inactive, moto));
+
+        RequeteVehicules requete = new RequeteVehicules()
+                .contient(Texte.MARQUE, "Renault")
+                .carburant(Carburant.values()[0])
+                .permis(Permis.B)
+                .egal(Drapeau.ACTIF, true)
+                .egalSiPositif(Nombre.NOMBRE_DE_PLACES, 5)
+                .egalSiPositifOuNul(Nombre.KILOMETRAGE, 12000L);
+
+        assertEquals(List.of(4L), ids(index.rechercher(Voiture.class, requete)));
+        assertEquals(List.of(3L), ids(index.rechercher(Moto.class, new RequeteVehicules().egalSiPositif(Nombre.NOMBRE_CYLINDRES, 2))));
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(index.rechercher(Vehicule.class, new RequeteVehicules().contient(Texte.COULEUR, "Blanc"))));
+        assertEquals(List.of(), ids(index.rechercher(Velo.class, new RequeteVehicules())));
+    }
+
+    @DisplayName("Valeurs hors bornes ignorées : id à 0, nombre nul ou négatif, transmission inconnue")
+    @Test
+    void testCriteresIgnores() {
+        when(daoMock.findAll()).thenReturn(List.of(creerVoiture(1, "Renault", "Clio", "Rouge")));
+
+        RequeteVehicules requete = new RequeteVehicules()
+                .identifiant(0L)
+                .egalSiPositif(Nombre.TARIF_JOURNALIER, 0)
+                .egalSiPositifOuNul(Nombre.KILOMETRAGE, -1)
+                .contientSiAdmis(Texte.TRANSMISSION, "semi-auto", RequeteVehicules.TRANSMISSIONS);
+
+        assertEquals(List.of(1L), ids(index.rechercher(Voiture.class, requete)));
+    }
+
+    @DisplayName("Écritures : modification et suppression visibles à la recherche suivante")
+    @Test
+    void testIndexerEtRetirer() {
+        Voiture voiture = creerVoiture(1, "Renault", "Clio", "Rouge");
+        when(daoMock.findAll()).thenReturn(List.of(voiture));
+        index.rechercher(Voiture.class, new RequeteVehicules());
+
+        Voiture modifiee = creerVoiture(1, "Renault", "Clio", "Bleu");
+        index.indexer(modifiee);
+        index.indexer(creerVoiture(2, "Peugeot", "208", "Rouge"));
+
+        assertEquals(List.of(2L), ids(index.rechercher(Voiture.class, new RequeteVehicules().contient(Texte.COULEUR, "Rouge"))));
+        assertEquals(List.of(1L), ids(index.rechercher(Voiture.class, new RequeteVehicules().contient(Texte.COULEUR, "Bleu"))));
+
+        index.retirer(1);
+
+        assertEquals(List.of(), ids(index.rechercher(Voiture.class, new RequeteVehicules().identifiant(1L))));
+        assertEquals(List.of(2L), ids(index.rechercher(Voiture.class, new RequeteVehicules())));
+    }
+
+    @DisplayName("Plus de lignes que la capacité initiale : l'index s'agrandit")
+    @Test
+    void testAgrandissement() {
+        List<Vehicule> voitures = new ArrayList<>();
+        for (int i = 1; i <= 1500; i++)
+            voitures.add(creerVoiture(i, "Renault", "Clio " + i, "Rouge"));
+        when(daoMock.findAll()).thenReturn(List.of());
+        index.rechercher(Voiture.class, new RequeteVehicules());
+
+        index.indexer(voitures);
+
+        assertEquals(List.of(1234L), ids(index.rechercher(Voiture.class, new RequeteVehicules().contient(Texte.MODELE, "Clio 1234"))));
+        assertEquals(1500, index.rechercher(Voiture.class, new RequeteVehicules().contient(Texte.COULEUR, "Rouge")).size());
+    }
+
+    @DisplayName("Après dureeMax : l'index est relu en base")
+    @Test
+    void testRechargement() {
+        when(daoMock.findAll()).thenReturn(
+                List.of(creerVoiture(1, "Renault", "Clio", "Rouge")),
+                List.of(creerVoiture(1, "Renault", "Clio", "Rouge"), creerVoiture(2, "Peugeot", "208", "Gris")));
+        index.rechercher(Voiture.class, new RequeteVehicules());
+
+        maintenant = maintenant.plus(Duration.ofMinutes(16));
+
+        assertEquals(List.of(1L, 2L), ids(index.rechercher(Voiture.class, new RequeteVehicules())));
+    }
+
+    @DisplayName("Écriture pendant la relecture : la relecture, peut-être périmée, est abandonnée")
+    @Test
+    void testRechargementAbandonne() {
+        when(daoMock.findAll())
+                .thenReturn(List.of(creerVoiture(1, "Renault", "Clio", "Rouge")))
+                .thenAnswer(invocation -> {
+                    index.indexer(creerVoiture(2, "Peugeot", "208", "Gris"));
+                    return List.of(creerVoiture(1, "Renault", "Clio", "Rouge"));
+                });
+        index.rechercher(Voiture.class, new RequeteVehicules());
+
+        maintenant = maintenant.plus(Duration.ofMinutes(16));
+
+        assertEquals(List.of(1L, 2L), ids(index.rechercher(Voiture.class, new RequeteVehicules())));
+    }
+
+    @DisplayName("Plages : bornes incluses, borne absente non appliquée")
+    @Test
+    void testRechercherParPlage() {
+        when(daoMock.findAll()).thenReturn(List.of(
+                creerVoiture(1, 30, 60000), creerVoiture(2, 45, 50000), creerVoiture(3, 80, 10000), creerVoiture(4, 100, 5000)));
+
+        RequeteVehicules requete = new RequeteVehicules()
+                .entre(Nombre.TARIF_JOURNALIER, 30L, 80L)
+                .entre(Nombre.KILOMETRAGE, null, 50000L);
+
+        assertEquals(List.of(2L, 3L), ids(index.rechercher(Voiture.class, requete)));
+    }
+
+    @DisplayName("Tri et page : ordre du tarif puis de l'id, seule la page demandée est rendue")
+    @Test
+    void testTrierEtPaginer() {
+        when(daoMock.findAll()).thenReturn(List.of(
+                creerVoiture(1, 50, 0), creerVoiture(2, 20, 0), creerVoiture(3, 90, 0),
+                creerVoiture(4, 20, 0), creerVoiture(5, 70, 0)));
+
+        assertEquals(List.of(2L, 4L, 1L, 5L, 3L), ids(index.rechercher(Voiture.class,
+                new RequeteVehicules().trierPar(Nombre.TARIF_JOURNALIER, false))));
+        assertEquals(List.of(1L, 2L), ids(index.rechercher(Voiture.class,
+                new RequeteVehicules().trierPar(Nombre.TARIF_JOURNALIER, true).page(1, 2))));
+        assertEquals(List.of(3L), ids(index.rechercher(Voiture.class,
+                new RequeteVehicules().trierPar(Nombre.TARIF_JOURNALIER, false).page(2, 2))));
+        assertEquals(List.of(), ids(index.rechercher(Voiture.class,
+                new RequeteVehicules().page(3, 2))));
+    }
+
+    @DisplayName("Options invalides : VehiculeException")
+    @Test
+    void testOptionsInvalides() {
+        RequeteVehicules requete = new RequeteVehicules();
+        assertThrows(VehiculeException.class, () -> requete.options(
+                new OptionsRechercheDto(80L, 30L, null, null, null, null, null, null)));
+        assertThrows(VehiculeException.class, () -> requete.options(
+                new OptionsRechercheDto(null, null, null, null, TriVehicule.KILOMETRAGE, null, 0, 0)));
+        assertThrows(VehiculeException.class, () -> requete.options(
+                new OptionsRechercheDto(null, null, null, null, null, null, 2, null)));
+    }
+
+    private static List<Long> ids(List<? extends Vehicule> vehicules) {
+        return vehicules.stream().map(Vehicule::getId).toList();
+    }
+
+    private static Voiture creerVoiture(long id, String marque, String modele, String couleur) {
+        Voiture voiture = new Voiture();
+        remplir(voiture, id, marque, modele, couleur);
+        voiture.setType("Citadine");
+        voiture.setNombreDePlaces(5);
+        voiture.setNombreDePortes(5);
+        voiture.setTransmission("manuelle");
+        voiture.setClim(true);
+        voiture.setNombreDeBagages(3);
+        voiture.setCarburant(Carburant.values()[0]);
+        voiture.setPermis(Permis.B);
+        return voiture;
+    }
+
+    private static Voiture creerVoiture(long id, long tarifJournalier, long kilometrage) {
+        Voiture voiture = creerVoiture(id, "Renault", "Clio", "Rouge");
+        voiture.setTarifJournalier(tarifJournalier);
+        voiture.setKilometrage(kilometrage);
+        return voiture;
+    }
+
+    private static void remplir(Vehicule vehicule, long id, String marque, String modele, String couleur) {
+        vehicule.setId(id);
+        vehicule.setMarque(marque);
+        vehicule.setModele(modele);
+        vehicule.setCouleur(couleur);
+        vehicule.setTarifJournalier(45);
+        vehicule.setKilometrage(12000);
+        vehicule.setActif(true);
+        vehicule.setRetireDuParc(false);
+    }
+}
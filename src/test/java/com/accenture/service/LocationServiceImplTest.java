@@ -0,0 +1,174 @@
+package com.accenture.service;
+
+import com.accenture.exception.LocationConflitException;
+import com.accenture.exception.LocationException;
+import com.accenture.model.param.Etat;
+import com.accenture.repository.ClientDao;
+import com.accenture.repository.LocationDao;
+import com.accenture.repository.VehiculeDao;
+import com.accenture.repository.entity.Client;
+import com.accenture.repository.entity.Location;
+import com.accenture.repository.entity.Voiture;
+import com.accenture.service.dto.LocationRequestDto;
+import com.accenture.service.dto.LocationResponseDto;
+import com.accenture.service.mapper.LocationMapper;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationServiceImplTest {
+
+    @Mock
+    LocationDao daoMock;
+    @Mock
+    LocationMapper mapperMock;
+    @Mock
+    VehiculeDao vehiculeDaoMock;
+    @Mock
+    ClientDao clientDaoMock;
+    @Mock
+    DisponibiliteVehicules disponibiliteMock;
+    @Mock
+    TarificationService tarificationMock;
+    @InjectMocks
+    LocationServiceImpl service;
+
+    @DisplayName("Si ajouter (null) exception levée")
+    @Test
+    void testAjouterSiNull() {
+        assertThrows(LocationException.class, () -> service.ajouter(null));
+    }
+
+    @DisplayName("Si la date de fin précède la date de début, exception levée")
+    @Test
+    void testAjouterDatesInversees() {
+        LocationRequestDto dto = creerRequete(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 1), Etat.RESERVE);
+        assertThrows(LocationException.class, () -> service.ajouter(dto));
+        verifyNoInteractions(vehiculeDaoMock, disponibiliteMock);
+    }
+
+    @DisplayName("Si le véhicule n'existe pas, EntityNotFoundException")
+    @Test
+    void testAjouterVehiculeInexistant() {
+        when(vehiculeDaoMock.findById(4L)).thenReturn(Optional.empty());
+        LocationRequestDto dto = creerRequete(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 10), Etat.RESERVE);
+        assertThrows(EntityNotFoundException.class, () -> service.ajouter(dto));
+    }
+
+    @DisplayName("Si le véhicule est retiré du parc, exception levée")
+    @Test
+    void testAjouterVehiculeRetire() {
+        Voiture voiture = creerVoiture();
+        voiture.setRetireDuParc(true);
+        when(vehiculeDaoMock.findById(4L)).thenReturn(Optional.of(voiture));
+        LocationRequestDto dto = creerRequete(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 10), Etat.RESERVE);
+        assertThrows(LocationException.class, () -> service.ajouter(dto));
+        verifyNoInteractions(disponibiliteMock);
+    }
+
+    @DisplayName("Ajouter OK : le véhicule et le client sont rattachés, la période est réservée")
+    @Test
+    void testAjouterOk() {
+        LocationRequestDto dto = creerRequete(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 10), Etat.RESERVE);
+        Voiture voiture = creerVoiture();
+        Client client = new Client();
+        Location location = creerLocation(dto);
+        LocationResponseDto reponse = mock(LocationResponseDto.class);
+        when(vehiculeDaoMock.findById(4L)).thenReturn(Optional.of(voiture));
+        when(clientDaoMock.findById("client@example.com")).thenReturn(Optional.of(client));
+        when(mapperMock.toLocation(dto)).thenReturn(location);
+        when(tarificationMock.calculer(voiture, dto.accessoires(), dto.dateDebut(), dto.dateFin(), dto.kilometresParcourus()))
+                .thenReturn(450);
+        when(disponibiliteMock.reserver(eq(4L), eq(dto.dateDebut()), eq(dto.dateFin()), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Location>>getArgument(3).get());
+        when(daoMock.save(location)).thenReturn(location);
+        when(mapperMock.toLocationResponseDto(location)).thenReturn(reponse);
+
+        assertSame(reponse, service.ajouter(dto));
+        assertSame(voiture, location.getVehicule());
+        assertSame(client, location.getClient());
+        assertEquals(450, location.getMontantTotal());
+    }
+
+    @DisplayName("Accessoire refusé par la tarification : LocationException, rien n'est réservé")
+    @Test
+    void testAjouterAccessoireRefuse() {
+        LocationRequestDto dto = creerRequete(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 10), Etat.RESERVE);
+        Voiture voiture = creerVoiture();
+        when(vehiculeDaoMock.findById(4L)).thenReturn(Optional.of(voiture));
+        when(tarificationMock.calculer(any(), any(), any(), any(), anyInt()))
+                .thenThrow(new LocationException("L'accessoire CASQUE_MOTO n'est pas proposé pour un véhicule de type VOITURE"));
+
+        assertThrows(LocationException.class, () -> service.ajouter(dto));
+        verifyNoInteractions(disponibiliteMock, daoMock, clientDaoMock);
+    }
+
+    @DisplayName("Chevauchement refusé par la base : LocationConflitException et planning invalidé")
+    @Test
+    void testAjouterContrainteBase() {
+        LocationRequestDto dto = creerRequete(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 10), Etat.RESERVE);
+        Location location = creerLocation(dto);
+        when(vehiculeDaoMock.findById(4L)).thenReturn(Optional.of(creerVoiture()));
+        when(clientDaoMock.findById("client@example.com")).thenReturn(Optional.of(new Client()));
+        when(mapperMock.toLocation(dto)).thenReturn(location);
+        when(disponibiliteMock.reserver(eq(4L), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Location>>getArgument(3).get());
+        when(daoMock.save(location)).thenThrow(new DataIntegrityViolationException("insert",
+                new SQLException("conflicting key value violates exclusion constraint \"" + LocationServiceImpl.CONTRAINTE_CHEVAUCHEMENT + "\"")));
+
+        assertThrows(LocationConflitException.class, () -> service.ajouter(dto));
+        verify(disponibiliteMock).invalider(4L);
+    }
+
+    @DisplayName("Location annulée : enregistrée sans réserver de période")
+    @Test
+    void testAjouterAnnulee() {
+        LocationRequestDto dto = creerRequete(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 10), Etat.ANNULE);
+        Location location = creerLocation(dto);
+        when(vehiculeDaoMock.findById(4L)).thenReturn(Optional.of(creerVoiture()));
+        when(clientDaoMock.findById("client@example.com")).thenReturn(Optional.of(new Client()));
+        when(mapperMock.toLocation(dto)).thenReturn(location);
+        when(daoMock.save(location)).thenReturn(location);
+
+        service.ajouter(dto);
+
+        verifyNoInteractions(disponibiliteMock);
+    }
+
+    private static LocationRequestDto creerRequete(LocalDate debut, LocalDate fin, Etat etat) {
+        return new LocationRequestDto("client@example.com", 4L, List.of(), debut, fin, 0, etat);
+    }
+
+    private static Location creerLocation(LocationRequestDto dto) {
+        Location location = new Location();
+        location.setDateDebut(dto.dateDebut());
+        location.setDateFin(dto.dateFin());
+        location.setEtat(dto.etat());
+        return location;
+    }
+
+    private static Voiture creerVoiture() {
+        Voiture voiture = new Voiture();
+        voiture.setId(4L);
+        voiture.setActif(true);
+        voiture.setRetireDuParc(false);
+        return voiture;
+    }
+}
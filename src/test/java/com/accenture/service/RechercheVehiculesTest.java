@@ -0,0 +1,147 @@
+package com.accenture.service;
+
+import com.accenture.configuration.security.CacheAuthentification;
+import com.accenture.repository.UtilitaireDao;
+import com.accenture.repository.VoitureDao;
+import com.accenture.repository.entity.Utilitaire;
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.repository.entity.Voiture;
+import com.accenture.service.IndexVehicules.Drapeau;
+import com.accenture.service.IndexVehicules.Nombre;
+import com.accenture.service.IndexVehicules.Texte;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationProvider;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recherches de véhicules en base, sans index en mémoire : les critères, le tri et la page sont appliqués par la requête.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import({RechercheVehiculesTest.Configuration.class, RechercheVehicules.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RechercheVehiculesTest {
+
+    @TestConfiguration
+    static class Configuration {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        }
+
+        @Bean
+        CacheAuthentification cacheAuthentification() {
+            return new CacheAuthentification(new TestingAuthenticationProvider(), Duration.ofMinutes(1), 10);
+        }
+    }
+
+    @Autowired
+    RechercheVehicules rechercheVehicules;
+    @Autowired
+    ObjectProvider<IndexVehicules> indexVehicules;
+    @Autowired
+    VoitureDao voitureDao;
+    @Autowired
+    UtilitaireDao utilitaireDao;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @AfterEach
+    void nettoyer() {
+        voitureDao.deleteAll();
+        utilitaireDao.deleteAll();
+    }
+
+    @DisplayName("Critères, plage, tri décroissant puis par id, et page : appliqués par la base")
+    @Test
+    void testRechercherEnBase() {
+        Voiture v1 = voitureDao.save(creerVoiture("Clio", 45, true));
+        Voiture v2 = voitureDao.save(creerVoiture("Clio", 60, true));
+        Voiture v3 = voitureDao.save(creerVoiture("Clio", 60, true));
+        voitureDao.save(creerVoiture("Clio", 80, false));
+        voitureDao.save(creerVoiture("Megane", 50, true));
+
+        RequeteVehicules requete = new RequeteVehicules()
+                .contient(Texte.MODELE, "li")
+                .egal(Drapeau.ACTIF, true)
+                .entre(Nombre.TARIF_JOURNALIER, 40L, 70L)
+                .trierPar(Nombre.TARIF_JOURNALIER, true);
+
+        assertNull(indexVehicules.getIfAvailable());
+        assertEquals(List.of(v2.getId(), v3.getId(), v1.getId()), ids(rechercheVehicules.rechercher(Voiture.class, voitureDao, requete)));
+        assertEquals(List.of(v1.getId()), ids(rechercheVehicules.rechercher(Voiture.class, voitureDao, requete.page(1, 2))));
+    }
+
+    @DisplayName("Caractères % et _ cherchés tels quels")
+    @Test
+    void testMotifEchappe() {
+        Voiture pourcent = voitureDao.save(creerVoiture("100%", 45, true));
+        voitureDao.save(creerVoiture("1000", 45, true));
+
+        assertEquals(List.of(pourcent.getId()), ids(rechercheVehicules.rechercher(Voiture.class, voitureDao,
+                new RequeteVehicules().contient(Texte.MODELE, "0%"))));
+        assertEquals(List.of(), ids(rechercheVehicules.rechercher(Voiture.class, voitureDao,
+                new RequeteVehicules().contient(Texte.MODELE, "1_0"))));
+    }
+
+    @DisplayName("Utilitaire : nombre de places sur son propre attribut, poids PATC comparé sur sa partie entière")
+    @Test
+    void testUtilitaire() {
+        Utilitaire utilitaire = new Utilitaire();
+        utilitaire.setModele("Master");
+        utilitaire.setNombreDePlace(3);
+        utilitaire.setPoidsPATC(3.5);
+        utilitaire = utilitaireDao.save(utilitaire);
+
+        assertEquals(List.of(utilitaire.getId()), ids(rechercheVehicules.rechercher(Utilitaire.class, utilitaireDao,
+                new RequeteVehicules().egalSiPositif(Nombre.NOMBRE_DE_PLACES, 3).egalSiPositif(Nombre.POIDS_PATC, 3))));
+        assertEquals(List.of(), ids(rechercheVehicules.rechercher(Utilitaire.class, utilitaireDao,
+                new RequeteVehicules().egalSiPositif(Nombre.POIDS_PATC, 4))));
+    }
+
+    @DisplayName("Modification faite hors de l'application : vue dès la recherche suivante")
+    @Test
+    void testEcritureExterne() {
+        Voiture voiture = voitureDao.save(creerVoiture("Clio", 45, true));
+        RequeteVehicules actives = new RequeteVehicules().egal(Drapeau.ACTIF, true);
+        assertEquals(List.of(voiture.getId()), ids(rechercheVehicules.rechercher(Voiture.class, voitureDao, actives)));
+
+        jdbc.update("update voiture set actif = false where id = ?", voiture.getId());
+
+        assertEquals(List.of(), ids(rechercheVehicules.rechercher(Voiture.class, voitureDao, actives)));
+    }
+
+    private static Voiture creerVoiture(String modele, long tarifJournalier, boolean actif) {
+        Voiture voiture = new Voiture();
+        voiture.setMarque("Renault");
+        voiture.setModele(modele);
+        voiture.setTarifJournalier(tarifJournalier);
+        voiture.setActif(actif);
+        voiture.setRetireDuParc(false);
+        return voiture;
+    }
+
+    private static List<Long> ids(List<? extends Vehicule> vehicules) {
+        return vehicules.stream().map(Vehicule::getId).toList();
+    }
+}
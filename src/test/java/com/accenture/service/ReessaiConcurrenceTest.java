@@ -0,0 +1,90 @@
+package com.accenture.service;
+
+import com.accenture.exception.ModificationConcurrenteException;
+import com.accenture.repository.entity.Voiture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReessaiConcurrenceTest {
+
+    EntityManagerFactory emf = mock(EntityManagerFactory.class);
+    Cache cache = mock(Cache.class);
+    SimpleMeterRegistry registre = new SimpleMeterRegistry();
+    ReessaiConcurrence reessai;
+
+    @BeforeEach
+    void init() {
+        when(emf.getCache()).thenReturn(cache);
+        reessai = new ReessaiConcurrence(emf, 3);
+        reessai.bindTo(registre);
+    }
+
+    @DisplayName("Pas de conflit : une seule tentative, aucun compteur")
+    @Test
+    void testSansConflit() {
+        assertEquals("ok", reessai.executer("Voiture", () -> "ok"));
+        assertNull(registre.find(ReessaiConcurrence.COMPTEUR).functionCounter());
+        verifyNoInteractions(cache);
+    }
+
+    @DisplayName("Un conflit : l'entrée du cache est expulsée et la modification rejouée")
+    @Test
+    void testConflitPuisSucces() {
+        AtomicInteger tentatives = new AtomicInteger();
+
+        String resultat = reessai.executer("Voiture", () -> {
+            if (tentatives.incrementAndGet() == 1)
+                throw new ObjectOptimisticLockingFailureException(Voiture.class, 7L);
+            return "ok";
+        });
+
+        assertEquals("ok", resultat);
+        assertEquals(2, tentatives.get());
+        verify(cache).evict(Voiture.class, 7L);
+        assertEquals(1, compteur("reessai"));
+        assertEquals(0, compteur("abandon"));
+    }
+
+    @DisplayName("Conflits répétés : ModificationConcurrenteException après le nombre maximum de tentatives")
+    @Test
+    void testConflitsEpuises() {
+        AtomicInteger tentatives = new AtomicInteger();
+
+        assertThrows(ModificationConcurrenteException.class, () -> reessai.executer("Voiture", () -> {
+            tentatives.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Voiture.class, 7L);
+        }));
+
+        assertEquals(3, tentatives.get());
+        assertEquals(2, compteur("reessai"));
+        assertEquals(1, compteur("abandon"));
+    }
+
+    @DisplayName("Autre exception : propagée sans être rejouée")
+    @Test
+    void testAutreExceptionNonRejouee() {
+        AtomicInteger tentatives = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> reessai.executer("Voiture", () -> {
+            tentatives.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(1, tentatives.get());
+    }
+
+    private double compteur(String issue) {
+        return registre.get(ReessaiConcurrence.COMPTEUR).tag("entite", "Voiture").tag("issue", issue)
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,191 @@
+package com.accenture.service;
+
+import com.accenture.exception.VehiculesIndisponiblesException;
+import com.accenture.model.param.TypeVehiculeEnum;
+import com.accenture.repository.MotoDao;
+import com.accenture.repository.UtilitaireDao;
+import com.accenture.repository.VeloDao;
+import com.accenture.repository.VoitureDao;
+import com.accenture.repository.entity.Moto;
+import com.accenture.repository.entity.Utilitaire;
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.repository.entity.Velo;
+import com.accenture.repository.entity.Voiture;
+import com.accenture.service.dto.MotoResponseDto;
+import com.accenture.service.dto.ResultatVehiculesDto;
+import com.accenture.service.dto.VehiculeResponseDto;
+import com.accenture.service.dto.VeloResponseDto;
+import com.accenture.service.dto.VoitureResponseDto;
+import com.accenture.service.mapper.MotoMapperImpl;
+import com.accenture.service.mapper.UtilitaireMapperImpl;
+import com.accenture.service.mapper.VeloMapperImpl;
+import com.accenture.service.mapper.VoitureMapperImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RepartitionVehiculesTest {
+
+    @Mock
+    VoitureDao voitureDaoMock;
+    @Mock
+    MotoDao motoDaoMock;
+    @Mock
+    VeloDao veloDaoMock;
+    @Mock
+    UtilitaireDao utilitaireDaoMock;
+    @Mock
+    PlatformTransactionManager transactionManagerMock;
+
+    RepartitionVehicules repartition;
+
+    @BeforeEach
+    void init() {
+        lenient().when(transactionManagerMock.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        repartition = new RepartitionVehicules(voitureDaoMock, motoDaoMock, veloDaoMock, utilitaireDaoMock,
+                new VoitureMapperImpl(), new MotoMapperImpl(), new VeloMapperImpl(), new UtilitaireMapperImpl(),
+                transactionManagerMock, Duration.ofMillis(500), 8);
+    }
+
+    @AfterEach
+    void fermer() {
+        repartition.close();
+    }
+
+    @DisplayName("Les quatre tables sont lues en même temps, chacune dans sa transaction, puis fusionnées par identifiant dans le DTO de leur type")
+    @Test
+    void testRechercherEnParallele() {
+        // chaque requête attend que les quatre aient démarré : échoue si elles sont faites l'une après l'autre
+        CountDownLatch demarrees = new CountDownLatch(4);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        when(voitureDaoMock.rechercher(true, false)).thenAnswer(i -> attendre(demarrees, threads, List.of(creer(new Voiture(), 4L))));
+        when(motoDaoMock.rechercher(true, false)).thenAnswer(i -> attendre(demarrees, threads, List.of(creer(new Moto(), 1L), creer(new Moto(), 3L))));
+        when(veloDaoMock.rechercher(true, false)).thenAnswer(i -> attendre(demarrees, threads, List.of(creer(new Velo(), 2L))));
+        when(utilitaireDaoMock.rechercher(true, false)).thenAnswer(i -> attendre(demarrees, threads, List.<Utilitaire>of()));
+
+        ResultatVehiculesDto resultat = repartition.rechercher(true, false);
+
+        assertTrue(resultat.complet());
+        assertEquals(List.of(1L, 2L, 3L, 4L), resultat.vehicules().stream().map(VehiculeResponseDto::id).toList());
+        assertEquals(List.of(MotoResponseDto.class, VeloResponseDto.class, MotoResponseDto.class, VoitureResponseDto.class),
+                resultat.vehicules().stream().map(Object::getClass).toList());
+        assertEquals(4, threads.size());
+        verify(transactionManagerMock, times(4)).getTransaction(argThat(definition -> definition.isReadOnly()));
+    }
+
+    @DisplayName("Un type en erreur : signalé avec sa raison, les autres types sont rendus")
+    @Test
+    void testRechercherTypeEnErreur() {
+        when(voitureDaoMock.rechercher(null, null)).thenReturn(List.of(creer(new Voiture(), 1L)));
+        when(motoDaoMock.rechercher(null, null)).thenThrow(new DataAccessResourceFailureException("connexion perdue"));
+        when(veloDaoMock.rechercher(null, null)).thenReturn(List.of(creer(new Velo(), 2L)));
+        when(utilitaireDaoMock.rechercher(null, null)).thenReturn(List.of());
+
+        ResultatVehiculesDto resultat = repartition.rechercher(null, null);
+
+        assertFalse(resultat.complet());
+        assertEquals(List.of(1L, 2L), resultat.vehicules().stream().map(VehiculeResponseDto::id).toList());
+        assertEquals(Set.of(TypeVehiculeEnum.MOTO), resultat.echecs().keySet());
+        assertTrue(resultat.echecs().get(TypeVehiculeEnum.MOTO).contains("connexion perdue"));
+    }
+
+    @DisplayName("Un type trop lent : signalé après le délai, sans attendre sa requête")
+    @Test
+    void testRechercherTypeTropLent() {
+        when(voitureDaoMock.rechercher(null, null)).thenReturn(List.of(creer(new Voiture(), 1L)));
+        when(motoDaoMock.rechercher(null, null)).thenReturn(List.of());
+        when(veloDaoMock.rechercher(null, null)).thenReturn(List.of());
+        when(utilitaireDaoMock.rechercher(null, null)).thenAnswer(i -> {
+            Thread.sleep(10_000);
+            return List.of();
+        });
+
+        long debut = System.nanoTime();
+        ResultatVehiculesDto resultat = repartition.rechercher(null, null);
+
+        assertTrue(System.nanoTime() - debut < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(List.of(1L), resultat.vehicules().stream().map(VehiculeResponseDto::id).toList());
+        assertEquals(Set.of(TypeVehiculeEnum.UTILITAIRE), resultat.echecs().keySet());
+    }
+
+    @DisplayName("Aucun type lu : VehiculesIndisponiblesException")
+    @Test
+    void testRechercherToutEnErreur() {
+        DataAccessResourceFailureException panne = new DataAccessResourceFailureException("base arrêtée");
+        when(voitureDaoMock.rechercher(null, null)).thenThrow(panne);
+        when(motoDaoMock.rechercher(null, null)).thenThrow(panne);
+        when(veloDaoMock.rechercher(null, null)).thenThrow(panne);
+        when(utilitaireDaoMock.rechercher(null, null)).thenThrow(panne);
+
+        VehiculesIndisponiblesException exception = assertThrows(VehiculesIndisponiblesException.class, () -> repartition.rechercher(null, null));
+        assertFalse(exception.getMessage().contains("base arrêtée"), exception.getMessage());
+        assertTrue(exception.getMessage().contains("UTILITAIRE"), exception.getMessage());
+    }
+
+    @DisplayName("Appels simultanés : jamais plus de lectures en cours que de connexions réservées")
+    @Test
+    void testLecturesSimultaneesBornees() throws Exception {
+        repartition.close();
+        repartition = new RepartitionVehicules(voitureDaoMock, motoDaoMock, veloDaoMock, utilitaireDaoMock,
+                new VoitureMapperImpl(), new MotoMapperImpl(), new VeloMapperImpl(), new UtilitaireMapperImpl(),
+                transactionManagerMock, Duration.ofSeconds(5), 3);
+        AtomicInteger enCours = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+        Answer<List<Vehicule>> lecture = i -> {
+            maximum.accumulateAndGet(enCours.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            enCours.decrementAndGet();
+            return List.of();
+        };
+        when(voitureDaoMock.rechercher(null, null)).thenAnswer(lecture);
+        when(motoDaoMock.rechercher(null, null)).thenAnswer(lecture);
+        when(veloDaoMock.rechercher(null, null)).thenAnswer(lecture);
+        when(utilitaireDaoMock.rechercher(null, null)).thenAnswer(lecture);
+
+        try (ExecutorService appels = Executors.newFixedThreadPool(5)) {
+            List<Future<ResultatVehiculesDto>> resultats = new ArrayList<>();
+            for (int i = 0; i < 5; i++)
+                resultats.add(appels.submit(() -> repartition.rechercher(null, null)));
+            for (Future<ResultatVehiculesDto> resultat : resultats)
+                assertTrue(resultat.get().complet());
+        }
+        assertEquals(3, maximum.get());
+    }
+
+    private static <T> T attendre(CountDownLatch demarrees, Set<Thread> threads, T resultat) throws InterruptedException {
+        threads.add(Thread.currentThread());
+        demarrees.countDown();
+        assertTrue(demarrees.await(5, TimeUnit.SECONDS));
+        return resultat;
+    }
+
+    private static <V extends Vehicule> V creer(V vehicule, long id) {
+        vehicule.setId(id);
+        return vehicule;
+    }
+}
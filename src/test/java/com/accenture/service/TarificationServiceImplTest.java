@@ -0,0 +1,120 @@
+package com.accenture.service;
+
+import com.accenture.exception.LocationException;
+import com.accenture.model.param.Accessoires;
+import com.accenture.model.param.TypeVehiculeEnum;
+import com.accenture.repository.VehiculeCatalogueDao;
+import com.accenture.repository.entity.Moto;
+import com.accenture.repository.entity.Voiture;
+import com.accenture.service.dto.DemandeDevisDto;
+import com.accenture.service.dto.DevisDto;
+import com.accenture.service.dto.TarifVehiculeDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TarificationServiceImplTest {
+
+    static final LocalDate DEBUT = LocalDate.of(2025, 3, 1);
+
+    @Mock
+    VehiculeCatalogueDao catalogueMock;
+
+    TarificationServiceImpl service;
+
+    @BeforeEach
+    void init() {
+        service = new TarificationServiceImpl(catalogueMock, 25, 3);
+    }
+
+    @DisplayName("Calcul : jours bornes incluses × (tarif + accessoires) + kilomètres, arrondi à l'euro supérieur")
+    @Test
+    void testCalculer() {
+        Voiture voiture = creerVoiture(45);
+
+        // 10 jours × (45 € + 4 € de GPS + 5 € de siège bébé) + 101 km × 0,25 € = 540 + 25,25 €
+        assertEquals(566, service.calculer(voiture, List.of(Accessoires.GPS_VOITURE, Accessoires.SIEGE_BEBE_VOITURE),
+                DEBUT, DEBUT.plusDays(9), 101));
+        // location d'un jour, sans accessoire ni kilomètre
+        assertEquals(45, service.calculer(voiture, null, DEBUT, DEBUT, 0));
+    }
+
+    @DisplayName("Accessoire répété : compté une seule fois")
+    @Test
+    void testCalculerAccessoireRepete() {
+        assertEquals(49, service.calculer(creerVoiture(45), List.of(Accessoires.GPS_VOITURE, Accessoires.GPS_VOITURE),
+                DEBUT, DEBUT, 0));
+    }
+
+    @DisplayName("Accessoire d'un autre type de véhicule : LocationException")
+    @Test
+    void testCalculerAccessoireIncompatible() {
+        LocationException e = assertThrows(LocationException.class,
+                () -> service.calculer(creerVoiture(45), List.of(Accessoires.CASQUE_MOTO), DEBUT, DEBUT, 0));
+        assertTrue(e.getMessage().contains("CASQUE_MOTO"));
+    }
+
+    @DisplayName("Dates inversées, kilomètres négatifs ou montant trop grand : LocationException")
+    @Test
+    void testCalculerInvalide() {
+        Voiture voiture = creerVoiture(45);
+        assertThrows(LocationException.class, () -> service.calculer(voiture, List.of(), DEBUT, DEBUT.minusDays(1), 0));
+        assertThrows(LocationException.class, () -> service.calculer(voiture, List.of(), DEBUT, DEBUT, -1));
+        assertThrows(LocationException.class, () -> service.calculer(creerVoiture(Long.MAX_VALUE / 10), List.of(), DEBUT, DEBUT, 0));
+    }
+
+    @DisplayName("Lot de devis : tarifs lus en une requête dans le catalogue, une demande rejetée n'arrête pas le lot")
+    @Test
+    void testDeviser() {
+        when(catalogueMock.trouverTarifsLouables(Set.of(1L, 2L, 3L))).thenReturn(List.of(
+                new TarifVehiculeDto(1, TypeVehiculeEnum.VOITURE, 45), new TarifVehiculeDto(2, TypeVehiculeEnum.MOTO, 60)));
+
+        List<DevisDto> devis = service.deviser(List.of(
+                new DemandeDevisDto(1L, DEBUT, DEBUT.plusDays(1), List.of(Accessoires.GPS_VOITURE), 0),
+                new DemandeDevisDto(2L, DEBUT, DEBUT, List.of(Accessoires.GPS_VOITURE), 0),
+                new DemandeDevisDto(3L, DEBUT, DEBUT, List.of(), 0)));
+
+        assertEquals(new DevisDto(1L, DEBUT, DEBUT.plusDays(1), 2, 98, null), devis.get(0));
+        assertNull(devis.get(1).montantTotal());
+        assertTrue(devis.get(1).erreur().contains("GPS_VOITURE"));
+        assertNull(devis.get(2).montantTotal());
+        assertEquals("Le véhicule 3 n'est pas proposé à la location", devis.get(2).erreur());
+        verify(catalogueMock).trouverTarifsLouables(any());
+    }
+
+    @DisplayName("Lot vide ou trop grand : LocationException, le catalogue n'est pas lu")
+    @Test
+    void testDeviserTaille() {
+        DemandeDevisDto demande = new DemandeDevisDto(1L, DEBUT, DEBUT, List.of(), 0);
+        assertThrows(LocationException.class, () -> service.deviser(List.of()));
+        assertThrows(LocationException.class, () -> service.deviser(Collections.nCopies(4, demande)));
+        verifyNoInteractions(catalogueMock);
+    }
+
+    @DisplayName("Moto : les accessoires de moto sont acceptés et facturés")
+    @Test
+    void testCalculerMoto() {
+        Moto moto = new Moto();
+        moto.setTarifJournalier(60);
+        assertEquals(63, service.calculer(moto, List.of(Accessoires.CASQUE_MOTO), DEBUT, DEBUT, 0));
+    }
+
+    private static Voiture creerVoiture(long tarifJournalier) {
+        Voiture voiture = new Voiture();
+        voiture.setTarifJournalier(tarifJournalier);
+        return voiture;
+    }
+}
@@ -0,0 +1,168 @@
+package com.accenture.service;
+
+import com.accenture.exception.VehiculeException;
+import com.accenture.model.param.TypeVehiculeEnum;
+import com.accenture.repository.*;
+import com.accenture.repository.entity.Moto;
+import com.accenture.repository.entity.Vehicule;
+import com.accenture.service.dto.PageVehiculesDto;
+import com.accenture.service.dto.VehiculeDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VehiculeServiceImplTest {
+
+    @Mock
+    VoitureDao voitureDaoMock;
+    @Mock
+    MotoDao motoDaoMock;
+    @Mock
+    VeloDao veloDaoMock;
+    @Mock
+    UtilitaireDao utilitaireDaoMock;
+    @Mock
+    VehiculeDao vehiculeDaoMock;
+    @Mock
+    RepartitionVehicules repartitionMock;
+    @Mock
+    VehiculeCatalogueDao catalogueMock;
+    @Spy
+    RoutageVehicule routageVehicule = new RoutageVehicule();
+    @InjectMocks
+    VehiculeServiceImpl service;
+
+    @DisplayName("Type inconnu : une seule requête polymorphe, puis le type est mémorisé")
+    @Test
+    void testTrouverParIdTypeInconnu() {
+        Moto moto = creerMoto(7L);
+        when(vehiculeDaoMock.findById(7L)).thenReturn(Optional.of(moto));
+
+        assertSame(moto, service.trouverParId(7L));
+
+        verify(vehiculeDaoMock).findById(7L);
+        verifyNoInteractions(voitureDaoMock, motoDaoMock, veloDaoMock, utilitaireDaoMock);
+        assertEquals(Optional.of(TypeVehiculeEnum.MOTO), routageVehicule.trouverType(7L));
+    }
+
+    @DisplayName("Type connu : la recherche va directement dans la bonne table")
+    @Test
+    void testTrouverParIdTypeConnu() {
+        Moto moto = creerMoto(7L);
+        routageVehicule.enregistrer(moto);
+        when(motoDaoMock.findById(7L)).thenReturn(Optional.of(moto));
+
+        assertSame(moto, service.trouverParId(7L));
+
+        verify(motoDaoMock).findById(7L);
+        verifyNoInteractions(vehiculeDaoMock, voitureDaoMock, veloDaoMock, utilitaireDaoMock);
+    }
+
+    @DisplayName("Véhicule supprimé entre temps : l'index est nettoyé")
+    @Test
+    void testTrouverParIdTypeConnuVehiculeSupprime() {
+        routageVehicule.enregistrer(creerMoto(7L));
+        when(motoDaoMock.findById(7L)).thenReturn(Optional.empty());
+
+        assertNull(service.trouverParId(7L));
+        assertTrue(routageVehicule.trouverType(7L).isEmpty());
+    }
+
+    @DisplayName("Identifiant inexistant : null, rien n'est mémorisé")
+    @Test
+    void testTrouverParIdInexistant() {
+        when(vehiculeDaoMock.findById(anyLong())).thenReturn(Optional.empty());
+
+        assertNull(service.trouverParId(56L));
+        verify(routageVehicule, never()).enregistrer(any(Vehicule.class));
+    }
+
+    @DisplayName("Page pleine : le curseur suivant est le dernier identifiant renvoyé")
+    @Test
+    void testTrouverPageAvecSuite() {
+        when(vehiculeDaoMock.trouverPageApres(10L, Limit.of(3)))
+                .thenReturn(List.of(creerDto(11L), creerDto(14L), creerDto(20L)));
+
+        PageVehiculesDto page = service.trouverPage(10L, 2);
+
+        assertEquals(List.of(creerDto(11L), creerDto(14L)), page.vehicules());
+        assertEquals(14L, page.curseurSuivant());
+    }
+
+    @DisplayName("Dernière page : pas de curseur suivant")
+    @Test
+    void testTrouverPageDernierePage() {
+        when(vehiculeDaoMock.trouverPageApres(0L, Limit.of(3))).thenReturn(List.of(creerDto(1L)));
+
+        PageVehiculesDto page = service.trouverPage(null, 2);
+
+        assertEquals(List.of(creerDto(1L)), page.vehicules());
+        assertNull(page.curseurSuivant());
+    }
+
+    @DisplayName("Taille de page hors bornes : VehiculeException")
+    @Test
+    void testTrouverPageTailleInvalide() {
+        assertThrows(VehiculeException.class, () -> service.trouverPage(null, 0));
+        assertThrows(VehiculeException.class, () -> service.trouverPage(null, VehiculeServiceImpl.TAILLE_PAGE_MAX + 1));
+        verifyNoInteractions(vehiculeDaoMock);
+    }
+
+    @DisplayName("Parcours : chaque véhicule est passé au consommateur et le flux est fermé")
+    @Test
+    void testParcourirTous() {
+        boolean[] ferme = {false};
+        Stream<VehiculeDto> flux = Stream.of(creerDto(1L), creerDto(2L)).onClose(() -> ferme[0] = true);
+        when(vehiculeDaoMock.parcourirTous()).thenReturn(flux);
+
+        List<VehiculeDto> lus = new ArrayList<>();
+        service.parcourirTous(lus::add);
+
+        assertEquals(List.of(creerDto(1L), creerDto(2L)), lus);
+        assertTrue(ferme[0]);
+    }
+
+    @DisplayName("Recherche par statut : une seule requête sur le catalogue, sans lire les tables des véhicules")
+    @Test
+    void testRechercher() {
+        when(catalogueMock.rechercherParStatut(true, false)).thenReturn(List.of(creerDto(7L)));
+
+        assertEquals(List.of(creerDto(7L)), service.rechercher(true, false));
+        verifyNoInteractions(vehiculeDaoMock, voitureDaoMock, motoDaoMock, veloDaoMock, utilitaireDaoMock, repartitionMock);
+    }
+
+    @DisplayName("Recherche par statut sans critère : VehiculeException")
+    @Test
+    void testRechercherSansCritere() {
+        assertThrows(VehiculeException.class, () -> service.rechercher(null, false));
+        assertThrows(VehiculeException.class, () -> service.rechercher(true, null));
+        verifyNoInteractions(catalogueMock);
+    }
+
+    private static VehiculeDto creerDto(long id) {
+        return new VehiculeDto(id, TypeVehiculeEnum.MOTO, "Yamaha", "MT-07", "Noir", "Roadster", 60, 12000, true, false);
+    }
+
+    private static Moto creerMoto(long id) {
+        Moto moto = new Moto();
+        moto.setId(id);
+        moto.setMarque("Yamaha");
+        moto.setModele("MT-07");
+        return moto;
+    }
+}
@@ -1,5 +1,6 @@
 package com.accenture.service;
 
+import com.accenture.exception.ModificationConcurrenteException;
 import com.accenture.exception.VehiculeException;
 import com.accenture.model.param.Carburant;
 import com.accenture.model.param.Permis;
@@ -8,6 +9,7 @@ import com.accenture.repository.entity.Voiture;
 import com.accenture.service.dto.VoitureRequestDto;
 import com.accenture.service.dto.VoitureResponseDto;
 import com.accenture.service.mapper.VoitureMapper;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,7 +17,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.util.Arrays;
 import java.util.List;
@@ -31,6 +38,10 @@ class VoitureServiceImplTest {
     VoitureDao daoMock = Mockito.mock(VoitureDao.class);
     @Mock
     VoitureMapper mapperMock;
+    @Spy
+    RechercheVehicules rechercheVehicules = new RechercheVehicules(mock(ObjectProvider.class));
+    @Spy
+    ReessaiConcurrence reessaiConcurrence = new ReessaiConcurrence(mock(EntityManagerFactory.class, RETURNS_DEEP_STUBS), 3);
     @InjectMocks
     VoitureServiceImpl service;
 
@@ -592,19 +603,15 @@ class VoitureServiceImplTest {
         assertSame(dto, service.trouver(1L));
     }
 
+    @DisplayName("trouverToutes : la projection du DAO est rendue telle quelle, sans passer par le mapper")
     @Test
     void testTrouverToutes() {
-        Voiture voiture1 = creerVoiture();
-        Voiture voiture2 = creerVoiture2();
-
-        List<Voiture> voitures = List.of(creerVoiture(), creerVoiture2());
         List<VoitureResponseDto> dtos = List.of(creerVoitureResponseDto(), creerVoiture2ResponseDto());
 
-        when(daoMock.findAll()).thenReturn(voitures);
-        when(mapperMock.toVoitureResponseDto(voiture1)).thenReturn(creerVoitureResponseDto());
-        when(mapperMock.toVoitureResponseDto(voiture2)).thenReturn(creerVoiture2ResponseDto());
+        when(daoMock.listerToutes()).thenReturn(dtos);
 
         assertEquals(dtos, service.trouverToutes());
+        verifyNoInteractions(mapperMock);
     }
 /*
  /\_/\  /\_/\  /\_/\  /\_/\  /\_/\  /\_/\  /\_/\  /\_/\  /\_/\  /\_/\
@@ -648,6 +655,39 @@ class VoitureServiceImplTest {
         verify(mapperMock).toVoitureResponseDto(voitureExistante);
     }
 
+    @DisplayName("Conflit de version : la modification est relue, réappliquée puis enregistrée")
+    @Test
+    void modifierPartiellementConflitRejoue() {
+        VoitureRequestDto requestDto = getVoitureRequestDto();
+        Voiture voitureExistante = creerVoiture();
+        VoitureResponseDto responseDto = creerVoitureResponseDto();
+
+        when(daoMock.findById(1L)).thenReturn(Optional.of(voitureExistante));
+        when(mapperMock.toVoiture(requestDto)).thenReturn(creerVoiture2());
+        when(daoMock.save(voitureExistante))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Voiture.class, 1L))
+                .thenReturn(voitureExistante);
+        when(mapperMock.toVoitureResponseDto(voitureExistante)).thenReturn(responseDto);
+
+        assertEquals(responseDto, service.modifierPartiellement(1L, requestDto));
+        verify(daoMock, times(2)).findById(1L);
+        verify(daoMock, times(2)).save(voitureExistante);
+    }
+
+    @DisplayName("Conflits répétés : abandon après le nombre maximum de tentatives")
+    @Test
+    void modifierPartiellementConflitsEpuises() {
+        VoitureRequestDto requestDto = getVoitureRequestDto();
+        Voiture voitureExistante = creerVoiture();
+
+        when(daoMock.findById(1L)).thenReturn(Optional.of(voitureExistante));
+        when(mapperMock.toVoiture(requestDto)).thenReturn(creerVoiture2());
+        when(daoMock.save(voitureExistante)).thenThrow(new ObjectOptimisticLockingFailureException(Voiture.class, 1L));
+
+        assertThrows(ModificationConcurrenteException.class, () -> service.modifierPartiellement(1L, requestDto));
+        verify(daoMock, times(3)).save(voitureExistante);
+    }
+
     @Test
     void modifierPartiellemenOk1ParamRempli() throws VehiculeException, EntityNotFoundException {
         VoitureRequestDto requestDto = new VoitureRequestDto(
@@ -890,12 +930,12 @@ class VoitureServiceImplTest {
         VoitureResponseDto voitureResponseDto2 = creerVoiture2ResponseDto();
 
         // Simuler les appels de méthodes
-        when(daoMock.findAll()).thenReturn(voitures);
+        when(daoMock.findAll(any(Specification.class), any(Sort.class))).thenReturn(voitures);
         when(mapperMock.toVoitureResponseDto(voiture1)).thenReturn(voitureResponseDto1);
         when(mapperMock.toVoitureResponseDto(voiture2)).thenReturn(voitureResponseDto2);
 
         // Appeler la méthode à tester
-        List<VoitureResponseDto> result = service.rechercher(null, "Toyota", null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        List<VoitureResponseDto> result = service.rechercher(null, "Toyota", null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
 
         // Vérifier les résultats
         assertNotNull(result);
@@ -904,11 +944,21 @@ class VoitureServiceImplTest {
         assertEquals("Toyota", result.get(1).marque());
 
         // Vérifier que les méthodes simulées ont été appelées
-        verify(daoMock).findAll();
+        verify(daoMock).findAll(any(Specification.class), any(Sort.class));
         verify(mapperMock).toVoitureResponseDto(voiture1);
         verify(mapperMock).toVoitureResponseDto(voiture2);
     }
 
+    @DisplayName("Test rechercher voitures / aucun résultat")
+    @Test
+    void testRechercherVoituresAucunResultat() {
+        when(daoMock.findAll(any(Specification.class), any(Sort.class))).thenReturn(List.of());
+
+        VehiculeException ex = assertThrows(VehiculeException.class,
+                () -> service.rechercher(null, "Fiat", null, null, null, null, null, null, null, null, null, null, null, null, null, null, null));
+        assertEquals("Un critère de recherche est obligatoire !", ex.getMessage());
+    }
+
 
 
 /*
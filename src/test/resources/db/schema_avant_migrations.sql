@@ -0,0 +1,192 @@
+-- Schéma créé par ddl-auto=update avant les migrations Flyway (entités de la version précédant V1), tel que
+-- Hibernate le génère pour PostgreSQL, suivi de quelques lignes d'une base en service.
+-- Voir MigrationsDepuisBaseExistanteTest.
+
+create table administrateur (
+    fonction varchar(255),
+    mail varchar(255) not null,
+    primary key (mail)
+);
+
+create table adresse (
+    id integer generated by default as identity,
+    code_postal varchar(255) not null,
+    rue varchar(255) not null,
+    ville varchar(255) not null,
+    primary key (id)
+);
+
+create table client (
+    adresse_id integer unique,
+    date_inscription date,
+    date_naissance date,
+    desactive boolean,
+    mail varchar(255) not null,
+    primary key (mail)
+);
+
+create table client_liste_permis (
+    liste_permis smallint check (liste_permis between 0 and 5),
+    client_mail varchar(255) not null
+);
+
+create table hibernate_sequences (
+    next_val bigint,
+    sequence_name varchar(255) not null,
+    primary key (sequence_name)
+);
+
+insert into hibernate_sequences(sequence_name, next_val) values ('default',0);
+
+create table location (
+    date_debut date,
+    date_fin date,
+    date_validation date,
+    id integer generated by default as identity,
+    kilometres_parcourus integer not null,
+    montant_total integer not null,
+    vehicule_id bigint,
+    client_id varchar(255),
+    etat varchar(255) check (etat in ('RESERVE','VALIDE','ANNULE','TERMINE')),
+    primary key (id)
+);
+
+create table location_accessoires (
+    location_id integer not null,
+    accessoires varchar(255) check (accessoires in ('SIEGE_BEBE_VOITURE','GPS_VOITURE','PORTE_VELO_VOITURE','COFFRE_TOIT_VOITURE','CASQUE_MOTO','GANTS_MOTO','ANTIVOL_MOTO','PANTALON_PLUIE_MOTO','DIABLE_UTILITAIRE','SANGLE_UTILITAIRE','COUVERTURE_PROTECTION_UTILITAIRE','CASQUE_VELO','ANTIVOL_VELO','PANIER_VELO','SACOCHE_VELO','KIT_REPARATION_VELO','GILET_REFLECHISSANT_VELO'))
+);
+
+create table moto (
+    actif boolean,
+    hauteur_selle integer,
+    nombre_cylindres integer,
+    poids integer,
+    puissance_enkw integer,
+    retire_du_parc boolean,
+    id bigint not null,
+    kilometrage bigint not null,
+    tarif_journalier bigint not null,
+    couleur varchar(255),
+    marque varchar(255),
+    modele varchar(255),
+    permis varchar(255) check (permis in ('A','A1','A2','B','C1','D1')),
+    transmission varchar(255),
+    type varchar(255),
+    type_vehicule_enum varchar(255) check (type_vehicule_enum in ('VOITURE','MOTO','VELO','UTILITAIRE')),
+    primary key (id)
+);
+
+create table utilisateurs (
+    role varchar(31) not null,
+    mail varchar(255) not null,
+    nom varchar(255),
+    password varchar(255),
+    prenom varchar(255),
+    primary key (mail)
+);
+
+create table utilitaire (
+    actif boolean,
+    capacitem3 integer,
+    charge_max integer,
+    clim boolean,
+    nombre_de_place integer,
+    poidspatc float(53),
+    retire_du_parc boolean,
+    id bigint not null,
+    kilometrage bigint not null,
+    tarif_journalier bigint not null,
+    carburant varchar(255) check (carburant in ('DIESEL','ESSENCE','ELECTRIQUE','HYBRIDE')),
+    couleur varchar(255),
+    marque varchar(255),
+    modele varchar(255),
+    permis varchar(255) check (permis in ('A','A1','A2','B','C1','D1')),
+    transmission varchar(255),
+    type varchar(255),
+    type_vehicule_enum varchar(255) check (type_vehicule_enum in ('VOITURE','MOTO','VELO','UTILITAIRE')),
+    primary key (id)
+);
+
+create table vehicule_liste_accessoires (
+    vehicule_id bigint not null,
+    liste_accessoires varchar(255) check (liste_accessoires in ('SIEGE_BEBE_VOITURE','GPS_VOITURE','PORTE_VELO_VOITURE','COFFRE_TOIT_VOITURE','CASQUE_MOTO','GANTS_MOTO','ANTIVOL_MOTO','PANTALON_PLUIE_MOTO','DIABLE_UTILITAIRE','SANGLE_UTILITAIRE','COUVERTURE_PROTECTION_UTILITAIRE','CASQUE_VELO','ANTIVOL_VELO','PANIER_VELO','SACOCHE_VELO','KIT_REPARATION_VELO','GILET_REFLECHISSANT_VELO'))
+);
+
+create table velo (
+    actif boolean,
+    autonomie integer,
+    capacite_batterie integer,
+    electrique boolean,
+    freinsadisque boolean,
+    poids integer,
+    retire_du_parc boolean,
+    taille_cadre integer,
+    id bigint not null,
+    kilometrage bigint not null,
+    tarif_journalier bigint not null,
+    couleur varchar(255),
+    marque varchar(255),
+    modele varchar(255),
+    type varchar(255),
+    type_vehicule_enum varchar(255) check (type_vehicule_enum in ('VOITURE','MOTO','VELO','UTILITAIRE')),
+    primary key (id)
+);
+
+create table voiture (
+    actif boolean,
+    clim boolean,
+    nombre_de_bagages integer,
+    nombre_de_places integer,
+    nombre_de_portes integer,
+    retire_du_parc boolean,
+    id bigint not null,
+    kilometrage bigint not null,
+    tarif_journalier bigint not null,
+    carburant varchar(255) check (carburant in ('DIESEL','ESSENCE','ELECTRIQUE','HYBRIDE')),
+    couleur varchar(255),
+    marque varchar(255),
+    modele varchar(255),
+    permis varchar(255) check (permis in ('A','A1','A2','B','C1','D1')),
+    transmission varchar(255),
+    type varchar(255),
+    type_vehicule_enum varchar(255) check (type_vehicule_enum in ('VOITURE','MOTO','VELO','UTILITAIRE')),
+    primary key (id)
+);
+
+alter table if exists administrateur 
+   add constraint FK1osk2najh32jcj54ngvdmatx7 
+   foreign key (mail) 
+   references utilisateurs;
+
+alter table if exists client 
+   add constraint FK29btfh0bmn7ww7p2ksjlm1p 
+   foreign key (adresse_id) 
+   references adresse;
+
+alter table if exists client 
+   add constraint FKevdvf6kj0w4bkl0xnhpgltb2t 
+   foreign key (mail) 
+   references utilisateurs;
+
+alter table if exists client_liste_permis 
+   add constraint FKfavw4n2b4xsmru7njlw0yqm04 
+   foreign key (client_mail) 
+   references client;
+
+alter table if exists location 
+   add constraint FKtlwklm3ks6wa03sfliibb7o2x 
+   foreign key (client_id) 
+   references client;
+
+alter table if exists location_accessoires 
+   add constraint FKrhlu2qf14coi69wbyr5iwujej 
+   foreign key (location_id) 
+   references location;
+
+insert into utilisateurs (role, mail, password, nom, prenom) values ('CLIENT', 'dupont@mail.fr', '{noop}secret', 'Dupont', 'Jean');
+insert into client (mail, date_naissance, date_inscription, desactive) values ('dupont@mail.fr', '1990-01-01', '2024-01-01', false);
+insert into voiture (id, type_vehicule_enum, marque, modele, couleur, type, tarif_journalier, kilometrage, actif, retire_du_parc)
+values (1, 'VOITURE', 'Renault', 'Clio', 'Rouge', 'Citadine', 45, 1000, true, false);
+insert into location (client_id, vehicule_id, date_debut, date_fin, kilometres_parcourus, montant_total, etat)
+values ('dupont@mail.fr', 1, '2024-02-01', '2024-02-03', 0, 135, 'VALIDE');
+update hibernate_sequences set next_val = 1 where sequence_name = 'default';